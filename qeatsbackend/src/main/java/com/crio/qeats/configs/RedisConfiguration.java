@@ -0,0 +1,64 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.configs;
+
+import com.crio.qeats.globals.GlobalConstants;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+@Component
+@Log4j2
+public class RedisConfiguration {
+
+  private String redisHost = "localhost";
+  private int redisPort;
+  private JedisPool jedisPool;
+
+  @Value("${spring.redis.host:localhost}")
+  public void setRedisHost(String host) {
+    redisHost = host;
+  }
+
+  @Value("${spring.redis.port}")
+  public void setRedisPort(int port) {
+    redisPort = port;
+  }
+
+  /**
+   * Initializes the connection pool. Connections are opened lazily, so the application
+   * starts even if Redis is down.
+   */
+  @PostConstruct
+  public void initCache() {
+    JedisPoolConfig poolConfig = new JedisPoolConfig();
+    poolConfig.setMaxTotal(GlobalConstants.REDIS_MAX_CONNECTIONS);
+    poolConfig.setMaxIdle(GlobalConstants.REDIS_MAX_CONNECTIONS);
+    jedisPool = new JedisPool(poolConfig, redisHost, redisPort,
+        GlobalConstants.REDIS_TIMEOUT_IN_MILLIS);
+    log.info("Redis cache configured at {}:{}", redisHost, redisPort);
+  }
+
+  public JedisPool getJedisPool() {
+    return jedisPool;
+  }
+
+  /**
+   * Closes all the pooled connections.
+   */
+  @PreDestroy
+  public void destroyCache() {
+    if (jedisPool != null) {
+      jedisPool.destroy();
+      jedisPool = null;
+    }
+  }
+}
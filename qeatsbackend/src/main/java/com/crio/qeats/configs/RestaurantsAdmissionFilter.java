@@ -0,0 +1,137 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.configs;
+
+import static com.crio.qeats.controller.RestaurantController.RESTAURANTS_API;
+import static com.crio.qeats.controller.RestaurantController.RESTAURANT_API_ENDPOINT;
+import static com.crio.qeats.controller.RestaurantController.RESTAURANT_API_ENDPOINT_V2;
+
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.services.AdaptiveConcurrencyLimiter;
+import java.io.IOException;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// Admission control in front of the restaurants endpoints, v1 and v2, each with its own
+// limiter: a v2 request holds its slot until the asynchronous response completes but no server
+// thread meanwhile, so it must not take the slots that bound the threads held by v1. Requests
+// the limiter does not admit get HTTP 503 with a Retry-After right away, before any other work
+// is done for them. The request is measured from admission until its response is complete,
+// including the asynchronous part of v2.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RestaurantsAdmissionFilter extends OncePerRequestFilter {
+
+  @Autowired
+  @Qualifier(RestaurantsLimiterConfiguration.RESTAURANTS_LIMITER)
+  private AdaptiveConcurrencyLimiter restaurantsLimiter;
+
+  @Autowired
+  @Qualifier(RestaurantsLimiterConfiguration.RESTAURANTS_V2_LIMITER)
+  private AdaptiveConcurrencyLimiter restaurantsV2Limiter;
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = pathOf(request);
+    return !path.equals(RESTAURANT_API_ENDPOINT + RESTAURANTS_API)
+        && !path.equals(RESTAURANT_API_ENDPOINT_V2 + RESTAURANTS_API);
+  }
+
+  private static String pathOf(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    AdaptiveConcurrencyLimiter limiter = pathOf(request).startsWith(RESTAURANT_API_ENDPOINT_V2)
+        ? restaurantsV2Limiter : restaurantsLimiter;
+    boolean admitted;
+    try {
+      admitted = limiter.tryAcquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      admitted = false;
+    }
+    if (!admitted) {
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER,
+          String.valueOf(GlobalConstants.RESTAURANTS_RETRY_AFTER_IN_SECONDS));
+      return;
+    }
+
+    long startedAtNanos = System.nanoTime();
+    try {
+      filterChain.doFilter(request, response);
+    } catch (IOException | ServletException | RuntimeException e) {
+      limiter.release(System.nanoTime() - startedAtNanos, true);
+      throw e;
+    }
+
+    if (request.isAsyncStarted()) {
+      request.getAsyncContext().addListener(
+          new ReleasingListener(limiter, startedAtNanos, response));
+    } else {
+      limiter.release(System.nanoTime() - startedAtNanos,
+          isServerError(response));
+    }
+  }
+
+  private static boolean isServerError(HttpServletResponse response) {
+    return response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+  }
+
+  // Releases the slot of an asynchronous request once it completes. onComplete follows
+  // onTimeout and onError too, so the slot is released exactly once.
+  private static final class ReleasingListener implements AsyncListener {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final long startedAtNanos;
+    private final HttpServletResponse response;
+    private volatile boolean failed;
+
+    private ReleasingListener(AdaptiveConcurrencyLimiter limiter, long startedAtNanos,
+        HttpServletResponse response) {
+      this.limiter = limiter;
+      this.startedAtNanos = startedAtNanos;
+      this.response = response;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      limiter.release(System.nanoTime() - startedAtNanos,
+          failed || isServerError(response));
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      failed = true;
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      failed = true;
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+  }
+
+}
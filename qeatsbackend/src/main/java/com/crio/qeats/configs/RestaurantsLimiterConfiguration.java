@@ -0,0 +1,48 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.configs;
+
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.services.AdaptiveConcurrencyLimiter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// One concurrency limiter per restaurants endpoint. The v1 requests hold a server thread for
+// their whole latency, the v2 ones do not, so they are admitted against different limits.
+@Configuration
+public class RestaurantsLimiterConfiguration {
+
+  public static final String RESTAURANTS_LIMITER = "restaurantsLimiter";
+  public static final String RESTAURANTS_V2_LIMITER = "restaurantsV2Limiter";
+
+  /**
+   * Limits the v1 restaurants requests, which are served on the server threads.
+   *
+   * @return AdaptiveConcurrencyLimiter
+   */
+  @Bean(RESTAURANTS_LIMITER)
+  public AdaptiveConcurrencyLimiter restaurantsLimiter() {
+    return new AdaptiveConcurrencyLimiter(GlobalConstants.RESTAURANTS_LIMIT_INITIAL,
+        GlobalConstants.RESTAURANTS_LIMIT_MIN, GlobalConstants.RESTAURANTS_LIMIT_MAX,
+        GlobalConstants.RESTAURANTS_LIMIT_QUEUE_CAPACITY,
+        GlobalConstants.RESTAURANTS_LIMIT_MAX_WAIT_IN_MILLIS,
+        GlobalConstants.RESTAURANTS_LIMIT_LATENCY_THRESHOLD_IN_MILLIS);
+  }
+
+  /**
+   * Limits the v2 restaurants requests, which are served asynchronously, without a queue.
+   *
+   * @return AdaptiveConcurrencyLimiter
+   */
+  @Bean(RESTAURANTS_V2_LIMITER)
+  public AdaptiveConcurrencyLimiter restaurantsV2Limiter() {
+    return new AdaptiveConcurrencyLimiter(GlobalConstants.RESTAURANTS_V2_LIMIT_INITIAL,
+        GlobalConstants.RESTAURANTS_V2_LIMIT_MIN, GlobalConstants.RESTAURANTS_V2_LIMIT_MAX, 0, 0,
+        GlobalConstants.RESTAURANTS_V2_LIMIT_LATENCY_THRESHOLD_IN_MILLIS);
+  }
+
+}
@@ -0,0 +1,40 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.configs;
+
+import com.crio.qeats.services.AdaptiveConcurrencyLimiter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// Current limit, in-flight and queued requests, and admission counts of the restaurants
+// endpoints, v1 and v2 apart, at /actuator/restaurantslimiter.
+@Component
+@Endpoint(id = "restaurantslimiter")
+public class RestaurantsLimiterEndpoint {
+
+  @Autowired
+  @Qualifier(RestaurantsLimiterConfiguration.RESTAURANTS_LIMITER)
+  private AdaptiveConcurrencyLimiter restaurantsLimiter;
+
+  @Autowired
+  @Qualifier(RestaurantsLimiterConfiguration.RESTAURANTS_V2_LIMITER)
+  private AdaptiveConcurrencyLimiter restaurantsV2Limiter;
+
+  @ReadOperation
+  public Map<String, Object> limiter() {
+    Map<String, Object> state = new LinkedHashMap<>();
+    state.put("v1", restaurantsLimiter.getState());
+    state.put("v2", restaurantsV2Limiter.getState());
+    return state;
+  }
+
+}
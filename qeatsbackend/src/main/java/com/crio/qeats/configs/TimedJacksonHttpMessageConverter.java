@@ -0,0 +1,51 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.configs;
+
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.metrics.RestaurantQueryMetrics;
+import com.crio.qeats.metrics.RestaurantQueryMetrics.Stage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+// The JSON converter of the application, in place of the one Spring Boot would configure, that
+// also times the serialization of the restaurants responses. The time includes writing to the
+// response stream, as Jackson flushes its buffer while it serializes.
+@Component
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+  private final RestaurantQueryMetrics restaurantQueryMetrics;
+
+  @Autowired
+  public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper,
+      RestaurantQueryMetrics restaurantQueryMetrics) {
+    super(objectMapper);
+    this.restaurantQueryMetrics = restaurantQueryMetrics;
+  }
+
+  @Override
+  protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+      throws IOException, HttpMessageNotWritableException {
+    if (!(object instanceof GetRestaurantsResponse)) {
+      super.writeInternal(object, type, outputMessage);
+      return;
+    }
+    long startedAtNanos = System.nanoTime();
+    try {
+      super.writeInternal(object, type, outputMessage);
+    } finally {
+      restaurantQueryMetrics.record(Stage.SERIALIZATION, System.nanoTime() - startedAtNanos);
+    }
+  }
+
+}
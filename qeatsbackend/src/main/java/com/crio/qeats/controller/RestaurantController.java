@@ -1,29 +1,65 @@
 package com.crio.qeats.controller;
 
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.EmptyCartException;
+import com.crio.qeats.exceptions.ItemNotFoundInRestaurantMenuException;
+import com.crio.qeats.exceptions.OrderQueueFullException;
+import com.crio.qeats.exchanges.CartItemRequest;
+import com.crio.qeats.exchanges.CartModifiedResponse;
+import com.crio.qeats.exchanges.ClearCartRequest;
+import com.crio.qeats.exchanges.GetCartRequest;
+import com.crio.qeats.exchanges.GetMenuResponse;
+import com.crio.qeats.exchanges.GetOrdersRequest;
+import com.crio.qeats.exchanges.GetOrdersResponse;
 import com.crio.qeats.exchanges.GetRestaurantsRequest;
 import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.exchanges.GetRestaurantsResponseWriter;
+import com.crio.qeats.exchanges.PostOrderRequest;
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.log.AccessLogger;
+import com.crio.qeats.metrics.RestaurantQueryMetrics;
+import com.crio.qeats.metrics.RestaurantQueryMetrics.Stage;
+import com.crio.qeats.services.CachedMenu;
+import com.crio.qeats.services.CartAndOrderService;
+import com.crio.qeats.services.MenuService;
 import com.crio.qeats.services.RestaurantService;
+import com.crio.qeats.utils.RestaurantCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
 import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 // TODO: CRIO_TASK_MODULE_RESTAURANTSAPI
 // Implement Controller using Spring annotations.
 // Remember, annotations have various "targets". They can be class level, method level or others.
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
 
 @RestController
 @Log4j2
 public class RestaurantController {
 
   public static final String RESTAURANT_API_ENDPOINT = "/qeats/v1";
+  public static final String RESTAURANT_API_ENDPOINT_V2 = "/qeats/v2";
   public static final String RESTAURANTS_API = "/restaurants";
   public static final String MENU_API = "/menu";
   public static final String CART_API = "/cart";
@@ -35,13 +71,33 @@ public class RestaurantController {
   @Autowired
   private RestaurantService restaurantService;
 
+  @Autowired
+  private MenuService menuService;
+
+  @Autowired
+  private CartAndOrderService cartAndOrderService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private RestaurantQueryMetrics restaurantQueryMetrics;
+
+  @Autowired
+  private AccessLogger accessLogger;
+
+  // Whether the restaurants close by are written as they are read instead of being collected
+  // in a GetRestaurantsResponse first, see getRestaurants.
+  @Value("${qeats.restaurants.streaming:false}")
+  private boolean streamRestaurants;
 
 
   @GetMapping(RESTAURANT_API_ENDPOINT+RESTAURANTS_API)
   public ResponseEntity<GetRestaurantsResponse> getRestaurants(
-      @Valid GetRestaurantsRequest getRestaurantsRequest) {
+      @Valid GetRestaurantsRequest getRestaurantsRequest, HttpServletResponse response) {
 
     log.info("getRestaurants called with {}", getRestaurantsRequest);
+    long startedAtNanos = System.nanoTime();
     GetRestaurantsResponse getRestaurantsResponse;
 
     try {
@@ -52,21 +108,122 @@ public class RestaurantController {
         // Invalid latitude or longitude, return bad request response
         return ResponseEntity.badRequest().build();
       }
+      if (getRestaurantsRequest.getCursor() != null
+          && !isValidCursor(getRestaurantsRequest.getCursor())) {
+        return ResponseEntity.badRequest().build();
+      }
+
+      // A page is small enough to be written as a whole, and facets are only known once all
+      // the restaurants are read.
+      if (streamRestaurants && getRestaurantsRequest.getSearchFor() == null
+          && getRestaurantsRequest.getLimit() == null
+          && getRestaurantsRequest.getCursor() == null
+          && getRestaurantsRequest.getAttributes() == null
+          && getRestaurantsRequest.getFacets() == null) {
+        int restaurantCount =
+            streamAllRestaurantsCloseBy(getRestaurantsRequest, LocalTime.now(), response);
+        accessLogger.logRestaurants(RESTAURANT_API_ENDPOINT + RESTAURANTS_API,
+            getRestaurantsRequest, HttpStatus.OK.value(), restaurantCount,
+            System.nanoTime() - startedAtNanos, null);
+        return null;
+      }
 
       // Delegate the logic to the service layer to fetch restaurants
-      getRestaurantsResponse =
-          restaurantService.findAllRestaurantsCloseBy(getRestaurantsRequest, LocalTime.now());
-      log.info("getRestaurants returned {}", getRestaurantsResponse);
+      if (getRestaurantsRequest.getSearchFor() != null) {
+        getRestaurantsResponse = restaurantService
+            .findRestaurantsBySearchQuery(getRestaurantsRequest, LocalTime.now());
+      } else {
+        getRestaurantsResponse =
+            restaurantService.findAllRestaurantsCloseBy(getRestaurantsRequest, LocalTime.now());
+      }
+      accessLogger.logRestaurants(RESTAURANT_API_ENDPOINT + RESTAURANTS_API,
+          getRestaurantsRequest, HttpStatus.OK.value(),
+          getRestaurantsResponse.getRestaurants().size(), System.nanoTime() - startedAtNanos,
+          getRestaurantsResponse);
 
       // Return the response with the list of restaurants
       return ResponseEntity.ok().body(getRestaurantsResponse);
     } catch (Exception e) {
       // Handle any unexpected exceptions and return internal server error response
       log.error("Error occurred while fetching restaurants: {}", e.getMessage());
+      accessLogger.logRestaurants(RESTAURANT_API_ENDPOINT + RESTAURANTS_API,
+          getRestaurantsRequest, HttpStatus.INTERNAL_SERVER_ERROR.value(), 0,
+          System.nanoTime() - startedAtNanos, null);
+      if (response.isCommitted()) {
+        // Part of the restaurants went out already, the client gets an incomplete JSON.
+        return null;
+      }
+      response.reset();
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
     }
   }
 
+  // Non-blocking variant of getRestaurants, for the restaurants close by only; searchFor,
+  // limit, cursor, attributes and facets are refused. The request thread is released as soon
+  // as the Flux is returned. The restaurants go out as a JSON array once all of them are read,
+  // or one JSON object at a time to clients that accept application/stream+json.
+  // curl -X GET "http://localhost:8081/qeats/v2/restaurants?latitude=28.4900591&longitude=77.536386"
+  @GetMapping(RESTAURANT_API_ENDPOINT_V2 + RESTAURANTS_API)
+  public ResponseEntity<Flux<Restaurant>> getRestaurantsReactively(
+      @Valid GetRestaurantsRequest getRestaurantsRequest) {
+
+    log.info("getRestaurantsReactively called with {}", getRestaurantsRequest);
+    long startedAtNanos = System.nanoTime();
+    double latitude = getRestaurantsRequest.getLatitude();
+    double longitude = getRestaurantsRequest.getLongitude();
+    if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180
+        || getRestaurantsRequest.getSearchFor() != null
+        || getRestaurantsRequest.getLimit() != null
+        || getRestaurantsRequest.getCursor() != null
+        || getRestaurantsRequest.getAttributes() != null
+        || getRestaurantsRequest.getFacets() != null) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    // Logged once the last restaurant is out, without a payload: the restaurants are not
+    // collected anywhere.
+    AtomicInteger restaurantCount = new AtomicInteger();
+    return ResponseEntity.ok(restaurantService
+        .findAllRestaurantsCloseByReactively(getRestaurantsRequest, LocalTime.now())
+        .doOnNext(restaurant -> restaurantCount.incrementAndGet())
+        .doOnComplete(() -> accessLogger.logRestaurants(RESTAURANT_API_ENDPOINT_V2
+            + RESTAURANTS_API, getRestaurantsRequest, HttpStatus.OK.value(),
+            restaurantCount.get(), System.nanoTime() - startedAtNanos, null))
+        .doOnError(e -> {
+          log.error("Error occurred while fetching restaurants: {}", e.getMessage());
+          accessLogger.logRestaurants(RESTAURANT_API_ENDPOINT_V2 + RESTAURANTS_API,
+              getRestaurantsRequest, HttpStatus.INTERNAL_SERVER_ERROR.value(),
+              restaurantCount.get(), System.nanoTime() - startedAtNanos, null);
+        }));
+  }
+
+  private boolean isValidCursor(String cursor) {
+    try {
+      RestaurantCursor.fromToken(cursor);
+      return true;
+    } catch (IllegalArgumentException e) {
+      log.info("getRestaurants rejected: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  // Writes the same JSON as GetRestaurantsResponse, each restaurant as soon as it is read.
+  // The response holds no list of restaurants, and its first bytes go out while the rest are
+  // still being read. Headers are sent with the first bytes, so a failure past that point
+  // cuts the response short instead of turning it into an error status.
+  // Returns the number of restaurants written.
+  private int streamAllRestaurantsCloseBy(GetRestaurantsRequest getRestaurantsRequest,
+      LocalTime currentTime, HttpServletResponse response) throws IOException {
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+    GetRestaurantsResponseWriter writer =
+        new GetRestaurantsResponseWriter(objectMapper, response.getOutputStream());
+    restaurantService.streamAllRestaurantsCloseBy(getRestaurantsRequest, currentTime, writer);
+    writer.finish();
+    restaurantQueryMetrics.record(Stage.SERIALIZATION, writer.getWriteTimeInNanos());
+    return writer.getRestaurantCount();
+  }
+
   // TIP(MODULE_MENUAPI): Model Implementation for getting menu given a restaurantId.
   // Get the Menu for the given restaurantId
   // API URI: /qeats/v1/menu?restaurantId=11
@@ -99,8 +256,124 @@ public class RestaurantController {
   // : 5xx, if server side error.
   // Eg:
   // curl -X GET "http://localhost:8081/qeats/v1/menu?restaurantId=11"
+  //
+  // Responses carry a strong ETag; a request with a matching If-None-Match header gets
+  // HTTP 304 with no body.
+  @GetMapping(RESTAURANT_API_ENDPOINT + MENU_API)
+  public ResponseEntity<GetMenuResponse> getMenu(@RequestParam String restaurantId,
+      WebRequest webRequest) {
+
+    log.info("getMenu called with {}", restaurantId);
+    if (restaurantId.trim().isEmpty()) {
+      return ResponseEntity.badRequest().build();
+    }
 
+    CachedMenu cachedMenu = menuService.findMenu(restaurantId);
+    if (cachedMenu == null) {
+      return ResponseEntity.badRequest().build();
+    }
+    if (webRequest.checkNotModified(cachedMenu.getEtag())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cachedMenu.getEtag()).build();
+    }
 
+    // no-cache lets the apps keep the menu but makes them revalidate it on every open.
+    return ResponseEntity.ok()
+        .eTag(cachedMenu.getEtag())
+        .cacheControl(CacheControl.noCache())
+        .body(cachedMenu.getResponse());
+  }
 
-}
+  // Get the cart of the user, creating an empty one on the first call.
+  // curl -X GET "http://localhost:8081/qeats/v1/cart?userId=Bunny"
+  @GetMapping(RESTAURANT_API_ENDPOINT + CART_API)
+  public ResponseEntity<Cart> getCart(@Valid GetCartRequest getCartRequest) {
+    log.info("getCart called with {}", getCartRequest);
+    return ResponseEntity.ok(cartAndOrderService.findOrCreateCart(getCartRequest.getUserId()));
+  }
 
+  // Add an item from the menu of the restaurant to the cart. An item from another restaurant
+  // than the ones in the cart leaves the cart as is, with cartResponseType 102.
+  // curl -X POST -H "Content-Type: application/json" "http://localhost:8081/qeats/v1/cart/item"
+  //   -d '{"cartId": "1", "itemId": "1", "restaurantId": "10"}'
+  @PostMapping(RESTAURANT_API_ENDPOINT + CART_ITEM_API)
+  public ResponseEntity<CartModifiedResponse> addItem(
+      @Valid @RequestBody CartItemRequest cartItemRequest) {
+    log.info("addItem called with {}", cartItemRequest);
+    try {
+      return ResponseEntity.ok(cartAndOrderService.addItemToCart(cartItemRequest.getItemId(),
+          cartItemRequest.getCartId(), cartItemRequest.getRestaurantId()));
+    } catch (CartNotFoundException e) {
+      log.info("addItem rejected: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    } catch (ItemNotFoundInRestaurantMenuException e) {
+      log.info("addItem rejected: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  // Remove one item with the given itemId from the cart.
+  @DeleteMapping(RESTAURANT_API_ENDPOINT + CART_ITEM_API)
+  public ResponseEntity<CartModifiedResponse> deleteItem(
+      @Valid @RequestBody CartItemRequest cartItemRequest) {
+    log.info("deleteItem called with {}", cartItemRequest);
+    try {
+      return ResponseEntity.ok(cartAndOrderService.removeItemFromCart(
+          cartItemRequest.getItemId(), cartItemRequest.getCartId()));
+    } catch (CartNotFoundException e) {
+      log.info("deleteItem rejected: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  // Remove all the items from the cart.
+  @PutMapping(RESTAURANT_API_ENDPOINT + CART_CLEAR_API)
+  public ResponseEntity<Cart> clearCart(@Valid @RequestBody ClearCartRequest clearCartRequest) {
+    log.info("clearCart called with {}", clearCartRequest);
+    try {
+      return ResponseEntity.ok(cartAndOrderService.clearCart(clearCartRequest.getCartId()));
+    } catch (CartNotFoundException e) {
+      log.info("clearCart rejected: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  // Place an order for the items in the cart. The order is queued to be written and returned
+  // with HTTP 202 right away; while the queue is full, orders get HTTP 503 with Retry-After.
+  // curl -X POST -H "Content-Type: application/json" "http://localhost:8081/qeats/v1/order"
+  //   -d '{"cartId": "1"}'
+  @PostMapping(RESTAURANT_API_ENDPOINT + POST_ORDER_API)
+  public ResponseEntity<Order> postOrder(@Valid @RequestBody PostOrderRequest postOrderRequest) {
+    log.info("postOrder called with {}", postOrderRequest);
+    try {
+      return ResponseEntity.status(HttpStatus.ACCEPTED)
+          .body(cartAndOrderService.postOrder(postOrderRequest.getCartId()));
+    } catch (CartNotFoundException e) {
+      log.info("postOrder rejected: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    } catch (EmptyCartException e) {
+      log.info("postOrder rejected: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    } catch (OrderQueueFullException e) {
+      log.warn("postOrder rejected: {}", e.getMessage());
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER,
+              String.valueOf(GlobalConstants.ORDER_RETRY_AFTER_IN_SECONDS))
+          .build();
+    }
+  }
+
+  // Get the orders of the user, newest first, one page at a time. The response carries the
+  // cursor of the next page, to be passed back as is; the last page has none.
+  // curl -X GET "http://localhost:8081/qeats/v1/orders?userId=Bunny&limit=20"
+  @GetMapping(RESTAURANT_API_ENDPOINT + GET_ORDERS_API)
+  public ResponseEntity<GetOrdersResponse> getOrders(@Valid GetOrdersRequest getOrdersRequest) {
+    log.info("getOrders called with {}", getOrdersRequest);
+    try {
+      return ResponseEntity.ok(cartAndOrderService.findOrders(getOrdersRequest));
+    } catch (IllegalArgumentException e) {
+      log.info("getOrders rejected: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+}
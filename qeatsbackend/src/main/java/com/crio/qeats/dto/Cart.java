@@ -0,0 +1,35 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Cart of a user, serialized as
+// {
+//   "id": "1",
+//   "restaurantId": "10",
+//   "userId": "Bunny",
+//   "items": [ ... ],
+//   "total": 225.0
+// }
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Cart {
+
+  private String id;
+  private String restaurantId;
+  private String userId;
+  private List<Item> items;
+  private Double total;
+
+}
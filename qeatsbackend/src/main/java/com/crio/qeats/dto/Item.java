@@ -0,0 +1,39 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Item on the menu of a restaurant, serialized as
+// {
+//   "id": "1",
+//   "itemId": "1",
+//   "name": "Chicken Briyani",
+//   "imageUrl": "www.google.com",
+//   "attributes": [
+//     "Mughal"
+//   ],
+//   "price": 225.0
+// }
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Item {
+
+  private String id;
+  private String itemId;
+  private String name;
+  private String imageUrl;
+  private List<String> attributes;
+  private Double price;
+
+}
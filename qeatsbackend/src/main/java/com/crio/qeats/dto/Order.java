@@ -0,0 +1,43 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.Date;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Order placed from the items of a cart, serialized as
+// {
+//   "id": "5cb9b58ce1e3f0325ec5a5ee",
+//   "restaurantId": "10",
+//   "userId": "Bunny",
+//   "status": "PLACED",
+//   "items": [ ... ],
+//   "total": 225.0,
+//   "placedAt": "2019-04-19T11:53:16.612+0000"
+// }
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Order {
+
+  // The order is accepted and queued to be written to the database.
+  public static final String PLACED = "PLACED";
+
+  private String id;
+  private String restaurantId;
+  private String userId;
+  private String status;
+  private List<Item> items;
+  private Double total;
+  private Date placedAt;
+
+}
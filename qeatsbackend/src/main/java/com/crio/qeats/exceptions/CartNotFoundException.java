@@ -0,0 +1,24 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exceptions;
+
+// Thrown when there is no cart with the given cartId.
+public class CartNotFoundException extends QEatsException {
+
+  public CartNotFoundException() {
+  }
+
+  public CartNotFoundException(String message) {
+    super(message);
+  }
+
+  @Override
+  public int getErrorType() {
+    return CART_NOT_FOUND;
+  }
+
+}
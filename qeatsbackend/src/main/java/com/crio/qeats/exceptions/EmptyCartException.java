@@ -0,0 +1,24 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exceptions;
+
+// Thrown when an order is placed for a cart without items.
+public class EmptyCartException extends QEatsException {
+
+  public EmptyCartException() {
+  }
+
+  public EmptyCartException(String message) {
+    super(message);
+  }
+
+  @Override
+  public int getErrorType() {
+    return EMPTY_CART;
+  }
+
+}
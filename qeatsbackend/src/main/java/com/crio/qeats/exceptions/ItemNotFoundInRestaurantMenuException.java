@@ -0,0 +1,24 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exceptions;
+
+// Thrown when the item to add to a cart is not on the menu of the given restaurant.
+public class ItemNotFoundInRestaurantMenuException extends QEatsException {
+
+  public ItemNotFoundInRestaurantMenuException() {
+  }
+
+  public ItemNotFoundInRestaurantMenuException(String message) {
+    super(message);
+  }
+
+  @Override
+  public int getErrorType() {
+    return ITEM_NOT_FOUND_IN_RESTAURANT_MENU;
+  }
+
+}
@@ -0,0 +1,24 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exceptions;
+
+// Thrown when the item to add comes from another restaurant than the items already in the cart.
+public class ItemNotFromSameRestaurantException extends QEatsException {
+
+  public ItemNotFromSameRestaurantException() {
+  }
+
+  public ItemNotFromSameRestaurantException(String message) {
+    super(message);
+  }
+
+  @Override
+  public int getErrorType() {
+    return ITEM_NOT_FROM_SAME_RESTAURANT;
+  }
+
+}
@@ -0,0 +1,25 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exceptions;
+
+// Thrown when an order cannot be queued because the order queue is full, i.e. orders come in
+// faster than they are written. The client is expected to retry shortly.
+public class OrderQueueFullException extends QEatsException {
+
+  public OrderQueueFullException() {
+  }
+
+  public OrderQueueFullException(String message) {
+    super(message);
+  }
+
+  @Override
+  public int getErrorType() {
+    return ORDER_QUEUE_FULL;
+  }
+
+}
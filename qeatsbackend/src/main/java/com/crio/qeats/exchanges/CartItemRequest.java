@@ -0,0 +1,34 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exchanges;
+
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Body of the requests adding an item to a cart or removing it.
+// {
+//   "cartId": "1",
+//   "itemId": "1",
+//   "restaurantId": "10"
+// }
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemRequest {
+
+  @NotNull
+  private String cartId;
+
+  @NotNull
+  private String itemId;
+
+  @NotNull
+  private String restaurantId;
+
+}
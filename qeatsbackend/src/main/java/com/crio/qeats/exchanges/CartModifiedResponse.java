@@ -0,0 +1,26 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exchanges;
+
+import com.crio.qeats.dto.Cart;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The cart after adding or removing an item. cartResponseType is 0 when the cart was modified,
+// or the error type of the QEatsException explaining why it was left as is, e.g. 102 for an
+// item from another restaurant than the ones in the cart.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartModifiedResponse {
+
+  private Cart cart;
+
+  private int cartResponseType;
+
+}
@@ -0,0 +1,25 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exchanges;
+
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// {
+//   "cartId": "1"
+// }
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClearCartRequest {
+
+  @NotNull
+  private String cartId;
+
+}
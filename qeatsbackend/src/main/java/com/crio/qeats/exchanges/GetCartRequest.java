@@ -0,0 +1,23 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exchanges;
+
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// /qeats/v1/cart?userId=Bunny
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetCartRequest {
+
+  @NotNull
+  private String userId;
+
+}
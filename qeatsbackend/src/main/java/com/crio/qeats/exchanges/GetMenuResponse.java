@@ -0,0 +1,25 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exchanges;
+
+import com.crio.qeats.dto.Menu;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// {
+//   "menu": {
+//     "restaurantId": "11",
+//     "items": [ ... ]
+//   }
+// }
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetMenuResponse {
+  private Menu menu;
+}
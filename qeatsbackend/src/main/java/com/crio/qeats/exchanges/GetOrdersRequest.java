@@ -0,0 +1,33 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exchanges;
+
+import com.crio.qeats.globals.GlobalConstants;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// /qeats/v1/orders?userId=Bunny&limit=20&cursor=MTU1NTY3NDc5NjYxMjox
+// cursor is the nextCursor of the previous page, absent for the first page.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetOrdersRequest {
+
+  @NotNull
+  private String userId;
+
+  private String cursor;
+
+  @Min(1)
+  @Max(GlobalConstants.ORDERS_MAX_PAGE_SIZE)
+  private int limit = GlobalConstants.ORDERS_PAGE_SIZE;
+
+}
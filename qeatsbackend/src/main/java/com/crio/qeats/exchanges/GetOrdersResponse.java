@@ -0,0 +1,30 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exchanges;
+
+import com.crio.qeats.dto.Order;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One page of the order history of a user, newest first. The items come without their
+// imageUrl. nextCursor is null on the last page.
+// {
+//   "orders": [ ... ],
+//   "nextCursor": "MTU1NTY3NDc5NjYxMjox"
+// }
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetOrdersResponse {
+
+  private List<Order> orders;
+
+  private String nextCursor;
+
+}
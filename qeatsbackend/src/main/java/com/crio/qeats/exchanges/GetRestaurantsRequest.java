@@ -6,9 +6,13 @@
 
 package com.crio.qeats.exchanges;
 
+import com.crio.qeats.globals.GlobalConstants;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 // TODO: CRIO_TASK_MODULE_RESTAURANTSAPI
@@ -18,6 +22,14 @@ import javax.validation.constraints.NotNull;
 //  For instance, if a REST client calls API
 //  /qeats/v1/restaurants?latitude=28.4900591&longitude=77.536386&searchFor=tamil,
 //  this class should be able to deserialize lat/long and optional searchFor from that.
+//
+// Without searchFor, the restaurants close by can be asked for one page at a time, nearest
+// first, with /qeats/v1/restaurants?latitude=28.4900591&longitude=77.536386&limit=20.
+// cursor is the nextCursor of the previous page. Leaving out both limit and cursor returns all
+// the restaurants close by, in no particular order.
+//
+// attributes=Tamil,Veg only keeps the restaurants having every one of the attributes, compared
+// ignoring case, and facets=true adds the number of restaurants found per attribute.
 
 @Data
 @NoArgsConstructor
@@ -29,11 +41,35 @@ public class GetRestaurantsRequest {
     @NotNull
     private Double longitude;
     private String searchFor;
+
+    @Min(1)
+    @Max(GlobalConstants.RESTAURANTS_MAX_PAGE_SIZE)
+    private Integer limit;
+    private String cursor;
+    private List<String> attributes;
+    private Boolean facets;
+
     public GetRestaurantsRequest(@NotNull Double latitude, @NotNull Double longitude) {
         this.latitude = latitude;
         this.longitude = longitude;
     }
 
+    public GetRestaurantsRequest(@NotNull Double latitude, @NotNull Double longitude,
+        String searchFor) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.searchFor = searchFor;
+    }
+
+    public GetRestaurantsRequest(@NotNull Double latitude, @NotNull Double longitude,
+        String searchFor, Integer limit, String cursor) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.searchFor = searchFor;
+        this.limit = limit;
+        this.cursor = cursor;
+    }
+
 
     
 }
@@ -7,7 +7,9 @@
 package com.crio.qeats.exchanges;
 
 import com.crio.qeats.dto.Restaurant;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -46,10 +48,30 @@ import lombok.NoArgsConstructor;
 //      ]
 //    }
 //  ]
+//
+// A page of the restaurants close by also carries "nextCursor", absent on the last page and
+// when the restaurants were not asked for one page at a time.
+// With facets=true, "facets" counts the restaurants found per attribute, across all the pages,
+// e.g. "facets": {"South Indian": 2, "Tamil": 1, "Udupi": 1}.
 @Data
 @AllArgsConstructor
 public class GetRestaurantsResponse {
     private List<Restaurant> restaurants;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Integer> facets;
+
+    public GetRestaurantsResponse(List<Restaurant> restaurants) {
+        this.restaurants = restaurants;
+    }
+
+    public GetRestaurantsResponse(List<Restaurant> restaurants, String nextCursor) {
+        this.restaurants = restaurants;
+        this.nextCursor = nextCursor;
+    }
 }
 
 // }
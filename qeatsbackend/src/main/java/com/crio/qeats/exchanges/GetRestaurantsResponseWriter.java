@@ -0,0 +1,97 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exchanges;
+
+import com.crio.qeats.dto.Restaurant;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a GetRestaurantsResponse one restaurant at a time, producing the same JSON as
+ * serializing the whole response, so that the restaurants never have to be collected in a list.
+ * Output goes through the buffer of the generator, the stream is not flushed after every
+ * restaurant.
+ *
+ * <p>Call {@link #finish()} once all the restaurants are written. A writer left unfinished,
+ * e.g. because reading the restaurants failed, leaves the JSON incomplete, so that the client
+ * cannot mistake a partial list for the whole one.
+ */
+public class GetRestaurantsResponseWriter implements Consumer<Restaurant> {
+
+  private final JsonGenerator generator;
+  private final ObjectWriter restaurantWriter;
+  private long writeTimeInNanos;
+  private int restaurantCount;
+
+  /**
+   * Starts the response, writing up to the opening bracket of the restaurants.
+   * @param objectMapper mapper configured like the one serializing the other responses
+   * @param outputStream stream to write to, left open by {@link #finish()}
+   */
+  public GetRestaurantsResponseWriter(ObjectMapper objectMapper, OutputStream outputStream)
+      throws IOException {
+    long startedAtNanos = System.nanoTime();
+    this.generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+    this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    this.restaurantWriter = objectMapper.writerFor(Restaurant.class)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    generator.writeStartObject();
+    generator.writeFieldName("restaurants");
+    generator.writeStartArray();
+    writeTimeInNanos += System.nanoTime() - startedAtNanos;
+  }
+
+  /**
+   * Writes the restaurant as the next element of the restaurants.
+   * @throws UncheckedIOException if writing to the stream failed
+   */
+  @Override
+  public void accept(Restaurant restaurant) {
+    long startedAtNanos = System.nanoTime();
+    try {
+      restaurantWriter.writeValue(generator, restaurant);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      writeTimeInNanos += System.nanoTime() - startedAtNanos;
+    }
+    restaurantCount++;
+  }
+
+  /**
+   * Ends the response and flushes it to the stream.
+   */
+  public void finish() throws IOException {
+    long startedAtNanos = System.nanoTime();
+    generator.writeEndArray();
+    generator.writeEndObject();
+    generator.close();
+    writeTimeInNanos += System.nanoTime() - startedAtNanos;
+  }
+
+  /**
+   * Time spent writing so far, including the writes to the stream when the buffer filled up.
+   */
+  public long getWriteTimeInNanos() {
+    return writeTimeInNanos;
+  }
+
+  /**
+   * Number of restaurants written so far.
+   */
+  public int getRestaurantCount() {
+    return restaurantCount;
+  }
+
+}
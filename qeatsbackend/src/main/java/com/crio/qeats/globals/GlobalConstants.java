@@ -3,12 +3,106 @@ package com.crio.qeats.globals;
 
 public class GlobalConstants {
 
-  // Amount of time after which the redis entries should expire.
-  public static final int REDIS_ENTRY_EXPIRY_IN_SECONDS = 3600;
+  // Amount of time after which the redis entries should expire. The restaurants are cached per
+  // minute, see RestaurantsCache, so an entry is not read after its minute is over.
+  public static final int REDIS_ENTRY_EXPIRY_IN_SECONDS = 60;
+
+  // Connection/read timeout and pool size for redis. Kept small so that a slow or missing
+  // cache degrades to a cache miss instead of holding up the request.
+  public static final int REDIS_TIMEOUT_IN_MILLIS = 100;
+  public static final int REDIS_MAX_CONNECTIONS = 64;
+
+  // Amount of time for which redis is skipped after it failed to respond.
+  public static final int REDIS_RETRY_INTERVAL_IN_SECONDS = 30;
+
+  // Geohash precision (in characters) of the cell used in the restaurants cache key, and of
+  // the cell whose concurrent requests share one lookup, see RestaurantsCoalescer.
+  // A 7 character cell is roughly 150m x 150m.
+  public static final int RESTAURANTS_CACHE_GEOHASH_PRECISION = 7;
 
   // TIP(MODULE_RABBITMQ): RabbitMQ related configs.
   public static final String EXCHANGE_NAME = "rabbitmq-exchange";
   public static final String QUEUE_NAME = "rabbitmq-queue";
   public static final String ROUTING_KEY = "qeats.postorder";
 
+  // Geohash precision (in characters) of the cells used to bucket restaurants in memory.
+  // A 6 character cell is roughly 1.2km x 0.6km, so a 5km radius touches ~150 cells.
+  public static final int RESTAURANT_INDEX_GEOHASH_PRECISION = 6;
+
+  // Amount of time after which the in-memory restaurant index is rebuilt from the database.
+  public static final int RESTAURANT_INDEX_REFRESH_INTERVAL_IN_SECONDS = 300;
+
+  // Threads and queued lookups of the pool running the searches. Every search queues four
+  // lookups; once the queue is full, further lookups are dropped instead of piling up.
+  public static final int SEARCH_EXECUTOR_THREADS = 16;
+  public static final int SEARCH_EXECUTOR_QUEUE_CAPACITY = 256;
+
+  // Amount of time a search waits for its lookups. Lookups still running by then are
+  // cancelled and the search returns the results of the others.
+  public static final int SEARCH_DEADLINE_IN_MILLIS = 200;
+
+  // Number of menus kept in memory, the least recently used ones are evicted beyond that.
+  public static final int MENU_CACHE_MAXIMUM_SIZE = 10000;
+
+  // Amount of time after which a cached menu is loaded again, so that the menu updates the
+  // cache is not told about, e.g. those made by another instance, are served within it.
+  public static final int MENU_CACHE_EXPIRY_IN_MINUTES = 5;
+
+  // Attempts of a cart update that keeps losing the race against concurrent updates of the
+  // same cart, see CartAndOrderServiceImpl.
+  public static final int CART_UPDATE_ATTEMPTS = 10;
+
+  // Orders waiting to be written to the database. Once the queue is full, new orders are
+  // refused with HTTP 503 and a Retry-After of ORDER_RETRY_AFTER_IN_SECONDS.
+  public static final int ORDER_QUEUE_CAPACITY = 10000;
+  public static final int ORDER_RETRY_AFTER_IN_SECONDS = 1;
+
+  // Largest number of orders written in one bulk insert.
+  public static final int ORDER_BATCH_SIZE = 500;
+
+  // A failed write of a batch of orders is retried until it succeeds, waiting
+  // attempt * ORDER_WRITE_RETRY_BACKOFF_IN_MILLIS after each failure, up to
+  // ORDER_WRITE_MAX_RETRY_BACKOFF_IN_MILLIS.
+  public static final long ORDER_WRITE_RETRY_BACKOFF_IN_MILLIS = 200;
+  public static final long ORDER_WRITE_MAX_RETRY_BACKOFF_IN_MILLIS = 5000;
+
+  // Amount of time the shutdown waits for the queued orders to be written, before giving up on
+  // the ones not written yet.
+  public static final int ORDER_QUEUE_SHUTDOWN_IN_SECONDS = 10;
+
+  // Orders returned per page of the order history, unless the client asks for fewer or more,
+  // up to ORDERS_MAX_PAGE_SIZE.
+  public static final int ORDERS_PAGE_SIZE = 20;
+  public static final int ORDERS_MAX_PAGE_SIZE = 100;
+
+  // Restaurants close by returned per page when the client passes a cursor without a limit,
+  // and the largest limit it may ask for.
+  public static final int RESTAURANTS_PAGE_SIZE = 20;
+  public static final int RESTAURANTS_MAX_PAGE_SIZE = 100;
+
+  // Admission control of the v1 restaurants endpoint. The number of requests served at once
+  // starts at RESTAURANTS_LIMIT_INITIAL and moves between the min and the max: it grows while
+  // requests finish within RESTAURANTS_LIMIT_LATENCY_THRESHOLD_IN_MILLIS and shrinks when they
+  // do not. Up to RESTAURANTS_LIMIT_QUEUE_CAPACITY requests wait for a slot, each for at most
+  // RESTAURANTS_LIMIT_MAX_WAIT_IN_MILLIS; the others get HTTP 503 with a Retry-After of
+  // RESTAURANTS_RETRY_AFTER_IN_SECONDS. The max plus the queue stays below the 200 threads of
+  // Tomcat, so that the other endpoints keep threads to run on.
+  public static final int RESTAURANTS_LIMIT_INITIAL = 20;
+  public static final int RESTAURANTS_LIMIT_MIN = 4;
+  public static final int RESTAURANTS_LIMIT_MAX = 128;
+  public static final int RESTAURANTS_LIMIT_QUEUE_CAPACITY = 32;
+  public static final int RESTAURANTS_LIMIT_MAX_WAIT_IN_MILLIS = 50;
+  public static final int RESTAURANTS_LIMIT_LATENCY_THRESHOLD_IN_MILLIS = 250;
+  public static final int RESTAURANTS_RETRY_AFTER_IN_SECONDS = 1;
+
+  // Admission control of the v2 restaurants endpoint, apart from v1: a v2 request gives its
+  // thread back while it waits on the database, so it is not bound by the threads of Tomcat and
+  // would otherwise hold a v1 slot for its whole latency. Its limit only bounds the load put on
+  // the database and the responses pending at once. Nothing waits in a queue, as waiting would
+  // hold the very thread v2 gives back; a request beyond the limit gets HTTP 503 right away.
+  public static final int RESTAURANTS_V2_LIMIT_INITIAL = 64;
+  public static final int RESTAURANTS_V2_LIMIT_MIN = 16;
+  public static final int RESTAURANTS_V2_LIMIT_MAX = 1024;
+  public static final int RESTAURANTS_V2_LIMIT_LATENCY_THRESHOLD_IN_MILLIS = 250;
+
 }
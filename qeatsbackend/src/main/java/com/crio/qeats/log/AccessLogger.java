@@ -0,0 +1,140 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.log;
+
+import com.crio.qeats.exchanges.GetRestaurantsRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Access log of the restaurants endpoints, one compact JSON line per request, written through
+ * the asynchronous AccessLog appender of log4j2.xml. Every line has the coordinates, the number
+ * of restaurants returned and the latency; the response itself is only added to a sample of
+ * the lines, and cut at a maximum size, so that logging does not cost as much as serving.
+ */
+@Component
+public class AccessLogger {
+
+  private static final Logger log = LogManager.getLogger("com.crio.qeats.access");
+
+  private final ObjectMapper objectMapper;
+
+  // Fraction of the requests logged with their response, between 0 and 1.
+  private final double payloadSampleRate;
+
+  // Longest response logged, in characters, the rest is cut.
+  private final int payloadMaxChars;
+
+  @Autowired
+  public AccessLogger(ObjectMapper objectMapper,
+      @Value("${qeats.accesslog.payload-sample-rate:0.01}") double payloadSampleRate,
+      @Value("${qeats.accesslog.payload-max-chars:2048}") int payloadMaxChars) {
+    this.objectMapper = objectMapper;
+    this.payloadSampleRate = payloadSampleRate;
+    this.payloadMaxChars = payloadMaxChars;
+  }
+
+  /**
+   * Logs a request served by one of the restaurants endpoints.
+   * @param endpoint path of the endpoint
+   * @param request the request, as bound from its query parameters
+   * @param status HTTP status of the response
+   * @param resultCount number of restaurants returned
+   * @param latencyInNanos time taken to serve the request
+   * @param payload response body, a candidate for sampling; null if there is none to log
+   */
+  public void logRestaurants(String endpoint, GetRestaurantsRequest request, int status,
+      int resultCount, long latencyInNanos, Object payload) {
+    if (!log.isInfoEnabled()) {
+      return;
+    }
+
+    ObjectNode logEventJsonObjNode = JsonNodeFactory.instance.objectNode();
+    logEventJsonObjNode.put("timeMillis", System.currentTimeMillis());
+    logEventJsonObjNode.put("endpoint", endpoint);
+    logEventJsonObjNode.put("latitude", request.getLatitude());
+    logEventJsonObjNode.put("longitude", request.getLongitude());
+    if (request.getSearchFor() != null) {
+      logEventJsonObjNode.put("searchFor", request.getSearchFor());
+    }
+    logEventJsonObjNode.put("status", status);
+    logEventJsonObjNode.put("resultCount", resultCount);
+    logEventJsonObjNode.put("latencyInMillis",
+        TimeUnit.NANOSECONDS.toMicros(latencyInNanos) / 1000.0);
+    if (payload != null && ThreadLocalRandom.current().nextDouble() < payloadSampleRate) {
+      logEventJsonObjNode.put("payload", writeCapped(payload));
+    }
+
+    log.info(logEventJsonObjNode.toString());
+  }
+
+  // Serializes the payload, stopping as soon as the cap is reached, so that sampling a large
+  // response costs no more than serializing its first payloadMaxChars characters.
+  String writeCapped(Object payload) {
+    CappedWriter writer = new CappedWriter(payloadMaxChars);
+    try {
+      objectMapper.writeValue(writer, payload);
+    } catch (CapReachedException e) {
+      return writer.toString() + "...";
+    } catch (IOException e) {
+      return "unavailable: " + e.getMessage();
+    }
+    return writer.toString();
+  }
+
+  private static final class CappedWriter extends Writer {
+
+    private final StringBuilder buffer = new StringBuilder();
+    private final int maxChars;
+
+    private CappedWriter(int maxChars) {
+      this.maxChars = maxChars;
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+      int room = maxChars - buffer.length();
+      buffer.append(chars, offset, Math.min(room, length));
+      if (length > room) {
+        throw new CapReachedException();
+      }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+      return buffer.toString();
+    }
+  }
+
+  // Thrown on every capped payload, so it skips the stack trace.
+  private static final class CapReachedException extends IOException {
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
+}
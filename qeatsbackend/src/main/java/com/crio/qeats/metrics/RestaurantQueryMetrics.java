@@ -0,0 +1,104 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.metrics;
+
+import com.crio.qeats.utils.PeakHours;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Latency of each stage of the restaurants close by query, and the number of restaurants it
+// scans and returns, published to the actuator metrics endpoint:
+//   /actuator/metrics/qeats.restaurants.query.stage?tag=stage:fetch
+//   /actuator/metrics/qeats.restaurants.query.scanned?tag=hours:peak
+// The stage timers publish a percentile histogram along with p50/p95/p99, so that a p99
+// regression can be traced to the stage that caused it. The counts are tagged with peak or
+// normal hours, which serve different radii. They are not tagged with the radius itself,
+// which is widened by a different amount for every geohash cell, see RestaurantsCell.
+@Component
+public class RestaurantQueryMetrics {
+
+  public static final String STAGE_TIMER = "qeats.restaurants.query.stage";
+  public static final String SCANNED_COUNTER = "qeats.restaurants.query.scanned";
+  public static final String RETURNED_COUNTER = "qeats.restaurants.query.returned";
+
+  public enum Stage {
+    // Reading the restaurants from the database cursor.
+    FETCH("fetch"),
+    // Checking the opening hours against the current time.
+    OPEN_HOURS("openHours"),
+    // Checking the distance against the serving radius.
+    DISTANCE("distance"),
+    // Mapping the entities to the DTOs of the response.
+    MAPPING("mapping"),
+    // Writing the response JSON.
+    SERIALIZATION("serialization");
+
+    private final String tag;
+
+    Stage(String tag) {
+      this.tag = tag;
+    }
+  }
+
+  private final MeterRegistry meterRegistry;
+  private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+
+  @Autowired
+  public RestaurantQueryMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    for (Stage stage : Stage.values()) {
+      timers.put(stage, Timer.builder(STAGE_TIMER)
+          .description("Time a restaurants close by query spends in each stage")
+          .tag("stage", stage.tag)
+          .publishPercentiles(0.5, 0.95, 0.99)
+          .publishPercentileHistogram()
+          .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Records the time of a single stage of a query.
+   */
+  public void record(Stage stage, long nanos) {
+    timers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Records a query that went through the database. Serialization happens later, once the
+   * response is written, and is recorded on its own.
+   * @param clock times of the fetch, open hours, distance and mapping stages of the query
+   * @param currentTime time of the query, which tells peak hours from normal hours
+   * @param scanned restaurants read from the database
+   * @param returned restaurants open and within the radius
+   */
+  public void record(StageClock clock, LocalTime currentTime, long scanned, long returned) {
+    for (Stage stage : Stage.values()) {
+      if (stage != Stage.SERIALIZATION) {
+        record(stage, clock.getNanos(stage));
+      }
+    }
+    String hours = PeakHours.isPeakHours(currentTime) ? "peak" : "normal";
+    counter(SCANNED_COUNTER, "Restaurants read from the database", hours).increment(scanned);
+    counter(RETURNED_COUNTER, "Restaurants open and within the serving radius", hours)
+        .increment(returned);
+  }
+
+  private Counter counter(String name, String description, String hours) {
+    return Counter.builder(name)
+        .description(description)
+        .tag("hours", hours)
+        .register(meterRegistry);
+  }
+
+}
@@ -0,0 +1,43 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.metrics;
+
+import com.crio.qeats.metrics.RestaurantQueryMetrics.Stage;
+
+/**
+ * Splits the time of one restaurants query between its stages. Each lap charges the time since
+ * the previous lap to a stage, so a query that runs the stages a batch of restaurants at a
+ * time costs one System.nanoTime() per stage and batch, and its totals are recorded once.
+ * Not thread safe, a clock belongs to a single query.
+ */
+public final class StageClock {
+
+  private final long[] nanos = new long[Stage.values().length];
+  private long lapAtNanos = System.nanoTime();
+
+  /**
+   * Charges the time since the previous lap to the stage.
+   */
+  public void lap(Stage stage) {
+    long nowNanos = System.nanoTime();
+    nanos[stage.ordinal()] += nowNanos - lapAtNanos;
+    lapAtNanos = nowNanos;
+  }
+
+  /**
+   * Starts a new lap without charging the time since the previous one to any stage, e.g. after
+   * handing a restaurant over to the caller.
+   */
+  public void skip() {
+    lapAtNanos = System.nanoTime();
+  }
+
+  public long getNanos(Stage stage) {
+    return nanos[stage.ordinal()];
+  }
+
+}
@@ -0,0 +1,46 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Document(collection = "carts")
+@NoArgsConstructor
+public class CartEntity {
+
+  @Id
+  private String id;
+
+  // Empty until the first item is added, all the items come from this restaurant.
+  private String restaurantId;
+
+  @NotNull
+  @Indexed(unique = true)
+  private String userId;
+
+  @NotNull
+  private List<ItemEntity> items = new ArrayList<>();
+
+  // Sum of the prices of the items, kept up to date as items are added and removed.
+  @NotNull
+  private Double total = 0.0;
+
+  // Incremented on every save, which fails with OptimisticLockingFailureException if the cart
+  // was saved by someone else since it was read. Null until the first save of a new cart.
+  @Version
+  private Long version;
+
+}
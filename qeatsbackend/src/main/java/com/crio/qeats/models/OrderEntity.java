@@ -0,0 +1,50 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.models;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import javax.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// The order history of a user is read newest first, one page after the other. The index
+// serves both the filter and the sort, so a page costs the same however deep it is.
+@Data
+@Document(collection = "orders")
+@CompoundIndex(name = "userId_placedAt", def = "{'userId': 1, 'placedAt': -1, '_id': -1}")
+@NoArgsConstructor
+public class OrderEntity {
+
+  // Assigned when the order is placed, before it is written, so that a batch written twice
+  // after a failed attempt does not store the order twice.
+  @Id
+  private String id;
+
+  @NotNull
+  private String restaurantId;
+
+  @NotNull
+  private String userId;
+
+  @NotNull
+  private String status;
+
+  @NotNull
+  private List<ItemEntity> items = new ArrayList<>();
+
+  @NotNull
+  private Double total;
+
+  @NotNull
+  private Date placedAt;
+
+}
@@ -6,12 +6,18 @@
 
 package com.crio.qeats.models;
 
+import com.crio.qeats.utils.OpeningHours;
+import com.crio.qeats.utils.RestaurantMapper;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.ArrayList;
 import java.util.List;
 import javax.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 // Java class that maps to Mongo collection.
@@ -41,6 +47,11 @@ public class RestaurantEntity {
   @NotNull
   private Double longitude;
 
+  // GeoJSON copy of latitude/longitude, so that mongo can filter by distance.
+  // Documents restored without it are backfilled by RestaurantRepositoryServiceGeoNearImpl.
+  @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+  private GeoJsonPoint location;
+
   @NotNull
   private String opensAt;
 
@@ -50,5 +61,48 @@ public class RestaurantEntity {
   @NotNull
   private List<String> attributes = new ArrayList<>();
 
+  // Compiled form of opensAt/closesAt. Not stored in mongo and reset whenever they change.
+  private transient OpeningHours openingHours;
+
+  // Name as shown to users, see RestaurantMapper.cleanName. Not stored in mongo either.
+  private transient String displayName;
+
+  public void setName(String name) {
+    this.name = name;
+    this.displayName = null;
+  }
+
+  public void setOpensAt(String opensAt) {
+    this.opensAt = opensAt;
+    this.openingHours = null;
+  }
+
+  public void setClosesAt(String closesAt) {
+    this.closesAt = closesAt;
+    this.openingHours = null;
+  }
+
+  /**
+   * Get the compiled opening hours, compiling them on first use.
+   */
+  @JsonIgnore
+  public OpeningHours getOpeningHours() {
+    if (openingHours == null) {
+      openingHours = OpeningHours.of(opensAt, closesAt);
+    }
+    return openingHours;
+  }
+
+  /**
+   * Get the name without special characters, cleaning it on first use.
+   */
+  @JsonIgnore
+  public String getDisplayName() {
+    if (displayName == null && name != null) {
+      displayName = RestaurantMapper.cleanName(name);
+    }
+    return displayName;
+  }
+
 }
 
@@ -10,6 +10,7 @@ import com.crio.qeats.models.RestaurantEntity;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -17,5 +18,9 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface RestaurantRepository extends MongoRepository<RestaurantEntity, String> {
    List<RestaurantEntity> findAll();
+
+  // Reads the restaurants through a mongo cursor, one batch at a time. The stream holds the
+  // cursor open until it is closed.
+  Stream<RestaurantEntity> streamAllBy();
 }
 
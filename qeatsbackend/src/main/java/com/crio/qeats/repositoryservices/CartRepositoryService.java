@@ -0,0 +1,94 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.ItemNotFromSameRestaurantException;
+import java.util.Optional;
+import org.springframework.dao.DuplicateKeyException;
+
+// Reads and updates the carts. Updates read the cart and write it back only if it was not
+// updated in between, by this or another instance of the service. Otherwise they fail with
+// OptimisticLockingFailureException and leave the cart as is, for the caller to retry, see
+// CartAndOrderServiceImpl.
+public interface CartRepositoryService {
+
+  /**
+   * Create an empty cart for the user.
+   * @param userId id of the user, who must not have a cart yet
+   * @return the new cart
+   * @throws DuplicateKeyException if the user has a cart already
+   */
+  Cart createCart(String userId);
+
+  /**
+   * Get the cart of the user.
+   * @param userId id of the user
+   * @return the cart of the user, or empty if the user has no cart yet
+   */
+  Optional<Cart> findCartByUserId(String userId);
+
+  /**
+   * Get the cart with the given id.
+   * @param cartId id of the cart
+   * @return the cart
+   * @throws CartNotFoundException if there is no such cart
+   */
+  Cart findCartByCartId(String cartId) throws CartNotFoundException;
+
+  /**
+   * Add the item to the cart, increasing its total by the price of the item.
+   * @param item item to add
+   * @param cartId id of the cart
+   * @param restaurantId restaurant the item comes from
+   * @return the updated cart
+   * @throws CartNotFoundException if there is no such cart
+   * @throws ItemNotFromSameRestaurantException if the cart has items from another restaurant
+   */
+  Cart addItem(Item item, String cartId, String restaurantId)
+      throws CartNotFoundException, ItemNotFromSameRestaurantException;
+
+  /**
+   * Remove one item with the given itemId from the cart, decreasing its total by the price of
+   * the item. A cart without such item is left as is.
+   * @param itemId itemId of the item to remove
+   * @param cartId id of the cart
+   * @return the updated cart
+   * @throws CartNotFoundException if there is no such cart
+   */
+  Cart removeItem(String itemId, String cartId) throws CartNotFoundException;
+
+  /**
+   * Remove all the items from the cart.
+   * @param cartId id of the cart
+   * @return the empty cart
+   * @throws CartNotFoundException if there is no such cart
+   */
+  Cart clearCart(String cartId) throws CartNotFoundException;
+
+  /**
+   * Remove all the items from the cart, returning them. An empty cart is left as is.
+   * @param cartId id of the cart
+   * @return the cart as it was before it was emptied
+   * @throws CartNotFoundException if there is no such cart
+   */
+  Cart takeItems(String cartId) throws CartNotFoundException;
+
+  /**
+   * Put the items taken from the cart back, after the items added since.
+   * @param taken the cart as returned by takeItems
+   * @return the updated cart
+   * @throws CartNotFoundException if there is no such cart
+   * @throws ItemNotFromSameRestaurantException if the cart has items from another restaurant
+   *     by now, the cart is then left as is
+   */
+  Cart restoreItems(Cart taken)
+      throws CartNotFoundException, ItemNotFromSameRestaurantException;
+
+}
@@ -0,0 +1,145 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.ItemNotFromSameRestaurantException;
+import com.crio.qeats.models.CartEntity;
+import com.crio.qeats.models.ItemEntity;
+import com.crio.qeats.repositories.CartRepository;
+import com.crio.qeats.utils.RestaurantMapper;
+import java.util.Iterator;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CartRepositoryServiceImpl implements CartRepositoryService {
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @Override
+  public Cart createCart(String userId) {
+    CartEntity cartEntity = new CartEntity();
+    cartEntity.setUserId(userId);
+    return RestaurantMapper.mapEntityToDto(cartRepository.save(cartEntity));
+  }
+
+  @Override
+  public Optional<Cart> findCartByUserId(String userId) {
+    return cartRepository.findCartByUserId(userId).map(RestaurantMapper::mapEntityToDto);
+  }
+
+  @Override
+  public Cart findCartByCartId(String cartId) throws CartNotFoundException {
+    return RestaurantMapper.mapEntityToDto(findCartEntity(cartId));
+  }
+
+  @Override
+  public Cart addItem(Item item, String cartId, String restaurantId)
+      throws CartNotFoundException, ItemNotFromSameRestaurantException {
+    CartEntity cartEntity = findCartEntity(cartId);
+    if (!cartEntity.getItems().isEmpty() && !restaurantId.equals(cartEntity.getRestaurantId())) {
+      throw new ItemNotFromSameRestaurantException("Cart " + cartId + " has items from "
+          + cartEntity.getRestaurantId() + ", not " + restaurantId);
+    }
+
+    cartEntity.setRestaurantId(restaurantId);
+    cartEntity.getItems().add(RestaurantMapper.mapDtoToEntity(item));
+    cartEntity.setTotal(addPrice(cartEntity.getTotal(), item.getPrice()));
+    return RestaurantMapper.mapEntityToDto(cartRepository.save(cartEntity));
+  }
+
+  @Override
+  public Cart removeItem(String itemId, String cartId) throws CartNotFoundException {
+    CartEntity cartEntity = findCartEntity(cartId);
+    for (Iterator<ItemEntity> items = cartEntity.getItems().iterator(); items.hasNext(); ) {
+      ItemEntity itemEntity = items.next();
+      if (itemId.equals(itemEntity.getItemId())) {
+        items.remove();
+        cartEntity.setTotal(addPrice(cartEntity.getTotal(), -itemEntity.getPrice()));
+        if (cartEntity.getItems().isEmpty()) {
+          cartEntity.setRestaurantId(null);
+          cartEntity.setTotal(0.0);
+        }
+        return RestaurantMapper.mapEntityToDto(cartRepository.save(cartEntity));
+      }
+    }
+    return RestaurantMapper.mapEntityToDto(cartEntity);
+  }
+
+  @Override
+  public Cart clearCart(String cartId) throws CartNotFoundException {
+    CartEntity cartEntity = findCartEntity(cartId);
+    cartEntity.getItems().clear();
+    cartEntity.setRestaurantId(null);
+    cartEntity.setTotal(0.0);
+    return RestaurantMapper.mapEntityToDto(cartRepository.save(cartEntity));
+  }
+
+  @Override
+  public Cart takeItems(String cartId) throws CartNotFoundException {
+    CartEntity cartEntity = findCartEntity(cartId);
+    Cart taken = RestaurantMapper.mapEntityToDto(cartEntity);
+    if (!cartEntity.getItems().isEmpty()) {
+      cartEntity.getItems().clear();
+      cartEntity.setRestaurantId(null);
+      cartEntity.setTotal(0.0);
+      cartRepository.save(cartEntity);
+    }
+    return taken;
+  }
+
+  @Override
+  public Cart restoreItems(Cart taken)
+      throws CartNotFoundException, ItemNotFromSameRestaurantException {
+    CartEntity cartEntity = findCartEntity(taken.getId());
+    if (!cartEntity.getItems().isEmpty()
+        && !taken.getRestaurantId().equals(cartEntity.getRestaurantId())) {
+      throw new ItemNotFromSameRestaurantException("Cart " + taken.getId() + " has items from "
+          + cartEntity.getRestaurantId() + ", not " + taken.getRestaurantId());
+    }
+
+    cartEntity.setRestaurantId(taken.getRestaurantId());
+    for (Item item : taken.getItems()) {
+      cartEntity.getItems().add(RestaurantMapper.mapDtoToEntity(item));
+      cartEntity.setTotal(addPrice(cartEntity.getTotal(), item.getPrice()));
+    }
+    return RestaurantMapper.mapEntityToDto(cartRepository.save(cartEntity));
+  }
+
+  private CartEntity findCartEntity(String cartId) throws CartNotFoundException {
+    CartEntity cartEntity = cartRepository.findById(cartId)
+        .orElseThrow(() -> new CartNotFoundException("No cart with id " + cartId));
+    if (cartEntity.getVersion() == null) {
+      // Saved before carts were versioned. A null version would make the save an insert, so the
+      // cart is given its first version. Should two requests do it at once, both read version 0
+      // and the save of one of them fails as for any concurrent update.
+      mongoTemplate.updateFirst(query(where("_id").is(cartId).and("version").exists(false)),
+          Update.update("version", 0L), CartEntity.class);
+      cartEntity.setVersion(0L);
+    }
+    return cartEntity;
+  }
+
+  // Prices have at most two decimals, rounding keeps the running total from drifting away from
+  // the sum of the prices as items are added and removed.
+  private static Double addPrice(Double total, Double price) {
+    return Math.round(((total == null ? 0.0 : total) + price) * 100) / 100.0;
+  }
+}
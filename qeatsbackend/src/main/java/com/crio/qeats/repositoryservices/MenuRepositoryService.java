@@ -0,0 +1,20 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Menu;
+
+public interface MenuRepositoryService {
+
+  /**
+   * Get the menu of the restaurant.
+   * @param restaurantId id of the restaurant
+   * @return the menu of the restaurant, or null if the restaurant has no menu
+   */
+  Menu findMenu(String restaurantId);
+
+}
@@ -0,0 +1,28 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Menu;
+import com.crio.qeats.repositories.MenuRepository;
+import com.crio.qeats.utils.RestaurantMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MenuRepositoryServiceImpl implements MenuRepositoryService {
+
+  @Autowired
+  private MenuRepository menuRepository;
+
+  @Override
+  public Menu findMenu(String restaurantId) {
+    return menuRepository.findMenuByRestaurantId(restaurantId)
+        .map(RestaurantMapper::mapEntityToDto)
+        .orElse(null);
+  }
+
+}
@@ -0,0 +1,33 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.utils.OrderCursor;
+import java.util.List;
+
+public interface OrderRepositoryService {
+
+  /**
+   * Write the orders to the database in one bulk insert.
+   * Orders already stored with the same id are left as is, so that a batch can be written
+   * again after a failed attempt.
+   * @param orders orders to write, with their ids assigned
+   */
+  void saveOrders(List<Order> orders);
+
+  /**
+   * Get the orders of the user placed before the cursor, newest first.
+   * Items come without their imageUrl. Orders still queued to be written are not returned.
+   * @param userId id of the user
+   * @param after position the previous page ended at, or null for the first page
+   * @param limit maximum number of orders to return
+   * @return orders of the user before the cursor, or empty list if there is none
+   */
+  List<Order> findOrders(String userId, OrderCursor after, int limit);
+
+}
@@ -0,0 +1,90 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.models.OrderEntity;
+import com.crio.qeats.utils.OrderCursor;
+import com.crio.qeats.utils.RestaurantMapper;
+import com.mongodb.BulkWriteError;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+@Service
+public class OrderRepositoryServiceImpl implements OrderRepositoryService {
+
+  private static final int DUPLICATE_KEY = 11000;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @Override
+  public void saveOrders(List<Order> orders) {
+    if (orders.isEmpty()) {
+      return;
+    }
+    List<OrderEntity> orderEntities = new ArrayList<>(orders.size());
+    for (Order order : orders) {
+      orderEntities.add(RestaurantMapper.mapDtoToEntity(order));
+    }
+
+    // Unordered, so that the orders of a batch written again after a partial failure are all
+    // attempted, the ones stored the first time failing on their duplicate id.
+    try {
+      mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderEntity.class)
+          .insert(orderEntities)
+          .execute();
+    } catch (BulkOperationException e) {
+      for (BulkWriteError error : e.getErrors()) {
+        if (error.getCode() != DUPLICATE_KEY) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  // Keyset pagination: the next page is the orders strictly before the last one returned, in
+  // the (placedAt, id) order of the userId_placedAt index, instead of skipping the orders
+  // returned so far. The query walks the index from the cursor on, so deep pages cost as
+  // much as the first one.
+  // Orders stored before placedAt was recorded sort after all the others, as mongo sorts a
+  // missing placedAt below any date, and are paged by id alone.
+  @Override
+  public List<Order> findOrders(String userId, OrderCursor after, int limit) {
+    Criteria criteria = where("userId").is(userId);
+    if (after != null && after.getPlacedAt() != null) {
+      criteria = criteria.orOperator(
+          where("placedAt").lt(after.getPlacedAt()),
+          where("placedAt").is(after.getPlacedAt()).and("id").lt(after.getId()),
+          where("placedAt").is(null));
+    } else if (after != null) {
+      criteria = criteria.and("placedAt").is(null).and("id").lt(after.getId());
+    }
+    Query query = Query.query(criteria)
+        .with(Sort.by(Sort.Direction.DESC, "placedAt", "id"))
+        .limit(limit);
+    // The history only shows the item names, the images make up most of an order document.
+    query.fields().exclude("items.imageUrl");
+
+    List<Order> orders = new ArrayList<>();
+    for (OrderEntity orderEntity : mongoTemplate.find(query, OrderEntity.class)) {
+      orders.add(RestaurantMapper.mapEntityToDto(orderEntity));
+    }
+    return orders;
+  }
+
+}
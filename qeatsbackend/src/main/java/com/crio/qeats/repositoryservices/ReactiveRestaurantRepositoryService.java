@@ -0,0 +1,28 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Restaurant;
+import java.time.LocalTime;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveRestaurantRepositoryService {
+
+  /**
+   * Emits the open restaurants within the specified serving radius, the same restaurants as
+   * RestaurantRepositoryService.findAllRestaurantsCloseBy returns. Nothing is read until the
+   * Flux is subscribed to, and no thread waits on the database while it is read.
+   * @param latitude coordinates near which we have to search for restaurant
+   * @param longitude coordinates near which we have to search for restaurant
+   * @param currentTime current time
+   * @param servingRadiusInKms serving radius
+   * @return open restaurants within the specified radius, empty if there is none
+   */
+  Flux<Restaurant> findAllRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms);
+
+}
@@ -0,0 +1,53 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.RestaurantMapper;
+import java.time.LocalTime;
+import java.util.concurrent.Callable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// Runs the $geoNear pipeline of RestaurantRepositoryServiceGeoNearImpl through the reactive
+// driver, so that mongo only hands over the restaurants within the radius, and checks their
+// opening hours the same way, so that v1 and v2 list the same restaurants.
+@Service
+public class ReactiveRestaurantRepositoryServiceImpl
+    implements ReactiveRestaurantRepositoryService {
+
+  @Autowired
+  private ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @Autowired
+  private RestaurantRepositoryServiceGeoNearImpl restaurantRepositoryServiceGeoNear;
+
+  @Override
+  public Flux<Restaurant> findAllRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms) {
+    Callable<Aggregation> closeBy = () -> restaurantRepositoryServiceGeoNear
+        .closeByAggregation(latitude, longitude, currentTime, servingRadiusInKms);
+    // Indexing the locations blocks on mongo, it is moved off the event loop in case startup
+    // could not do it.
+    Mono<Aggregation> aggregation = restaurantRepositoryServiceGeoNear.isLocationsIndexed()
+        ? Mono.fromCallable(closeBy)
+        : Mono.fromCallable(closeBy).subscribeOn(Schedulers.elastic());
+
+    return aggregation
+        .flatMapMany(pipeline -> reactiveMongoTemplate.aggregate(pipeline,
+            RestaurantEntity.class, RestaurantEntity.class))
+        .filter(restaurant -> restaurant.getOpeningHours().isOpenAt(currentTime))
+        .map(RestaurantMapper::mapEntityToDto);
+  }
+
+}
@@ -0,0 +1,295 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.models.RestaurantEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable dictionary of the restaurant attributes, e.g. "South Indian", with the set of
+ * restaurants having each of them. Attributes are compared ignoring case, and numbered in the
+ * order they are first seen. Restaurants are identified by their position in the list the index
+ * was built from, as in the other indexes of a catalogue snapshot.
+ *
+ * <p>A set is a bitset over the positions, unless the attribute is rare enough for the sorted
+ * positions to take less room. Filtering on several attributes intersects their sets, so its
+ * cost depends on how many restaurants have the rarest of them, not on the catalogue size.
+ * Facets intersect the set of every attribute with the positions of the results, a word of 64
+ * restaurants at a time.
+ *
+ * <p>Building the index also encodes the attributes of the restaurants: equal attributes end
+ * up as one shared String instance, instead of one per restaurant as read from the database.
+ */
+public class RestaurantAttributeIndex {
+
+  private static final RestaurantFilter NONE = new AttributeFilter(new Postings[0], true);
+
+  // Attribute ids by lower case attribute.
+  private final Map<String, Integer> ids;
+  // By attribute id, the spelling seen first and the restaurants having the attribute.
+  private final String[] spellings;
+  private final Postings[] postings;
+  // Restaurant positions by restaurant id, the first one for ids listed twice.
+  private final Map<String, Integer> positions;
+
+  /**
+   * Builds the index over the given restaurants, replacing their attributes with shared
+   * instances.
+   */
+  public RestaurantAttributeIndex(List<RestaurantEntity> restaurants) {
+    Map<String, String> sharedAttributes = new HashMap<>();
+    Map<String, Integer> ids = new HashMap<>();
+    List<String> spellings = new ArrayList<>();
+    List<BitSet> sets = new ArrayList<>();
+    Map<String, Integer> positions = new HashMap<>(restaurants.size() * 2);
+    for (int position = 0; position < restaurants.size(); position++) {
+      RestaurantEntity restaurant = restaurants.get(position);
+      positions.putIfAbsent(restaurant.getRestaurantId(), position);
+      if (restaurant.getAttributes() == null) {
+        continue;
+      }
+      List<String> encoded = new ArrayList<>(restaurant.getAttributes().size());
+      for (String attribute : restaurant.getAttributes()) {
+        if (attribute != null) {
+          attribute = sharedAttributes.computeIfAbsent(attribute, key -> key);
+          Integer id = ids.get(attribute.toLowerCase(Locale.ROOT));
+          if (id == null) {
+            id = spellings.size();
+            ids.put(attribute.toLowerCase(Locale.ROOT), id);
+            spellings.add(attribute);
+            sets.add(new BitSet());
+          }
+          sets.get(id).set(position);
+        }
+        encoded.add(attribute);
+      }
+      restaurant.setAttributes(encoded);
+    }
+
+    this.ids = ids;
+    this.spellings = spellings.toArray(new String[0]);
+    this.postings = new Postings[sets.size()];
+    for (int id = 0; id < postings.length; id++) {
+      postings[id] = new Postings(sets.get(id), restaurants.size());
+    }
+    this.positions = positions;
+  }
+
+  /**
+   * Number of distinct attributes.
+   */
+  public int size() {
+    return spellings.length;
+  }
+
+  /**
+   * Get the position of the restaurant in the indexed list.
+   * @return the position, or -1 if the restaurant is not indexed
+   */
+  public int positionOf(String restaurantId) {
+    Integer position = positions.get(restaurantId);
+    return position == null ? -1 : position;
+  }
+
+  /**
+   * Get the restaurants having every one of the attributes, ignoring case.
+   * @param requiredAttributes attributes to look for, at least one
+   * @return the matching restaurants, none if an attribute is unknown
+   * @throws IllegalArgumentException if there is no attribute to look for
+   */
+  public RestaurantFilter findWithAll(List<String> requiredAttributes) {
+    if (requiredAttributes.isEmpty()) {
+      throw new IllegalArgumentException("No attribute to look for");
+    }
+    Postings[] required = new Postings[requiredAttributes.size()];
+    for (int i = 0; i < required.length; i++) {
+      String attribute = requiredAttributes.get(i);
+      Integer id = attribute == null ? null : ids.get(attribute.trim().toLowerCase(Locale.ROOT));
+      if (id == null) {
+        return NONE;
+      }
+      required[i] = postings[id];
+    }
+    // The rarest attribute comes first, it is the one enumerated.
+    Arrays.sort(required, Comparator.comparingInt(postings -> postings.cardinality));
+
+    int firstSparse = 0;
+    while (firstSparse < required.length && required[firstSparse].words != null) {
+      firstSparse++;
+    }
+    if (firstSparse == required.length && required.length > 1) {
+      long[] intersection = required[0].words.clone();
+      for (int i = 1; i < required.length; i++) {
+        long[] words = required[i].words;
+        for (int word = 0; word < intersection.length; word++) {
+          intersection[word] &= word < words.length ? words[word] : 0;
+        }
+      }
+      required = new Postings[] {new Postings(intersection)};
+    }
+    return new AttributeFilter(required, false);
+  }
+
+  /**
+   * Counts the restaurants having each attribute among the given ones, e.g.
+   * {"South Indian": 12, "Tamil": 3}, under the spelling seen first in the index.
+   * @param resultPositions positions of the restaurants to count
+   * @return counts in decreasing order, ties by attribute, without the attributes none of the
+   *     restaurants has
+   */
+  public Map<String, Integer> countFacets(BitSet resultPositions) {
+    long[] words = resultPositions.toLongArray();
+    int[] counts = new int[postings.length];
+    List<Integer> counted = new ArrayList<>();
+    for (int id = 0; id < postings.length; id++) {
+      counts[id] = postings[id].countIn(words);
+      if (counts[id] > 0) {
+        counted.add(id);
+      }
+    }
+
+    counted.sort((first, second) -> counts[first] == counts[second]
+        ? spellings[first].compareTo(spellings[second])
+        : Integer.compare(counts[second], counts[first]));
+    Map<String, Integer> facets = new LinkedHashMap<>();
+    for (int id : counted) {
+      facets.put(spellings[id], counts[id]);
+    }
+    return facets;
+  }
+
+  private static final class AttributeFilter implements RestaurantFilter {
+
+    private final Postings[] required;
+    private final boolean empty;
+
+    private AttributeFilter(Postings[] required, boolean empty) {
+      this.required = required;
+      this.empty = empty || required[0].cardinality == 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return empty;
+    }
+
+    @Override
+    public int getMaxMatches() {
+      return empty ? 0 : required[0].cardinality;
+    }
+
+    @Override
+    public boolean test(int position) {
+      if (empty) {
+        return false;
+      }
+      for (Postings postings : required) {
+        if (!postings.contains(position)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public void forEachMatch(IntConsumer action) {
+      if (empty) {
+        return;
+      }
+      required[0].forEach(position -> {
+        for (int i = 1; i < required.length; i++) {
+          if (!required[i].contains(position)) {
+            return;
+          }
+        }
+        action.accept(position);
+      });
+    }
+  }
+
+  // Positions of the restaurants having one attribute, as the words of a bitset or as a sorted
+  // array.
+  private static final class Postings {
+
+    private final long[] words;
+    private final int[] sparse;
+    private final int cardinality;
+
+    private Postings(BitSet positions, int restaurantCount) {
+      this.cardinality = positions.cardinality();
+      // A bitset takes a bit per restaurant, an array 32 bits per match.
+      if ((long) cardinality * Integer.SIZE < restaurantCount) {
+        this.words = null;
+        this.sparse = positions.stream().toArray();
+      } else {
+        this.words = positions.toLongArray();
+        this.sparse = null;
+      }
+    }
+
+    private Postings(long[] words) {
+      this.words = words;
+      this.sparse = null;
+      int cardinality = 0;
+      for (long word : words) {
+        cardinality += Long.bitCount(word);
+      }
+      this.cardinality = cardinality;
+    }
+
+    private boolean contains(int position) {
+      return words != null ? isSet(words, position)
+          : Arrays.binarySearch(sparse, position) >= 0;
+    }
+
+    private void forEach(IntConsumer action) {
+      if (words != null) {
+        for (int word = 0; word < words.length; word++) {
+          for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+            action.accept(word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+          }
+        }
+      } else {
+        for (int position : sparse) {
+          action.accept(position);
+        }
+      }
+    }
+
+    // Number of positions in both these postings and the given bitset words.
+    private int countIn(long[] positions) {
+      int count = 0;
+      if (words != null) {
+        int length = Math.min(words.length, positions.length);
+        for (int word = 0; word < length; word++) {
+          count += Long.bitCount(words[word] & positions[word]);
+        }
+      } else {
+        for (int position : sparse) {
+          if (isSet(positions, position)) {
+            count++;
+          }
+        }
+      }
+      return count;
+    }
+
+    private static boolean isSet(long[] words, int position) {
+      int word = position / Long.SIZE;
+      return word < words.length && (words[word] & (1L << position)) != 0;
+    }
+  }
+}
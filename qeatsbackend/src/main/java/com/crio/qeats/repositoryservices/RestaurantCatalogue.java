@@ -0,0 +1,329 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.repositories.MenuRepository;
+import com.crio.qeats.repositories.RestaurantRepository;
+import com.crio.qeats.utils.GeoUtils;
+import com.crio.qeats.utils.RestaurantAttributes;
+import com.crio.qeats.utils.RestaurantMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// In-memory copy of the restaurants collection, with a geohash index for radius queries and
+// an inverted index over the restaurants and their menus for searches. The snapshot is rebuilt
+// from the database once it is older than RESTAURANT_INDEX_REFRESH_INTERVAL_IN_SECONDS, in the
+// background: queries keep being served from the stale snapshot meanwhile, and only wait for
+// the database when there is no snapshot at all.
+// With qeats.catalogue.snapshot-file set, every snapshot read from the database is also saved
+// to that file, see RestaurantSnapshotFile. On startup the catalogue serves the saved snapshot
+// right away and reads the database again in the background.
+@Component
+@Log4j2
+public class RestaurantCatalogue {
+
+  private static final long REFRESH_INTERVAL_IN_NANOS =
+      TimeUnit.SECONDS.toNanos(GlobalConstants.RESTAURANT_INDEX_REFRESH_INTERVAL_IN_SECONDS);
+
+  // Searches and filters matching at most this many restaurants in the whole catalogue check
+  // each of them against the radius. Others are checked against each restaurant within the
+  // radius, whose number only depends on the local density.
+  private static final int MAX_MATCHES_TO_ENUMERATE = 512;
+
+  @Autowired
+  private RestaurantRepository restaurantRepository;
+
+  @Autowired
+  private MenuRepository menuRepository;
+
+  // Optional, where to save the snapshot for the next startup; not saved when empty.
+  @Value("${qeats.catalogue.snapshot-file:}")
+  private String snapshotFile;
+
+  private volatile Snapshot snapshot;
+
+  // When the snapshot is due for a refresh, REFRESH_INTERVAL_IN_NANOS after it was built or
+  // after the last refresh failed.
+  private volatile long refreshDueAtNanos;
+
+  // Runs the refreshes, one at a time, while queries are served from the current snapshot.
+  private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "restaurant-catalogue-refresh");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+
+  /**
+   * Loads the snapshot saved by a previous run, if any, and refreshes it from the database in
+   * the background. Queries are served from the saved snapshot until the refresh is done.
+   */
+  @PostConstruct
+  public void loadSnapshotFile() {
+    if (snapshotFile == null || snapshotFile.isEmpty() || !Files.exists(Paths.get(snapshotFile))) {
+      return;
+    }
+
+    long startTimeInNanos = System.nanoTime();
+    RestaurantSnapshotFile.Contents contents;
+    try {
+      contents = RestaurantSnapshotFile.read(Paths.get(snapshotFile));
+    } catch (IOException e) {
+      log.warn("Ignoring the saved restaurants snapshot {}", snapshotFile, e);
+      return;
+    }
+    Snapshot loaded = new Snapshot(contents.restaurants, contents.menus);
+    synchronized (this) {
+      refreshDueAtNanos = System.nanoTime() + REFRESH_INTERVAL_IN_NANOS;
+      snapshot = loaded;
+    }
+    log.info("Loaded {} restaurants and {} menus from {} in {} ms", contents.restaurants.size(),
+        contents.menus.size(), snapshotFile,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeInNanos));
+    refreshInBackground(loaded);
+  }
+
+  /**
+   * Get the open restaurants within the serving radius.
+   */
+  public List<Restaurant> findRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms) {
+    return openRestaurants(getSnapshot().getGeoHashIndex().findWithinRadius(latitude, longitude,
+        servingRadiusInKms), currentTime);
+  }
+
+  /**
+   * Get the open restaurants within the serving radius having every one of the attributes,
+   * see RestaurantAttributeIndex.
+   */
+  public List<Restaurant> findRestaurantsCloseByWithAttributes(Double latitude,
+      Double longitude, List<String> attributes, LocalTime currentTime,
+      Double servingRadiusInKms) {
+    Snapshot current = getSnapshot();
+    return findMatching(current, current.getAttributeIndex().findWithAll(attributes), latitude,
+        longitude, currentTime, servingRadiusInKms);
+  }
+
+  /**
+   * Counts the restaurants having each attribute, from the attribute index, see
+   * RestaurantAttributeIndex.countFacets. Restaurants missing from the snapshot, e.g. cached
+   * ones added to the database since, are counted from their own attributes instead, along
+   * with all the others.
+   */
+  public Map<String, Integer> countFacets(List<Restaurant> restaurants) {
+    RestaurantAttributeIndex attributeIndex = getSnapshot().getAttributeIndex();
+    BitSet positions = new BitSet();
+    for (Restaurant restaurant : restaurants) {
+      int position = attributeIndex.positionOf(restaurant.getRestaurantId());
+      if (position < 0) {
+        return RestaurantAttributes.countFacets(restaurants);
+      }
+      positions.set(position);
+    }
+    return attributeIndex.countFacets(positions);
+  }
+
+  /**
+   * Get the open restaurants within the serving radius whose name matches the search string,
+   * see RestaurantSearchIndex.
+   */
+  public List<Restaurant> findRestaurantsByName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    Snapshot current = getSnapshot();
+    return findMatching(current, current.getSearchIndex().findByName(searchString), latitude,
+        longitude, currentTime, servingRadiusInKms);
+  }
+
+  /**
+   * Get the open restaurants within the serving radius having an attribute that matches the
+   * search string, see RestaurantSearchIndex.
+   */
+  public List<Restaurant> findRestaurantsByAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    Snapshot current = getSnapshot();
+    return findMatching(current, current.getSearchIndex().findByAttributes(searchString),
+        latitude, longitude, currentTime, servingRadiusInKms);
+  }
+
+  /**
+   * Get the open restaurants within the serving radius having an item on their menu whose name
+   * matches the search string, see RestaurantSearchIndex.
+   */
+  public List<Restaurant> findRestaurantsByItemName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    Snapshot current = getSnapshot();
+    return findMatching(current, current.getSearchIndex().findByItemName(searchString),
+        latitude, longitude, currentTime, servingRadiusInKms);
+  }
+
+  /**
+   * Get the open restaurants within the serving radius having an item on their menu with an
+   * attribute that matches the search string, see RestaurantSearchIndex.
+   */
+  public List<Restaurant> findRestaurantsByItemAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    Snapshot current = getSnapshot();
+    return findMatching(current, current.getSearchIndex().findByItemAttributes(searchString),
+        latitude, longitude, currentTime, servingRadiusInKms);
+  }
+
+  /**
+   * Drops the current snapshot, so that the next query rebuilds it from the database.
+   */
+  public void invalidate() {
+    snapshot = null;
+  }
+
+  /**
+   * Get the current snapshot, building it if there is none yet. A snapshot that is too old is
+   * still returned, and refreshed in the background.
+   */
+  public Snapshot getSnapshot() {
+    Snapshot current = snapshot;
+    while (current == null) {
+      Snapshot rebuilt = rebuildSnapshot(null);
+      current = rebuilt != null ? rebuilt : snapshot;
+    }
+    if (System.nanoTime() - refreshDueAtNanos >= 0) {
+      refreshInBackground(current);
+    }
+    return current;
+  }
+
+  // Rebuilds the stale snapshot on the refresh thread, unless a refresh is already running.
+  private void refreshInBackground(Snapshot stale) {
+    if (!refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    refresher.execute(() -> {
+      try {
+        rebuildSnapshot(stale);
+      } catch (RuntimeException e) {
+        // The stale snapshot is served until the next refresh is due.
+        refreshDueAtNanos = System.nanoTime() + REFRESH_INTERVAL_IN_NANOS;
+        log.warn("Unable to refresh the restaurants snapshot", e);
+      } finally {
+        refreshing.set(false);
+      }
+    });
+  }
+
+  /**
+   * Replaces the stale snapshot with one read from the database.
+   * @return the new snapshot, or null if the stale one was replaced or invalidated by another
+   *     thread meanwhile
+   */
+  private synchronized Snapshot rebuildSnapshot(Snapshot stale) {
+    if (snapshot != stale) {
+      return null;
+    }
+
+    long startTimeInNanos = System.nanoTime();
+    List<MenuEntity> menus = menuRepository.findAll();
+    Snapshot rebuilt = new Snapshot(restaurantRepository.findAll(), menus);
+    if (snapshot != stale) {
+      return null;
+    }
+    refreshDueAtNanos = System.nanoTime() + REFRESH_INTERVAL_IN_NANOS;
+    snapshot = rebuilt;
+
+    log.info("Indexed {} restaurants and {} menus in {} ms", rebuilt.getRestaurants().size(),
+        menus.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeInNanos));
+    if (snapshotFile != null && !snapshotFile.isEmpty()) {
+      // On the refresh thread, once the lock is released, so that neither the queries nor the
+      // threads waiting for the snapshot wait for the disk.
+      refresher.execute(() -> saveSnapshotFile(rebuilt.getRestaurants(), menus));
+    }
+    return rebuilt;
+  }
+
+  private void saveSnapshotFile(List<RestaurantEntity> restaurants, List<MenuEntity> menus) {
+    try {
+      RestaurantSnapshotFile.write(Paths.get(snapshotFile), restaurants, menus);
+    } catch (IOException e) {
+      log.warn("Unable to save the restaurants snapshot to {}", snapshotFile, e);
+    }
+  }
+
+  private List<Restaurant> findMatching(Snapshot current, RestaurantFilter filter,
+      Double latitude, Double longitude, LocalTime currentTime, Double servingRadiusInKms) {
+    if (filter.isEmpty()) {
+      return new ArrayList<>();
+    }
+    if (filter.getMaxMatches() > MAX_MATCHES_TO_ENUMERATE) {
+      return openRestaurants(current.getGeoHashIndex().findWithinRadius(latitude, longitude,
+          servingRadiusInKms, filter), currentTime);
+    }
+
+    GeoUtils.Circle servingArea = new GeoUtils.Circle(latitude, longitude, servingRadiusInKms);
+    List<RestaurantEntity> withinRadius = new ArrayList<>();
+    filter.forEachMatch(position -> {
+      RestaurantEntity restaurantEntity = current.getRestaurants().get(position);
+      if (restaurantEntity.getLatitude() != null && restaurantEntity.getLongitude() != null
+          && servingArea.contains(restaurantEntity.getLatitude(),
+              restaurantEntity.getLongitude())) {
+        withinRadius.add(restaurantEntity);
+      }
+    });
+    return openRestaurants(withinRadius, currentTime);
+  }
+
+  private List<Restaurant> openRestaurants(List<RestaurantEntity> restaurantEntities,
+      LocalTime currentTime) {
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (RestaurantEntity restaurantEntity : restaurantEntities) {
+      if (restaurantEntity.getOpeningHours().isOpenAt(currentTime)) {
+        restaurants.add(RestaurantMapper.mapEntityToDto(restaurantEntity));
+      }
+    }
+    return restaurants;
+  }
+
+  /**
+   * The restaurants along with the indexes built over them. Positions in the indexes refer to
+   * the restaurants list.
+   */
+  @Getter
+  public static final class Snapshot {
+
+    private final List<RestaurantEntity> restaurants;
+    private final RestaurantGeoHashIndex geoHashIndex;
+    private final RestaurantSearchIndex searchIndex;
+    private final RestaurantScanEngine scanEngine;
+    private final RestaurantAttributeIndex attributeIndex;
+
+    Snapshot(List<RestaurantEntity> restaurants, List<MenuEntity> menus) {
+      this.restaurants = restaurants;
+      // First, so that the other indexes hold the shared attributes too.
+      this.attributeIndex = new RestaurantAttributeIndex(restaurants);
+      this.geoHashIndex = new RestaurantGeoHashIndex(restaurants,
+          GlobalConstants.RESTAURANT_INDEX_GEOHASH_PRECISION);
+      this.searchIndex = new RestaurantSearchIndex(restaurants, menus);
+      this.scanEngine = new RestaurantScanEngine(restaurants);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Restaurants selected by their position in the list a catalogue snapshot was built from, e.g.
+ * the matches of a search. Matches can be enumerated, which is cheap when there are few of
+ * them, or checked one restaurant at a time, e.g. for the restaurants within a radius, which is
+ * cheap when there are many.
+ */
+public interface RestaurantFilter extends IntPredicate {
+
+  /**
+   * Whether the filter surely matches nothing.
+   */
+  boolean isEmpty();
+
+  /**
+   * Upper bound of the number of matching restaurants, in constant time.
+   */
+  int getMaxMatches();
+
+  /**
+   * Calls the action with the position of every matching restaurant, once each.
+   */
+  void forEachMatch(IntConsumer action);
+}
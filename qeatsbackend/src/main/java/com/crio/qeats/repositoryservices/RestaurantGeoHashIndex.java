@@ -0,0 +1,198 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import ch.hsr.geohash.BoundingBox;
+import ch.hsr.geohash.GeoHash;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.GeoUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable in-memory index that buckets restaurants by the geohash cell they fall in.
+ * A radius query only looks at the cells overlapping the bounding box of the search circle,
+ * so the number of candidates depends on the local density instead of the catalogue size.
+ * Each cell keeps the coordinates of its restaurants in radians along with cos(latitude), so
+ * that the exact distance check does not redo the conversions on every query.
+ */
+public class RestaurantGeoHashIndex {
+
+  // Length of one degree of latitude, using the same earth radius as GeoUtils.
+  private static final double KMS_PER_DEGREE = 6371 * Math.PI / 180;
+
+  private final int precision;
+  private final Map<String, Cell> cells;
+  private final int size;
+  private final int largestCellSize;
+
+  /**
+   * Builds the index over the given restaurants.
+   * @param restaurants restaurants to index, entries without coordinates are skipped
+   * @param precision geohash precision in characters of the cells
+   */
+  public RestaurantGeoHashIndex(List<RestaurantEntity> restaurants, int precision) {
+    this.precision = precision;
+    Map<String, List<Integer>> buckets = new HashMap<>();
+    int size = 0;
+    for (int position = 0; position < restaurants.size(); position++) {
+      RestaurantEntity restaurant = restaurants.get(position);
+      if (restaurant.getLatitude() == null || restaurant.getLongitude() == null) {
+        continue;
+      }
+      String cell = GeoHash.geoHashStringWithCharacterPrecision(restaurant.getLatitude(),
+          restaurant.getLongitude(), precision);
+      buckets.computeIfAbsent(cell, key -> new ArrayList<>()).add(position);
+      size++;
+    }
+    Map<String, Cell> cells = new HashMap<>(buckets.size() * 2);
+    int largestCellSize = 0;
+    for (Map.Entry<String, List<Integer>> bucket : buckets.entrySet()) {
+      cells.put(bucket.getKey(), new Cell(restaurants, bucket.getValue()));
+      largestCellSize = Math.max(largestCellSize, bucket.getValue().size());
+    }
+    this.cells = cells;
+    this.size = size;
+    this.largestCellSize = largestCellSize;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the restaurants bucketed in any cell that overlaps the bounding box of the circle.
+   * @param latitude latitude of the center of the circle
+   * @param longitude longitude of the center of the circle
+   * @param radiusInKms radius of the circle
+   * @return superset of the restaurants within the circle, or empty list if there is none
+   */
+  public List<RestaurantEntity> findCandidates(double latitude, double longitude,
+      double radiusInKms) {
+    List<RestaurantEntity> candidates = new ArrayList<>();
+    forEachCell(latitude, longitude, radiusInKms, cell -> candidates.addAll(cell.restaurants));
+    return candidates;
+  }
+
+  /**
+   * Get the restaurants strictly within the circle, as per GeoUtils.findDistanceInKm.
+   * @param latitude latitude of the center of the circle
+   * @param longitude longitude of the center of the circle
+   * @param radiusInKms radius of the circle
+   * @return restaurants within the circle, or empty list if there is none
+   */
+  public List<RestaurantEntity> findWithinRadius(double latitude, double longitude,
+      double radiusInKms) {
+    return findWithinRadius(latitude, longitude, radiusInKms, null);
+  }
+
+  /**
+   * Get the restaurants strictly within the circle that are accepted by the filter.
+   * @param latitude latitude of the center of the circle
+   * @param longitude longitude of the center of the circle
+   * @param radiusInKms radius of the circle
+   * @param filter tells from the position of a restaurant in the list the index was built
+   *     from whether to keep it, e.g. a RestaurantSearchIndex query; null to keep all of them
+   * @return restaurants within the circle, or empty list if there is none
+   */
+  public List<RestaurantEntity> findWithinRadius(double latitude, double longitude,
+      double radiusInKms, IntPredicate filter) {
+    GeoUtils.Circle circle = new GeoUtils.Circle(latitude, longitude, radiusInKms);
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    int[] matches = new int[largestCellSize];
+    forEachCell(latitude, longitude, radiusInKms, cell -> {
+      int count = GeoUtils.findWithinRadius(circle, cell.latitudesInRadians,
+          cell.longitudesInRadians, cell.cosLatitudes, matches);
+      for (int i = 0; i < count; i++) {
+        if (filter == null || filter.test(cell.positions[matches[i]])) {
+          restaurants.add(cell.restaurants.get(matches[i]));
+        }
+      }
+    });
+    return restaurants;
+  }
+
+  private void forEachCell(double latitude, double longitude, double radiusInKms,
+      Consumer<Cell> action) {
+    double latitudeDelta = radiusInKms / KMS_PER_DEGREE;
+    double cosLatitude = Math.cos(Math.toRadians(Math.min(Math.abs(latitude) + latitudeDelta,
+        89.0)));
+    double longitudeDelta = Math.min(latitudeDelta / cosLatitude, 180.0);
+
+    double minLatitude = Math.max(latitude - latitudeDelta, -90.0);
+    double maxLatitude = Math.min(latitude + latitudeDelta, 90.0);
+    double minLongitude = longitude - longitudeDelta;
+    double maxLongitude = longitude + longitudeDelta;
+
+    // Walk the grid of cells from the south west corner, row by row towards the north east.
+    // Longitudes are not normalized while counting columns so that the walk can cross the
+    // antimeridian; the geohash neighbours wrap around on their own.
+    double wrapOffset = minLongitude - normalizeLongitude(minLongitude);
+    GeoHash southWest = GeoHash.withCharacterPrecision(minLatitude, minLongitude - wrapOffset,
+        precision);
+    BoundingBox cell = southWest.getBoundingBox();
+    int rows = Math.min(
+        (int) Math.floor((maxLatitude - cell.getMinLat()) / cell.getLatitudeSize()) + 1,
+        (int) Math.ceil(180.0 / cell.getLatitudeSize()));
+    int columns = Math.min(
+        (int) Math.floor((maxLongitude - (cell.getMinLon() + wrapOffset))
+            / cell.getLongitudeSize()) + 1,
+        (int) Math.ceil(360.0 / cell.getLongitudeSize()));
+
+    GeoHash rowStart = southWest;
+    for (int row = 0; row < rows; row++) {
+      GeoHash current = rowStart;
+      for (int column = 0; column < columns; column++) {
+        Cell bucket = cells.get(current.toBase32());
+        if (bucket != null) {
+          action.accept(bucket);
+        }
+        current = current.getEasternNeighbour();
+      }
+      rowStart = rowStart.getNorthernNeighbour();
+    }
+  }
+
+  private static double normalizeLongitude(double longitude) {
+    if (longitude < -180.0) {
+      return longitude + 360.0;
+    }
+    if (longitude > 180.0) {
+      return longitude - 360.0;
+    }
+    return longitude;
+  }
+
+  // Restaurants of one geohash cell, with their coordinates laid out for GeoUtils.
+  private static final class Cell {
+
+    private final List<RestaurantEntity> restaurants;
+    private final int[] positions;
+    private final double[] latitudesInRadians;
+    private final double[] longitudesInRadians;
+    private final double[] cosLatitudes;
+
+    private Cell(List<RestaurantEntity> allRestaurants, List<Integer> positions) {
+      this.restaurants = new ArrayList<>(positions.size());
+      this.positions = new int[positions.size()];
+      this.latitudesInRadians = new double[positions.size()];
+      this.longitudesInRadians = new double[positions.size()];
+      this.cosLatitudes = new double[positions.size()];
+      for (int i = 0; i < positions.size(); i++) {
+        this.positions[i] = positions.get(i);
+        restaurants.add(allRestaurants.get(positions.get(i)));
+        latitudesInRadians[i] = Math.toRadians(restaurants.get(i).getLatitude());
+        longitudesInRadians[i] = Math.toRadians(restaurants.get(i).getLongitude());
+        cosLatitudes[i] = Math.cos(latitudesInRadians[i]);
+      }
+    }
+  }
+}
@@ -7,9 +7,13 @@
 package com.crio.qeats.repositoryservices;
 
 import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.utils.RestaurantAttributes;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Repository;
 
@@ -30,6 +34,122 @@ public interface RestaurantRepositoryService {
   List<Restaurant> findAllRestaurantsCloseBy(Double latitude, Double longitude,
       LocalTime currentTime, Double servingRadiusInKms);
 
+  /**
+   * Calls the action with every open restaurant within the specified serving radius, the
+   * same restaurants as findAllRestaurantsCloseBy returns.
+   * Implementations that can read the restaurants one at a time do so, so that they are never
+   * all held in memory; the others go through findAllRestaurantsCloseBy.
+   * @param latitude coordinates near which we have to search for restaurant
+   * @param longitude coordinates near which we have to search for restaurant
+   * @param currentTime current time
+   * @param servingRadiusInKms serving radius
+   * @param action called with each restaurant, in the order findAllRestaurantsCloseBy lists them
+   */
+  default void forEachRestaurantCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms, Consumer<Restaurant> action) {
+    findAllRestaurantsCloseBy(latitude, longitude, currentTime, servingRadiusInKms)
+        .forEach(action);
+  }
+
+  /**
+   * Get the list of open restaurants within the specified serving radius having every one of
+   * the attributes, e.g. "Tamil" and "Veg", compared ignoring case.
+   * Implementations backed by the in-memory catalogue answer from its attribute index; the
+   * others filter what findAllRestaurantsCloseBy returns.
+   * @param latitude coordinates near which we have to search for restaurant
+   * @param longitude coordinates near which we have to search for restaurant
+   * @param attributes attributes the restaurants must have, at least one
+   * @param currentTime current time
+   * @param servingRadiusInKms serving radius
+   * @return list of open restaurants within the specified radius having all the attributes,
+   *     or empty list if there is none
+   */
+  default List<Restaurant> findRestaurantsCloseByWithAttributes(Double latitude,
+      Double longitude, List<String> attributes, LocalTime currentTime,
+      Double servingRadiusInKms) {
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (Restaurant restaurant : findAllRestaurantsCloseBy(latitude, longitude, currentTime,
+        servingRadiusInKms)) {
+      if (RestaurantAttributes.hasAll(restaurant, attributes)) {
+        restaurants.add(restaurant);
+      }
+    }
+    return restaurants;
+  }
+
+  /**
+   * Counts the restaurants having each attribute, e.g. {"South Indian": 12, "Tamil": 3}, see
+   * RestaurantAttributes.countFacets.
+   * Implementations backed by the in-memory catalogue count them from its attribute index; the
+   * others from the attributes of each restaurant.
+   * @param restaurants restaurants returned by this service
+   * @return counts in decreasing order, ties by attribute
+   */
+  default Map<String, Integer> countFacets(List<Restaurant> restaurants) {
+    return RestaurantAttributes.countFacets(restaurants);
+  }
+
+  /**
+   * Get the list of open restaurants within the specified serving radius whose name matches
+   * the search string.
+   *   - Every word of the search string has to start a word of the name, ignoring case.
+   * @param latitude coordinates near which we have to search for restaurant
+   * @param longitude coordinates near which we have to search for restaurant
+   * @param searchString string to be matched against the restaurant names
+   * @param currentTime current time
+   * @param servingRadiusInKms serving radius
+   * @return list of open restaurants within the specified radius whose name matches, or
+   *     empty list if there is none
+   */
+  List<Restaurant> findRestaurantsByName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms);
+
+  /**
+   * Get the list of open restaurants within the specified serving radius having an attribute
+   * that matches the search string.
+   *   - Every word of the search string has to start a word of the attribute, ignoring case.
+   * @param latitude coordinates near which we have to search for restaurant
+   * @param longitude coordinates near which we have to search for restaurant
+   * @param searchString string to be matched against the restaurant attributes
+   * @param currentTime current time
+   * @param servingRadiusInKms serving radius
+   * @return list of open restaurants within the specified radius having a matching attribute,
+   *     or empty list if there is none
+   */
+  List<Restaurant> findRestaurantsByAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms);
+
+  /**
+   * Get the list of open restaurants within the specified serving radius having an item on
+   * their menu whose name matches the search string.
+   *   - Every word of the search string has to start a word of the item name, ignoring case.
+   * @param latitude coordinates near which we have to search for restaurant
+   * @param longitude coordinates near which we have to search for restaurant
+   * @param searchString string to be matched against the names of the menu items
+   * @param currentTime current time
+   * @param servingRadiusInKms serving radius
+   * @return list of open restaurants within the specified radius having a matching item, or
+   *     empty list if there is none
+   */
+  List<Restaurant> findRestaurantsByItemName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms);
+
+  /**
+   * Get the list of open restaurants within the specified serving radius having an item on
+   * their menu with an attribute that matches the search string.
+   *   - Every word of the search string has to start a word of the item attributes,
+   *     ignoring case.
+   * @param latitude coordinates near which we have to search for restaurant
+   * @param longitude coordinates near which we have to search for restaurant
+   * @param searchString string to be matched against the attributes of the menu items
+   * @param currentTime current time
+   * @param servingRadiusInKms serving radius
+   * @return list of open restaurants within the specified radius having an item with a
+   *     matching attribute, or empty list if there is none
+   */
+  List<Restaurant> findRestaurantsByItemAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms);
+
 }
 
 
@@ -48,7 +48,47 @@ public class RestaurantRepositoryServiceDummyImpl implements RestaurantRepositor
     return restaurantList;
   }
 
+  @Override
+  public List<Restaurant> findRestaurantsByName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    List<Restaurant> restaurantList = new ArrayList<>();
+    for (Restaurant restaurant : findAllRestaurantsCloseBy(latitude, longitude, currentTime,
+        servingRadiusInKms)) {
+      if (restaurant.getName().toLowerCase().contains(searchString.toLowerCase())) {
+        restaurantList.add(restaurant);
+      }
+    }
+    return restaurantList;
+  }
+
+  @Override
+  public List<Restaurant> findRestaurantsByAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    List<Restaurant> restaurantList = new ArrayList<>();
+    for (Restaurant restaurant : findAllRestaurantsCloseBy(latitude, longitude, currentTime,
+        servingRadiusInKms)) {
+      for (String attribute : restaurant.getAttributes()) {
+        if (attribute.toLowerCase().contains(searchString.toLowerCase())) {
+          restaurantList.add(restaurant);
+          break;
+        }
+      }
+    }
+    return restaurantList;
+  }
+
+  // The dummy restaurants come without menus, so no item ever matches.
+  @Override
+  public List<Restaurant> findRestaurantsByItemName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return new ArrayList<>();
+  }
 
+  @Override
+  public List<Restaurant> findRestaurantsByItemAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return new ArrayList<>();
+  }
 
 }
 
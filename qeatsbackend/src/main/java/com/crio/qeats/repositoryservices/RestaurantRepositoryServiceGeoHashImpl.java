@@ -0,0 +1,72 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Restaurant;
+import java.time.LocalTime;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+// Serves the nearby restaurants from the in-memory RestaurantCatalogue instead of scanning the
+// whole restaurants collection on every request.
+@Service
+public class RestaurantRepositoryServiceGeoHashImpl implements RestaurantRepositoryService {
+
+  @Autowired
+  private RestaurantCatalogue restaurantCatalogue;
+
+  @Override
+  public List<Restaurant> findAllRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsCloseBy(latitude, longitude, currentTime,
+        servingRadiusInKms);
+  }
+
+  @Override
+  public List<Restaurant> findRestaurantsCloseByWithAttributes(Double latitude,
+      Double longitude, List<String> attributes, LocalTime currentTime,
+      Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsCloseByWithAttributes(latitude, longitude,
+        attributes, currentTime, servingRadiusInKms);
+  }
+
+  @Override
+  public List<Restaurant> findRestaurantsByName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByName(latitude, longitude, searchString,
+        currentTime, servingRadiusInKms);
+  }
+
+  @Override
+  public List<Restaurant> findRestaurantsByAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByAttributes(latitude, longitude, searchString,
+        currentTime, servingRadiusInKms);
+  }
+
+  @Override
+  public List<Restaurant> findRestaurantsByItemName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByItemName(latitude, longitude, searchString,
+        currentTime, servingRadiusInKms);
+  }
+
+  @Override
+  public List<Restaurant> findRestaurantsByItemAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByItemAttributes(latitude, longitude,
+        searchString, currentTime, servingRadiusInKms);
+  }
+
+  /**
+   * Drops the current index, so that the next query rebuilds it from the database.
+   */
+  public void invalidateIndex() {
+    restaurantCatalogue.invalidate();
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.RestaurantMapper;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+// Pushes the radius and open-hours filter into mongo, so that only the matching restaurants
+// are read from the database. Relies on a 2dsphere index over RestaurantEntity.location.
+// The opening hours matched by mongo are checked again with OpeningHours, which also handles
+// the restaurants with several windows, see mayBeOpenAt.
+@Service
+@Log4j2
+public class RestaurantRepositoryServiceGeoNearImpl implements RestaurantRepositoryService {
+
+  static final String LOCATION_FIELD = "location";
+  static final String DISTANCE_FIELD = "distanceInKms";
+
+  // Mongo measures spherical distances on a 6378.1km sphere, while GeoUtils uses 6371km.
+  // Distances are converted so that both agree on which restaurants are within the radius.
+  private static final double MONGO_METERS_PER_KM = 6378.1 * 1000 / 6371;
+
+  // Restaurants whose location is filled in per bulk update.
+  private static final int LOCATION_BACKFILL_BATCH_SIZE = 1000;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  // Searches go to the in-memory indexes, mongo has no prefix index over the name tokens.
+  @Autowired
+  private RestaurantCatalogue restaurantCatalogue;
+
+  private volatile boolean locationsIndexed;
+
+  // Servers before 4.2 return at most 100 documents from $geoNear unless a limit is given,
+  // while newer servers reject the option altogether.
+  private volatile boolean geoNearNeedsLimit;
+
+  // $expr, which compares two fields of the same document, needs a 3.6 server.
+  private volatile boolean exprSupported;
+
+  @Override
+  public List<Restaurant> findAllRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms) {
+    Aggregation aggregation =
+        closeByAggregation(latitude, longitude, currentTime, servingRadiusInKms);
+
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (RestaurantEntity restaurantEntity : mongoTemplate.aggregate(aggregation,
+        RestaurantEntity.class, RestaurantEntity.class)) {
+      if (restaurantEntity.getOpeningHours().isOpenAt(currentTime)) {
+        restaurants.add(RestaurantMapper.mapEntityToDto(restaurantEntity));
+      }
+    }
+
+    return restaurants;
+  }
+
+  @Override
+  public List<Restaurant> findRestaurantsByName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByName(latitude, longitude, searchString,
+        currentTime, servingRadiusInKms);
+  }
+
+  @Override
+  public List<Restaurant> findRestaurantsByAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByAttributes(latitude, longitude, searchString,
+        currentTime, servingRadiusInKms);
+  }
+
+  @Override
+  public List<Restaurant> findRestaurantsByItemName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByItemName(latitude, longitude, searchString,
+        currentTime, servingRadiusInKms);
+  }
+
+  @Override
+  public List<Restaurant> findRestaurantsByItemAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByItemAttributes(latitude, longitude,
+        searchString, currentTime, servingRadiusInKms);
+  }
+
+  /**
+   * The pipeline of the restaurants within the serving radius that may be open, sorted by
+   * distance. Their opening hours still have to be checked, see mayBeOpenAt. Indexes the
+   * locations first if that has not been done yet.
+   */
+  Aggregation closeByAggregation(Double latitude, Double longitude, LocalTime currentTime,
+      Double servingRadiusInKms) {
+    if (!locationsIndexed) {
+      ensureLocationsIndexed();
+    }
+
+    return newAggregation(
+        geoNear(latitude, longitude, servingRadiusInKms, geoNearNeedsLimit),
+        mayBeOpenAt(currentTime, exprSupported));
+  }
+
+  boolean isLocationsIndexed() {
+    return locationsIndexed;
+  }
+
+  /**
+   * Indexes the locations at startup, so that requests do not wait for it. If mongo is not
+   * reachable yet, the first request indexes them instead.
+   */
+  @PostConstruct
+  public void indexLocations() {
+    try {
+      ensureLocationsIndexed();
+    } catch (DataAccessException e) {
+      log.warn("Could not index the restaurant locations at startup", e);
+    }
+  }
+
+  /**
+   * Creates the 2dsphere index and fills in the GeoJSON location of restaurants that only
+   * have latitude/longitude, e.g. the ones restored from a dump. Runs once per instance.
+   */
+  public synchronized void ensureLocationsIndexed() {
+    if (locationsIndexed) {
+      return;
+    }
+
+    List<?> version = (List<?>) mongoTemplate.executeCommand(new Document("buildInfo", 1))
+        .get("versionArray");
+    int major = ((Number) version.get(0)).intValue();
+    int minor = ((Number) version.get(1)).intValue();
+    geoNearNeedsLimit = major < 4 || (major == 4 && minor < 2);
+    exprSupported = major > 3 || (major == 3 && minor >= 6);
+
+    mongoTemplate.indexOps(RestaurantEntity.class).ensureIndex(
+        new GeospatialIndex(LOCATION_FIELD).typed(GeoSpatialIndexType.GEO_2DSPHERE));
+
+    backfillLocations();
+
+    locationsIndexed = true;
+  }
+
+  // Reads only the coordinates of the restaurants without a location and updates them in
+  // batches. Restaurants without coordinates cannot be located and are left as they are.
+  private void backfillLocations() {
+    Query withoutLocation = query(where(LOCATION_FIELD).exists(false));
+    withoutLocation.fields().include("latitude").include("longitude");
+    String collectionName = mongoTemplate.getCollectionName(RestaurantEntity.class);
+
+    int backfilled = 0;
+    int skipped = 0;
+    List<Document> batch = new ArrayList<>(LOCATION_BACKFILL_BATCH_SIZE);
+    try (CloseableIterator<Document> restaurants =
+        mongoTemplate.stream(withoutLocation, Document.class, collectionName)) {
+      while (restaurants.hasNext()) {
+        Document restaurant = restaurants.next();
+        if (!(restaurant.get("latitude") instanceof Number)
+            || !(restaurant.get("longitude") instanceof Number)) {
+          skipped++;
+          continue;
+        }
+        batch.add(restaurant);
+        if (batch.size() == LOCATION_BACKFILL_BATCH_SIZE) {
+          backfilled += backfillLocations(batch);
+        }
+      }
+    }
+    backfilled += backfillLocations(batch);
+
+    if (backfilled > 0 || skipped > 0) {
+      log.info("Backfilled the location of {} restaurants, skipped {} without coordinates",
+          backfilled, skipped);
+    }
+  }
+
+  private int backfillLocations(List<Document> batch) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+        RestaurantEntity.class);
+    for (Document restaurant : batch) {
+      bulkOperations.updateOne(query(where("_id").is(restaurant.get("_id"))),
+          Update.update(LOCATION_FIELD, new GeoJsonPoint(
+              ((Number) restaurant.get("longitude")).doubleValue(),
+              ((Number) restaurant.get("latitude")).doubleValue())));
+    }
+    bulkOperations.execute();
+    int size = batch.size();
+    batch.clear();
+    return size;
+  }
+
+  /**
+   * The $geoNear stage, which has to be the first stage of the pipeline. It returns the
+   * restaurants within the radius sorted by distance, with the distance in kms.
+   */
+  static AggregationOperation geoNear(Double latitude, Double longitude,
+      Double servingRadiusInKms, boolean withLimit) {
+    Document near = new Document("type", "Point")
+        .append("coordinates", Arrays.asList(longitude, latitude));
+    Document geoNear = new Document("near", near)
+        .append("distanceField", DISTANCE_FIELD)
+        .append("maxDistance", servingRadiusInKms * MONGO_METERS_PER_KM)
+        .append("distanceMultiplier", 1 / MONGO_METERS_PER_KM)
+        .append("spherical", true);
+    if (withLimit) {
+      geoNear.append("limit", Integer.MAX_VALUE);
+    }
+
+    return context -> new Document("$geoNear", geoNear);
+  }
+
+  /**
+   * The $match stage keeping the restaurants that may be open at the given time, to be checked
+   * again with OpeningHours. The hours are stored as zero padded HH:mm strings, which sort in
+   * time order. LocalTime.toString() drops zero seconds, so comparing against it keeps the same
+   * boundaries as LocalTime.isAfter/isBefore.
+   * A single window within the day is open strictly between opensAt and closesAt, one past
+   * midnight (closesAt before opensAt) after opensAt or before closesAt. Without $expr the
+   * latter cannot be told apart, and only the windows closed on both counts are left out.
+   * Restaurants with several windows, see OpeningHours, are all kept.
+   */
+  static AggregationOperation mayBeOpenAt(LocalTime currentTime, boolean withExpr) {
+    String time = currentTime.toString();
+    List<Document> branches = new ArrayList<>();
+    branches.add(new Document("opensAt", new Document("$regex", ",")));
+    if (withExpr) {
+      branches.add(new Document("opensAt", new Document("$lt", time))
+          .append("closesAt", new Document("$gt", time)));
+      branches.add(new Document("$expr", new Document("$and", Arrays.asList(
+          new Document("$gt", Arrays.asList("$opensAt", "$closesAt")),
+          new Document("$or", Arrays.asList(
+              new Document("$lt", Arrays.asList("$opensAt", time)),
+              new Document("$gt", Arrays.asList("$closesAt", time))))))));
+    } else {
+      branches.add(new Document("opensAt", new Document("$lt", time)));
+      branches.add(new Document("closesAt", new Document("$gt", time)));
+    }
+    Document match = new Document("$or", branches);
+
+    return context -> new Document("$match", match);
+  }
+}
@@ -7,16 +7,23 @@
 package com.crio.qeats.repositoryservices;
 
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import javax.inject.Provider;
 import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.metrics.RestaurantQueryMetrics;
+import com.crio.qeats.metrics.RestaurantQueryMetrics.Stage;
+import com.crio.qeats.metrics.StageClock;
 import com.crio.qeats.models.RestaurantEntity;
 import com.crio.qeats.repositories.RestaurantRepository;
 import com.crio.qeats.utils.GeoUtils;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
+import com.crio.qeats.utils.RestaurantMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
@@ -25,61 +32,165 @@ import org.springframework.stereotype.Service;
 @Primary
 public class RestaurantRepositoryServiceImpl implements RestaurantRepositoryService {
 
+  // Restaurants read from the cursor and filtered together, see forEachRestaurantCloseBy.
+  private static final int SCAN_BATCH_SIZE = 256;
 
   @Autowired
   private RestaurantRepository mongoTemplate;
 
+  // Searches always go to the in-memory indexes, a regex scan per keystroke would not scale.
   @Autowired
-  private ModelMapper modelMapper;
+  private RestaurantCatalogue restaurantCatalogue;
 
-  private boolean isOpenNow(LocalTime time, RestaurantEntity res) {
-    LocalTime openingTime = LocalTime.parse(res.getOpensAt());
-    LocalTime closingTime = LocalTime.parse(res.getClosesAt());
+  // Optional, queries are not timed without it.
+  @Autowired(required = false)
+  private RestaurantQueryMetrics restaurantQueryMetrics;
+
+  // Whether the restaurants close by are found by scanning the in-memory catalogue, see
+  // RestaurantScanEngine, instead of reading every restaurant from the database.
+  @Value("${qeats.restaurants.scan-engine:false}")
+  private boolean useScanEngine;
 
-    return time.isAfter(openingTime) && time.isBefore(closingTime);
+  private boolean isOpenNow(LocalTime time, RestaurantEntity res) {
+    return res.getOpeningHours().isOpenAt(time);
   }
 
 
- @Override
-public List<Restaurant> findAllRestaurantsCloseBy(Double latitude,
-    Double longitude, LocalTime currentTime, Double servingRadiusInKms) {
+  @Override
+  public List<Restaurant> findAllRestaurantsCloseBy(Double latitude,
+      Double longitude, LocalTime currentTime, Double servingRadiusInKms) {
+    List<Restaurant> openAndCloseByRestaurants = new ArrayList<>();
+    forEachRestaurantCloseBy(latitude, longitude, currentTime, servingRadiusInKms,
+        openAndCloseByRestaurants::add);
+    return openAndCloseByRestaurants;
+  }
+
+  // Restaurants are read from the cursor, filtered and mapped a batch at a time, so only a
+  // batch and the ones within the radius are ever held in memory, and none of the latter when
+  // the action streams them out. Each stage is timed once per batch rather than per
+  // restaurant, so that timing the scan of a large collection costs next to nothing, and the
+  // totals are recorded once per query; the time spent in the action is left out, it belongs
+  // to the caller.
+  @Override
+  public void forEachRestaurantCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms, Consumer<Restaurant> action) {
+    if (useScanEngine) {
+      scanRestaurantsCloseBy(latitude, longitude, currentTime, servingRadiusInKms, action);
+      return;
+    }
+    GeoUtils.Circle servingArea = new GeoUtils.Circle(latitude, longitude, servingRadiusInKms);
+    StageClock clock = new StageClock();
+    long scanned = 0;
+    long returned = 0;
+    List<RestaurantEntity> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+    List<RestaurantEntity> matches = new ArrayList<>(SCAN_BATCH_SIZE);
+    List<Restaurant> restaurants = new ArrayList<>(SCAN_BATCH_SIZE);
+    try (Stream<RestaurantEntity> allRestaurants = mongoTemplate.streamAllBy()) {
+      Iterator<RestaurantEntity> iterator = allRestaurants.iterator();
+      while (iterator.hasNext()) {
+        while (batch.size() < SCAN_BATCH_SIZE && iterator.hasNext()) {
+          batch.add(iterator.next());
+        }
+        clock.lap(Stage.FETCH);
+        scanned += batch.size();
+
+        for (RestaurantEntity restaurantEntity : batch) {
+          if (isOpenNow(currentTime, restaurantEntity)) {
+            matches.add(restaurantEntity);
+          }
+        }
+        clock.lap(Stage.OPEN_HOURS);
+
+        matches.removeIf(restaurantEntity -> !servingArea.contains(
+            restaurantEntity.getLatitude(), restaurantEntity.getLongitude()));
+        clock.lap(Stage.DISTANCE);
+
+        for (RestaurantEntity restaurantEntity : matches) {
+          restaurants.add(RestaurantMapper.mapEntityToDto(restaurantEntity));
+        }
+        clock.lap(Stage.MAPPING);
+        returned += restaurants.size();
+
+        restaurants.forEach(action);
+        clock.skip();
+        batch.clear();
+        matches.clear();
+        restaurants.clear();
+      }
+    }
 
-  // Fetch all restaurants from the database
-  List<RestaurantEntity> allRestaurants = mongoTemplate.findAll();
+    if (restaurantQueryMetrics != null) {
+      restaurantQueryMetrics.record(clock, currentTime, scanned, returned);
+    }
+  }
 
-  // Filter restaurants based on whether they are open now and within the serving radius
-  List<Restaurant> openAndCloseByRestaurants = allRestaurants.stream()
-      .filter(restaurant -> isRestaurantCloseByAndOpen(restaurant, currentTime, latitude, longitude, servingRadiusInKms))
-      .map(this::mapEntityToDto) // Mapping using mapEntityToDto method
-      .collect(Collectors.toList());
+  // Same as above over the rows of the catalogue. Open hours and distance are checked together
+  // in a single pass, which is charged to the distance stage; fetching only covers getting the
+  // snapshot, i.e. rebuilding it when it is due. The matching rows are collected first, so that
+  // the stages are timed once per query.
+  private void scanRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms, Consumer<Restaurant> action) {
+    StageClock clock = new StageClock();
+    RestaurantScanEngine scanEngine = restaurantCatalogue.getSnapshot().getScanEngine();
+    clock.lap(Stage.FETCH);
+
+    List<RestaurantEntity> matches = new ArrayList<>();
+    long scanned = scanEngine.forEachOpenWithinRadius(latitude, longitude, servingRadiusInKms,
+        currentTime, matches::add);
+    clock.lap(Stage.DISTANCE);
+
+    List<Restaurant> restaurants = new ArrayList<>(matches.size());
+    for (RestaurantEntity restaurantEntity : matches) {
+      restaurants.add(RestaurantMapper.mapEntityToDto(restaurantEntity));
+    }
+    clock.lap(Stage.MAPPING);
 
-  return openAndCloseByRestaurants;
-}
+    restaurants.forEach(action);
 
-  private boolean isRestaurantCloseByAndOpen(RestaurantEntity restaurantEntity,
-      LocalTime currentTime, Double latitude, Double longitude, Double servingRadiusInKms) {
-    if (isOpenNow(currentTime, restaurantEntity)) {
-      return GeoUtils.findDistanceInKm(latitude, longitude,
-          restaurantEntity.getLatitude(), restaurantEntity.getLongitude())
-          < servingRadiusInKms;
+    if (restaurantQueryMetrics != null) {
+      restaurantQueryMetrics.record(clock, currentTime, scanned, restaurants.size());
     }
+  }
 
-    return false;
+  @Override
+  public List<Restaurant> findRestaurantsCloseByWithAttributes(Double latitude,
+      Double longitude, List<String> attributes, LocalTime currentTime,
+      Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsCloseByWithAttributes(latitude, longitude,
+        attributes, currentTime, servingRadiusInKms);
   }
 
+  @Override
+  public Map<String, Integer> countFacets(List<Restaurant> restaurants) {
+    return restaurantCatalogue.countFacets(restaurants);
+  }
 
-  public Restaurant mapEntityToDto(RestaurantEntity restaurantEntity) {
-    // Configure ModelMapper to map only the required fields
-    modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+  @Override
+  public List<Restaurant> findRestaurantsByName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByName(latitude, longitude, searchString,
+        currentTime, servingRadiusInKms);
+  }
 
-    // Perform the mapping
-    Restaurant restaurantDto = modelMapper.map(restaurantEntity, Restaurant.class);
+  @Override
+  public List<Restaurant> findRestaurantsByAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByAttributes(latitude, longitude, searchString,
+        currentTime, servingRadiusInKms);
+  }
 
-    // Clean the restaurant name by removing special characters
-    String cleanedName = restaurantDto.getName().replaceAll("[^a-zA-Z0-9 ]", "");
-    restaurantDto.setName(cleanedName);
+  @Override
+  public List<Restaurant> findRestaurantsByItemName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByItemName(latitude, longitude, searchString,
+        currentTime, servingRadiusInKms);
+  }
 
-    return restaurantDto;
+  @Override
+  public List<Restaurant> findRestaurantsByItemAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantCatalogue.findRestaurantsByItemAttributes(latitude, longitude,
+        searchString, currentTime, servingRadiusInKms);
   }
 
 }
@@ -0,0 +1,203 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.GeoUtils;
+import com.crio.qeats.utils.OpeningHours;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable copy of the catalogue laid out as parallel primitive arrays, one row per restaurant:
+ * latitude and longitude in radians, cos(latitude) and an ordinal into the table of distinct
+ * opening hours. A radius and open-now query is a scan over these arrays that only touches a
+ * restaurant entity once it matched, instead of unboxing the coordinates and walking the hours
+ * of every entity on the way.
+ *
+ * <p>Rows are sorted along a Hilbert curve, so restaurants close to each other are close in the
+ * arrays too. Each block of BLOCK_SIZE consecutive rows keeps the bounding box of its rows, and
+ * the scan skips the blocks whose box is outside the bounding box of the search circle, which
+ * thanks to the ordering is most of them.
+ */
+public class RestaurantScanEngine {
+
+  // Rows per block of the scan. Small enough for the boxes to stay tight, large enough for the
+  // inner loop over a block to dominate the block checks.
+  private static final int BLOCK_SIZE = 64;
+
+  // Bits per axis of the Hilbert curve, i.e. a 65536 x 65536 grid over the whole earth.
+  private static final int HILBERT_ORDER = 16;
+
+  private final RestaurantEntity[] restaurants;
+  private final double[] latitudesInRadians;
+  private final double[] longitudesInRadians;
+  private final double[] cosLatitudes;
+  private final int[] hoursOrdinals;
+
+  // Distinct opening hours, with a null last entry for the hours that do not compile.
+  private final OpeningHours[] hours;
+
+  private final double[] blockMinLatitudes;
+  private final double[] blockMaxLatitudes;
+  private final double[] blockMinLongitudes;
+  private final double[] blockMaxLongitudes;
+
+  /**
+   * Lays out the given restaurants.
+   * @param restaurants restaurants to scan, entries without coordinates are skipped
+   */
+  public RestaurantScanEngine(List<RestaurantEntity> restaurants) {
+    // Hilbert index in the high bits, position in the low ones, so one sort of primitives
+    // gives the order of the rows.
+    long[] keys = new long[restaurants.size()];
+    int size = 0;
+    for (int position = 0; position < restaurants.size(); position++) {
+      RestaurantEntity restaurant = restaurants.get(position);
+      if (restaurant.getLatitude() == null || restaurant.getLongitude() == null) {
+        continue;
+      }
+      keys[size++] = hilbertIndex(restaurant.getLatitude(), restaurant.getLongitude()) << 31
+          | position;
+    }
+    Arrays.sort(keys, 0, size);
+
+    this.restaurants = new RestaurantEntity[size];
+    this.latitudesInRadians = new double[size];
+    this.longitudesInRadians = new double[size];
+    this.cosLatitudes = new double[size];
+    this.hoursOrdinals = new int[size];
+    Map<OpeningHours, Integer> ordinals = new HashMap<>();
+    List<OpeningHours> distinctHours = new ArrayList<>();
+    for (int row = 0; row < size; row++) {
+      RestaurantEntity restaurant = restaurants.get((int) (keys[row] & Integer.MAX_VALUE));
+      this.restaurants[row] = restaurant;
+      latitudesInRadians[row] = Math.toRadians(restaurant.getLatitude());
+      longitudesInRadians[row] = Math.toRadians(restaurant.getLongitude());
+      cosLatitudes[row] = Math.cos(latitudesInRadians[row]);
+      OpeningHours openingHours = compileOrNull(restaurant);
+      if (openingHours == null) {
+        hoursOrdinals[row] = -1;
+      } else {
+        hoursOrdinals[row] = ordinals.computeIfAbsent(openingHours, key -> {
+          distinctHours.add(key);
+          return distinctHours.size() - 1;
+        });
+      }
+    }
+    distinctHours.add(null);
+    for (int row = 0; row < size; row++) {
+      if (hoursOrdinals[row] < 0) {
+        hoursOrdinals[row] = distinctHours.size() - 1;
+      }
+    }
+    this.hours = distinctHours.toArray(new OpeningHours[0]);
+
+    int blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    this.blockMinLatitudes = new double[blocks];
+    this.blockMaxLatitudes = new double[blocks];
+    this.blockMinLongitudes = new double[blocks];
+    this.blockMaxLongitudes = new double[blocks];
+    for (int block = 0; block < blocks; block++) {
+      int from = block * BLOCK_SIZE;
+      int to = Math.min(from + BLOCK_SIZE, size);
+      blockMinLatitudes[block] = Double.POSITIVE_INFINITY;
+      blockMaxLatitudes[block] = Double.NEGATIVE_INFINITY;
+      blockMinLongitudes[block] = Double.POSITIVE_INFINITY;
+      blockMaxLongitudes[block] = Double.NEGATIVE_INFINITY;
+      for (int row = from; row < to; row++) {
+        blockMinLatitudes[block] = Math.min(blockMinLatitudes[block], latitudesInRadians[row]);
+        blockMaxLatitudes[block] = Math.max(blockMaxLatitudes[block], latitudesInRadians[row]);
+        blockMinLongitudes[block] = Math.min(blockMinLongitudes[block], longitudesInRadians[row]);
+        blockMaxLongitudes[block] = Math.max(blockMaxLongitudes[block], longitudesInRadians[row]);
+      }
+    }
+  }
+
+  public int size() {
+    return restaurants.length;
+  }
+
+  /**
+   * Passes each restaurant open at the given time and strictly within the circle, as per
+   * GeoUtils.findDistanceInKm, to the action, in the order of the rows.
+   * @param latitude latitude of the center of the circle
+   * @param longitude longitude of the center of the circle
+   * @param radiusInKms radius of the circle
+   * @param currentTime time the restaurants have to be open at
+   * @param action receives the matching restaurants
+   * @return number of rows checked against the circle, a measure of the work done
+   */
+  public int forEachOpenWithinRadius(double latitude, double longitude, double radiusInKms,
+      LocalTime currentTime, Consumer<RestaurantEntity> action) {
+    // There are only a handful of distinct hours, each is checked once per query.
+    boolean[] open = new boolean[hours.length];
+    for (int ordinal = 0; ordinal < hours.length; ordinal++) {
+      open[ordinal] = hours[ordinal] != null && hours[ordinal].isOpenAt(currentTime);
+    }
+
+    GeoUtils.Circle circle = new GeoUtils.Circle(latitude, longitude, radiusInKms);
+    int checked = 0;
+    for (int block = 0; block < blockMinLatitudes.length; block++) {
+      if (!circle.mayIntersect(blockMinLatitudes[block], blockMaxLatitudes[block],
+          blockMinLongitudes[block], blockMaxLongitudes[block])) {
+        continue;
+      }
+      int from = block * BLOCK_SIZE;
+      int to = Math.min(from + BLOCK_SIZE, restaurants.length);
+      checked += to - from;
+      for (int row = from; row < to; row++) {
+        if (open[hoursOrdinals[row]] && circle.contains(latitudesInRadians[row],
+            longitudesInRadians[row], cosLatitudes[row])) {
+          action.accept(restaurants[row]);
+        }
+      }
+    }
+    return checked;
+  }
+
+  // Hours that do not compile never match, rather than failing every query that reaches them.
+  private static OpeningHours compileOrNull(RestaurantEntity restaurant) {
+    try {
+      return restaurant.getOpeningHours();
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Position along a Hilbert curve over the whole earth of the cell the point falls in.
+   */
+  static long hilbertIndex(double latitude, double longitude) {
+    int side = 1 << HILBERT_ORDER;
+    int x = (int) Math.min(side - 1, Math.max(0, (longitude + 180.0) / 360.0 * side));
+    int y = (int) Math.min(side - 1, Math.max(0, (latitude + 90.0) / 180.0 * side));
+    long index = 0;
+    for (int half = side / 2; half > 0; half /= 2) {
+      int rx = (x & half) != 0 ? 1 : 0;
+      int ry = (y & half) != 0 ? 1 : 0;
+      index += (long) half * half * ((3 * rx) ^ ry);
+      // Rotates the quadrant, so that the curve inside it starts and ends next to its
+      // neighbouring quadrants.
+      if (ry == 0) {
+        if (rx == 1) {
+          x = side - 1 - x;
+          y = side - 1 - y;
+        }
+        int swap = x;
+        x = y;
+        y = swap;
+      }
+    }
+    return index;
+  }
+}
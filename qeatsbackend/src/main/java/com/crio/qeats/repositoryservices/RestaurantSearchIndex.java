@@ -0,0 +1,344 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.models.ItemEntity;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable in-memory inverted index from the tokens of the restaurant names and attributes,
+ * and of the names and attributes of the items on their menus, to the restaurants having them.
+ * Tokens are the lower case runs of letters and digits, so "Meghana's Biryani" is indexed as
+ * "meghana", "s" and "biryani".
+ *
+ * <p>A search string matches a restaurant when every one of its tokens is a prefix of some
+ * token of the restaurant, e.g. "south ind" matches "South Indian". Tokens are kept sorted, so
+ * the tokens starting with a prefix are a contiguous range of token ids found by binary search.
+ * Restaurants are identified by their position in the list the index was built from, the same
+ * positions as in the geohash index built from that list.
+ */
+public class RestaurantSearchIndex {
+
+  private final Field names;
+  private final Field attributes;
+  private final Field itemNames;
+  private final Field itemAttributes;
+
+  /**
+   * Builds the index over the given restaurants, without their menus.
+   */
+  public RestaurantSearchIndex(List<RestaurantEntity> restaurants) {
+    this(restaurants, Collections.emptyList());
+  }
+
+  /**
+   * Builds the index over the given restaurants and their menus.
+   * @param restaurants restaurants to index
+   * @param menus menus of the restaurants, menus of restaurants not in the list are skipped
+   */
+  public RestaurantSearchIndex(List<RestaurantEntity> restaurants, List<MenuEntity> menus) {
+    Map<String, Postings> nameTokens = new TreeMap<>();
+    Map<String, Postings> attributeTokens = new TreeMap<>();
+    Map<String, Integer> positions = new HashMap<>(restaurants.size() * 2);
+    for (int position = 0; position < restaurants.size(); position++) {
+      RestaurantEntity restaurant = restaurants.get(position);
+      addTokens(nameTokens, restaurant.getName(), position);
+      addTokens(attributeTokens, restaurant.getAttributes(), position);
+      positions.putIfAbsent(restaurant.getRestaurantId(), position);
+    }
+    this.names = new Field(nameTokens, restaurants.size());
+    this.attributes = new Field(attributeTokens, restaurants.size());
+
+    // Postings have to be added in increasing position order, while menus come in any order.
+    List<MenuEntity> sortedMenus = new ArrayList<>();
+    for (MenuEntity menu : menus) {
+      if (menu.getItems() != null && positions.containsKey(menu.getRestaurantId())) {
+        sortedMenus.add(menu);
+      }
+    }
+    sortedMenus.sort((first, second) -> Integer.compare(positions.get(first.getRestaurantId()),
+        positions.get(second.getRestaurantId())));
+
+    Map<String, Postings> itemNameTokens = new TreeMap<>();
+    Map<String, Postings> itemAttributeTokens = new TreeMap<>();
+    for (MenuEntity menu : sortedMenus) {
+      int position = positions.get(menu.getRestaurantId());
+      for (ItemEntity item : menu.getItems()) {
+        addTokens(itemNameTokens, item.getName(), position);
+        addTokens(itemAttributeTokens, item.getAttributes(), position);
+      }
+    }
+    this.itemNames = new Field(itemNameTokens, restaurants.size());
+    this.itemAttributes = new Field(itemAttributeTokens, restaurants.size());
+  }
+
+  /**
+   * Get the restaurants whose name matches the search string.
+   */
+  public Query findByName(String searchString) {
+    return new Query(names, tokenize(searchString));
+  }
+
+  /**
+   * Get the restaurants having an attribute that matches the search string.
+   * Every token of the search string has to match, though not necessarily in the same
+   * attribute.
+   */
+  public Query findByAttributes(String searchString) {
+    return new Query(attributes, tokenize(searchString));
+  }
+
+  /**
+   * Get the restaurants having an item on their menu whose name matches the search string.
+   * Every token of the search string has to match, though not necessarily in the same item.
+   */
+  public Query findByItemName(String searchString) {
+    return new Query(itemNames, tokenize(searchString));
+  }
+
+  /**
+   * Get the restaurants having an item on their menu with an attribute that matches the search
+   * string. Every token of the search string has to match, though not necessarily in the same
+   * item or attribute.
+   */
+  public Query findByItemAttributes(String searchString) {
+    return new Query(itemAttributes, tokenize(searchString));
+  }
+
+  /**
+   * Splits the text into lower case tokens of letters and digits.
+   */
+  static List<String> tokenize(String text) {
+    if (text == null) {
+      return Collections.emptyList();
+    }
+
+    List<String> tokens = new ArrayList<>();
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (tokenChar && start < 0) {
+        start = i;
+      } else if (!tokenChar && start >= 0) {
+        tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+        start = -1;
+      }
+    }
+    return tokens;
+  }
+
+  private static void addTokens(Map<String, Postings> tokens, String text, int position) {
+    for (String token : tokenize(text)) {
+      tokens.computeIfAbsent(token, key -> new Postings()).add(position);
+    }
+  }
+
+  private static void addTokens(Map<String, Postings> tokens, List<String> texts,
+      int position) {
+    if (texts == null) {
+      return;
+    }
+    for (String text : texts) {
+      addTokens(tokens, text, position);
+    }
+  }
+
+  /**
+   * The restaurants matching a search string. Matches can be enumerated from the posting
+   * lists, which is cheap for rare tokens, or checked one restaurant at a time, e.g. for the
+   * restaurants within a radius, which is cheap for common ones.
+   */
+  public static final class Query implements RestaurantFilter {
+
+    private final Field field;
+    private final int[] firstTokens;
+    private final int[] endTokens;
+    private final boolean empty;
+
+    private Query(Field field, List<String> terms) {
+      this.field = field;
+      this.firstTokens = new int[terms.size()];
+      this.endTokens = new int[terms.size()];
+      boolean empty = terms.isEmpty();
+      for (int i = 0; i < terms.size(); i++) {
+        firstTokens[i] = field.firstTokenWithPrefix(terms.get(i));
+        endTokens[i] = field.endOfTokensWithPrefix(terms.get(i), firstTokens[i]);
+        empty |= firstTokens[i] == endTokens[i];
+      }
+      this.empty = empty;
+    }
+
+    /**
+     * Whether the query surely matches nothing, e.g. for an empty search string.
+     */
+    @Override
+    public boolean isEmpty() {
+      return empty;
+    }
+
+    /**
+     * Upper bound of the number of matching restaurants, in constant time.
+     */
+    @Override
+    public int getMaxMatches() {
+      if (empty) {
+        return 0;
+      }
+      return field.postingCount(firstTokens[mostSelectiveTerm()],
+          endTokens[mostSelectiveTerm()]);
+    }
+
+    /**
+     * Check whether the restaurant at the given position matches.
+     */
+    @Override
+    public boolean test(int position) {
+      if (empty) {
+        return false;
+      }
+      for (int term = 0; term < firstTokens.length; term++) {
+        if (field.firstTokenOf(position, firstTokens[term]) >= endTokens[term]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Calls the action with the position of every matching restaurant, once each, walking the
+     * posting lists of the most selective term.
+     */
+    @Override
+    public void forEachMatch(IntConsumer action) {
+      if (empty) {
+        return;
+      }
+      int term = mostSelectiveTerm();
+      for (int token = firstTokens[term]; token < endTokens[term]; token++) {
+        for (int i = field.postingOffsets[token]; i < field.postingOffsets[token + 1]; i++) {
+          int position = field.postings[i];
+          // A restaurant with several tokens in the range is reported from the first one.
+          if (field.firstTokenOf(position, firstTokens[term]) == token && test(position)) {
+            action.accept(position);
+          }
+        }
+      }
+    }
+
+    private int mostSelectiveTerm() {
+      int best = 0;
+      for (int term = 1; term < firstTokens.length; term++) {
+        if (field.postingCount(firstTokens[term], endTokens[term])
+            < field.postingCount(firstTokens[best], endTokens[best])) {
+          best = term;
+        }
+      }
+      return best;
+    }
+  }
+
+  // Sorted token dictionary of one field, with the posting lists of every token and the
+  // sorted token ids of every restaurant, both stored as flat arrays.
+  private static final class Field {
+
+    private final String[] tokens;
+    private final int[] postingOffsets;
+    private final int[] postings;
+    private final int[] restaurantTokenOffsets;
+    private final int[] restaurantTokens;
+
+    private Field(Map<String, Postings> sortedTokens, int restaurantCount) {
+      tokens = sortedTokens.keySet().toArray(new String[0]);
+      postingOffsets = new int[tokens.length + 1];
+      int[] tokenCounts = new int[restaurantCount];
+      int token = 0;
+      for (Postings tokenPostings : sortedTokens.values()) {
+        postingOffsets[token + 1] = postingOffsets[token] + tokenPostings.count;
+        for (int i = 0; i < tokenPostings.count; i++) {
+          tokenCounts[tokenPostings.positions[i]]++;
+        }
+        token++;
+      }
+
+      restaurantTokenOffsets = new int[restaurantCount + 1];
+      for (int position = 0; position < restaurantCount; position++) {
+        restaurantTokenOffsets[position + 1] =
+            restaurantTokenOffsets[position] + tokenCounts[position];
+      }
+
+      // Tokens are visited in increasing order, so the token ids of each restaurant end up
+      // sorted as well.
+      postings = new int[postingOffsets[tokens.length]];
+      restaurantTokens = new int[restaurantTokenOffsets[restaurantCount]];
+      int[] filled = new int[restaurantCount];
+      token = 0;
+      for (Postings tokenPostings : sortedTokens.values()) {
+        System.arraycopy(tokenPostings.positions, 0, postings, postingOffsets[token],
+            tokenPostings.count);
+        for (int i = 0; i < tokenPostings.count; i++) {
+          int position = tokenPostings.positions[i];
+          restaurantTokens[restaurantTokenOffsets[position] + filled[position]++] = token;
+        }
+        token++;
+      }
+    }
+
+    private int firstTokenWithPrefix(String prefix) {
+      int index = Arrays.binarySearch(tokens, prefix);
+      return index >= 0 ? index : -index - 1;
+    }
+
+    private int endOfTokensWithPrefix(String prefix, int firstToken) {
+      int index = Arrays.binarySearch(tokens, firstToken, tokens.length,
+          prefix + Character.MAX_VALUE);
+      return index >= 0 ? index : -index - 1;
+    }
+
+    private int postingCount(int firstToken, int endToken) {
+      return postingOffsets[endToken] - postingOffsets[firstToken];
+    }
+
+    // Smallest token id of the restaurant that is at least minToken, or Integer.MAX_VALUE.
+    private int firstTokenOf(int position, int minToken) {
+      for (int i = restaurantTokenOffsets[position]; i < restaurantTokenOffsets[position + 1];
+          i++) {
+        if (restaurantTokens[i] >= minToken) {
+          return restaurantTokens[i];
+        }
+      }
+      return Integer.MAX_VALUE;
+    }
+  }
+
+  // Growable list of increasing positions, without boxing.
+  private static final class Postings {
+
+    private int[] positions = new int[4];
+    private int count;
+
+    private void add(int position) {
+      // The same token may appear twice for one restaurant, e.g. in two attributes.
+      if (count > 0 && positions[count - 1] == position) {
+        return;
+      }
+      if (count == positions.length) {
+        positions = Arrays.copyOf(positions, count * 2);
+      }
+      positions[count++] = position;
+    }
+  }
+}
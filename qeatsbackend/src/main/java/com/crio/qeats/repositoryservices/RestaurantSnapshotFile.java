@@ -0,0 +1,289 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.models.ItemEntity;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.OpeningHours;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binary copy of a catalogue snapshot on the local disk, so that a restarted instance can serve
+// from memory before it has read the restaurants collection again. Values repeated across the
+// restaurants (cities, attributes, opening hours) are written once in a table at the head of
+// the file and referred to by position, everything else is written in place:
+//
+//   magic, version
+//   table:       count, strings
+//   restaurants: count, then for each id, restaurantId, name, imageUrl, city ref, latitude,
+//                longitude, opensAt ref, closesAt ref, attribute count, attribute refs
+//   menus:       count, then for each id, restaurantId, item count, then for each item id,
+//                itemId, name, imageUrl, price, attribute count, attribute refs
+//
+// Strings are an int length (-1 for null) followed by UTF-8 bytes, missing refs are -1 and
+// missing doubles are NaN. The file is read through a MappedByteBuffer and only replaced
+// atomically, so a reader never sees a partly written file.
+final class RestaurantSnapshotFile {
+
+  private static final int MAGIC = 0x51454154;
+  private static final int VERSION = 1;
+
+  private RestaurantSnapshotFile() {
+  }
+
+  /**
+   * Writes the restaurants and menus to the file, replacing it once fully written.
+   */
+  static void write(Path file, List<RestaurantEntity> restaurants, List<MenuEntity> menus)
+      throws IOException {
+    StringTable table = new StringTable();
+    for (RestaurantEntity restaurant : restaurants) {
+      table.add(restaurant.getCity());
+      table.add(restaurant.getOpensAt());
+      table.add(restaurant.getClosesAt());
+      orEmpty(restaurant.getAttributes()).forEach(table::add);
+    }
+    for (MenuEntity menu : menus) {
+      for (ItemEntity item : orEmpty(menu.getItems())) {
+        orEmpty(item.getAttributes()).forEach(table::add);
+      }
+    }
+
+    Path parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path partial = Files.createTempFile(parent, file.getFileName().toString(), ".partial");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(partial)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+
+      out.writeInt(table.strings.size());
+      for (String string : table.strings) {
+        writeString(out, string);
+      }
+
+      out.writeInt(restaurants.size());
+      for (RestaurantEntity restaurant : restaurants) {
+        writeString(out, restaurant.getId());
+        writeString(out, restaurant.getRestaurantId());
+        writeString(out, restaurant.getName());
+        writeString(out, restaurant.getImageUrl());
+        out.writeInt(table.ref(restaurant.getCity()));
+        writeDouble(out, restaurant.getLatitude());
+        writeDouble(out, restaurant.getLongitude());
+        out.writeInt(table.ref(restaurant.getOpensAt()));
+        out.writeInt(table.ref(restaurant.getClosesAt()));
+        writeRefs(out, table, restaurant.getAttributes());
+      }
+
+      out.writeInt(menus.size());
+      for (MenuEntity menu : menus) {
+        writeString(out, menu.getId());
+        writeString(out, menu.getRestaurantId());
+        List<ItemEntity> items = orEmpty(menu.getItems());
+        out.writeInt(items.size());
+        for (ItemEntity item : items) {
+          writeString(out, item.getId());
+          writeString(out, item.getItemId());
+          writeString(out, item.getName());
+          writeString(out, item.getImageUrl());
+          writeDouble(out, item.getPrice());
+          writeRefs(out, table, item.getAttributes());
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(partial);
+      throw e;
+    }
+    Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Reads back a file written by {@link #write}.
+   * @throws IOException if the file cannot be read, or was not written by this version
+   */
+  static Contents read(Path file) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    try {
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        throw new IOException("Not a restaurant snapshot of version " + VERSION + ": " + file);
+      }
+
+      String[] table = new String[buffer.getInt()];
+      for (int i = 0; i < table.length; i++) {
+        table[i] = readString(buffer);
+      }
+
+      // Restaurants sharing their hours share the compiled hours too.
+      Map<String, OpeningHours> compiledHours = new HashMap<>();
+      int restaurantCount = buffer.getInt();
+      List<RestaurantEntity> restaurants = new ArrayList<>(restaurantCount);
+      for (int i = 0; i < restaurantCount; i++) {
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(readString(buffer));
+        restaurant.setRestaurantId(readString(buffer));
+        restaurant.setName(readString(buffer));
+        restaurant.setImageUrl(readString(buffer));
+        restaurant.setCity(deref(table, buffer.getInt()));
+        restaurant.setLatitude(readDouble(buffer));
+        restaurant.setLongitude(readDouble(buffer));
+        int opensAtRef = buffer.getInt();
+        int closesAtRef = buffer.getInt();
+        restaurant.setOpensAt(deref(table, opensAtRef));
+        restaurant.setClosesAt(deref(table, closesAtRef));
+        if (opensAtRef >= 0 && closesAtRef >= 0) {
+          restaurant.setOpeningHours(compiledHours.computeIfAbsent(opensAtRef + ":" + closesAtRef,
+              key -> compileOrNull(restaurant.getOpensAt(), restaurant.getClosesAt())));
+        }
+        restaurant.setAttributes(readRefs(buffer, table));
+        restaurants.add(restaurant);
+      }
+
+      int menuCount = buffer.getInt();
+      List<MenuEntity> menus = new ArrayList<>(menuCount);
+      for (int i = 0; i < menuCount; i++) {
+        MenuEntity menu = new MenuEntity();
+        menu.setId(readString(buffer));
+        menu.setRestaurantId(readString(buffer));
+        int itemCount = buffer.getInt();
+        List<ItemEntity> items = new ArrayList<>(itemCount);
+        for (int j = 0; j < itemCount; j++) {
+          ItemEntity item = new ItemEntity();
+          item.setId(readString(buffer));
+          item.setItemId(readString(buffer));
+          item.setName(readString(buffer));
+          item.setImageUrl(readString(buffer));
+          item.setPrice(readDouble(buffer));
+          item.setAttributes(readRefs(buffer, table));
+          items.add(item);
+        }
+        menu.setItems(items);
+        menus.add(menu);
+      }
+      return new Contents(restaurants, menus);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException
+        | IllegalArgumentException e) {
+      throw new IOException("Corrupt restaurant snapshot: " + file, e);
+    }
+  }
+
+  /**
+   * What a snapshot file holds.
+   */
+  static final class Contents {
+
+    final List<RestaurantEntity> restaurants;
+    final List<MenuEntity> menus;
+
+    Contents(List<RestaurantEntity> restaurants, List<MenuEntity> menus) {
+      this.restaurants = restaurants;
+      this.menus = menus;
+    }
+  }
+
+  // Hours that do not compile are left for RestaurantEntity.getOpeningHours, so that they fail
+  // at query time exactly as they would have when read from the database.
+  private static OpeningHours compileOrNull(String opensAt, String closesAt) {
+    try {
+      return OpeningHours.of(opensAt, closesAt);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String string) throws IOException {
+    if (string == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeDouble(DataOutputStream out, Double value) throws IOException {
+    out.writeDouble(value == null ? Double.NaN : value);
+  }
+
+  private static Double readDouble(ByteBuffer buffer) {
+    double value = buffer.getDouble();
+    return Double.isNaN(value) ? null : value;
+  }
+
+  private static void writeRefs(DataOutputStream out, StringTable table, List<String> strings)
+      throws IOException {
+    out.writeInt(orEmpty(strings).size());
+    for (String string : orEmpty(strings)) {
+      out.writeInt(table.ref(string));
+    }
+  }
+
+  private static List<String> readRefs(ByteBuffer buffer, String[] table) {
+    int count = buffer.getInt();
+    List<String> strings = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      strings.add(deref(table, buffer.getInt()));
+    }
+    return strings;
+  }
+
+  private static String deref(String[] table, int ref) {
+    return ref < 0 ? null : table[ref];
+  }
+
+  private static <T> List<T> orEmpty(List<T> list) {
+    return list == null ? Collections.emptyList() : list;
+  }
+
+  private static final class StringTable {
+
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> refs = new HashMap<>();
+
+    void add(String string) {
+      if (string != null && !refs.containsKey(string)) {
+        refs.put(string, strings.size());
+        strings.add(string);
+      }
+    }
+
+    int ref(String string) {
+      return string == null ? -1 : refs.get(string);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Bounds the number of restaurants requests served at once, so that a slow database makes the
+// excess requests fail fast instead of holding every server thread until they all time out.
+// The limit follows the observed latency, AIMD style: it grows by 1/limit after a fast request
+// that found the limit in use, so by about one per limit's worth of requests, and shrinks by a
+// fixed ratio after a request slower than the threshold or failed. It shrinks once per window:
+// only requests admitted after the last shrink count, the ones in flight at the time saw the
+// same overload. Requests beyond the limit wait in a bounded queue for a short while, and are
+// rejected once the queue is full or the wait is over.
+// The instances, one per restaurants endpoint, are set up in RestaurantsLimiterConfiguration.
+public class AdaptiveConcurrencyLimiter {
+
+  // Shrink factor applied to the limit after a slow or failed request.
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final int queueCapacity;
+  private final long maxWaitInNanos;
+  private final long latencyThresholdInNanos;
+
+  // All the state below is guarded by this.
+  private double limit;
+  private int inFlight;
+  private int queued;
+  private long admitted;
+  private long rejected;
+  private boolean shrunk;
+  private long shrunkAtNanos;
+
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int queueCapacity,
+      long maxWaitInMillis, long latencyThresholdInMillis) {
+    this.limit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.queueCapacity = queueCapacity;
+    this.maxWaitInNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitInMillis);
+    this.latencyThresholdInNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdInMillis);
+  }
+
+  /**
+   * Admits a request, waiting in the queue if the limit is reached.
+   * Every admitted request must be followed by exactly one call to {@link #release}.
+   * @return true if the request is admitted, false if it has to be rejected
+   */
+  public synchronized boolean tryAcquire() throws InterruptedException {
+    if (inFlight < currentLimit()) {
+      inFlight++;
+      admitted++;
+      return true;
+    }
+    if (queued >= queueCapacity) {
+      rejected++;
+      return false;
+    }
+
+    queued++;
+    try {
+      long deadlineAtNanos = System.nanoTime() + maxWaitInNanos;
+      while (inFlight >= currentLimit()) {
+        long remainingInNanos = deadlineAtNanos - System.nanoTime();
+        if (remainingInNanos <= 0) {
+          rejected++;
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(this, remainingInNanos);
+      }
+      inFlight++;
+      admitted++;
+      return true;
+    } finally {
+      queued--;
+    }
+  }
+
+  /**
+   * Releases the slot of an admitted request and adjusts the limit to how it went.
+   * @param latencyInNanos time the request took once admitted
+   * @param failed whether the request failed, which counts as a sign of overload
+   */
+  public synchronized void release(long latencyInNanos, boolean failed) {
+    // Checked before the slot is freed, an idle limiter gives no evidence that it can grow.
+    boolean limitInUse = inFlight >= currentLimit();
+    inFlight--;
+
+    long nowNanos = System.nanoTime();
+    if (failed || latencyInNanos > latencyThresholdInNanos) {
+      if (!shrunk || nowNanos - latencyInNanos - shrunkAtNanos > 0) {
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        shrunk = true;
+        shrunkAtNanos = nowNanos;
+      }
+    } else if (limitInUse) {
+      limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+    notifyAll();
+  }
+
+  /**
+   * Snapshot of the limiter, for monitoring.
+   */
+  public synchronized Map<String, Object> getState() {
+    Map<String, Object> state = new LinkedHashMap<>();
+    state.put("limit", currentLimit());
+    state.put("inFlight", inFlight);
+    state.put("queued", queued);
+    state.put("queueCapacity", queueCapacity);
+    state.put("admitted", admitted);
+    state.put("rejected", rejected);
+    return state;
+  }
+
+  synchronized int currentLimit() {
+    return (int) limit;
+  }
+
+}
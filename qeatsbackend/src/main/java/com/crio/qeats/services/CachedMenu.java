@@ -0,0 +1,21 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.exchanges.GetMenuResponse;
+import lombok.Value;
+
+// Menu response along with the strong ETag of its JSON representation. Both are computed once
+// when the menu is loaded into the MenuCache and shared by every request for it.
+@Value
+public class CachedMenu {
+
+  private final GetMenuResponse response;
+
+  private final String etag;
+
+}
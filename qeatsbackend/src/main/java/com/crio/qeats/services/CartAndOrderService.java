@@ -0,0 +1,86 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.EmptyCartException;
+import com.crio.qeats.exceptions.ItemNotFoundInRestaurantMenuException;
+import com.crio.qeats.exceptions.OrderQueueFullException;
+import com.crio.qeats.exchanges.CartModifiedResponse;
+import com.crio.qeats.exchanges.GetOrdersRequest;
+import com.crio.qeats.exchanges.GetOrdersResponse;
+
+public interface CartAndOrderService {
+
+  /**
+   * Get the cart of the user, creating an empty one if the user has none yet.
+   * @param userId id of the user
+   * @return the cart of the user
+   */
+  Cart findOrCreateCart(String userId);
+
+  /**
+   * Add an item from the menu of the restaurant to the cart.
+   * - The item is added only if the cart is empty or has items from the same restaurant,
+   *   otherwise the cart is returned as is with the ITEM_NOT_FROM_SAME_RESTAURANT error type.
+   * - Concurrent updates of the same cart are applied one after the other.
+   * @param itemId itemId of the item on the menu of the restaurant
+   * @param cartId id of the cart
+   * @param restaurantId restaurant the item comes from
+   * @return the cart along with 0, or with the error type if the cart was left as is
+   * @throws CartNotFoundException if there is no such cart
+   * @throws ItemNotFoundInRestaurantMenuException if the item is not on the menu
+   */
+  CartModifiedResponse addItemToCart(String itemId, String cartId, String restaurantId)
+      throws CartNotFoundException, ItemNotFoundInRestaurantMenuException;
+
+  /**
+   * Remove one item with the given itemId from the cart.
+   * - Concurrent updates of the same cart are applied one after the other.
+   * @param itemId itemId of the item to remove
+   * @param cartId id of the cart
+   * @return the updated cart along with 0
+   * @throws CartNotFoundException if there is no such cart
+   */
+  CartModifiedResponse removeItemFromCart(String itemId, String cartId)
+      throws CartNotFoundException;
+
+  /**
+   * Remove all the items from the cart.
+   * @param cartId id of the cart
+   * @return the empty cart
+   * @throws CartNotFoundException if there is no such cart
+   */
+  Cart clearCart(String cartId) throws CartNotFoundException;
+
+  /**
+   * Place an order for the items in the cart and empty the cart.
+   * - The order is queued to be written to the database and returned right away, with its id
+   *   already assigned.
+   * - Nothing changes if the order could not be queued.
+   * @param cartId id of the cart
+   * @return the placed order
+   * @throws CartNotFoundException if there is no such cart
+   * @throws EmptyCartException if the cart has no items
+   * @throws OrderQueueFullException if the order queue is full
+   */
+  Order postOrder(String cartId)
+      throws CartNotFoundException, EmptyCartException, OrderQueueFullException;
+
+  /**
+   * Get one page of the orders of the user, newest first.
+   * - Orders placed but still queued to be written may be missing for a moment.
+   * - Items come without their imageUrl.
+   * @param getOrdersRequest the user, the cursor of the page to get and the page size
+   * @return the orders, along with the cursor of the next page or null on the last page
+   * @throws IllegalArgumentException if the cursor is not one returned by a previous call
+   */
+  GetOrdersResponse findOrders(GetOrdersRequest getOrdersRequest);
+
+}
@@ -0,0 +1,184 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.EmptyCartException;
+import com.crio.qeats.exceptions.ItemNotFoundInRestaurantMenuException;
+import com.crio.qeats.exceptions.ItemNotFromSameRestaurantException;
+import com.crio.qeats.exceptions.OrderQueueFullException;
+import com.crio.qeats.exchanges.CartModifiedResponse;
+import com.crio.qeats.exchanges.GetOrdersRequest;
+import com.crio.qeats.exchanges.GetOrdersResponse;
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.repositoryservices.CartRepositoryService;
+import com.crio.qeats.repositoryservices.OrderRepositoryService;
+import com.crio.qeats.utils.OrderCursor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+// Cart updates read the cart, change it and write it back, see CartRepositoryService. An update
+// that lost the race against a concurrent one, e.g. on a double tap or from another instance of
+// the service, is retried on the cart as it is now after a pause of a few millis, up to
+// CART_UPDATE_ATTEMPTS times. Updates of different carts never wait on each other.
+@Service
+@Log4j2
+public class CartAndOrderServiceImpl implements CartAndOrderService {
+
+  private static final int NO_ERROR = 0;
+
+  @Autowired
+  CartRepositoryService cartRepositoryService;
+
+  @Autowired
+  MenuService menuService;
+
+  @Autowired
+  OrderQueue orderQueue;
+
+  @Autowired
+  OrderRepositoryService orderRepositoryService;
+
+  @Override
+  public Cart findOrCreateCart(String userId) {
+    Cart cart = cartRepositoryService.findCartByUserId(userId).orElse(null);
+    if (cart != null) {
+      return cart;
+    }
+    try {
+      return cartRepositoryService.createCart(userId);
+    } catch (DuplicateKeyException e) {
+      // Created by a concurrent first request of the user.
+      return cartRepositoryService.findCartByUserId(userId).orElseThrow(() -> e);
+    }
+  }
+
+  @Override
+  public CartModifiedResponse addItemToCart(String itemId, String cartId, String restaurantId)
+      throws CartNotFoundException, ItemNotFoundInRestaurantMenuException {
+    // The menu comes from the MenuCache, so it is looked up once, not on every attempt.
+    Item item = findItemOnMenu(itemId, restaurantId);
+    try {
+      return new CartModifiedResponse(withRetry(
+          () -> cartRepositoryService.addItem(item, cartId, restaurantId)), NO_ERROR);
+    } catch (ItemNotFromSameRestaurantException e) {
+      return new CartModifiedResponse(cartRepositoryService.findCartByCartId(cartId),
+          e.getErrorType());
+    }
+  }
+
+  @Override
+  public CartModifiedResponse removeItemFromCart(String itemId, String cartId)
+      throws CartNotFoundException {
+    return new CartModifiedResponse(withRetry(
+        () -> cartRepositoryService.removeItem(itemId, cartId)), NO_ERROR);
+  }
+
+  @Override
+  public Cart clearCart(String cartId) throws CartNotFoundException {
+    return withRetry(() -> cartRepositoryService.clearCart(cartId));
+  }
+
+  @Override
+  public Order postOrder(String cartId)
+      throws CartNotFoundException, EmptyCartException, OrderQueueFullException {
+    // The cart is emptied before the order is queued. If emptying it fails, nothing was ordered
+    // and the client can retry; once the order is queued, a retry finds the cart empty. Either
+    // way a retry does not place a second order. An item added meanwhile is either in the order
+    // or left in the cart.
+    Cart cart = withRetry(() -> cartRepositoryService.takeItems(cartId));
+    if (cart.getItems().isEmpty()) {
+      throw new EmptyCartException("Cart " + cartId + " is empty");
+    }
+
+    Order order = new Order(new ObjectId().toHexString(), cart.getRestaurantId(),
+        cart.getUserId(), Order.PLACED, new ArrayList<>(cart.getItems()), cart.getTotal(),
+        new Date());
+    if (!orderQueue.offer(order)) {
+      restoreItems(cart);
+      throw new OrderQueueFullException("Order queue is full, order for cart " + cartId
+          + " was not placed");
+    }
+    return order;
+  }
+
+  @Override
+  public GetOrdersResponse findOrders(GetOrdersRequest getOrdersRequest) {
+    OrderCursor after = getOrdersRequest.getCursor() == null
+        ? null : OrderCursor.fromToken(getOrdersRequest.getCursor());
+    int limit = getOrdersRequest.getLimit();
+
+    // One more order than asked for tells whether there is a next page.
+    List<Order> orders = orderRepositoryService.findOrders(getOrdersRequest.getUserId(), after,
+        limit + 1);
+    if (orders.size() <= limit) {
+      return new GetOrdersResponse(orders, null);
+    }
+    orders = new ArrayList<>(orders.subList(0, limit));
+    Order last = orders.get(limit - 1);
+    return new GetOrdersResponse(orders,
+        new OrderCursor(last.getPlacedAt(), last.getId()).toToken());
+  }
+
+  private Item findItemOnMenu(String itemId, String restaurantId)
+      throws ItemNotFoundInRestaurantMenuException {
+    CachedMenu cachedMenu = menuService.findMenu(restaurantId);
+    if (cachedMenu != null) {
+      for (Item item : cachedMenu.getResponse().getMenu().getItems()) {
+        if (itemId.equals(item.getItemId())) {
+          return item;
+        }
+      }
+    }
+    throw new ItemNotFoundInRestaurantMenuException(
+        "Item " + itemId + " is not on the menu of restaurant " + restaurantId);
+  }
+
+  // Puts the items of an order that was not placed back into the cart, so that the user can
+  // order them again.
+  private void restoreItems(Cart taken) {
+    try {
+      withRetry(() -> cartRepositoryService.restoreItems(taken));
+    } catch (ItemNotFromSameRestaurantException e) {
+      log.warn("Items of the order not placed for cart {} are not put back, the cart has items"
+          + " from another restaurant by now", taken.getId());
+    }
+  }
+
+  private <T> T withRetry(Supplier<T> update) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return update.get();
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt == GlobalConstants.CART_UPDATE_ATTEMPTS) {
+          throw e;
+        }
+        log.debug("Cart updated concurrently, attempt {} of {}", attempt,
+            GlobalConstants.CART_UPDATE_ATTEMPTS);
+        // A random pause, so that the updates that collided do not collide again.
+        try {
+          Thread.sleep(ThreadLocalRandom.current().nextInt(attempt + 1));
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+      }
+    }
+  }
+}
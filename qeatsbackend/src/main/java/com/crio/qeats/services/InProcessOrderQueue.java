@@ -0,0 +1,172 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.repositoryservices.OrderRepositoryService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+// Bounded in-memory queue of the placed orders, drained by a single writer thread that stores
+// whatever has piled up since its last write in one bulk insert. Under load the batches grow
+// up to ORDER_BATCH_SIZE, so the number of round trips to mongo stays flat as orders go up.
+// Once ORDER_QUEUE_CAPACITY orders are waiting, new orders are refused instead of queued.
+//
+// A write that failed for a transient reason, e.g. mongo being down or timing out, is retried,
+// backing off up to ORDER_WRITE_MAX_RETRY_BACKOFF_IN_MILLIS, until it succeeds: while mongo is
+// down the queue fills up and new orders are refused, instead of accepted orders being dropped.
+// Only shutdown gives up on the orders not written yet, and logs their ids.
+// Any other failure would fail again, so the batch is split in halves, written on their own,
+// down to the orders that cannot be written. Those are logged in full and dropped, so that one
+// bad order does not hold up the orders behind it.
+//
+// Orders still queued are lost if the process dies; stands in for RabbitMQ, see OrderQueue.
+@Component
+@Log4j2
+public class InProcessOrderQueue implements OrderQueue {
+
+  // How long the writer waits for an order before checking whether it was stopped.
+  private static final long POLL_INTERVAL_IN_MILLIS = 100;
+
+  @Autowired
+  OrderRepositoryService orderRepositoryService;
+
+  private final BlockingQueue<Order> queue;
+  private final int batchSize;
+  private final long retryBackoffInMillis;
+  private final long shutdownTimeoutInMillis;
+
+  private final Thread writer;
+  private volatile boolean running;
+  private volatile boolean abandoned;
+
+  public InProcessOrderQueue() {
+    this(GlobalConstants.ORDER_QUEUE_CAPACITY, GlobalConstants.ORDER_BATCH_SIZE,
+        GlobalConstants.ORDER_WRITE_RETRY_BACKOFF_IN_MILLIS,
+        TimeUnit.SECONDS.toMillis(GlobalConstants.ORDER_QUEUE_SHUTDOWN_IN_SECONDS));
+  }
+
+  InProcessOrderQueue(int capacity, int batchSize, long retryBackoffInMillis,
+      long shutdownTimeoutInMillis) {
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.batchSize = batchSize;
+    this.retryBackoffInMillis = retryBackoffInMillis;
+    this.shutdownTimeoutInMillis = shutdownTimeoutInMillis;
+    this.writer = new Thread(this::drain, "order-writer");
+    this.writer.setDaemon(true);
+  }
+
+  @PostConstruct
+  public void start() {
+    running = true;
+    writer.start();
+  }
+
+  @Override
+  public boolean offer(Order order) {
+    if (!running) {
+      return false;
+    }
+    return queue.offer(order);
+  }
+
+  @Override
+  public int depth() {
+    return queue.size();
+  }
+
+  /**
+   * Stops taking orders and waits for the writer to write the ones already queued. Orders
+   * still not written once the shutdown timeout is over, e.g. while mongo is down, are given
+   * up on and their ids logged.
+   */
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    running = false;
+    writer.join(shutdownTimeoutInMillis);
+    if (writer.isAlive()) {
+      abandoned = true;
+      writer.interrupt();
+      writer.join(shutdownTimeoutInMillis);
+    }
+    if (!queue.isEmpty()) {
+      List<Order> notWritten = new ArrayList<>();
+      queue.drainTo(notWritten);
+      logNotWritten(notWritten);
+    }
+  }
+
+  private void drain() {
+    List<Order> batch = new ArrayList<>(batchSize);
+    try {
+      while (running || !queue.isEmpty()) {
+        Order first = queue.poll(POLL_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        write(batch);
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      // Given up on by shutdown, which logs the orders still queued.
+      logNotWritten(batch);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void write(List<Order> batch) throws InterruptedException {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        orderRepositoryService.saveOrders(batch);
+        return;
+      } catch (DataAccessResourceFailureException | TransientDataAccessException e) {
+        if (abandoned) {
+          throw new InterruptedException("Order writer stopped");
+        }
+        log.warn("Writing {} orders failed {} times, retrying: {}", batch.size(), attempt,
+            e.getMessage());
+        Thread.sleep(Math.min(retryBackoffInMillis * attempt,
+            GlobalConstants.ORDER_WRITE_MAX_RETRY_BACKOFF_IN_MILLIS));
+      } catch (RuntimeException e) {
+        if (batch.size() == 1) {
+          log.error("Dropping order {}, it cannot be written", batch.get(0), e);
+          return;
+        }
+        // The other orders of the batch may be stored already, writing them again is ignored,
+        // see OrderRepositoryService.saveOrders.
+        int half = batch.size() / 2;
+        write(new ArrayList<>(batch.subList(0, half)));
+        write(new ArrayList<>(batch.subList(half, batch.size())));
+        return;
+      }
+    }
+  }
+
+  private static void logNotWritten(List<Order> orders) {
+    if (orders.isEmpty()) {
+      return;
+    }
+    List<String> orderIds = new ArrayList<>(orders.size());
+    for (Order order : orders) {
+      orderIds.add(order.getId());
+    }
+    log.error("Order writer stopped with {} orders not written: {}", orders.size(), orderIds);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.dto.Menu;
+import com.crio.qeats.exchanges.GetMenuResponse;
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.models.MenuEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+// In-process cache of the menus by restaurantId, holding at most MENU_CACHE_MAXIMUM_SIZE menus
+// and evicting the least recently used ones. Restaurants without a menu are cached as well.
+// Entries are invalidated when a menu is saved or deleted through MongoTemplate or the
+// MenuRepository. Updates made directly on the menus collection, or by another instance of the
+// service, are not seen until the entry expires MENU_CACHE_EXPIRY_IN_MINUTES after it was loaded.
+@Component
+@Log4j2
+public class MenuCache extends AbstractMongoEventListener<MenuEntity> {
+
+  private final Cache<String, Optional<CachedMenu>> menus;
+
+  // Incremented on every invalidation, so that a menu loaded concurrently with an update,
+  // which may predate the update, is not left in the cache.
+  private final AtomicLong invalidations = new AtomicLong();
+
+  // The mapper the responses are written with, so that the ETag is the hash of the bytes sent.
+  private final ObjectMapper objectMapper;
+
+  @Autowired
+  public MenuCache(ObjectMapper objectMapper) {
+    this(GlobalConstants.MENU_CACHE_MAXIMUM_SIZE, Ticker.systemTicker(), objectMapper);
+  }
+
+  MenuCache(long maximumSize, ObjectMapper objectMapper) {
+    this(maximumSize, Ticker.systemTicker(), objectMapper);
+  }
+
+  MenuCache(long maximumSize, Ticker ticker, ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    this.menus = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(GlobalConstants.MENU_CACHE_EXPIRY_IN_MINUTES, TimeUnit.MINUTES)
+        .ticker(ticker)
+        .build();
+  }
+
+  /**
+   * Get the cached menu of the restaurant, loading it on a cache miss.
+   * @param restaurantId id of the restaurant
+   * @param loader loads the menu of the restaurant, returns null if it has none
+   * @return the cached menu, or null if the restaurant has no menu
+   */
+  public CachedMenu get(String restaurantId, Supplier<Menu> loader) {
+    Optional<CachedMenu> cached = menus.getIfPresent(restaurantId);
+    if (cached != null) {
+      return cached.orElse(null);
+    }
+
+    long invalidationsBeforeLoad = invalidations.get();
+    Menu menu = loader.get();
+    Optional<CachedMenu> loaded = Optional.ofNullable(menu == null ? null : toCachedMenu(menu));
+    menus.put(restaurantId, loaded);
+    if (invalidations.get() != invalidationsBeforeLoad) {
+      menus.invalidate(restaurantId);
+    }
+    return loaded.orElse(null);
+  }
+
+  /**
+   * Drops the cached menu of the restaurant.
+   */
+  public void invalidate(String restaurantId) {
+    invalidations.incrementAndGet();
+    menus.invalidate(restaurantId);
+  }
+
+  /**
+   * Drops all the cached menus.
+   */
+  public void invalidateAll() {
+    invalidations.incrementAndGet();
+    menus.invalidateAll();
+  }
+
+  public long size() {
+    return menus.size();
+  }
+
+  @Override
+  public void onAfterSave(AfterSaveEvent<MenuEntity> event) {
+    invalidate(event.getSource().getRestaurantId());
+  }
+
+  // Delete events only carry the query, not the deleted menus, so all of them are dropped.
+  // Menus are rarely deleted.
+  @Override
+  public void onAfterDelete(AfterDeleteEvent<MenuEntity> event) {
+    invalidateAll();
+  }
+
+  private CachedMenu toCachedMenu(Menu menu) {
+    GetMenuResponse response = new GetMenuResponse(menu);
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(response);
+      return new CachedMenu(response, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unable to serialize the menu of "
+          + menu.getRestaurantId(), e);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+public interface MenuService {
+
+  /**
+   * Get the menu of the restaurant, along with its ETag.
+   * - The ETag is strong: it changes whenever the JSON representation of the menu changes.
+   * - Menus are served from an in-process cache, invalidated when a menu is saved.
+   * @param restaurantId id of the restaurant
+   * @return the menu and its ETag, or null if the restaurant has no menu
+   */
+  CachedMenu findMenu(String restaurantId);
+
+}
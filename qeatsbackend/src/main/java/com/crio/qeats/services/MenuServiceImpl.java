@@ -0,0 +1,27 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.repositoryservices.MenuRepositoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MenuServiceImpl implements MenuService {
+
+  @Autowired
+  MenuRepositoryService menuRepositoryService;
+
+  @Autowired
+  MenuCache menuCache;
+
+  @Override
+  public CachedMenu findMenu(String restaurantId) {
+    return menuCache.get(restaurantId, () -> menuRepositoryService.findMenu(restaurantId));
+  }
+
+}
@@ -0,0 +1,28 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.dto.Order;
+
+// Hands the placed orders over to be written to the database, so that placing an order does
+// not wait for the write. InProcessOrderQueue keeps them in memory; a RabbitMQ implementation
+// would publish them to GlobalConstants.EXCHANGE_NAME with GlobalConstants.ROUTING_KEY instead.
+public interface OrderQueue {
+
+  /**
+   * Queue the order to be written, without waiting for room in the queue.
+   * @param order order to write, with its id assigned
+   * @return true if the order was queued, false if the queue is full
+   */
+  boolean offer(Order order);
+
+  /**
+   * Number of orders queued and not yet written.
+   */
+  int depth();
+
+}
@@ -0,0 +1,123 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.globals.GlobalConstants;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+// Runs the lookups of a search concurrently on a bounded pool, so that a search takes as long
+// as its slowest lookup instead of the sum of all of them. A search waits for its lookups up to
+// SEARCH_DEADLINE_IN_MILLIS and returns whatever finished by then.
+@Component
+@Log4j2
+public class RestaurantSearchExecutor {
+
+  private final ThreadPoolExecutor executor;
+
+  private final long deadlineInNanos;
+
+  public RestaurantSearchExecutor() {
+    this(GlobalConstants.SEARCH_EXECUTOR_THREADS, GlobalConstants.SEARCH_EXECUTOR_QUEUE_CAPACITY,
+        GlobalConstants.SEARCH_DEADLINE_IN_MILLIS);
+  }
+
+  RestaurantSearchExecutor(int threads, int queueCapacity, long deadlineInMillis) {
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        new ThreadFactoryBuilder().setNameFormat("restaurant-search-%d").setDaemon(true).build(),
+        new ThreadPoolExecutor.AbortPolicy());
+    this.deadlineInNanos = TimeUnit.MILLISECONDS.toNanos(deadlineInMillis);
+  }
+
+  /**
+   * Runs the lookups concurrently and merges their results.
+   *   - A restaurant found by several lookups is returned once, in the position given by the
+   *     first lookup that found it.
+   *   - Lookups that failed, were rejected by a saturated pool or did not finish by the
+   *     deadline are left out.
+   * @param lookups lookups in decreasing order of priority
+   * @return restaurants found by the lookups that finished, in order of priority
+   */
+  public List<Restaurant> search(List<Supplier<List<Restaurant>>> lookups) {
+    long deadlineAtNanos = System.nanoTime() + deadlineInNanos;
+
+    List<Future<List<Restaurant>>> futures = new ArrayList<>(lookups.size());
+    for (Supplier<List<Restaurant>> lookup : lookups) {
+      try {
+        futures.add(executor.submit(lookup::get));
+      } catch (RejectedExecutionException e) {
+        log.warn("Search executor is saturated, skipping lookup {}", futures.size());
+        futures.add(null);
+      }
+    }
+
+    List<List<Restaurant>> results = new ArrayList<>(lookups.size());
+    for (int i = 0; i < futures.size(); i++) {
+      Future<List<Restaurant>> future = futures.get(i);
+      if (future == null) {
+        continue;
+      }
+      try {
+        // All the lookups started together, so waiting for them in order of priority up to
+        // the same deadline also collects the ones that finished while waiting for others.
+        results.add(future.get(Math.max(deadlineAtNanos - System.nanoTime(), 0),
+            TimeUnit.NANOSECONDS));
+      } catch (TimeoutException e) {
+        log.warn("Search lookup {} missed the deadline", i);
+        future.cancel(true);
+      } catch (ExecutionException e) {
+        log.error("Search lookup {} failed", i, e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        for (Future<List<Restaurant>> pending : futures.subList(i, futures.size())) {
+          if (pending != null) {
+            pending.cancel(true);
+          }
+        }
+        break;
+      }
+    }
+    return mergeByRestaurantId(results);
+  }
+
+  /**
+   * Merges the lists of restaurants, keeping the first occurrence of every restaurantId.
+   */
+  static List<Restaurant> mergeByRestaurantId(List<List<Restaurant>> results) {
+    Map<String, Restaurant> restaurants = new LinkedHashMap<>();
+    for (List<Restaurant> result : results) {
+      if (result == null) {
+        continue;
+      }
+      for (Restaurant restaurant : result) {
+        restaurants.putIfAbsent(restaurant.getRestaurantId(), restaurant);
+      }
+    }
+    return new ArrayList<>(restaurants.values());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
@@ -7,9 +7,12 @@
 
 package com.crio.qeats.services;
 
+import com.crio.qeats.dto.Restaurant;
 import com.crio.qeats.exchanges.GetRestaurantsRequest;
 import com.crio.qeats.exchanges.GetRestaurantsResponse;
 import java.time.LocalTime;
+import java.util.function.Consumer;
+import reactor.core.publisher.Flux;
 
 public interface RestaurantService {
 
@@ -19,13 +22,56 @@ public interface RestaurantService {
    * - service radius is 3KMs.
    * - All other times, serving radius is 5KMs.
    * - If there are no restaurants, return empty list of restaurants.
-   * @param getRestaurantsRequest valid lat/long
+   * - If the request has a limit or a cursor, return one page of at most limit restaurants,
+   *   nearest first, starting after the cursor, along with the cursor of the next page.
+   * @param getRestaurantsRequest valid lat/long, optional limit and cursor
    * @param currentTime current time.
    * @return GetRestaurantsResponse object containing a list of open restaurants or an
    *     empty list if none fits the criteria.
+   * @throws IllegalArgumentException if the cursor is not one handed out by this method
    */
   GetRestaurantsResponse findAllRestaurantsCloseBy(
       GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime);
 
+  /**
+   * Get all the restaurants that are open now within a specific service radius and match
+   * the searchFor string of the request, by name, by attributes, or by the names or
+   * attributes of the items on their menu.
+   * - Restaurants matching by name come first, followed by the ones matching by attributes,
+   *   by item name and by item attributes, in that order.
+   * - A restaurant matching several ways is returned once.
+   * - The lookups run concurrently; lookups not done within SEARCH_DEADLINE_IN_MILLIS are
+   *   left out of the response.
+   * - The service radius follows the same peak hours rules as findAllRestaurantsCloseBy.
+   * @param getRestaurantsRequest valid lat/long and searchFor
+   * @param currentTime current time.
+   * @return GetRestaurantsResponse object containing a list of open restaurants or an
+   *     empty list if none fits the criteria or searchFor is empty.
+   */
+  GetRestaurantsResponse findRestaurantsBySearchQuery(
+      GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime);
+
+  /**
+   * Calls the action with every restaurant findAllRestaurantsCloseBy would return, in the same
+   * order, without collecting them in a list.
+   *   - Restaurants in the cache are read from there; otherwise they come straight from the
+   *     repository and are not cached, as caching them would need the whole list.
+   * @param getRestaurantsRequest valid lat/long
+   * @param currentTime current time.
+   * @param action called with each open restaurant within the serving radius
+   */
+  void streamAllRestaurantsCloseBy(GetRestaurantsRequest getRestaurantsRequest,
+      LocalTime currentTime, Consumer<Restaurant> action);
+
+  /**
+   * Emits the restaurants findAllRestaurantsCloseBy would return, with the same serving radius
+   * rules, without holding a thread while they are read.
+   *   - The restaurants cache is not used, as it is read over a blocking connection.
+   * @param getRestaurantsRequest valid lat/long
+   * @param currentTime current time.
+   * @return open restaurants within the serving radius, in no particular order
+   */
+  Flux<Restaurant> findAllRestaurantsCloseByReactively(
+      GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime);
 
 }
@@ -10,9 +10,16 @@ package com.crio.qeats.services;
 import com.crio.qeats.dto.Restaurant;
 import com.crio.qeats.exchanges.GetRestaurantsRequest;
 import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.repositoryservices.ReactiveRestaurantRepositoryService;
 import com.crio.qeats.repositoryservices.RestaurantRepositoryService;
+import com.crio.qeats.utils.NearestRestaurants;
+import com.crio.qeats.utils.PeakHours;
+import com.crio.qeats.utils.RestaurantAttributes;
+import com.crio.qeats.utils.RestaurantCursor;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -20,9 +27,12 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 @Service
 @Log4j2
@@ -33,6 +43,22 @@ public class RestaurantServiceImpl implements RestaurantService {
   @Autowired
   RestaurantRepositoryService restaurantRepositoryService;
 
+  // Optional, requests go straight to the repository service when there is no cache.
+  @Autowired(required = false)
+  RestaurantsCache restaurantsCache;
+
+  // Optional, concurrent requests from the same cell run their own lookups without it.
+  @Autowired(required = false)
+  RestaurantsCoalescer restaurantsCoalescer;
+
+  // Optional, the search lookups run one after the other when there is no executor.
+  @Autowired(required = false)
+  RestaurantSearchExecutor restaurantSearchExecutor;
+
+  // Optional, the reactive lookups fall back to the blocking repository service without it.
+  @Autowired(required = false)
+  ReactiveRestaurantRepositoryService reactiveRestaurantRepositoryService;
+
 
   // TODO: CRIO_TASK_MODULE_RESTAURANTSAPI - Implement findAllRestaurantsCloseby.
   // Check RestaurantService.java file for the interface contract.
@@ -40,31 +66,163 @@ public class RestaurantServiceImpl implements RestaurantService {
   public GetRestaurantsResponse findAllRestaurantsCloseBy(
       GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime) {
 
+    boolean paginated =
+        getRestaurantsRequest.getLimit() != null || getRestaurantsRequest.getCursor() != null;
+    RestaurantCursor after = getRestaurantsRequest.getCursor() == null ? null
+        : RestaurantCursor.fromToken(getRestaurantsRequest.getCursor());
+
     Double servingRadiusInKms = getServicingRadius(currentTime);
-    List<Restaurant> allRestaurants =
-        restaurantRepositoryService.findAllRestaurantsCloseBy(getRestaurantsRequest.getLatitude(),
-            getRestaurantsRequest.getLongitude(), currentTime, servingRadiusInKms);
+    Double latitude = getRestaurantsRequest.getLatitude();
+    Double longitude = getRestaurantsRequest.getLongitude();
+
+    List<String> attributes = getRestaurantsRequest.getAttributes();
+    List<Restaurant> allRestaurants;
+    if (attributes != null && !attributes.isEmpty()) {
+      // Filtered lists are not cached, the attribute index answers them from memory.
+      allRestaurants = restaurantRepositoryService.findRestaurantsCloseByWithAttributes(
+          latitude, longitude, attributes, currentTime, servingRadiusInKms);
+    } else if (restaurantsCache == null && restaurantsCoalescer == null) {
+      allRestaurants = restaurantRepositoryService.findAllRestaurantsCloseBy(latitude,
+          longitude, currentTime, servingRadiusInKms);
+    } else {
+      RestaurantsCell cell = RestaurantsCell.of(latitude, longitude, servingRadiusInKms);
+      allRestaurants = cell.keepCloseBy(findAllRestaurantsInCell(cell, currentTime), latitude,
+          longitude);
+    }
+    Map<String, Integer> facets = Boolean.TRUE.equals(getRestaurantsRequest.getFacets())
+        ? restaurantRepositoryService.countFacets(allRestaurants) : null;
+
+    if (!paginated) {
+      return new GetRestaurantsResponse(allRestaurants, null, facets);
+    }
 
-    return new GetRestaurantsResponse(allRestaurants);
+    // One more restaurant than the page holds tells whether there is a next page.
+    int limit = getRestaurantsRequest.getLimit() == null
+        ? GlobalConstants.RESTAURANTS_PAGE_SIZE : getRestaurantsRequest.getLimit();
+    List<Restaurant> page =
+        NearestRestaurants.findNearest(allRestaurants, latitude, longitude, after, limit + 1);
+    String nextCursor = null;
+    if (page.size() > limit) {
+      page.remove(limit);
+      nextCursor = NearestRestaurants.cursorAfter(page.get(limit - 1), latitude, longitude)
+          .toToken();
+    }
+    return new GetRestaurantsResponse(page, nextCursor, facets);
 
   }
 
+  @Override
+  public void streamAllRestaurantsCloseBy(GetRestaurantsRequest getRestaurantsRequest,
+      LocalTime currentTime, Consumer<Restaurant> action) {
+    Double servingRadiusInKms = getServicingRadius(currentTime);
+    Double latitude = getRestaurantsRequest.getLatitude();
+    Double longitude = getRestaurantsRequest.getLongitude();
+
+    if (restaurantsCache != null) {
+      RestaurantsCell cell = RestaurantsCell.of(latitude, longitude, servingRadiusInKms);
+      List<Restaurant> cachedRestaurants = restaurantsCache.get(cell, currentTime);
+      if (cachedRestaurants != null) {
+        cell.keepCloseBy(cachedRestaurants, latitude, longitude).forEach(action);
+        return;
+      }
+    }
+    restaurantRepositoryService.forEachRestaurantCloseBy(latitude, longitude, currentTime,
+        servingRadiusInKms, action);
+  }
+
+  @Override
+  public Flux<Restaurant> findAllRestaurantsCloseByReactively(
+      GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime) {
+    Double servingRadiusInKms = getServicingRadius(currentTime);
+    Double latitude = getRestaurantsRequest.getLatitude();
+    Double longitude = getRestaurantsRequest.getLongitude();
+
+    if (reactiveRestaurantRepositoryService == null) {
+      return Flux.defer(() -> Flux.fromIterable(restaurantRepositoryService
+          .findAllRestaurantsCloseBy(latitude, longitude, currentTime, servingRadiusInKms)));
+    }
+    return reactiveRestaurantRepositoryService.findAllRestaurantsCloseBy(latitude, longitude,
+        currentTime, servingRadiusInKms);
+  }
+
+  @Override
+  public GetRestaurantsResponse findRestaurantsBySearchQuery(
+      GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime) {
+    String searchFor = getRestaurantsRequest.getSearchFor();
+    if (searchFor == null || searchFor.trim().isEmpty()) {
+      return new GetRestaurantsResponse(new ArrayList<>());
+    }
+
+    Double servingRadiusInKms = getServicingRadius(currentTime);
+    Double latitude = getRestaurantsRequest.getLatitude();
+    Double longitude = getRestaurantsRequest.getLongitude();
+
+    // Lookups in decreasing order of priority, a restaurant found by several of them is
+    // listed where the first one put it.
+    List<Supplier<List<Restaurant>>> lookups = Arrays.asList(
+        () -> restaurantRepositoryService.findRestaurantsByName(latitude, longitude, searchFor,
+            currentTime, servingRadiusInKms),
+        () -> restaurantRepositoryService.findRestaurantsByAttributes(latitude, longitude,
+            searchFor, currentTime, servingRadiusInKms),
+        () -> restaurantRepositoryService.findRestaurantsByItemName(latitude, longitude,
+            searchFor, currentTime, servingRadiusInKms),
+        () -> restaurantRepositoryService.findRestaurantsByItemAttributes(latitude, longitude,
+            searchFor, currentTime, servingRadiusInKms));
+
+    List<Restaurant> restaurants;
+    if (restaurantSearchExecutor != null) {
+      restaurants = restaurantSearchExecutor.search(lookups);
+    } else {
+      List<List<Restaurant>> results = new ArrayList<>();
+      for (Supplier<List<Restaurant>> lookup : lookups) {
+        results.add(lookup.get());
+      }
+      restaurants = RestaurantSearchExecutor.mergeByRestaurantId(results);
+    }
+
+    List<String> attributes = getRestaurantsRequest.getAttributes();
+    if (attributes != null && !attributes.isEmpty()) {
+      restaurants.removeIf(restaurant -> !RestaurantAttributes.hasAll(restaurant, attributes));
+    }
+    Map<String, Integer> facets = Boolean.TRUE.equals(getRestaurantsRequest.getFacets())
+        ? restaurantRepositoryService.countFacets(restaurants) : null;
+    return new GetRestaurantsResponse(restaurants, null, facets);
+  }
+
+  // Restaurants of the whole cell, from the cache or else from the lookup shared with the
+  // concurrent requests from the cell.
+  private List<Restaurant> findAllRestaurantsInCell(RestaurantsCell cell,
+      LocalTime currentTime) {
+    List<Restaurant> restaurants = restaurantsCache == null ? null
+        : restaurantsCache.get(cell, currentTime);
+    if (restaurants != null) {
+      return restaurants;
+    }
+    return restaurantsCoalescer == null ? lookUpRestaurantsInCell(cell, currentTime)
+        : restaurantsCoalescer.findAllRestaurantsInCell(cell, currentTime,
+            () -> lookUpRestaurantsInCell(cell, currentTime));
+  }
+
+  // Looks the restaurants of the cell up and caches them for the other requests from the cell.
+  private List<Restaurant> lookUpRestaurantsInCell(RestaurantsCell cell, LocalTime currentTime) {
+    List<Restaurant> restaurants = restaurantRepositoryService.findAllRestaurantsCloseBy(
+        cell.getCenterLatitude(), cell.getCenterLongitude(), currentTime,
+        cell.getLookupRadiusInKms());
+    if (restaurantsCache != null) {
+      restaurantsCache.put(cell, currentTime, restaurants);
+    }
+    return restaurants;
+  }
+
   private Double getServicingRadius(LocalTime currentTime) {
     // Determine the servicing radius based on current time (peak hours or normal hours)
-    if (isPeakHours(currentTime)) {
+    if (PeakHours.isPeakHours(currentTime)) {
       return peakHoursServingRadiusInKms;
     } else {
       return normalHoursServingRadiusInKms;
     }
   }
 
-  private boolean isPeakHours(LocalTime currentTime) {
-    // Check if the current time falls within peak hours, including boundaries
-    return (currentTime.isAfter(LocalTime.of(7, 59)) && currentTime.isBefore(LocalTime.of(10, 1)))
-        || (currentTime.isAfter(LocalTime.of(12, 59)) && currentTime.isBefore(LocalTime.of(14, 1)))
-        || (currentTime.isAfter(LocalTime.of(18, 59)) && currentTime.isBefore(LocalTime.of(21, 1)));
-  }
-
 
 }
 
@@ -0,0 +1,105 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.configs.RedisConfiguration;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.globals.GlobalConstants;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisException;
+
+// Redis backed cache of the nearby restaurants. Requests from the same geohash cell, with the
+// same serving radius and in the same minute share one entry, since restaurants open and close
+// at minute granularity. An entry holds the restaurants of the whole cell, see RestaurantsCell,
+// from which each request keeps the ones within its own radius.
+@Component
+@Log4j2
+public class RestaurantsCache {
+
+  private static final String KEY_PREFIX = "restaurants:";
+  private static final long RETRY_INTERVAL_IN_NANOS =
+      TimeUnit.SECONDS.toNanos(GlobalConstants.REDIS_RETRY_INTERVAL_IN_SECONDS);
+
+  @Autowired
+  private RedisConfiguration redisConfiguration;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private volatile long unavailableUntilNanos = System.nanoTime();
+
+  /**
+   * Get the cached restaurants of the cell at the given time.
+   * @return cached restaurants of the cell, or null on a cache miss or if redis is unavailable
+   */
+  List<Restaurant> get(RestaurantsCell cell, LocalTime currentTime) {
+    if (!isCacheAvailable()) {
+      return null;
+    }
+
+    String key = getCacheKey(cell, currentTime);
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      String value = jedis.get(key);
+      if (value == null) {
+        return null;
+      }
+      return objectMapper.readValue(value, new TypeReference<List<Restaurant>>() {
+      });
+    } catch (JedisException e) {
+      markUnavailable(e);
+    } catch (IOException e) {
+      log.warn("Ignoring unreadable cache entry {}", key, e);
+    }
+    return null;
+  }
+
+  /**
+   * Cache the restaurants of the cell at the given time, as looked up around the center of the
+   * cell. Entries expire after REDIS_ENTRY_EXPIRY_IN_SECONDS.
+   */
+  void put(RestaurantsCell cell, LocalTime currentTime, List<Restaurant> restaurants) {
+    if (!isCacheAvailable()) {
+      return;
+    }
+
+    String key = getCacheKey(cell, currentTime);
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      jedis.setex(key, GlobalConstants.REDIS_ENTRY_EXPIRY_IN_SECONDS,
+          objectMapper.writeValueAsString(restaurants));
+    } catch (JedisException e) {
+      markUnavailable(e);
+    } catch (IOException e) {
+      log.warn("Unable to serialize restaurants for cache entry {}", key, e);
+    }
+  }
+
+  /**
+   * Builds the cache key from the geohash cell, the serving radius and the minute of the day.
+   */
+  static String getCacheKey(RestaurantsCell cell, LocalTime currentTime) {
+    return KEY_PREFIX + cell.getKey(currentTime);
+  }
+
+  private boolean isCacheAvailable() {
+    return redisConfiguration.getJedisPool() != null
+        && System.nanoTime() - unavailableUntilNanos >= 0;
+  }
+
+  private void markUnavailable(JedisException e) {
+    log.warn("Redis is unavailable, skipping the cache for {} seconds: {}",
+        GlobalConstants.REDIS_RETRY_INTERVAL_IN_SECONDS, e.getMessage());
+    unavailableUntilNanos = System.nanoTime() + RETRY_INTERVAL_IN_NANOS;
+  }
+}
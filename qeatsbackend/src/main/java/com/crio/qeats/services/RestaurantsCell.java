@@ -0,0 +1,98 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import ch.hsr.geohash.BoundingBox;
+import ch.hsr.geohash.GeoHash;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.utils.GeoUtils;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// The geohash cell of a request for the nearby restaurants, with its serving radius. Requests
+// from the same cell, with the same serving radius and in the same minute share the
+// restaurants of the cell, see RestaurantsCache.
+//
+// The restaurants of a cell are looked up around the center of the cell, within the serving
+// radius widened by the distance from the center to the corners of the cell, so that they
+// include the restaurants close to any location in the cell. Each request then keeps the
+// restaurants within its own radius of its own location, which gives the same restaurants as
+// a lookup of its own would.
+final class RestaurantsCell {
+
+  private static final DateTimeFormatter TIME_SLOT_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+  private final String geoHash;
+  private final Double servingRadiusInKms;
+  private final Double centerLatitude;
+  private final Double centerLongitude;
+  private final Double lookupRadiusInKms;
+
+  private RestaurantsCell(GeoHash cell, Double servingRadiusInKms) {
+    BoundingBox box = cell.getBoundingBox();
+    this.geoHash = cell.toBase32();
+    this.servingRadiusInKms = servingRadiusInKms;
+    this.centerLatitude = (box.getMinLat() + box.getMaxLat()) / 2;
+    this.centerLongitude = (box.getMinLon() + box.getMaxLon()) / 2;
+    // The corner nearer the equator is the farthest one, its distance covers the whole cell.
+    double cornerLatitude = Math.abs(box.getMinLat()) < Math.abs(box.getMaxLat())
+        ? box.getMinLat() : box.getMaxLat();
+    this.lookupRadiusInKms = servingRadiusInKms + GeoUtils.findDistanceInKm(centerLatitude,
+        centerLongitude, cornerLatitude, box.getMaxLon()) + GeoUtils.DISTANCE_TOLERANCE_IN_KMS;
+  }
+
+  /**
+   * Get the cell of the location, for the given serving radius.
+   */
+  static RestaurantsCell of(Double latitude, Double longitude, Double servingRadiusInKms) {
+    return new RestaurantsCell(GeoHash.withCharacterPrecision(latitude, longitude,
+        GlobalConstants.RESTAURANTS_CACHE_GEOHASH_PRECISION), servingRadiusInKms);
+  }
+
+  /**
+   * Key of the restaurants of the cell at the given time: the geohash of the cell, the serving
+   * radius and the minute of the day.
+   */
+  String getKey(LocalTime currentTime) {
+    return geoHash + ":" + servingRadiusInKms + ":" + TIME_SLOT_FORMAT.format(currentTime);
+  }
+
+  Double getCenterLatitude() {
+    return centerLatitude;
+  }
+
+  Double getCenterLongitude() {
+    return centerLongitude;
+  }
+
+  /**
+   * Radius around the center of the cell the restaurants of the cell are looked up within.
+   */
+  Double getLookupRadiusInKms() {
+    return lookupRadiusInKms;
+  }
+
+  /**
+   * Keep the restaurants of the cell within the serving radius of a location in the cell.
+   * @return new list of the restaurants close by, the restaurants themselves are shared
+   */
+  List<Restaurant> keepCloseBy(List<Restaurant> restaurants, Double latitude,
+      Double longitude) {
+    GeoUtils.Circle circle = new GeoUtils.Circle(latitude, longitude, servingRadiusInKms);
+    List<Restaurant> closeBy = new ArrayList<>(restaurants.size());
+    for (Restaurant restaurant : restaurants) {
+      if (restaurant.getLatitude() != null && restaurant.getLongitude() != null
+          && circle.contains(restaurant.getLatitude(), restaurant.getLongitude())) {
+        closeBy.add(restaurant);
+      }
+    }
+    return closeBy;
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.dto.Restaurant;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+// Lets concurrent requests for the nearby restaurants share one lookup. Requests from the same
+// geohash cell, with the same serving radius and in the same minute, as in RestaurantsCache,
+// wait for the lookup already running for their cell instead of starting their own.
+//
+// The shared lookup finds the restaurants of the whole cell, see RestaurantsCell, from which
+// each request keeps the ones within its own radius of its own location.
+@Component
+public class RestaurantsCoalescer {
+
+  private final ConcurrentMap<String, CompletableFuture<List<Restaurant>>> lookups =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Get the restaurants of the cell, sharing the lookup with the concurrent requests from the
+   * cell.
+   *   - The returned list is shared with those requests and must not be modified.
+   *   - A failed lookup fails every request waiting for it, later requests try again.
+   * @param lookup lookup of the restaurants of the cell, run if none is running for it yet
+   */
+  List<Restaurant> findAllRestaurantsInCell(RestaurantsCell cell, LocalTime currentTime,
+      Supplier<List<Restaurant>> lookup) {
+    String key = cell.getKey(currentTime);
+    CompletableFuture<List<Restaurant>> started = new CompletableFuture<>();
+    CompletableFuture<List<Restaurant>> running = lookups.putIfAbsent(key, started);
+    if (running == null) {
+      try {
+        List<Restaurant> restaurants = lookup.get();
+        started.complete(restaurants);
+        return restaurants;
+      } catch (RuntimeException | Error e) {
+        started.completeExceptionally(e);
+        throw e;
+      } finally {
+        lookups.remove(key, started);
+      }
+    }
+    try {
+      return running.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
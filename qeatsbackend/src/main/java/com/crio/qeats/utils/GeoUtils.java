@@ -14,6 +14,15 @@ import lombok.Data;
 @AllArgsConstructor
 public class GeoUtils {
 
+  public static final double EARTH_RADIUS_IN_KMS = 6371;
+
+  /**
+   * Largest difference between {@link Circle#findDistanceInKm} and {@link #findDistanceInKm}
+   * for points up to 10000 kms apart. Both use the same formula; they only differ in rounding
+   * since the fast path works on radians computed ahead of time.
+   */
+  public static final double DISTANCE_TOLERANCE_IN_KMS = 1e-9;
+
   public static double findDistanceInKm(double srcLatitude, double srcLongitude,
       double dstLatitude, double dstLongitude) {
     return distance(srcLatitude, dstLatitude, srcLongitude, dstLongitude, 0, 0);
@@ -52,4 +61,137 @@ public class GeoUtils {
 
     return Math.sqrt(distance);
   }
+
+  /**
+   * Batch variant of {@link Circle#contains(double, double, double)} over restaurants stored as
+   * parallel arrays of radians and cos(latitude).
+   * @param circle search circle
+   * @param latitudesInRadians latitudes of the restaurants
+   * @param longitudesInRadians longitudes of the restaurants, within [-PI, PI]
+   * @param cosLatitudes cos of the latitudes of the restaurants
+   * @param matches receives the indices of the restaurants within the circle, in order;
+   *     must be at least as long as the other arrays
+   * @return number of indices written to matches
+   */
+  public static int findWithinRadius(Circle circle, double[] latitudesInRadians,
+      double[] longitudesInRadians, double[] cosLatitudes, int[] matches) {
+    int count = 0;
+    for (int i = 0; i < latitudesInRadians.length; i++) {
+      if (circle.contains(latitudesInRadians[i], longitudesInRadians[i], cosLatitudes[i])) {
+        matches[count++] = i;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * A search circle prepared once per request, so that checking a restaurant against it does
+   * not convert the center to radians again. Restaurants outside the bounding box of the
+   * circle are rejected with a couple of comparisons, before any trigonometry.
+   * As with the existing callers of findDistanceInKm, a point exactly at the radius is outside.
+   */
+  public static final class Circle {
+
+    // Guards the bounding box against rounding, so that it never rejects a point inside.
+    private static final double BOUNDING_BOX_MARGIN_IN_RADIANS = 1e-12;
+
+    private final double latitudeInRadians;
+    private final double longitudeInRadians;
+    private final double cosLatitude;
+    private final double radiusInKms;
+    private final double maxLatitudeDelta;
+    private final double maxLongitudeDelta;
+
+    /**
+     * Prepares the circle around the given center, in degrees.
+     */
+    public Circle(double latitude, double longitude, double radiusInKms) {
+      this.latitudeInRadians = Math.toRadians(latitude);
+      this.longitudeInRadians = Math.toRadians(longitude);
+      this.cosLatitude = Math.cos(latitudeInRadians);
+      this.radiusInKms = radiusInKms;
+
+      double angularRadius = radiusInKms / EARTH_RADIUS_IN_KMS;
+      this.maxLatitudeDelta = angularRadius + BOUNDING_BOX_MARGIN_IN_RADIANS;
+      if (Math.abs(latitudeInRadians) + angularRadius >= Math.PI / 2) {
+        // The circle covers a pole, so any longitude can be within it.
+        this.maxLongitudeDelta = Math.PI;
+      } else {
+        this.maxLongitudeDelta = Math.asin(Math.min(Math.sin(angularRadius) / cosLatitude, 1))
+            + BOUNDING_BOX_MARGIN_IN_RADIANS;
+      }
+    }
+
+    /**
+     * Cheap reject test. False means the point is outside the circle; true means it is within
+     * the bounding box of the circle and needs an exact distance check.
+     */
+    public boolean mayContain(double latitudeInRadians, double longitudeInRadians) {
+      if (Math.abs(latitudeInRadians - this.latitudeInRadians) > maxLatitudeDelta) {
+        return false;
+      }
+      double longitudeDelta = Math.abs(longitudeInRadians - this.longitudeInRadians);
+      if (longitudeDelta > Math.PI) {
+        longitudeDelta = 2 * Math.PI - longitudeDelta;
+      }
+      return longitudeDelta <= maxLongitudeDelta;
+    }
+
+    /**
+     * Cheap reject test for a box of points, in radians, e.g. the bounding box of a block of
+     * restaurants. False means every point of the box is outside the circle.
+     */
+    public boolean mayIntersect(double minLatitudeInRadians, double maxLatitudeInRadians,
+        double minLongitudeInRadians, double maxLongitudeInRadians) {
+      if (maxLatitudeInRadians < latitudeInRadians - maxLatitudeDelta
+          || minLatitudeInRadians > latitudeInRadians + maxLatitudeDelta) {
+        return false;
+      }
+      // The longitudes of the circle may run past the antimeridian, so the box is also
+      // compared one turn to the east and one turn to the west.
+      for (int turn = -1; turn <= 1; turn++) {
+        double offset = turn * 2 * Math.PI;
+        if (minLongitudeInRadians + offset <= longitudeInRadians + maxLongitudeDelta
+            && maxLongitudeInRadians + offset >= longitudeInRadians - maxLongitudeDelta) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Haversine distance from the center, reusing the precomputed radians and cos(latitude)
+     * of the point.
+     */
+    public double findDistanceInKm(double latitudeInRadians, double longitudeInRadians,
+        double cosLatitude) {
+      double sinHalfLatitudeDelta = Math.sin((latitudeInRadians - this.latitudeInRadians) / 2);
+      double sinHalfLongitudeDelta =
+          Math.sin((longitudeInRadians - this.longitudeInRadians) / 2);
+      double a = sinHalfLatitudeDelta * sinHalfLatitudeDelta
+          + this.cosLatitude * cosLatitude * sinHalfLongitudeDelta * sinHalfLongitudeDelta;
+      return EARTH_RADIUS_IN_KMS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * Check whether the point, given in radians with its cos(latitude), is within the radius.
+     */
+    public boolean contains(double latitudeInRadians, double longitudeInRadians,
+        double cosLatitude) {
+      return mayContain(latitudeInRadians, longitudeInRadians)
+          && findDistanceInKm(latitudeInRadians, longitudeInRadians, cosLatitude) < radiusInKms;
+    }
+
+    /**
+     * Check whether the point, given in degrees, is within the radius. Points outside the
+     * bounding box are rejected before computing cos(latitude).
+     */
+    public boolean contains(double latitude, double longitude) {
+      double latitudeInRadians = Math.toRadians(latitude);
+      double longitudeInRadians = Math.toRadians(longitude);
+      return mayContain(latitudeInRadians, longitudeInRadians)
+          && findDistanceInKm(latitudeInRadians, longitudeInRadians,
+              Math.cos(latitudeInRadians)) < radiusInKms;
+    }
+  }
 }
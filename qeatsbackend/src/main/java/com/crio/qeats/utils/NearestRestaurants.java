@@ -0,0 +1,98 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import com.crio.qeats.dto.Restaurant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Picks one page of restaurants, nearest first, out of an unordered list. Only the restaurants
+ * of the page are kept in a bounded heap while the list is scanned, so a page of k out of n
+ * restaurants costs O(n log k) instead of sorting all of them.
+ */
+public final class NearestRestaurants {
+
+  // Nearest first, the id breaks ties so that every restaurant has a single position.
+  private static final Comparator<Candidate> NEAREST_FIRST =
+      Comparator.<Candidate>comparingDouble(candidate -> candidate.distanceInKm)
+          .thenComparing(candidate -> candidate.restaurantId);
+
+  private NearestRestaurants() {
+  }
+
+  /**
+   * Selects the count restaurants nearest to the given point that come after the cursor.
+   * @param restaurants restaurants to pick from, in any order
+   * @param latitude coordinates the distances are measured from
+   * @param longitude coordinates the distances are measured from
+   * @param after position the page starts after, null for the first page
+   * @param count largest number of restaurants to return
+   * @return the restaurants of the page, nearest first
+   */
+  public static List<Restaurant> findNearest(List<Restaurant> restaurants, double latitude,
+      double longitude, RestaurantCursor after, int count) {
+    Candidate start = after == null ? null
+        : new Candidate(after.getDistanceInKm(), after.getRestaurantId(), null);
+
+    // Max-heap of the nearest candidates seen so far, the farthest of them on top.
+    PriorityQueue<Candidate> nearest = new PriorityQueue<>(count + 1, NEAREST_FIRST.reversed());
+    for (Restaurant restaurant : restaurants) {
+      Candidate candidate = new Candidate(findDistanceInKm(restaurant, latitude, longitude),
+          restaurant.getRestaurantId(), restaurant);
+      if (start != null && NEAREST_FIRST.compare(candidate, start) <= 0) {
+        continue;
+      }
+      if (nearest.size() < count) {
+        nearest.add(candidate);
+      } else if (count > 0 && NEAREST_FIRST.compare(candidate, nearest.peek()) < 0) {
+        nearest.poll();
+        nearest.add(candidate);
+      }
+    }
+
+    Restaurant[] page = new Restaurant[nearest.size()];
+    for (int i = page.length - 1; i >= 0; i--) {
+      page[i] = nearest.poll().restaurant;
+    }
+    return new ArrayList<>(Arrays.asList(page));
+  }
+
+  /**
+   * Cursor positioned right after the given restaurant, for the page that follows it.
+   */
+  public static RestaurantCursor cursorAfter(Restaurant restaurant, double latitude,
+      double longitude) {
+    return new RestaurantCursor(findDistanceInKm(restaurant, latitude, longitude),
+        restaurant.getRestaurantId());
+  }
+
+  // Same computation for the page and its cursor, so that a restaurant is always found at the
+  // exact distance its cursor holds.
+  private static double findDistanceInKm(Restaurant restaurant, double latitude,
+      double longitude) {
+    return GeoUtils.findDistanceInKm(latitude, longitude, restaurant.getLatitude(),
+        restaurant.getLongitude());
+  }
+
+  private static final class Candidate {
+
+    private final double distanceInKm;
+    private final String restaurantId;
+    private final Restaurant restaurant;
+
+    private Candidate(double distanceInKm, String restaurantId, Restaurant restaurant) {
+      this.distanceInKm = distanceInKm;
+      this.restaurantId = restaurantId;
+      this.restaurant = restaurant;
+    }
+  }
+
+}
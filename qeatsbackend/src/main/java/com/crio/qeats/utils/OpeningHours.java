@@ -0,0 +1,128 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Opening hours of a restaurant, compiled from the opensAt/closesAt strings into minutes of
+ * the day. Checking whether the restaurant is open is then a couple of comparisons, without
+ * parsing or allocating anything.
+ *
+ * <p>A restaurant may have several windows per day, given as comma separated times, e.g.
+ * opensAt "11:00,18:00" and closesAt "15:00,23:00". A window whose closing time is before its
+ * opening time, e.g. 18:00 to 02:00, runs past midnight.
+ * A restaurant is open strictly after the opening time and strictly before the closing time,
+ * as with {@link LocalTime#isAfter} and {@link LocalTime#isBefore}.
+ */
+public final class OpeningHours {
+
+  private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+  // There are only a handful of distinct opensAt/closesAt pairs across all the restaurants.
+  private static final ConcurrentMap<String, ConcurrentMap<String, OpeningHours>> COMPILED =
+      new ConcurrentHashMap<>();
+
+  private final short[] opensAtMinutes;
+  private final short[] closesAtMinutes;
+
+  private OpeningHours(short[] opensAtMinutes, short[] closesAtMinutes) {
+    this.opensAtMinutes = opensAtMinutes;
+    this.closesAtMinutes = closesAtMinutes;
+  }
+
+  /**
+   * Get the compiled opening hours. Compiled hours are shared, so the strings are only parsed
+   * the first time a pair is seen.
+   * @param opensAt opening time(s) in HH:mm, comma separated for several windows
+   * @param closesAt closing time(s) in HH:mm, in the same order as opensAt
+   * @return compiled opening hours
+   * @throws IllegalArgumentException if the times cannot be parsed or do not pair up
+   */
+  public static OpeningHours of(String opensAt, String closesAt) {
+    return COMPILED.computeIfAbsent(opensAt, key -> new ConcurrentHashMap<>())
+        .computeIfAbsent(closesAt, key -> compile(opensAt, closesAt));
+  }
+
+  /**
+   * Parses the opening hours without going through the shared cache.
+   */
+  public static OpeningHours compile(String opensAt, String closesAt) {
+    String[] opening = opensAt.split(",");
+    String[] closing = closesAt.split(",");
+    if (opening.length != closing.length) {
+      throw new IllegalArgumentException(
+          "Opening and closing times do not pair up: " + opensAt + " / " + closesAt);
+    }
+
+    short[] opensAtMinutes = new short[opening.length];
+    short[] closesAtMinutes = new short[closing.length];
+    for (int i = 0; i < opening.length; i++) {
+      opensAtMinutes[i] = toMinuteOfDay(opening[i]);
+      closesAtMinutes[i] = toMinuteOfDay(closing[i]);
+    }
+    return new OpeningHours(opensAtMinutes, closesAtMinutes);
+  }
+
+  /**
+   * Check whether the restaurant is open at the given time.
+   */
+  public boolean isOpenAt(LocalTime time) {
+    long nanoOfDay = time.toNanoOfDay();
+    for (int i = 0; i < opensAtMinutes.length; i++) {
+      long opensAt = opensAtMinutes[i] * NANOS_PER_MINUTE;
+      long closesAt = closesAtMinutes[i] * NANOS_PER_MINUTE;
+      if (opensAt < closesAt
+          ? nanoOfDay > opensAt && nanoOfDay < closesAt
+          : opensAt > closesAt && (nanoOfDay > opensAt || nanoOfDay < closesAt)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int getWindowCount() {
+    return opensAtMinutes.length;
+  }
+
+  public int getOpensAtMinute(int window) {
+    return opensAtMinutes[window];
+  }
+
+  public int getClosesAtMinute(int window) {
+    return closesAtMinutes[window];
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || obj.getClass() != getClass()) {
+      return false;
+    }
+    OpeningHours other = (OpeningHours) obj;
+    return Arrays.equals(opensAtMinutes, other.opensAtMinutes)
+        && Arrays.equals(closesAtMinutes, other.closesAtMinutes);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(opensAtMinutes) + Arrays.hashCode(closesAtMinutes);
+  }
+
+  private static short toMinuteOfDay(String time) {
+    LocalTime localTime = LocalTime.parse(time.trim());
+    if (localTime.getSecond() != 0 || localTime.getNano() != 0) {
+      throw new IllegalArgumentException("Opening hours have minute precision: " + time);
+    }
+    return (short) (localTime.getHour() * 60 + localTime.getMinute());
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import lombok.Value;
+
+/**
+ * Position in the order history of a user, right after the order placed at placedAt with the
+ * given id. Orders are listed newest first, with the id breaking ties between orders placed in
+ * the same millisecond, so the next page starts at the first order before this position.
+ * Orders stored before placedAt was recorded have none, they come after all the others and
+ * are listed by id alone.
+ * Handed to the clients as an opaque URL safe token, see {@link #toToken()}.
+ */
+@Value
+public class OrderCursor {
+
+  private static final char SEPARATOR = ':';
+
+  private final Date placedAt;
+  private final String id;
+
+  /**
+   * Encodes the cursor as a URL safe token.
+   */
+  public String toToken() {
+    String cursor = (placedAt == null ? "" : String.valueOf(placedAt.getTime())) + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a token produced by {@link #toToken()}.
+   * @throws IllegalArgumentException if the token is not a valid cursor
+   */
+  public static OrderCursor fromToken(String token) {
+    String cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    int separator = cursor.indexOf(SEPARATOR);
+    if (separator < 0 || separator == cursor.length() - 1) {
+      throw new IllegalArgumentException("Invalid order cursor " + token);
+    }
+    Date placedAt =
+        separator == 0 ? null : new Date(Long.parseLong(cursor.substring(0, separator)));
+    return new OrderCursor(placedAt, cursor.substring(separator + 1));
+  }
+
+}
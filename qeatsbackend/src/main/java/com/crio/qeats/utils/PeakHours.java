@@ -0,0 +1,25 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import java.time.LocalTime;
+
+/**
+ * The peak hours of the day, 8-10 AM, 1-2 PM and 7-9 PM, boundaries included, during which
+ * restaurants serve a smaller radius.
+ */
+public final class PeakHours {
+
+  private PeakHours() {
+  }
+
+  public static boolean isPeakHours(LocalTime currentTime) {
+    return (currentTime.isAfter(LocalTime.of(7, 59)) && currentTime.isBefore(LocalTime.of(10, 1)))
+        || (currentTime.isAfter(LocalTime.of(12, 59)) && currentTime.isBefore(LocalTime.of(14, 1)))
+        || (currentTime.isAfter(LocalTime.of(18, 59)) && currentTime.isBefore(LocalTime.of(21, 1)));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import com.crio.qeats.dto.Restaurant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Attribute filters and facets over restaurants already mapped for the APIs. Attributes are
+ * compared ignoring case, as in RestaurantAttributeIndex.
+ */
+public final class RestaurantAttributes {
+
+  private RestaurantAttributes() {
+  }
+
+  /**
+   * Check whether the restaurant has every one of the attributes.
+   */
+  public static boolean hasAll(Restaurant restaurant, List<String> requiredAttributes) {
+    for (String requiredAttribute : requiredAttributes) {
+      if (requiredAttribute == null || !hasAttribute(restaurant, requiredAttribute.trim())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Counts the restaurants having each attribute, e.g. {"South Indian": 12, "Tamil": 3}.
+   * Attributes differing in case only are counted together, under the spelling seen first.
+   * @return counts in decreasing order, ties by attribute
+   */
+  public static Map<String, Integer> countFacets(List<Restaurant> restaurants) {
+    // Keyed by the lower case attribute, along with its first spelling.
+    Map<String, String> spellings = new HashMap<>();
+    Map<String, Integer> counts = new HashMap<>();
+    for (Restaurant restaurant : restaurants) {
+      if (restaurant.getAttributes() == null) {
+        continue;
+      }
+      List<String> counted = new ArrayList<>(restaurant.getAttributes().size());
+      for (String attribute : restaurant.getAttributes()) {
+        if (attribute == null) {
+          continue;
+        }
+        String key = attribute.toLowerCase(Locale.ROOT);
+        // A restaurant is counted once per attribute, however often it lists it.
+        if (!counted.contains(key)) {
+          counted.add(key);
+          spellings.putIfAbsent(key, attribute);
+          counts.merge(key, 1, Integer::sum);
+        }
+      }
+    }
+
+    List<Map.Entry<String, Integer>> sorted = new ArrayList<>(counts.entrySet());
+    sorted.sort((first, second) -> first.getValue().equals(second.getValue())
+        ? spellings.get(first.getKey()).compareTo(spellings.get(second.getKey()))
+        : Integer.compare(second.getValue(), first.getValue()));
+    Map<String, Integer> facets = new LinkedHashMap<>();
+    for (Map.Entry<String, Integer> count : sorted) {
+      facets.put(spellings.get(count.getKey()), count.getValue());
+    }
+    return facets;
+  }
+
+  private static boolean hasAttribute(Restaurant restaurant, String requiredAttribute) {
+    if (restaurant.getAttributes() == null) {
+      return false;
+    }
+    for (String attribute : restaurant.getAttributes()) {
+      if (attribute != null && attribute.equalsIgnoreCase(requiredAttribute)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
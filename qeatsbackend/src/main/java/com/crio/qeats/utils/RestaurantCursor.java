@@ -0,0 +1,55 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Value;
+
+/**
+ * Position in the restaurants close by, right after the restaurant with the given id at the
+ * given distance from the user. Restaurants are listed nearest first, with the id breaking ties
+ * between restaurants at the same distance, so the next page starts at the first restaurant
+ * past this position. Handed to the clients as an opaque URL safe token, see
+ * {@link #toToken()}.
+ */
+@Value
+public class RestaurantCursor {
+
+  private static final char SEPARATOR = ':';
+
+  private final double distanceInKm;
+  private final String restaurantId;
+
+  /**
+   * Encodes the cursor as a URL safe token. The distance is written in full, so that decoding
+   * gives back exactly the same double.
+   */
+  public String toToken() {
+    String cursor = Double.toString(distanceInKm) + SEPARATOR + restaurantId;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a token produced by {@link #toToken()}.
+   * @throws IllegalArgumentException if the token is not a valid cursor
+   */
+  public static RestaurantCursor fromToken(String token) {
+    String cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    int separator = cursor.indexOf(SEPARATOR);
+    if (separator <= 0 || separator == cursor.length() - 1) {
+      throw new IllegalArgumentException("Invalid restaurant cursor " + token);
+    }
+    double distanceInKm = Double.parseDouble(cursor.substring(0, separator));
+    if (!(distanceInKm >= 0) || Double.isInfinite(distanceInKm)) {
+      throw new IllegalArgumentException("Invalid restaurant cursor " + token);
+    }
+    return new RestaurantCursor(distanceInKm, cursor.substring(separator + 1));
+  }
+
+}
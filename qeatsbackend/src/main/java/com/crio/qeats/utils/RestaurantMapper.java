@@ -0,0 +1,172 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.dto.Menu;
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.models.CartEntity;
+import com.crio.qeats.models.ItemEntity;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.OrderEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps restaurants, their menus, the carts and the orders from their mongo representation to
+ * the one returned by the APIs.
+ * Produces the same result as a STRICT ModelMapper followed by stripping the special characters
+ * from the name, without reflection or regular expressions. The cleaned name is kept on the
+ * entity, so long lived entities, e.g. the ones of the in-memory indexes, clean it only once.
+ */
+public final class RestaurantMapper {
+
+  private RestaurantMapper() {
+  }
+
+  /**
+   * Maps the entity to a new Restaurant. The attributes are copied, so that the Restaurant
+   * can be changed without affecting the entity.
+   */
+  public static Restaurant mapEntityToDto(RestaurantEntity restaurantEntity) {
+    return new Restaurant(
+        restaurantEntity.getRestaurantId(),
+        restaurantEntity.getDisplayName(),
+        restaurantEntity.getCity(),
+        restaurantEntity.getImageUrl(),
+        restaurantEntity.getLatitude(),
+        restaurantEntity.getLongitude(),
+        restaurantEntity.getOpensAt(),
+        restaurantEntity.getClosesAt(),
+        restaurantEntity.getAttributes() == null
+            ? null : new ArrayList<>(restaurantEntity.getAttributes()));
+  }
+
+  /**
+   * Maps the menu entity to a new Menu, copying the items along with their attributes.
+   */
+  public static Menu mapEntityToDto(MenuEntity menuEntity) {
+    List<Item> items = new ArrayList<>();
+    if (menuEntity.getItems() != null) {
+      for (ItemEntity itemEntity : menuEntity.getItems()) {
+        items.add(mapEntityToDto(itemEntity));
+      }
+    }
+    return new Menu(menuEntity.getRestaurantId(), items);
+  }
+
+  /**
+   * Maps the item entity to a new Item, copying the attributes.
+   */
+  public static Item mapEntityToDto(ItemEntity itemEntity) {
+    return new Item(
+        itemEntity.getId(),
+        itemEntity.getItemId(),
+        itemEntity.getName(),
+        itemEntity.getImageUrl(),
+        itemEntity.getAttributes() == null ? null : new ArrayList<>(itemEntity.getAttributes()),
+        itemEntity.getPrice());
+  }
+
+  /**
+   * Maps the item to a new entity, copying the attributes.
+   */
+  public static ItemEntity mapDtoToEntity(Item item) {
+    ItemEntity itemEntity = new ItemEntity();
+    itemEntity.setId(item.getId());
+    itemEntity.setItemId(item.getItemId());
+    itemEntity.setName(item.getName());
+    itemEntity.setImageUrl(item.getImageUrl());
+    itemEntity.setPrice(item.getPrice());
+    itemEntity.setAttributes(
+        item.getAttributes() == null ? null : new ArrayList<>(item.getAttributes()));
+    return itemEntity;
+  }
+
+  /**
+   * Maps the cart entity to a new Cart, copying the items.
+   */
+  public static Cart mapEntityToDto(CartEntity cartEntity) {
+    List<Item> items = new ArrayList<>();
+    if (cartEntity.getItems() != null) {
+      for (ItemEntity itemEntity : cartEntity.getItems()) {
+        items.add(mapEntityToDto(itemEntity));
+      }
+    }
+    return new Cart(cartEntity.getId(), cartEntity.getRestaurantId(), cartEntity.getUserId(),
+        items, cartEntity.getTotal());
+  }
+
+  /**
+   * Maps the order to a new entity, copying the items.
+   */
+  public static OrderEntity mapDtoToEntity(Order order) {
+    List<ItemEntity> items = new ArrayList<>();
+    if (order.getItems() != null) {
+      for (Item item : order.getItems()) {
+        items.add(mapDtoToEntity(item));
+      }
+    }
+    OrderEntity orderEntity = new OrderEntity();
+    orderEntity.setId(order.getId());
+    orderEntity.setRestaurantId(order.getRestaurantId());
+    orderEntity.setUserId(order.getUserId());
+    orderEntity.setStatus(order.getStatus());
+    orderEntity.setItems(items);
+    orderEntity.setTotal(order.getTotal());
+    orderEntity.setPlacedAt(order.getPlacedAt());
+    return orderEntity;
+  }
+
+  /**
+   * Maps the order entity to a new Order, copying the items.
+   */
+  public static Order mapEntityToDto(OrderEntity orderEntity) {
+    List<Item> items = new ArrayList<>();
+    if (orderEntity.getItems() != null) {
+      for (ItemEntity itemEntity : orderEntity.getItems()) {
+        items.add(mapEntityToDto(itemEntity));
+      }
+    }
+    return new Order(orderEntity.getId(), orderEntity.getRestaurantId(),
+        orderEntity.getUserId(), orderEntity.getStatus(), items, orderEntity.getTotal(),
+        orderEntity.getPlacedAt());
+  }
+
+  /**
+   * Removes all characters other than ASCII letters, digits and spaces, like
+   * {@code name.replaceAll("[^a-zA-Z0-9 ]", "")}. Names that need no cleaning, which are most
+   * of them, are returned as is.
+   */
+  public static String cleanName(String name) {
+    int length = name.length();
+    int first = 0;
+    while (first < length && isAllowed(name.charAt(first))) {
+      first++;
+    }
+    if (first == length) {
+      return name;
+    }
+
+    StringBuilder cleaned = new StringBuilder(length - 1).append(name, 0, first);
+    for (int i = first + 1; i < length; i++) {
+      char c = name.charAt(i);
+      if (isAllowed(c)) {
+        cleaned.append(c);
+      }
+    }
+    return cleaned.toString();
+  }
+
+  private static boolean isAllowed(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+        || c == ' ';
+  }
+}
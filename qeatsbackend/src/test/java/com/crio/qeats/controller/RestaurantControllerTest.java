@@ -15,14 +15,20 @@ import static com.crio.qeats.controller.RestaurantController.MENU_API;
 import static com.crio.qeats.controller.RestaurantController.POST_ORDER_API;
 import static com.crio.qeats.controller.RestaurantController.RESTAURANTS_API;
 import static com.crio.qeats.controller.RestaurantController.RESTAURANT_API_ENDPOINT;
+import static com.crio.qeats.controller.RestaurantController.RESTAURANT_API_ENDPOINT_V2;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -30,8 +36,24 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.crio.qeats.QEatsApplication;
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Menu;
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.EmptyCartException;
+import com.crio.qeats.exceptions.OrderQueueFullException;
+import com.crio.qeats.exchanges.CartModifiedResponse;
+import com.crio.qeats.exchanges.GetMenuResponse;
+import com.crio.qeats.exchanges.GetOrdersRequest;
+import com.crio.qeats.exchanges.GetOrdersResponse;
 import com.crio.qeats.exchanges.GetRestaurantsRequest;
 import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.log.AccessLogger;
+import com.crio.qeats.metrics.RestaurantQueryMetrics;
+import com.crio.qeats.services.CachedMenu;
+import com.crio.qeats.services.CartAndOrderService;
+import com.crio.qeats.services.MenuService;
 import com.crio.qeats.services.RestaurantService;
 import com.crio.qeats.utils.FixtureHelpers;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -39,8 +61,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.net.URI;
 import java.time.LocalTime;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -55,10 +80,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 
 // TODO: CRIO_TASK_MODULE_RESTAURANTSAPI
 //  Pass all the RestaurantController test cases.
@@ -88,6 +116,18 @@ public class RestaurantControllerTest {
   @MockBean
   private RestaurantService restaurantService;
 
+  @MockBean
+  private MenuService menuService;
+
+  @MockBean
+  private CartAndOrderService cartAndOrderService;
+
+  @MockBean
+  private RestaurantQueryMetrics restaurantQueryMetrics;
+
+  @MockBean
+  private AccessLogger accessLogger;
+
 
   @InjectMocks
   private RestaurantController restaurantController;
@@ -256,8 +296,283 @@ public class RestaurantControllerTest {
     assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
   }
 
+  @Test
+  public void menuIsReturnedWithItsEtag() throws Exception {
+    GetMenuResponse getMenuResponse = loadMenuResponse();
+    when(menuService.findMenu("11"))
+        .thenReturn(new CachedMenu(getMenuResponse, "\"3f2a\""));
+
+    MockHttpServletResponse response = mvc.perform(
+        get(MENU_API_URI + "?restaurantId=11").accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertEquals("\"3f2a\"", response.getHeader("ETag"));
+    assertEquals(getMenuResponse, objectMapper.readValue(response.getContentAsString(),
+        GetMenuResponse.class));
+  }
+
+  @Test
+  public void menuWithMatchingEtagIsNotModified() throws Exception {
+    when(menuService.findMenu("11"))
+        .thenReturn(new CachedMenu(loadMenuResponse(), "\"3f2a\""));
+
+    MockHttpServletResponse response = mvc.perform(
+        get(MENU_API_URI + "?restaurantId=11").header("If-None-Match", "\"3f2a\"")
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+    assertEquals(0, response.getContentLength());
+
+    response = mvc.perform(
+        get(MENU_API_URI + "?restaurantId=11").header("If-None-Match", "\"0000\"")
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+  }
+
+  @Test
+  public void unknownOrMissingRestaurantIdResultsInBadHttpRequest() throws Exception {
+    when(menuService.findMenu("99")).thenReturn(null);
+
+    MockHttpServletResponse response = mvc.perform(
+        get(MENU_API_URI + "?restaurantId=99").accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+
+    response = mvc.perform(
+        get(MENU_API_URI).accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+  }
+
+  @Test
+  public void streamedRestaurantsAreTheSameAsTheWholeResponse() throws Exception {
+    GetRestaurantsResponse sampleResponse = loadRestaurantsResponse();
+    doAnswer(invocation -> {
+      Consumer<Restaurant> action = invocation.getArgument(2);
+      sampleResponse.getRestaurants().forEach(action);
+      return null;
+    }).when(restaurantService).streamAllRestaurantsCloseBy(any(GetRestaurantsRequest.class),
+        any(LocalTime.class), any());
+    ReflectionTestUtils.setField(restaurantController, "objectMapper", objectMapper);
+    ReflectionTestUtils.setField(restaurantController, "streamRestaurants", true);
+
+    MockHttpServletResponse response = mvc.perform(
+        get(RESTAURANT_API_URI + "?latitude=20.21&longitude=30.31").accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertEquals(objectMapper.writeValueAsString(sampleResponse),
+        response.getContentAsString());
+    verify(restaurantService, times(0))
+        .findAllRestaurantsCloseBy(any(GetRestaurantsRequest.class), any(LocalTime.class));
+  }
+
+  @Test
+  public void reactiveRestaurantsAreWrittenOnceRead() throws Exception {
+    GetRestaurantsResponse sampleResponse = loadRestaurantsResponse();
+    when(restaurantService.findAllRestaurantsCloseByReactively(any(GetRestaurantsRequest.class),
+        any(LocalTime.class))).thenReturn(Flux.fromIterable(sampleResponse.getRestaurants()));
+
+    MvcResult result = mvc.perform(
+        get(RESTAURANT_API_ENDPOINT_V2 + RESTAURANTS_API + "?latitude=20.21&longitude=30.31")
+            .accept(APPLICATION_JSON_UTF8)
+    ).andReturn();
+    MockHttpServletResponse response = mvc.perform(asyncDispatch(result)).andReturn()
+        .getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertEquals(objectMapper.writeValueAsString(sampleResponse.getRestaurants()),
+        response.getContentAsString());
+
+    response = mvc.perform(
+        get(RESTAURANT_API_ENDPOINT_V2 + RESTAURANTS_API
+            + "?latitude=20.21&longitude=30.31&searchFor=tamil").accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+
+    verify(accessLogger, times(1)).logRestaurants(eq(RESTAURANT_API_ENDPOINT_V2 + RESTAURANTS_API),
+        any(GetRestaurantsRequest.class), eq(HttpStatus.OK.value()),
+        eq(sampleResponse.getRestaurants().size()), anyLong(), isNull());
+  }
+
+  @Test
+  public void invalidRestaurantsPageResultsInBadHttpRequest() throws Exception {
+    MockHttpServletResponse response = mvc.perform(
+        get(RESTAURANT_API_URI + "?latitude=20.21&longitude=30.31&cursor=xyz")
+            .accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+
+    response = mvc.perform(
+        get(RESTAURANT_API_URI + "?latitude=20.21&longitude=30.31&limit=0")
+            .accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+
+    verify(restaurantService, times(0))
+        .findAllRestaurantsCloseBy(any(GetRestaurantsRequest.class), any(LocalTime.class));
+  }
+
+  @Test
+  public void cartIsCreatedOnFirstGet() throws Exception {
+    Cart cart = loadCart();
+    when(cartAndOrderService.findOrCreateCart("Bunny")).thenReturn(cart);
+
+    MockHttpServletResponse response = mvc.perform(
+        get(CART_API_URI + "?userId=Bunny").accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertEquals(cart, objectMapper.readValue(response.getContentAsString(), Cart.class));
+
+    response = mvc.perform(
+        get(CART_API_URI).accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+  }
+
+  @Test
+  public void itemsAreAddedAndRemovedFromTheCart() throws Exception {
+    Cart cart = loadCart();
+    when(cartAndOrderService.addItemToCart("1", "1", "10"))
+        .thenReturn(new CartModifiedResponse(cart, 0));
+    when(cartAndOrderService.removeItemFromCart("1", "1"))
+        .thenReturn(new CartModifiedResponse(cart, 0));
+    String body = FixtureHelpers.fixture(FIXTURES + "/cart_add_or_remove_item_body.json");
+
+    MockHttpServletResponse response = mvc.perform(
+        post(ADD_REMOVE_CART_API_URI).contentType(APPLICATION_JSON_UTF8).content(body)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertEquals(new CartModifiedResponse(cart, 0), objectMapper.readValue(
+        response.getContentAsString(), CartModifiedResponse.class));
+
+    response = mvc.perform(
+        delete(ADD_REMOVE_CART_API_URI).contentType(APPLICATION_JSON_UTF8).content(body)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+  }
+
+  @Test
+  public void unknownCartResultsInBadHttpRequest() throws Exception {
+    when(cartAndOrderService.addItemToCart("1", "1", "10"))
+        .thenThrow(new CartNotFoundException());
+    when(cartAndOrderService.clearCart("1")).thenThrow(new CartNotFoundException());
+
+    MockHttpServletResponse response = mvc.perform(
+        post(ADD_REMOVE_CART_API_URI).contentType(APPLICATION_JSON_UTF8)
+            .content(FixtureHelpers.fixture(FIXTURES + "/cart_add_or_remove_item_body.json"))
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+
+    response = mvc.perform(
+        put(CLEAR_CART_API_URI).contentType(APPLICATION_JSON_UTF8)
+            .content(FixtureHelpers.fixture(FIXTURES + "/post_order_or_clear_cart_body.json"))
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+  }
+
+  @Test
+  public void orderIsAcceptedBeforeItIsWritten() throws Exception {
+    Cart cart = loadCart();
+    Order order = new Order("5cb9b58ce1e3f0325ec5a5ee", cart.getRestaurantId(),
+        cart.getUserId(), Order.PLACED, cart.getItems(), cart.getTotal(), new Date());
+    when(cartAndOrderService.postOrder("1")).thenReturn(order);
+
+    MockHttpServletResponse response = mvc.perform(
+        post(POST_ORDER_API_URI).contentType(APPLICATION_JSON_UTF8)
+            .content(FixtureHelpers.fixture(FIXTURES + "/post_order_or_clear_cart_body.json"))
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.ACCEPTED.value(), response.getStatus());
+    assertEquals(order, objectMapper.readValue(response.getContentAsString(), Order.class));
+  }
+
+  @Test
+  public void emptyCartOrFullOrderQueueIsNotOrdered() throws Exception {
+    String body = FixtureHelpers.fixture(FIXTURES + "/post_order_or_clear_cart_body.json");
+    when(cartAndOrderService.postOrder("1")).thenThrow(new EmptyCartException());
 
+    MockHttpServletResponse response = mvc.perform(
+        post(POST_ORDER_API_URI).contentType(APPLICATION_JSON_UTF8).content(body)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
 
+    doThrow(new OrderQueueFullException()).when(cartAndOrderService).postOrder("1");
+    response = mvc.perform(
+        post(POST_ORDER_API_URI).contentType(APPLICATION_JSON_UTF8).content(body)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+    assertEquals("1", response.getHeader("Retry-After"));
+
+    response = mvc.perform(
+        post(POST_ORDER_API_URI).contentType(APPLICATION_JSON_UTF8).content("{}")
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+  }
+
+  @Test
+  public void orderHistoryIsReturnedOnePageAtATime() throws Exception {
+    Cart cart = loadCart();
+    Order order = new Order("5cb9b58ce1e3f0325ec5a5ee", cart.getRestaurantId(),
+        cart.getUserId(), Order.PLACED, cart.getItems(), cart.getTotal(), new Date());
+    GetOrdersResponse ordersResponse =
+        new GetOrdersResponse(Collections.singletonList(order), "MTU1NTY3NDc5NjYxMjox");
+    when(cartAndOrderService.findOrders(new GetOrdersRequest("Bunny", "MTU1NTY3NDc5NjYxMjox", 1)))
+        .thenReturn(ordersResponse);
+
+    MockHttpServletResponse response = mvc.perform(
+        get(LIST_ORDERS_API_URI + "?userId=Bunny&cursor=MTU1NTY3NDc5NjYxMjox&limit=1")
+            .accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertEquals(ordersResponse,
+        objectMapper.readValue(response.getContentAsString(), GetOrdersResponse.class));
+
+    response = mvc.perform(
+        get(LIST_ORDERS_API_URI + "?userId=Bunny&limit=1000").accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+  }
+
+  @Test
+  public void invalidOrderCursorResultsInBadHttpRequest() throws Exception {
+    when(cartAndOrderService.findOrders(any(GetOrdersRequest.class)))
+        .thenThrow(new IllegalArgumentException("Invalid order cursor"));
+
+    MockHttpServletResponse response = mvc.perform(
+        get(LIST_ORDERS_API_URI + "?userId=Bunny&cursor=xyz").accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+
+    response = mvc.perform(
+        get(LIST_ORDERS_API_URI).accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+  }
+
+  private GetRestaurantsResponse loadRestaurantsResponse() throws IOException {
+    String fixture =
+        FixtureHelpers.fixture(FIXTURES + "/normal_hours_list_of_restaurants.json");
+
+    return new GetRestaurantsResponse(
+        objectMapper.readValue(fixture, new TypeReference<List<Restaurant>>() {
+        }));
+  }
+
+  private Cart loadCart() throws IOException {
+    String fixture = FixtureHelpers.fixture(FIXTURES + "/get_cart_response.json");
+
+    return objectMapper.readValue(fixture, Cart.class);
+  }
+
+  private GetMenuResponse loadMenuResponse() throws IOException {
+    String fixture = FixtureHelpers.fixture(FIXTURES + "/restaurant_menu.json");
+
+    return new GetMenuResponse(objectMapper.readValue(fixture, Menu.class));
+  }
 
 }
 
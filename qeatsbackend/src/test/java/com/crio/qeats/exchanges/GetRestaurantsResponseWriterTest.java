@@ -0,0 +1,69 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.exchanges;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.utils.FixtureHelpers;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class GetRestaurantsResponseWriterTest {
+
+  private static final String FIXTURES = "fixtures/exchanges";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void writesTheSameJsonAsTheWholeResponse() throws IOException {
+    List<Restaurant> restaurants = objectMapper.readValue(
+        FixtureHelpers.fixture(FIXTURES + "/normal_hours_list_of_restaurants.json"),
+        new TypeReference<List<Restaurant>>() {
+        });
+
+    assertEquals(objectMapper.writeValueAsString(new GetRestaurantsResponse(restaurants)),
+        write(restaurants, true));
+    assertEquals(objectMapper.writeValueAsString(new GetRestaurantsResponse(new ArrayList<>())),
+        write(new ArrayList<>(), true));
+  }
+
+  @Test
+  void unfinishedResponseIsNotValidJson() throws IOException {
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      restaurants.add(new Restaurant(String.valueOf(i), "A2B", "Hsr Layout", "www.google.com",
+          20.027, 30.0, "18:00", "23:00", new ArrayList<>()));
+    }
+
+    // Restaurants go out as the buffer of the generator fills up, before the writer finishes.
+    String unfinished = write(restaurants, false);
+
+    assertTrue(unfinished.startsWith("{\"restaurants\":[{\"restaurantId\":\"0\""));
+    assertThrows(JsonProcessingException.class, () -> objectMapper.readTree(unfinished));
+  }
+
+  private String write(List<Restaurant> restaurants, boolean finish) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    GetRestaurantsResponseWriter writer =
+        new GetRestaurantsResponseWriter(objectMapper, outputStream);
+    restaurants.forEach(writer);
+    if (finish) {
+      writer.finish();
+    }
+    return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AccessLoggerTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void payloadIsCutAtTheCap() throws Exception {
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      restaurants.add(new Restaurant(String.valueOf(i), "A2B", "Hsr Layout", "www.google.com",
+          20.027, 30.0, "18:00", "23:00", new ArrayList<>()));
+    }
+    GetRestaurantsResponse response = new GetRestaurantsResponse(restaurants);
+    String json = objectMapper.writeValueAsString(response);
+
+    AccessLogger accessLogger = new AccessLogger(objectMapper, 1.0, 100);
+
+    assertEquals(json.substring(0, 100) + "...", accessLogger.writeCapped(response));
+  }
+
+  @Test
+  void payloadWithinTheCapIsWrittenWhole() throws Exception {
+    GetRestaurantsResponse response = new GetRestaurantsResponse(new ArrayList<>());
+
+    AccessLogger accessLogger = new AccessLogger(objectMapper, 1.0, 100);
+
+    assertEquals(objectMapper.writeValueAsString(response), accessLogger.writeCapped(response));
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.metrics;
+
+import static com.crio.qeats.metrics.RestaurantQueryMetrics.RETURNED_COUNTER;
+import static com.crio.qeats.metrics.RestaurantQueryMetrics.SCANNED_COUNTER;
+import static com.crio.qeats.metrics.RestaurantQueryMetrics.STAGE_TIMER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.metrics.RestaurantQueryMetrics.Stage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RestaurantQueryMetricsTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final RestaurantQueryMetrics restaurantQueryMetrics =
+      new RestaurantQueryMetrics(meterRegistry);
+
+  @Test
+  void queryRecordsEveryStageButSerializationAndCountsByHours() throws InterruptedException {
+    StageClock clock = new StageClock();
+    Thread.sleep(5);
+    clock.lap(Stage.FETCH);
+    clock.lap(Stage.OPEN_HOURS);
+    Thread.sleep(5);
+    clock.skip();
+    clock.lap(Stage.DISTANCE);
+
+    restaurantQueryMetrics.record(clock, LocalTime.of(13, 0), 100, 7);
+    restaurantQueryMetrics.record(clock, LocalTime.of(20, 30), 50, 3);
+    restaurantQueryMetrics.record(clock, LocalTime.of(16, 0), 10, 1);
+
+    Timer fetch = stageTimer("fetch");
+    assertEquals(3, fetch.count());
+    assertTrue(fetch.totalTime(TimeUnit.MILLISECONDS) >= 15);
+    assertTrue(stageTimer("distance").totalTime(TimeUnit.MILLISECONDS) < 15);
+    assertEquals(3, stageTimer("mapping").count());
+    assertEquals(0, stageTimer("serialization").count());
+
+    assertEquals(150, counter(SCANNED_COUNTER, "peak"));
+    assertEquals(10, counter(RETURNED_COUNTER, "peak"));
+    assertEquals(10, counter(SCANNED_COUNTER, "normal"));
+    assertEquals(1, counter(RETURNED_COUNTER, "normal"));
+  }
+
+  @Test
+  void serializationIsRecordedOnItsOwn() {
+    restaurantQueryMetrics.record(Stage.SERIALIZATION, TimeUnit.MILLISECONDS.toNanos(2));
+
+    assertEquals(1, stageTimer("serialization").count());
+    assertEquals(0, stageTimer("fetch").count());
+  }
+
+  private Timer stageTimer(String stage) {
+    return meterRegistry.get(STAGE_TIMER).tag("stage", stage).timer();
+  }
+
+  private double counter(String name, String hours) {
+    return meterRegistry.get(name).tag("hours", hours).counter().count();
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.crio.qeats.QEatsApplication;
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.models.OrderEntity;
+import com.crio.qeats.utils.FixtureHelpers;
+import com.crio.qeats.utils.OrderCursor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(classes = {QEatsApplication.class})
+@DirtiesContext
+@ActiveProfiles("test")
+public class OrderRepositoryServiceTest {
+
+  private static final String FIXTURES = "fixtures/exchanges";
+
+  @Autowired
+  private OrderRepositoryService orderRepositoryService;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @BeforeEach
+  void setup() throws IOException {
+    // Stored before placedAt was recorded, like the ones in the fixture.
+    List<OrderEntity> legacyOrders = listOfOrders();
+    OrderEntity older = listOfOrders().get(0);
+    older.setId("0");
+    legacyOrders.add(older);
+    mongoTemplate.insert(legacyOrders, "orders");
+
+    orderRepositoryService.saveOrders(Arrays.asList(
+        order("5cb9b58ce1e3f0325ec5a5ee", 2000), order("5cb9b58ce1e3f0325ec5a5ef", 2000),
+        order("5cb9b58ce1e3f0325ec5a5ed", 3000)));
+  }
+
+  @AfterEach
+  void teardown() {
+    mongoTemplate.dropCollection("orders");
+  }
+
+  @Test
+  void ordersWithoutPlacedAtComeLastAndArePagedThroughToo() {
+    assertEquals(Arrays.asList("5cb9b58ce1e3f0325ec5a5ed", "5cb9b58ce1e3f0325ec5a5ef",
+        "5cb9b58ce1e3f0325ec5a5ee", "1", "0"), pageThrough(1));
+    assertEquals(pageThrough(1), pageThrough(2));
+    assertEquals(pageThrough(1), pageThrough(10));
+  }
+
+  // Lists the orders of Bunny page after page, like CartAndOrderServiceImpl.findOrders.
+  private List<String> pageThrough(int limit) {
+    List<String> orderIds = new ArrayList<>();
+    OrderCursor after = null;
+    while (true) {
+      List<Order> orders = orderRepositoryService.findOrders("Bunny", after, limit);
+      for (Order order : orders) {
+        orderIds.add(order.getId());
+      }
+      if (orders.size() < limit) {
+        return orderIds;
+      }
+      Order last = orders.get(orders.size() - 1);
+      after = OrderCursor.fromToken(new OrderCursor(last.getPlacedAt(), last.getId()).toToken());
+    }
+  }
+
+  private Order order(String id, long placedAt) {
+    return new Order(id, "10", "Bunny", Order.PLACED, new ArrayList<>(), 225.0,
+        new Date(placedAt));
+  }
+
+  private List<OrderEntity> listOfOrders() throws IOException {
+    String fixture = FixtureHelpers.fixture(FIXTURES + "/initial_data_set_orders.json");
+
+    return new ObjectMapper().readValue(fixture, new TypeReference<List<OrderEntity>>() {
+    });
+  }
+}
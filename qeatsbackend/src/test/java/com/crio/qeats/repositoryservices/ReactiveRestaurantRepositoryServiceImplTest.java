@@ -0,0 +1,87 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.crio.qeats.QEatsApplication;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.FixtureHelpers;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SpringBootTest(classes = {QEatsApplication.class})
+@DirtiesContext
+@ActiveProfiles("test")
+public class ReactiveRestaurantRepositoryServiceImplTest {
+
+  private static final String FIXTURES = "fixtures/exchanges";
+
+  @Autowired
+  private ReactiveRestaurantRepositoryServiceImpl reactiveRestaurantRepositoryService;
+
+  @Autowired
+  private RestaurantRepositoryServiceGeoNearImpl restaurantRepositoryServiceGeoNear;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @BeforeEach
+  void setup() throws IOException {
+    mongoTemplate.insert(listOfRestaurants(), "restaurants");
+    ReflectionTestUtils.setField(restaurantRepositoryServiceGeoNear, "locationsIndexed", false);
+  }
+
+  @AfterEach
+  void teardown() {
+    mongoTemplate.dropCollection("restaurants");
+  }
+
+  @Test
+  void sameRestaurantsAsTheGeoNearLookup() {
+    for (LocalTime currentTime : Arrays.asList(LocalTime.of(18, 0), LocalTime.of(18, 1),
+        LocalTime.of(22, 59, 59), LocalTime.of(23, 0))) {
+      for (double servingRadiusInKms : new double[] {3.0, 5.0}) {
+        List<Restaurant> restaurants = reactiveRestaurantRepositoryService
+            .findAllRestaurantsCloseBy(20.0, 30.0, currentTime, servingRadiusInKms)
+            .collectList().block();
+
+        assertEquals(restaurantIds(restaurantRepositoryServiceGeoNear.findAllRestaurantsCloseBy(
+            20.0, 30.0, currentTime, servingRadiusInKms)), restaurantIds(restaurants));
+      }
+    }
+    assertEquals(Arrays.asList("12", "11", "10"), restaurantIds(reactiveRestaurantRepositoryService
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 1), 5.0).collectList().block()));
+  }
+
+  private List<String> restaurantIds(List<Restaurant> restaurants) {
+    return restaurants.stream().map(Restaurant::getRestaurantId).collect(Collectors.toList());
+  }
+
+  private List<RestaurantEntity> listOfRestaurants() throws IOException {
+    String fixture =
+        FixtureHelpers.fixture(FIXTURES + "/initial_data_set_restaurants.json");
+
+    return new ObjectMapper().readValue(fixture, new TypeReference<List<RestaurantEntity>>() {
+    });
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.models.RestaurantEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class RestaurantAttributeIndexTest {
+
+  private static final String[] ATTRIBUTES = {
+      "South Indian", "North Indian", "Tamil", "Veg", "Cafe", "Biryani", "Mughlai"};
+
+  @Test
+  void restaurantsWithAllAttributesMatchExactChecks() {
+    Random random = new Random(42);
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      List<String> attributes = new ArrayList<>();
+      for (String attribute : ATTRIBUTES) {
+        // Mughlai is rare enough to be kept as an array, the others as bitsets.
+        if (random.nextDouble() < (attribute.equals("Mughlai") ? 0.01 : 0.4)) {
+          attributes.add(attribute);
+        }
+      }
+      restaurants.add(createRestaurant(String.valueOf(i), attributes));
+    }
+    RestaurantAttributeIndex index = new RestaurantAttributeIndex(restaurants);
+
+    assertEquals(ATTRIBUTES.length, index.size());
+    for (List<String> required : Arrays.asList(Arrays.asList("tamil"),
+        Arrays.asList("Tamil", "veg"), Arrays.asList("south indian", "Veg", "cafe"),
+        Arrays.asList("Veg", "Mughlai"))) {
+      List<Integer> expected = IntStream.range(0, restaurants.size())
+          .filter(position -> required.stream().allMatch(attribute ->
+              restaurants.get(position).getAttributes().stream()
+                  .anyMatch(attribute::equalsIgnoreCase)))
+          .boxed()
+          .collect(Collectors.toList());
+
+      RestaurantFilter filter = index.findWithAll(required);
+      List<Integer> enumerated = new ArrayList<>();
+      filter.forEachMatch(enumerated::add);
+
+      assertTrue(expected.size() > 0);
+      assertEquals(expected, enumerated);
+      assertEquals(expected, IntStream.range(0, restaurants.size()).filter(filter).boxed()
+          .collect(Collectors.toList()));
+      assertTrue(filter.getMaxMatches() >= expected.size());
+    }
+  }
+
+  @Test
+  void facetsCountTheResultsHavingEachAttribute() {
+    Random random = new Random(7);
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      List<String> attributes = new ArrayList<>();
+      for (String attribute : ATTRIBUTES) {
+        // Mughlai is kept as an array, the others as bitsets.
+        if (i == 0 || random.nextDouble() < (attribute.equals("Mughlai") ? 0.02 : 0.4)) {
+          attributes.add(i % 2 == 0 ? attribute : attribute.toUpperCase());
+        }
+      }
+      restaurants.add(createRestaurant(String.valueOf(i), attributes));
+    }
+    RestaurantAttributeIndex index = new RestaurantAttributeIndex(restaurants);
+
+    BitSet results = new BitSet();
+    for (int i = 0; i < 300; i++) {
+      results.set(index.positionOf(String.valueOf(random.nextInt(restaurants.size()))));
+    }
+    Map<String, Integer> facets = index.countFacets(results);
+
+    // Named after the spelling seen first, that of restaurant 0, by decreasing count.
+    assertEquals(new HashSet<>(Arrays.asList(ATTRIBUTES)), facets.keySet());
+    int previousCount = Integer.MAX_VALUE;
+    for (Map.Entry<String, Integer> facet : facets.entrySet()) {
+      long expected = results.stream().filter(position -> restaurants.get(position)
+          .getAttributes().stream().anyMatch(facet.getKey()::equalsIgnoreCase)).count();
+      assertEquals(expected, (long) facet.getValue());
+      assertTrue(facet.getValue() <= previousCount);
+      previousCount = facet.getValue();
+    }
+    assertEquals(-1, index.positionOf("5000"));
+  }
+
+  @Test
+  void unknownAttributeMatchesNothing() {
+    RestaurantAttributeIndex index = new RestaurantAttributeIndex(Collections.singletonList(
+        createRestaurant("11", Arrays.asList("Tamil", "South Indian"))));
+
+    RestaurantFilter filter = index.findWithAll(Arrays.asList("Tamil", "Udupi"));
+
+    assertTrue(filter.isEmpty());
+    assertEquals(0, filter.getMaxMatches());
+    assertFalse(filter.test(0));
+    assertFalse(index.findWithAll(Arrays.asList("Tamil")).isEmpty());
+  }
+
+  @Test
+  void equalAttributesShareOneInstance() {
+    List<RestaurantEntity> restaurants = Arrays.asList(
+        createRestaurant("11", Arrays.asList(new String("Tamil"), "Veg")),
+        createRestaurant("12", Arrays.asList(new String("Tamil"))),
+        createRestaurant("13", null));
+
+    new RestaurantAttributeIndex(restaurants);
+
+    assertSame(restaurants.get(0).getAttributes().get(0),
+        restaurants.get(1).getAttributes().get(0));
+    assertEquals(Arrays.asList("Tamil", "Veg"), restaurants.get(0).getAttributes());
+  }
+
+  private RestaurantEntity createRestaurant(String restaurantId, List<String> attributes) {
+    RestaurantEntity restaurant = new RestaurantEntity();
+    restaurant.setRestaurantId(restaurantId);
+    restaurant.setAttributes(attributes);
+    return restaurant;
+  }
+}
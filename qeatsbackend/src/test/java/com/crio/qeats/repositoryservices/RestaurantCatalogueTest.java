@@ -0,0 +1,264 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.repositories.MenuRepository;
+import com.crio.qeats.repositories.RestaurantRepository;
+import com.crio.qeats.utils.FixtureHelpers;
+import com.crio.qeats.utils.GeoUtils;
+import com.crio.qeats.utils.RestaurantAttributes;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RestaurantCatalogueTest {
+
+  private static final String FIXTURES = "fixtures/exchanges";
+
+  @InjectMocks
+  private RestaurantCatalogue restaurantCatalogue;
+
+  @Mock
+  private RestaurantRepository restaurantRepositoryMock;
+
+  @Mock
+  private MenuRepository menuRepositoryMock;
+
+  @BeforeEach
+  void setup() throws IOException {
+    MockitoAnnotations.initMocks(this);
+    when(restaurantRepositoryMock.findAll()).thenReturn(listOfRestaurants());
+    when(menuRepositoryMock.findAll()).thenReturn(listOfMenus());
+  }
+
+  @Test
+  void restaurantsCloseByAndOpenNow() {
+    assertEquals(3, restaurantCatalogue.findRestaurantsCloseBy(20.0, 30.0,
+        LocalTime.of(18, 1), 5.0).size());
+    assertEquals(0, restaurantCatalogue.findRestaurantsCloseBy(20.0, 30.0,
+        LocalTime.of(17, 59), 5.0).size());
+  }
+
+  @Test
+  void searchIsLimitedToOpenRestaurantsWithinRadius() {
+    List<Restaurant> restaurants = restaurantCatalogue.findRestaurantsByName(20.0, 30.0, "a2b",
+        LocalTime.of(18, 1), 3.0);
+
+    assertEquals(2, restaurants.size());
+    assertTrue(restaurants.stream().map(Restaurant::getRestaurantId)
+        .collect(Collectors.toSet()).containsAll(Arrays.asList("11", "12")));
+    assertEquals(0, restaurantCatalogue.findRestaurantsByName(20.0, 30.0, "a2b",
+        LocalTime.of(23, 30), 3.0).size());
+    assertEquals(0, restaurantCatalogue.findRestaurantsByName(20.0, 30.0, "adyar",
+        LocalTime.of(18, 1), 3.0).size());
+    assertEquals(1, restaurantCatalogue.findRestaurantsByName(20.78, 30.09, "adyar",
+        LocalTime.of(18, 1), 3.0).size());
+  }
+
+  @Test
+  void searchByAttributes() {
+    assertEquals(3, restaurantCatalogue.findRestaurantsByAttributes(20.0, 30.0, "south ind",
+        LocalTime.of(18, 1), 5.0).size());
+    assertEquals(0, restaurantCatalogue.findRestaurantsByAttributes(20.0, 30.0, "north",
+        LocalTime.of(18, 1), 5.0).size());
+  }
+
+  @Test
+  void restaurantsCloseByWithAttributes() {
+    assertEquals(3, restaurantCatalogue.findRestaurantsCloseByWithAttributes(20.0, 30.0,
+        Arrays.asList("tamil", "South Indian"), LocalTime.of(18, 1), 5.0).size());
+    assertEquals(0, restaurantCatalogue.findRestaurantsCloseByWithAttributes(20.0, 30.0,
+        Arrays.asList("tamil", "Udupi"), LocalTime.of(18, 1), 5.0).size());
+    assertEquals(0, restaurantCatalogue.findRestaurantsCloseByWithAttributes(20.0, 30.0,
+        Arrays.asList("tamil"), LocalTime.of(17, 59), 5.0).size());
+  }
+
+  @Test
+  void facetsAreCountedFromTheAttributeIndex() {
+    List<Restaurant> restaurants = restaurantCatalogue.findRestaurantsCloseBy(20.0, 30.0,
+        LocalTime.of(18, 1), 5.0);
+    assertEquals(RestaurantAttributes.countFacets(restaurants),
+        restaurantCatalogue.countFacets(restaurants));
+
+    // A restaurant added since the snapshot was built.
+    Restaurant added = new Restaurant();
+    added.setRestaurantId("99");
+    added.setAttributes(Arrays.asList("Udupi"));
+    List<Restaurant> withAdded = new ArrayList<>(restaurants);
+    withAdded.add(added);
+    assertEquals(RestaurantAttributes.countFacets(withAdded),
+        restaurantCatalogue.countFacets(withAdded));
+  }
+
+  @Test
+  void searchByMenuItems() {
+    List<Restaurant> restaurants = restaurantCatalogue.findRestaurantsByItemName(20.0, 30.0,
+        "briyani", LocalTime.of(18, 1), 5.0);
+
+    assertEquals(new HashSet<>(Arrays.asList("11", "12")), restaurants.stream()
+        .map(Restaurant::getRestaurantId).collect(Collectors.toSet()));
+    assertEquals(1, restaurantCatalogue.findRestaurantsByItemName(20.0, 30.0, "fish",
+        LocalTime.of(18, 1), 5.0).size());
+    assertEquals(2, restaurantCatalogue.findRestaurantsByItemAttributes(20.0, 30.0, "mughal",
+        LocalTime.of(18, 1), 5.0).size());
+    assertEquals(0, restaurantCatalogue.findRestaurantsByItemAttributes(20.0, 30.0, "mughal",
+        LocalTime.of(17, 0), 5.0).size());
+  }
+
+  @Test
+  void commonAndRareSearchesAgreeWithExactChecks() {
+    Random random = new Random(42);
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      RestaurantEntity restaurant = new RestaurantEntity();
+      restaurant.setRestaurantId(String.valueOf(i));
+      restaurant.setName(i % 50 == 0 ? "Rare Biryani " + i : "Dosa Corner " + i);
+      restaurant.setLatitude(20.0 + (random.nextDouble() - 0.5) * 0.2);
+      restaurant.setLongitude(30.0 + (random.nextDouble() - 0.5) * 0.2);
+      restaurant.setOpensAt(i % 3 == 0 || i % 50 == 0 ? "10:00" : "18:00");
+      restaurant.setClosesAt("23:00");
+      restaurants.add(restaurant);
+    }
+    when(restaurantRepositoryMock.findAll()).thenReturn(restaurants);
+
+    for (String searchFor : new String[] {"dosa", "rare bir"}) {
+      Set<String> expected = restaurants.stream()
+          .filter(restaurant -> restaurant.getName().toLowerCase().startsWith(searchFor))
+          .filter(restaurant -> restaurant.getOpeningHours().isOpenAt(LocalTime.of(12, 0)))
+          .filter(restaurant -> GeoUtils.findDistanceInKm(20.0, 30.0, restaurant.getLatitude(),
+              restaurant.getLongitude()) < 3.0)
+          .map(RestaurantEntity::getRestaurantId)
+          .collect(Collectors.toSet());
+
+      List<Restaurant> found = restaurantCatalogue.findRestaurantsByName(20.0, 30.0, searchFor,
+          LocalTime.of(12, 0), 3.0);
+
+      assertTrue(expected.size() > 0);
+      assertEquals(expected.size(), found.size());
+      assertEquals(expected, found.stream().map(Restaurant::getRestaurantId)
+          .collect(Collectors.toSet()));
+    }
+  }
+
+  @Test
+  void snapshotIsBuiltOnceUntilInvalidated() {
+    restaurantCatalogue.findRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 1), 5.0);
+    restaurantCatalogue.findRestaurantsByName(20.0, 30.0, "a2b", LocalTime.of(18, 1), 5.0);
+    verify(restaurantRepositoryMock, times(1)).findAll();
+    verify(menuRepositoryMock, times(1)).findAll();
+
+    restaurantCatalogue.invalidate();
+    restaurantCatalogue.findRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 1), 5.0);
+    verify(restaurantRepositoryMock, times(2)).findAll();
+  }
+
+  @Test
+  void staleSnapshotIsServedWhileItIsRefreshedInTheBackground() throws Exception {
+    restaurantCatalogue.findRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 1), 5.0);
+    CountDownLatch release = new CountDownLatch(1);
+    when(restaurantRepositoryMock.findAll()).thenAnswer(invocation -> {
+      release.await();
+      return new ArrayList<>();
+    });
+    ReflectionTestUtils.setField(restaurantCatalogue, "refreshDueAtNanos", System.nanoTime());
+
+    // Served from the stale snapshot while the refresh waits for the database.
+    assertEquals(3, restaurantCatalogue.findRestaurantsCloseBy(20.0, 30.0,
+        LocalTime.of(18, 1), 5.0).size());
+    assertEquals(3, restaurantCatalogue.findRestaurantsCloseBy(20.0, 30.0,
+        LocalTime.of(18, 1), 5.0).size());
+    release.countDown();
+
+    long deadlineInNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!restaurantCatalogue.findRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 1), 5.0)
+        .isEmpty() && System.nanoTime() < deadlineInNanos) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, restaurantCatalogue.findRestaurantsCloseBy(20.0, 30.0,
+        LocalTime.of(18, 1), 5.0).size());
+    verify(restaurantRepositoryMock, times(2)).findAll();
+  }
+
+  @Test
+  void savedSnapshotIsServedBeforeTheDatabaseIsRead() throws Exception {
+    Path snapshotDir = Files.createTempDirectory("restaurants");
+    Path snapshotFile = snapshotDir.resolve("restaurants.snapshot");
+    try {
+      ReflectionTestUtils.setField(restaurantCatalogue, "snapshotFile", snapshotFile.toString());
+      restaurantCatalogue.findRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 1), 5.0);
+      // Saved on the refresh thread, after the query was answered.
+      long deadlineInNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (!Files.exists(snapshotFile) && System.nanoTime() < deadlineInNanos) {
+        Thread.sleep(10);
+      }
+
+      // A restarted instance, whose database is down.
+      RestaurantCatalogue restartedCatalogue = new RestaurantCatalogue();
+      RestaurantRepository unavailableRepository = mock(RestaurantRepository.class);
+      when(unavailableRepository.findAll()).thenThrow(new IllegalStateException("down"));
+      ReflectionTestUtils.setField(restartedCatalogue, "restaurantRepository",
+          unavailableRepository);
+      ReflectionTestUtils.setField(restartedCatalogue, "menuRepository", menuRepositoryMock);
+      ReflectionTestUtils.setField(restartedCatalogue, "snapshotFile", snapshotFile.toString());
+      restartedCatalogue.loadSnapshotFile();
+
+      assertEquals(3, restartedCatalogue.findRestaurantsCloseBy(20.0, 30.0,
+          LocalTime.of(18, 1), 5.0).size());
+      assertEquals(new HashSet<>(Arrays.asList("11", "12")),
+          restartedCatalogue.findRestaurantsByItemName(20.0, 30.0, "briyani",
+              LocalTime.of(18, 1), 5.0).stream().map(Restaurant::getRestaurantId)
+              .collect(Collectors.toSet()));
+    } finally {
+      Files.deleteIfExists(snapshotFile);
+      Files.deleteIfExists(snapshotDir);
+    }
+  }
+
+  private List<RestaurantEntity> listOfRestaurants() throws IOException {
+    String fixture =
+        FixtureHelpers.fixture(FIXTURES + "/initial_data_set_restaurants.json");
+
+    return new ObjectMapper().readValue(fixture, new TypeReference<List<RestaurantEntity>>() {
+    });
+  }
+
+  private List<MenuEntity> listOfMenus() throws IOException {
+    String fixture =
+        FixtureHelpers.fixture(FIXTURES + "/initial_data_set_menus.json");
+
+    return new ObjectMapper().readValue(fixture, new TypeReference<List<MenuEntity>>() {
+    });
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.GeoUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class RestaurantGeoHashIndexTest {
+
+  private static final int PRECISION = 6;
+
+  @Test
+  void candidatesContainEveryRestaurantWithinRadius() {
+    List<RestaurantEntity> restaurants = randomRestaurantsAround(12.9, 77.6, 0.2, 5000);
+    RestaurantGeoHashIndex index = new RestaurantGeoHashIndex(restaurants, PRECISION);
+
+    assertEquals(5000, index.size());
+    for (double radius : new double[] {3.0, 5.0}) {
+      Set<String> candidates = index.findCandidates(12.9, 77.6, radius).stream()
+          .map(RestaurantEntity::getRestaurantId)
+          .collect(Collectors.toSet());
+
+      for (RestaurantEntity restaurant : restaurants) {
+        if (GeoUtils.findDistanceInKm(12.9, 77.6, restaurant.getLatitude(),
+            restaurant.getLongitude()) < radius) {
+          assertTrue(candidates.contains(restaurant.getRestaurantId()));
+        }
+      }
+      assertTrue(candidates.size() < restaurants.size());
+    }
+  }
+
+  @Test
+  void withinRadiusMatchesExactDistanceCheck() {
+    List<RestaurantEntity> restaurants = randomRestaurantsAround(12.9, 77.6, 0.2, 5000);
+    RestaurantGeoHashIndex index = new RestaurantGeoHashIndex(restaurants, PRECISION);
+
+    for (double radius : new double[] {3.0, 5.0}) {
+      Set<String> expected = restaurants.stream()
+          .filter(restaurant -> GeoUtils.findDistanceInKm(12.9, 77.6, restaurant.getLatitude(),
+              restaurant.getLongitude()) < radius)
+          .map(RestaurantEntity::getRestaurantId)
+          .collect(Collectors.toSet());
+
+      List<RestaurantEntity> withinRadius = index.findWithinRadius(12.9, 77.6, radius);
+
+      assertEquals(expected.size(), withinRadius.size());
+      assertEquals(expected, withinRadius.stream()
+          .map(RestaurantEntity::getRestaurantId)
+          .collect(Collectors.toSet()));
+    }
+  }
+
+  @Test
+  void withinRadiusOnlyKeepsFilteredPositions() {
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    restaurants.add(createRestaurant("11", 20.0, 30.0));
+    restaurants.add(createRestaurant("12", null, null));
+    restaurants.add(createRestaurant("13", 20.001, 30.001));
+    restaurants.add(createRestaurant("14", 20.002, 30.002));
+    RestaurantGeoHashIndex index = new RestaurantGeoHashIndex(restaurants, PRECISION);
+
+    List<RestaurantEntity> withinRadius = index.findWithinRadius(20.0, 30.0, 3.0,
+        position -> position == 1 || position == 3);
+
+    assertEquals(1, withinRadius.size());
+    assertEquals("14", withinRadius.get(0).getRestaurantId());
+    assertEquals(3, index.findWithinRadius(20.0, 30.0, 3.0, null).size());
+  }
+
+  @Test
+  void candidatesAcrossTheAntimeridian() {
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    restaurants.add(createRestaurant("11", -16.0, 179.99));
+    restaurants.add(createRestaurant("12", -16.0, -179.99));
+    restaurants.add(createRestaurant("13", -16.0, 178.0));
+    RestaurantGeoHashIndex index = new RestaurantGeoHashIndex(restaurants, PRECISION);
+
+    Set<String> candidates = index.findCandidates(-16.0, 179.999, 5.0).stream()
+        .map(RestaurantEntity::getRestaurantId)
+        .collect(Collectors.toSet());
+
+    assertTrue(candidates.contains("11"));
+    assertTrue(candidates.contains("12"));
+    assertEquals(2, candidates.size());
+    assertEquals(2, index.findWithinRadius(-16.0, 179.999, 5.0).size());
+  }
+
+  @Test
+  void restaurantsWithoutCoordinatesAreSkipped() {
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    restaurants.add(createRestaurant("11", 20.0, 30.0));
+    restaurants.add(createRestaurant("12", null, null));
+
+    RestaurantGeoHashIndex index = new RestaurantGeoHashIndex(restaurants, PRECISION);
+
+    assertEquals(1, index.size());
+    assertEquals(1, index.findCandidates(20.0, 30.0, 3.0).size());
+    assertEquals(0, index.findCandidates(21.0, 31.0, 3.0).size());
+  }
+
+  private List<RestaurantEntity> randomRestaurantsAround(double latitude, double longitude,
+      double spreadInDegrees, int count) {
+    Random random = new Random(42);
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      restaurants.add(createRestaurant(String.valueOf(i),
+          latitude + (random.nextDouble() - 0.5) * spreadInDegrees,
+          longitude + (random.nextDouble() - 0.5) * spreadInDegrees));
+    }
+    return restaurants;
+  }
+
+  private RestaurantEntity createRestaurant(String restaurantId, Double latitude,
+      Double longitude) {
+    RestaurantEntity restaurant = new RestaurantEntity();
+    restaurant.setRestaurantId(restaurantId);
+    restaurant.setLatitude(latitude);
+    restaurant.setLongitude(longitude);
+    restaurant.setOpensAt("10:00");
+    restaurant.setClosesAt("22:00");
+    return restaurant;
+  }
+}
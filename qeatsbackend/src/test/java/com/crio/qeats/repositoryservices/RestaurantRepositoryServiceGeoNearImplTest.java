@@ -0,0 +1,156 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.crio.qeats.QEatsApplication;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.FixtureHelpers;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SpringBootTest(classes = {QEatsApplication.class})
+@DirtiesContext
+@ActiveProfiles("test")
+public class RestaurantRepositoryServiceGeoNearImplTest {
+
+  private static final String FIXTURES = "fixtures/exchanges";
+
+  @Autowired
+  private RestaurantRepositoryServiceGeoNearImpl restaurantRepositoryServiceGeoNear;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @BeforeEach
+  void setup() throws IOException {
+    // Inserted without the GeoJSON location, like the restaurants restored from a dump.
+    // The collection is dropped after every test, so the index has to be created again.
+    mongoTemplate.insert(listOfRestaurants(), "restaurants");
+    ReflectionTestUtils.setField(restaurantRepositoryServiceGeoNear, "locationsIndexed", false);
+  }
+
+  @AfterEach
+  void teardown() {
+    mongoTemplate.dropCollection("restaurants");
+  }
+
+  @Test
+  void restaurantsCloseByAndOpenNowSortedByDistance() {
+    List<Restaurant> restaurants = restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 1), 3.0);
+
+    assertEquals(Arrays.asList("12", "11"), restaurantIds(restaurants));
+
+    restaurants = restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 1), 5.0);
+
+    assertEquals(Arrays.asList("12", "11", "10"), restaurantIds(restaurants));
+  }
+
+  @Test
+  void locationsAreBackfilled() {
+    restaurantRepositoryServiceGeoNear.ensureLocationsIndexed();
+
+    for (RestaurantEntity restaurantEntity : mongoTemplate.findAll(RestaurantEntity.class)) {
+      assertNotNull(restaurantEntity.getLocation());
+      assertEquals(restaurantEntity.getLatitude(), restaurantEntity.getLocation().getY(), 0.0);
+      assertEquals(restaurantEntity.getLongitude(), restaurantEntity.getLocation().getX(), 0.0);
+    }
+  }
+
+  @Test
+  void restaurantsWithoutCoordinatesAreNotBackfilled() {
+    mongoTemplate.insert(new Document("restaurantId", "30").append("name", "Nowhere"),
+        "restaurants");
+
+    restaurantRepositoryServiceGeoNear.ensureLocationsIndexed();
+
+    assertNull(mongoTemplate.findOne(query(where("restaurantId").is("30")), Document.class,
+        "restaurants").get(RestaurantRepositoryServiceGeoNearImpl.LOCATION_FIELD));
+    assertEquals(Arrays.asList("12", "11"), restaurantIds(restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 1), 3.0)));
+  }
+
+  @Test
+  void noRestaurantsNearBy() {
+    assertEquals(0, restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.9, 30.0, LocalTime.of(18, 1), 3.0).size());
+  }
+
+  @Test
+  void openingAndClosingTimesAreExclusive() {
+    assertEquals(0, restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 0), 5.0).size());
+    assertEquals(3, restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 0, 1), 5.0).size());
+    assertEquals(3, restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(22, 59, 59), 5.0).size());
+    assertEquals(0, restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(23, 0), 5.0).size());
+  }
+
+  @Test
+  void overnightAndSeveralWindowsAreMatched() throws IOException {
+    mongoTemplate.insert(Arrays.asList(nearBy("20", "18:00", "02:00"),
+        nearBy("21", "11:00,19:00", "15:00,23:00")), "restaurants");
+
+    assertEquals(Arrays.asList("20"), restaurantIds(restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(1, 0), 3.0)));
+    assertEquals(Arrays.asList("21"), restaurantIds(restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(12, 0), 3.0)));
+    assertEquals(Arrays.asList("20", "12", "11"), restaurantIds(restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 30), 3.0)));
+    assertEquals(0, restaurantRepositoryServiceGeoNear
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(16, 0), 3.0).size());
+  }
+
+  private RestaurantEntity nearBy(String restaurantId, String opensAt, String closesAt)
+      throws IOException {
+    RestaurantEntity restaurantEntity = listOfRestaurants().get(0);
+    restaurantEntity.setId(restaurantId);
+    restaurantEntity.setRestaurantId(restaurantId);
+    restaurantEntity.setLatitude(20.0);
+    restaurantEntity.setLongitude(30.0);
+    restaurantEntity.setOpensAt(opensAt);
+    restaurantEntity.setClosesAt(closesAt);
+    return restaurantEntity;
+  }
+
+  private List<String> restaurantIds(List<Restaurant> restaurants) {
+    return restaurants.stream().map(Restaurant::getRestaurantId).collect(Collectors.toList());
+  }
+
+  private List<RestaurantEntity> listOfRestaurants() throws IOException {
+    String fixture =
+        FixtureHelpers.fixture(FIXTURES + "/initial_data_set_restaurants.json");
+
+    return new ObjectMapper().readValue(fixture, new TypeReference<List<RestaurantEntity>>() {
+    });
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.GeoUtils;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class RestaurantScanEngineTest {
+
+  private static final String[][] HOURS = {
+      {"10:00", "22:00"}, {"18:00", "02:00"}, {"07:00,18:00", "11:00,23:00"}};
+
+  @Test
+  void openWithinRadiusMatchesExactChecks() {
+    Random random = new Random(42);
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    for (int i = 0; i < 20000; i++) {
+      String[] hours = HOURS[random.nextInt(HOURS.length)];
+      restaurants.add(createRestaurant(String.valueOf(i),
+          12.9 + (random.nextDouble() - 0.5) * 2, 77.6 + (random.nextDouble() - 0.5) * 2,
+          hours[0], hours[1]));
+    }
+    RestaurantScanEngine scanEngine = new RestaurantScanEngine(restaurants);
+
+    for (LocalTime currentTime : new LocalTime[] {LocalTime.of(8, 0), LocalTime.of(19, 30),
+        LocalTime.of(1, 0)}) {
+      for (double radius : new double[] {3.0, 5.0}) {
+        Set<String> expected = restaurants.stream()
+            .filter(restaurant -> restaurant.getOpeningHours().isOpenAt(currentTime))
+            .filter(restaurant -> GeoUtils.findDistanceInKm(12.9, 77.6,
+                restaurant.getLatitude(), restaurant.getLongitude()) < radius)
+            .map(RestaurantEntity::getRestaurantId)
+            .collect(Collectors.toSet());
+
+        List<String> found = new ArrayList<>();
+        int scanned = scanEngine.forEachOpenWithinRadius(12.9, 77.6, radius, currentTime,
+            restaurant -> found.add(restaurant.getRestaurantId()));
+
+        assertTrue(expected.size() > 0);
+        assertEquals(expected.size(), found.size());
+        assertEquals(expected, new HashSet<>(found));
+        // The Hilbert order keeps the blocks local, so most of them are skipped.
+        assertTrue(scanned < restaurants.size() / 4);
+      }
+    }
+  }
+
+  @Test
+  void openWithinRadiusAcrossTheAntimeridian() {
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    restaurants.add(createRestaurant("11", -16.0, 179.99, "10:00", "22:00"));
+    restaurants.add(createRestaurant("12", -16.0, -179.99, "10:00", "22:00"));
+    restaurants.add(createRestaurant("13", -16.0, 178.0, "10:00", "22:00"));
+    RestaurantScanEngine scanEngine = new RestaurantScanEngine(restaurants);
+
+    assertEquals(new HashSet<>(Arrays.asList("11", "12")),
+        find(scanEngine, -16.0, 179.999, LocalTime.of(12, 0)));
+  }
+
+  @Test
+  void restaurantsWithoutCoordinatesOrValidHoursAreSkipped() {
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    restaurants.add(createRestaurant("11", 20.0, 30.0, "10:00", "22:00"));
+    restaurants.add(createRestaurant("12", null, null, "10:00", "22:00"));
+    restaurants.add(createRestaurant("13", 20.001, 30.001, "10:00", "noon"));
+    restaurants.add(createRestaurant("14", 20.002, 30.002, "10:00,12:00", "22:00"));
+    RestaurantScanEngine scanEngine = new RestaurantScanEngine(restaurants);
+
+    assertEquals(3, scanEngine.size());
+    assertEquals(new HashSet<>(Arrays.asList("11")),
+        find(scanEngine, 20.0, 30.0, LocalTime.of(12, 0)));
+    assertEquals(new HashSet<>(), find(scanEngine, 20.0, 30.0, LocalTime.of(23, 0)));
+  }
+
+  @Test
+  void hilbertIndexKeepsNeighboursClose() {
+    long origin = RestaurantScanEngine.hilbertIndex(12.9, 77.6);
+    long neighbour = RestaurantScanEngine.hilbertIndex(12.9001, 77.6001);
+    long farAway = RestaurantScanEngine.hilbertIndex(-33.9, 151.2);
+
+    assertTrue(Math.abs(origin - neighbour) < Math.abs(origin - farAway));
+    assertEquals(0, RestaurantScanEngine.hilbertIndex(-90.0, -180.0));
+    assertTrue(RestaurantScanEngine.hilbertIndex(90.0, 180.0) < 1L << 32);
+  }
+
+  private Set<String> find(RestaurantScanEngine scanEngine, double latitude, double longitude,
+      LocalTime currentTime) {
+    Set<String> found = new HashSet<>();
+    scanEngine.forEachOpenWithinRadius(latitude, longitude, 5.0, currentTime,
+        restaurant -> found.add(restaurant.getRestaurantId()));
+    return found;
+  }
+
+  private RestaurantEntity createRestaurant(String restaurantId, Double latitude,
+      Double longitude, String opensAt, String closesAt) {
+    RestaurantEntity restaurant = new RestaurantEntity();
+    restaurant.setRestaurantId(restaurantId);
+    restaurant.setLatitude(latitude);
+    restaurant.setLongitude(longitude);
+    restaurant.setOpensAt(opensAt);
+    restaurant.setClosesAt(closesAt);
+    return restaurant;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.models.ItemEntity;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RestaurantSearchIndexTest {
+
+  @Test
+  void tokensAreLowerCaseWordsOfLettersAndDigits() {
+    assertEquals(Arrays.asList("meghana", "s", "biryani", "a2b"),
+        RestaurantSearchIndex.tokenize("  Meghana's BIRYANI & A2B "));
+    assertTrue(RestaurantSearchIndex.tokenize("&& -").isEmpty());
+    assertTrue(RestaurantSearchIndex.tokenize(null).isEmpty());
+  }
+
+  @Test
+  void nameMatchesExactOrPrefixIgnoringCase() {
+    RestaurantSearchIndex index = new RestaurantSearchIndex(listOfRestaurants());
+
+    assertMatches(index.findByName("A2B"), 0, 1);
+    assertMatches(index.findByName("adyar"), 1);
+    assertMatches(index.findByName("a2b ady"), 1);
+    assertMatches(index.findByName("a"), 0, 1, 2);
+    assertMatches(index.findByName("a2b biryani"));
+    assertMatches(index.findByName("dyar"));
+  }
+
+  @Test
+  void attributesMatchExactOrPrefixIgnoringCase() {
+    RestaurantSearchIndex index = new RestaurantSearchIndex(listOfRestaurants());
+
+    assertMatches(index.findByAttributes("south indian"), 0, 1);
+    assertMatches(index.findByAttributes("ind"), 0, 1, 2);
+    assertMatches(index.findByAttributes("North"), 2);
+    assertMatches(index.findByAttributes("tamil north"));
+  }
+
+  @Test
+  void emptySearchStringMatchesNothing() {
+    RestaurantSearchIndex index = new RestaurantSearchIndex(listOfRestaurants());
+
+    assertMatches(index.findByName(""));
+    assertMatches(index.findByAttributes("  "));
+    assertMatches(index.findByName(null));
+  }
+
+  @Test
+  void restaurantsWithSeveralTokensInTheRangeAreMatchedOnce() {
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    restaurants.add(createRestaurant("Biryani Birds Bistro", "Biryani"));
+    restaurants.add(createRestaurant("Bistro", "Cafe"));
+    restaurants.add(createRestaurant("Dosa Corner", "South Indian"));
+    RestaurantSearchIndex index = new RestaurantSearchIndex(restaurants);
+
+    assertMatches(index.findByName("bi"), 0, 1);
+    assertMatches(index.findByName("bir"), 0);
+    assertEquals(4, index.findByName("bi").getMaxMatches());
+    assertMatches(index.findByAttributes("bir"), 0);
+  }
+
+  @Test
+  void menuItemsAreIndexedForTheirRestaurant() {
+    List<RestaurantEntity> restaurants = listOfRestaurants();
+    for (int position = 0; position < restaurants.size(); position++) {
+      restaurants.get(position).setRestaurantId(String.valueOf(10 + position));
+    }
+    List<MenuEntity> menus = Arrays.asList(
+        createMenu("12", createItem("Butter Chicken", "North Indian", "Spicy")),
+        createMenu("10", createItem("Chicken Briyani", "Mughal"),
+            createItem("Dosai", "South Indian")),
+        createMenu("99", createItem("Chicken Roll", "Street Food")));
+    RestaurantSearchIndex index = new RestaurantSearchIndex(restaurants, menus);
+
+    assertMatches(index.findByItemName("chicken"), 0, 2);
+    assertMatches(index.findByItemName("DOSA"), 0);
+    assertMatches(index.findByItemName("roll"));
+    assertMatches(index.findByItemAttributes("mughal"), 0);
+    assertMatches(index.findByItemAttributes("spicy north"), 2);
+    assertMatches(index.findByName("chicken"));
+    assertMatches(new RestaurantSearchIndex(restaurants).findByItemName("chicken"));
+  }
+
+  // Checks both ways of finding the matches against the expected positions, out of the three
+  // restaurants every test indexes.
+  private void assertMatches(RestaurantSearchIndex.Query query, int... expected) {
+    List<Integer> enumerated = new ArrayList<>();
+    query.forEachMatch(enumerated::add);
+    Collections.sort(enumerated);
+
+    List<Integer> tested = new ArrayList<>();
+    for (int position = 0; position < 3; position++) {
+      if (query.test(position)) {
+        tested.add(position);
+      }
+    }
+
+    List<Integer> expectedPositions = new ArrayList<>();
+    for (int position : expected) {
+      expectedPositions.add(position);
+    }
+    assertEquals(expectedPositions, enumerated);
+    assertEquals(expectedPositions, tested);
+    assertTrue(query.getMaxMatches() >= expected.length);
+  }
+
+  private List<RestaurantEntity> listOfRestaurants() {
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    restaurants.add(createRestaurant("A2B", "Tamil", "South Indian"));
+    restaurants.add(createRestaurant("A2B Adyar Ananda Bhavan", "South Indian"));
+    restaurants.add(createRestaurant("Amritsari Dhaba", "North Indian", "Indian Punjabi"));
+    return restaurants;
+  }
+
+  private RestaurantEntity createRestaurant(String name, String... attributes) {
+    RestaurantEntity restaurant = new RestaurantEntity();
+    restaurant.setName(name);
+    restaurant.setAttributes(new ArrayList<>(Arrays.asList(attributes)));
+    return restaurant;
+  }
+
+  private MenuEntity createMenu(String restaurantId, ItemEntity... items) {
+    MenuEntity menu = new MenuEntity();
+    menu.setRestaurantId(restaurantId);
+    menu.setItems(new ArrayList<>(Arrays.asList(items)));
+    return menu;
+  }
+
+  private ItemEntity createItem(String name, String... attributes) {
+    ItemEntity item = new ItemEntity();
+    item.setName(name);
+    item.setAttributes(new ArrayList<>(Arrays.asList(attributes)));
+    return item;
+  }
+}
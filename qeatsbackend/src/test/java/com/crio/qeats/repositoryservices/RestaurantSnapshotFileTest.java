@@ -0,0 +1,100 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.repositoryservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.crio.qeats.models.ItemEntity;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RestaurantSnapshotFileTest {
+
+  private Path snapshotFile;
+
+  @BeforeEach
+  void setup() throws IOException {
+    snapshotFile = Files.createTempFile("restaurants", ".snapshot");
+  }
+
+  @AfterEach
+  void teardown() throws IOException {
+    Files.deleteIfExists(snapshotFile);
+  }
+
+  @Test
+  void restaurantsAndMenusAreReadBackAsWritten() throws IOException {
+    RestaurantEntity dosaCorner = restaurant("11", "Dosa Corner", "10:00,18:00", "15:00,23:00",
+        "South Indian", "Cafe");
+    RestaurantEntity biryaniHouse = restaurant("12", "Biryani Hóuse", "10:00,18:00",
+        "15:00,23:00", "Biryani");
+    RestaurantEntity incomplete = new RestaurantEntity();
+    incomplete.setRestaurantId("13");
+
+    ItemEntity item = new ItemEntity();
+    item.setItemId("1");
+    item.setName("Masala Dosa");
+    item.setPrice(80.0);
+    item.setAttributes(new ArrayList<>(Arrays.asList("South Indian", "Breakfast")));
+    MenuEntity menu = new MenuEntity();
+    menu.setRestaurantId("11");
+    menu.setItems(new ArrayList<>(Collections.singletonList(item)));
+
+    RestaurantSnapshotFile.write(snapshotFile,
+        Arrays.asList(dosaCorner, biryaniHouse, incomplete), Collections.singletonList(menu));
+    RestaurantSnapshotFile.Contents contents = RestaurantSnapshotFile.read(snapshotFile);
+
+    assertEquals(Arrays.asList(dosaCorner, biryaniHouse, incomplete), contents.restaurants);
+    assertEquals(Collections.singletonList(menu), contents.menus);
+    assertNull(contents.restaurants.get(2).getLatitude());
+    assertEquals(dosaCorner.getOpeningHours(), contents.restaurants.get(0).getOpeningHours());
+    assertSame(contents.restaurants.get(0).getOpeningHours(),
+        contents.restaurants.get(1).getOpeningHours());
+  }
+
+  @Test
+  void fileOfAnotherFormatIsRejected() throws IOException {
+    Files.write(snapshotFile, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    assertThrows(IOException.class, () -> RestaurantSnapshotFile.read(snapshotFile));
+
+    RestaurantSnapshotFile.write(snapshotFile,
+        Collections.singletonList(restaurant("11", "Dosa Corner", "10:00", "22:00")),
+        Collections.emptyList());
+    byte[] truncated = Arrays.copyOf(Files.readAllBytes(snapshotFile), 40);
+    Files.write(snapshotFile, truncated);
+    assertThrows(IOException.class, () -> RestaurantSnapshotFile.read(snapshotFile));
+  }
+
+  private RestaurantEntity restaurant(String restaurantId, String name, String opensAt,
+      String closesAt, String... attributes) {
+    RestaurantEntity restaurant = new RestaurantEntity();
+    restaurant.setId("id" + restaurantId);
+    restaurant.setRestaurantId(restaurantId);
+    restaurant.setName(name);
+    restaurant.setCity("Bengaluru");
+    restaurant.setImageUrl("https://images.qeats.example/" + restaurantId + ".jpg");
+    restaurant.setLatitude(12.97);
+    restaurant.setLongitude(77.59);
+    restaurant.setOpensAt(opensAt);
+    restaurant.setClosesAt(closesAt);
+    restaurant.setAttributes(new ArrayList<>(Arrays.asList(attributes)));
+    return restaurant;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+  @Test
+  void limitGrowsByOnePerLimitOfFastRequestsThatFillIt() throws InterruptedException {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 3, 0, 0, 250);
+
+    assertTrue(limiter.tryAcquire());
+    limiter.release(FAST, false);
+    assertEquals(2, limiter.currentLimit());
+
+    assertTrue(limiter.tryAcquire());
+    assertTrue(limiter.tryAcquire());
+    limiter.release(FAST, false);
+    limiter.release(FAST, false);
+    assertEquals(2, limiter.currentLimit());
+
+    for (int i = 0; i < 5; i++) {
+      assertTrue(limiter.tryAcquire());
+      assertTrue(limiter.tryAcquire());
+      limiter.release(FAST, false);
+      limiter.release(FAST, false);
+    }
+    assertEquals(3, limiter.currentLimit());
+  }
+
+  @Test
+  void aBurstOfSlowRequestsShrinksTheLimitOnce() throws InterruptedException {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(128, 4, 128, 0, 0, 250);
+
+    for (int i = 0; i < 20; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+    for (int i = 0; i < 20; i++) {
+      limiter.release(SLOW, false);
+    }
+
+    assertEquals(115, limiter.currentLimit());
+  }
+
+  @Test
+  void limitShrinksAfterSlowOrFailedRequestsAdmittedSinceTheLastShrink()
+      throws InterruptedException {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 0, 0, 250);
+
+    assertTrue(limiter.tryAcquire());
+    limiter.release(SLOW, false);
+    assertEquals(9, limiter.currentLimit());
+
+    // Admitted before the shrink, by its latency.
+    assertTrue(limiter.tryAcquire());
+    limiter.release(FAST, true);
+    assertEquals(9, limiter.currentLimit());
+
+    for (int i = 0; i < 20; i++) {
+      Thread.sleep(TimeUnit.NANOSECONDS.toMillis(FAST) * 2);
+      assertTrue(limiter.tryAcquire());
+      limiter.release(FAST, true);
+    }
+    assertEquals(2, limiter.currentLimit());
+  }
+
+  @Test
+  void requestsBeyondTheLimitAndTheQueueAreRejected() throws InterruptedException {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0, 1000, 250);
+
+    assertTrue(limiter.tryAcquire());
+    long startTimeInNanos = System.nanoTime();
+    assertFalse(limiter.tryAcquire());
+
+    assertTrue(System.nanoTime() - startTimeInNanos < TimeUnit.MILLISECONDS.toNanos(500));
+    assertEquals(1L, limiter.getState().get("rejected"));
+  }
+
+  @Test
+  void queuedRequestIsAdmittedOnceASlotIsReleased() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1, 5000, 250);
+    assertTrue(limiter.tryAcquire());
+
+    CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> {
+      try {
+        return limiter.tryAcquire();
+      } catch (InterruptedException e) {
+        return false;
+      }
+    });
+    while (!Integer.valueOf(1).equals(limiter.getState().get("queued"))) {
+      Thread.sleep(1);
+    }
+    limiter.release(FAST, false);
+
+    assertTrue(queued.get(1, TimeUnit.SECONDS));
+    assertEquals(1, limiter.getState().get("inFlight"));
+  }
+
+  @Test
+  void queuedRequestIsRejectedAfterTheWait() throws InterruptedException {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1, 50, 250);
+    assertTrue(limiter.tryAcquire());
+
+    long startTimeInNanos = System.nanoTime();
+    assertFalse(limiter.tryAcquire());
+
+    assertTrue(System.nanoTime() - startTimeInNanos >= TimeUnit.MILLISECONDS.toNanos(50));
+    assertEquals(0, limiter.getState().get("queued"));
+  }
+}
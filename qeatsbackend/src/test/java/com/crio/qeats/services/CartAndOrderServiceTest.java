@@ -0,0 +1,408 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.dto.Menu;
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.EmptyCartException;
+import com.crio.qeats.exceptions.ItemNotFoundInRestaurantMenuException;
+import com.crio.qeats.exceptions.ItemNotFromSameRestaurantException;
+import com.crio.qeats.exceptions.OrderQueueFullException;
+import com.crio.qeats.exchanges.CartModifiedResponse;
+import com.crio.qeats.exchanges.GetOrdersRequest;
+import com.crio.qeats.exchanges.GetOrdersResponse;
+import com.crio.qeats.exchanges.GetMenuResponse;
+import com.crio.qeats.repositoryservices.CartRepositoryService;
+import com.crio.qeats.repositoryservices.OrderRepositoryService;
+import com.crio.qeats.utils.FixtureHelpers;
+import com.crio.qeats.utils.OrderCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+class CartAndOrderServiceTest {
+
+  private static final String FIXTURES = "fixtures/exchanges";
+
+  @InjectMocks
+  private CartAndOrderServiceImpl cartAndOrderService;
+
+  @Mock
+  private MenuService menuServiceMock;
+
+  @Mock
+  private OrderQueue orderQueueMock;
+
+  @Mock
+  private OrderRepositoryService orderRepositoryServiceMock;
+
+  private final InMemoryCartRepositoryService cartRepositoryService =
+      new InMemoryCartRepositoryService();
+
+  @BeforeEach
+  void setup() throws IOException {
+    MockitoAnnotations.initMocks(this);
+    cartAndOrderService.cartRepositoryService = cartRepositoryService;
+
+    String fixture = FixtureHelpers.fixture(FIXTURES + "/restaurant_menu.json");
+    Menu menu = new ObjectMapper().readValue(fixture, Menu.class);
+    when(menuServiceMock.findMenu(anyString()))
+        .thenReturn(new CachedMenu(new GetMenuResponse(menu), "\"1\""));
+  }
+
+  @Test
+  void totalFollowsTheItemsAddedAndRemoved() {
+    String cartId = cartAndOrderService.findOrCreateCart("Bunny").getId();
+
+    cartAndOrderService.addItemToCart("1", cartId, "11");
+    Cart cart = cartAndOrderService.addItemToCart("1", cartId, "11").getCart();
+    assertEquals(2, cart.getItems().size());
+    assertEquals(Double.valueOf(450.0), cart.getTotal());
+    assertEquals("11", cart.getRestaurantId());
+
+    cart = cartAndOrderService.removeItemFromCart("1", cartId).getCart();
+    assertEquals(Double.valueOf(225.0), cart.getTotal());
+
+    cart = cartAndOrderService.clearCart(cartId);
+    assertEquals(0, cart.getItems().size());
+    assertEquals(Double.valueOf(0.0), cart.getTotal());
+    assertNull(cart.getRestaurantId());
+  }
+
+  @Test
+  void itemFromAnotherRestaurantLeavesTheCartAsIs() {
+    String cartId = cartAndOrderService.findOrCreateCart("Bunny").getId();
+    cartAndOrderService.addItemToCart("1", cartId, "11");
+
+    CartModifiedResponse response = cartAndOrderService.addItemToCart("1", cartId, "12");
+
+    assertEquals(102, response.getCartResponseType());
+    assertEquals(1, response.getCart().getItems().size());
+    assertEquals("11", response.getCart().getRestaurantId());
+  }
+
+  @Test
+  void unknownItemsAndCartsAreRejected() {
+    String cartId = cartAndOrderService.findOrCreateCart("Bunny").getId();
+
+    assertThrows(ItemNotFoundInRestaurantMenuException.class,
+        () -> cartAndOrderService.addItemToCart("42", cartId, "11"));
+    assertThrows(CartNotFoundException.class,
+        () -> cartAndOrderService.addItemToCart("1", "no-such-cart", "11"));
+  }
+
+  @Test
+  void placedOrderIsQueuedAndTheCartEmptied() {
+    when(orderQueueMock.offer(any(Order.class))).thenReturn(true);
+    String cartId = cartAndOrderService.findOrCreateCart("Bunny").getId();
+    cartAndOrderService.addItemToCart("1", cartId, "11");
+    cartAndOrderService.addItemToCart("1", cartId, "11");
+
+    Order order = cartAndOrderService.postOrder(cartId);
+
+    verify(orderQueueMock).offer(order);
+    assertEquals(Order.PLACED, order.getStatus());
+    assertEquals("Bunny", order.getUserId());
+    assertEquals("11", order.getRestaurantId());
+    assertEquals(2, order.getItems().size());
+    assertEquals(Double.valueOf(450.0), order.getTotal());
+    assertEquals(0, cartRepositoryService.findCartByCartId(cartId).getItems().size());
+  }
+
+  @Test
+  void emptyCartIsNotOrdered() {
+    String cartId = cartAndOrderService.findOrCreateCart("Bunny").getId();
+
+    assertThrows(EmptyCartException.class, () -> cartAndOrderService.postOrder(cartId));
+    assertThrows(CartNotFoundException.class,
+        () -> cartAndOrderService.postOrder("no-such-cart"));
+    verify(orderQueueMock, never()).offer(any(Order.class));
+  }
+
+  @Test
+  void orderRefusedByAFullQueueLeavesTheCartAsIs() {
+    when(orderQueueMock.offer(any(Order.class))).thenReturn(false);
+    String cartId = cartAndOrderService.findOrCreateCart("Bunny").getId();
+    cartAndOrderService.addItemToCart("1", cartId, "11");
+
+    assertThrows(OrderQueueFullException.class, () -> cartAndOrderService.postOrder(cartId));
+    Cart cart = cartRepositoryService.findCartByCartId(cartId);
+    assertEquals(1, cart.getItems().size());
+    assertEquals(Double.valueOf(225.0), cart.getTotal());
+    assertEquals("11", cart.getRestaurantId());
+  }
+
+  @Test
+  void cartThatCannotBeEmptiedIsNotOrdered() {
+    String cartId = cartAndOrderService.findOrCreateCart("Bunny").getId();
+    cartAndOrderService.addItemToCart("1", cartId, "11");
+    cartRepositoryService.mongoDown = true;
+
+    assertThrows(DataAccessResourceFailureException.class,
+        () -> cartAndOrderService.postOrder(cartId));
+    verify(orderQueueMock, never()).offer(any(Order.class));
+
+    cartRepositoryService.mongoDown = false;
+    when(orderQueueMock.offer(any(Order.class))).thenReturn(true);
+    assertEquals(1, cartAndOrderService.postOrder(cartId).getItems().size());
+    assertThrows(EmptyCartException.class, () -> cartAndOrderService.postOrder(cartId));
+    verify(orderQueueMock, times(1)).offer(any(Order.class));
+  }
+
+  @Test
+  void orderHistoryPagesEndWithTheCursorOfTheLastOrder() {
+    List<Order> orders = Arrays.asList(order("3", 3000), order("2", 2000), order("1", 2000));
+    when(orderRepositoryServiceMock.findOrders(eq("Bunny"), isNull(), eq(3)))
+        .thenReturn(orders);
+    when(orderRepositoryServiceMock.findOrders(eq("Bunny"),
+        eq(new OrderCursor(new Date(2000), "2")), eq(3)))
+        .thenReturn(orders.subList(2, 3));
+
+    GetOrdersResponse firstPage =
+        cartAndOrderService.findOrders(new GetOrdersRequest("Bunny", null, 2));
+    assertEquals(orders.subList(0, 2), firstPage.getOrders());
+    assertNotNull(firstPage.getNextCursor());
+
+    GetOrdersResponse lastPage = cartAndOrderService.findOrders(
+        new GetOrdersRequest("Bunny", firstPage.getNextCursor(), 2));
+    assertEquals(orders.subList(2, 3), lastPage.getOrders());
+    assertNull(lastPage.getNextCursor());
+
+    assertThrows(IllegalArgumentException.class, () -> cartAndOrderService.findOrders(
+        new GetOrdersRequest("Bunny", "not a cursor", 2)));
+  }
+
+  @Test
+  void concurrentUpdatesOfTheSameCartAreNotLost() throws Exception {
+    int threads = 8;
+    int addsPerThread = 200;
+    List<String> cartIds = new ArrayList<>();
+    for (String userId : new String[] {"Bunny", "Chintu", "Pinky"}) {
+      cartIds.add(cartAndOrderService.findOrCreateCart(userId).getId());
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int thread = 0; thread < threads; thread++) {
+      int firstCart = thread;
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < addsPerThread; i++) {
+          String cartId = cartIds.get((firstCart + i) % cartIds.size());
+          cartAndOrderService.addItemToCart("1", cartId, "11");
+          if (i % 4 == 3) {
+            cartAndOrderService.removeItemFromCart("1", cartId);
+          }
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    int items = 0;
+    for (String cartId : cartIds) {
+      Cart cart = cartRepositoryService.findCartByCartId(cartId);
+      assertEquals(cart.getItems().size() * 225.0, cart.getTotal().doubleValue());
+      items += cart.getItems().size();
+    }
+    assertEquals(threads * addsPerThread * 3 / 4, items);
+  }
+
+  @Test
+  void concurrentFirstRequestsCreateOneCart() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<String>> futures = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      futures.add(executor.submit(() -> cartAndOrderService.findOrCreateCart("Bunny").getId()));
+    }
+    Set<String> cartIds = new HashSet<>();
+    for (Future<String> future : futures) {
+      cartIds.add(future.get());
+    }
+    executor.shutdown();
+
+    assertEquals(1, cartIds.size());
+    assertEquals(1, cartRepositoryService.carts.size());
+  }
+
+  private Order order(String id, long placedAt) {
+    return new Order(id, "11", "Bunny", Order.PLACED, new ArrayList<>(), 225.0,
+        new Date(placedAt));
+  }
+
+  // Reads the cart, yields and writes it back, like a round trip to mongo would, so that
+  // concurrent updates of a cart are likely to collide. Like the versioned carts in mongo, a
+  // cart is only written back if it did not change since it was read.
+  private static class InMemoryCartRepositoryService implements CartRepositoryService {
+
+    private final Map<String, Cart> carts = new ConcurrentHashMap<>();
+    private final Map<String, String> cartIdsByUserId = new ConcurrentHashMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+    private volatile boolean mongoDown;
+
+    @Override
+    public Cart createCart(String userId) {
+      Thread.yield();
+      Cart cart = new Cart(String.valueOf(ids.incrementAndGet()), null, userId,
+          new ArrayList<>(), 0.0);
+      if (cartIdsByUserId.putIfAbsent(userId, cart.getId()) != null) {
+        throw new DuplicateKeyException("User " + userId + " has a cart already");
+      }
+      carts.put(cart.getId(), cart);
+      return copy(cart);
+    }
+
+    @Override
+    public Optional<Cart> findCartByUserId(String userId) {
+      return Optional.ofNullable(cartIdsByUserId.get(userId)).map(carts::get).map(this::copy);
+    }
+
+    @Override
+    public Cart findCartByCartId(String cartId) throws CartNotFoundException {
+      Cart cart = carts.get(cartId);
+      if (cart == null) {
+        throw new CartNotFoundException();
+      }
+      return copy(cart);
+    }
+
+    @Override
+    public Cart addItem(Item item, String cartId, String restaurantId)
+        throws CartNotFoundException, ItemNotFromSameRestaurantException {
+      Cart read = findStoredCart(cartId);
+      Cart cart = copy(read);
+      if (!cart.getItems().isEmpty() && !restaurantId.equals(cart.getRestaurantId())) {
+        throw new ItemNotFromSameRestaurantException();
+      }
+      Thread.yield();
+      cart.setRestaurantId(restaurantId);
+      cart.getItems().add(item);
+      cart.setTotal(cart.getTotal() + item.getPrice());
+      return save(read, cart);
+    }
+
+    @Override
+    public Cart removeItem(String itemId, String cartId) throws CartNotFoundException {
+      Cart read = findStoredCart(cartId);
+      Cart cart = copy(read);
+      Thread.yield();
+      for (Item item : cart.getItems()) {
+        if (item.getItemId().equals(itemId)) {
+          cart.getItems().remove(item);
+          cart.setTotal(cart.getTotal() - item.getPrice());
+          if (cart.getItems().isEmpty()) {
+            cart.setRestaurantId(null);
+          }
+          break;
+        }
+      }
+      return save(read, cart);
+    }
+
+    @Override
+    public Cart clearCart(String cartId) throws CartNotFoundException {
+      Cart read = findStoredCart(cartId);
+      Cart cart = copy(read);
+      cart.getItems().clear();
+      cart.setRestaurantId(null);
+      cart.setTotal(0.0);
+      return save(read, cart);
+    }
+
+    @Override
+    public Cart takeItems(String cartId) throws CartNotFoundException {
+      Cart read = findStoredCart(cartId);
+      if (!read.getItems().isEmpty()) {
+        Cart cart = copy(read);
+        cart.getItems().clear();
+        cart.setRestaurantId(null);
+        cart.setTotal(0.0);
+        save(read, cart);
+      }
+      return copy(read);
+    }
+
+    @Override
+    public Cart restoreItems(Cart taken)
+        throws CartNotFoundException, ItemNotFromSameRestaurantException {
+      Cart read = findStoredCart(taken.getId());
+      Cart cart = copy(read);
+      if (!cart.getItems().isEmpty() && !taken.getRestaurantId().equals(cart.getRestaurantId())) {
+        throw new ItemNotFromSameRestaurantException();
+      }
+      cart.setRestaurantId(taken.getRestaurantId());
+      cart.getItems().addAll(taken.getItems());
+      cart.setTotal(cart.getTotal() + taken.getTotal());
+      return save(read, cart);
+    }
+
+    private Cart findStoredCart(String cartId) throws CartNotFoundException {
+      Cart cart = carts.get(cartId);
+      if (cart == null) {
+        throw new CartNotFoundException();
+      }
+      return cart;
+    }
+
+    private Cart save(Cart read, Cart cart) {
+      if (mongoDown) {
+        throw new DataAccessResourceFailureException("Mongo is down");
+      }
+      if (!carts.replace(cart.getId(), read, cart)) {
+        throw new OptimisticLockingFailureException("Cart " + cart.getId() + " changed");
+      }
+      return copy(cart);
+    }
+
+    private Cart copy(Cart cart) {
+      return new Cart(cart.getId(), cart.getRestaurantId(), cart.getUserId(),
+          new ArrayList<>(cart.getItems()), cart.getTotal());
+    }
+  }
+}
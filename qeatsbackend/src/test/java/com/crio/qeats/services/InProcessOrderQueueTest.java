@@ -0,0 +1,209 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.repositoryservices.OrderRepositoryService;
+import com.crio.qeats.utils.OrderCursor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+class InProcessOrderQueueTest {
+
+  private static final long SHUTDOWN_TIMEOUT_IN_MILLIS = 5000;
+
+  @Test
+  void ordersQueuedDuringAWriteAreWrittenInBatches() throws Exception {
+    BlockingOrderRepositoryService repository = new BlockingOrderRepositoryService();
+    InProcessOrderQueue orderQueue = start(
+        new InProcessOrderQueue(100, 10, 1, SHUTDOWN_TIMEOUT_IN_MILLIS), repository);
+
+    assertTrue(orderQueue.offer(order(0)));
+    assertTrue(repository.writing.await(5, TimeUnit.SECONDS));
+    for (int i = 1; i <= 25; i++) {
+      assertTrue(orderQueue.offer(order(i)));
+    }
+    assertEquals(25, orderQueue.depth());
+    repository.release.countDown();
+    orderQueue.shutdown();
+
+    List<Integer> batchSizes = new ArrayList<>();
+    for (List<Order> batch : repository.batches) {
+      batchSizes.add(batch.size());
+    }
+    assertEquals(Arrays.asList(1, 10, 10, 5), batchSizes);
+    assertEquals(26, repository.writtenIds().size());
+    assertEquals(0, orderQueue.depth());
+  }
+
+  @Test
+  void ordersAreRefusedOnceTheQueueIsFull() throws Exception {
+    BlockingOrderRepositoryService repository = new BlockingOrderRepositoryService();
+    InProcessOrderQueue orderQueue = start(
+        new InProcessOrderQueue(2, 10, 1, SHUTDOWN_TIMEOUT_IN_MILLIS), repository);
+
+    assertTrue(orderQueue.offer(order(0)));
+    assertTrue(repository.writing.await(5, TimeUnit.SECONDS));
+    assertTrue(orderQueue.offer(order(1)));
+    assertTrue(orderQueue.offer(order(2)));
+    assertFalse(orderQueue.offer(order(3)));
+    repository.release.countDown();
+    orderQueue.shutdown();
+
+    assertEquals(Arrays.asList("0", "1", "2"), repository.writtenIds());
+  }
+
+  @Test
+  void failedWritesAreRetried() throws Exception {
+    BlockingOrderRepositoryService repository = new BlockingOrderRepositoryService();
+    repository.release.countDown();
+    repository.failures.set(2);
+    InProcessOrderQueue orderQueue = start(
+        new InProcessOrderQueue(100, 10, 1, SHUTDOWN_TIMEOUT_IN_MILLIS), repository);
+
+    assertTrue(orderQueue.offer(order(0)));
+    orderQueue.shutdown();
+
+    assertEquals(Collections.singletonList("0"), repository.writtenIds());
+    assertEquals(3, repository.attempts.get());
+  }
+
+  @Test
+  void failedWritesAreRetriedUntilShutdownWhileTheQueueFillsUp() throws Exception {
+    BlockingOrderRepositoryService repository = new BlockingOrderRepositoryService();
+    repository.release.countDown();
+    repository.failures.set(Integer.MAX_VALUE);
+    InProcessOrderQueue orderQueue = start(new InProcessOrderQueue(3, 10, 1, 50), repository);
+
+    assertTrue(orderQueue.offer(order(0)));
+    while (repository.attempts.get() < 10) {
+      Thread.yield();
+    }
+    assertTrue(orderQueue.offer(order(1)));
+    assertTrue(orderQueue.offer(order(2)));
+    assertTrue(orderQueue.offer(order(3)));
+    assertFalse(orderQueue.offer(order(4)));
+    orderQueue.shutdown();
+
+    assertEquals(0, repository.writtenIds().size());
+    assertEquals(0, orderQueue.depth());
+  }
+
+  @Test
+  void ordersThatCannotBeWrittenAreDroppedAndTheOthersWritten() throws Exception {
+    BlockingOrderRepositoryService repository = new BlockingOrderRepositoryService();
+    repository.invalidOrderId = "5";
+    InProcessOrderQueue orderQueue = start(
+        new InProcessOrderQueue(100, 10, 1, SHUTDOWN_TIMEOUT_IN_MILLIS), repository);
+
+    assertTrue(orderQueue.offer(order(0)));
+    assertTrue(repository.writing.await(5, TimeUnit.SECONDS));
+    for (int i = 1; i <= 9; i++) {
+      assertTrue(orderQueue.offer(order(i)));
+    }
+    repository.release.countDown();
+    orderQueue.shutdown();
+
+    assertEquals(Arrays.asList("0", "1", "2", "3", "4", "6", "7", "8", "9"),
+        repository.writtenIds());
+  }
+
+  @Test
+  void shutdownWritesTheQueuedOrdersAndRefusesNewOnes() throws Exception {
+    BlockingOrderRepositoryService repository = new BlockingOrderRepositoryService();
+    InProcessOrderQueue orderQueue = start(
+        new InProcessOrderQueue(100, 10, 1, SHUTDOWN_TIMEOUT_IN_MILLIS), repository);
+
+    assertTrue(orderQueue.offer(order(0)));
+    assertTrue(repository.writing.await(5, TimeUnit.SECONDS));
+    assertTrue(orderQueue.offer(order(1)));
+    new Thread(() -> {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      repository.release.countDown();
+    }).start();
+    orderQueue.shutdown();
+
+    assertFalse(orderQueue.offer(order(2)));
+    assertEquals(Arrays.asList("0", "1"), repository.writtenIds());
+  }
+
+  private InProcessOrderQueue start(InProcessOrderQueue orderQueue,
+      OrderRepositoryService repository) {
+    orderQueue.orderRepositoryService = repository;
+    orderQueue.start();
+    return orderQueue;
+  }
+
+  private Order order(int id) {
+    return new Order(String.valueOf(id), "11", "Bunny", Order.PLACED, new ArrayList<>(), 225.0,
+        new Date());
+  }
+
+  // Records the batches written. Every write counts down writing and waits for release, then
+  // throws while there are failures left, and on every batch with the invalid order.
+  private static class BlockingOrderRepositoryService implements OrderRepositoryService {
+
+    private final List<List<Order>> batches = new CopyOnWriteArrayList<>();
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private volatile String invalidOrderId;
+
+    @Override
+    public void saveOrders(List<Order> orders) {
+      attempts.incrementAndGet();
+      writing.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      if (failures.getAndDecrement() > 0) {
+        throw new DataAccessResourceFailureException("mongo is down");
+      }
+      for (Order order : orders) {
+        if (order.getId().equals(invalidOrderId)) {
+          throw new IllegalArgumentException("order " + invalidOrderId + " is invalid");
+        }
+      }
+      batches.add(new ArrayList<>(orders));
+    }
+
+    @Override
+    public List<Order> findOrders(String userId, OrderCursor after, int limit) {
+      throw new UnsupportedOperationException();
+    }
+
+    private List<String> writtenIds() {
+      List<String> ids = new ArrayList<>();
+      for (List<Order> batch : batches) {
+        for (Order order : batch) {
+          ids.add(order.getId());
+        }
+      }
+      return ids;
+    }
+  }
+}
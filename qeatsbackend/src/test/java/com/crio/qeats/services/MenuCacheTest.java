@@ -0,0 +1,182 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.dto.Menu;
+import com.crio.qeats.exchanges.GetMenuResponse;
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.utils.FixtureHelpers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.base.Ticker;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.util.DigestUtils;
+
+class MenuCacheTest {
+
+  private static final String FIXTURES = "fixtures/exchanges";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  void menusAreLoadedOnceWithAStrongEtag() throws IOException {
+    MenuCache menuCache = new MenuCache(10, objectMapper);
+    Menu menu = loadMenu();
+
+    CachedMenu cachedMenu = menuCache.get("11", counting(() -> menu));
+
+    assertSame(cachedMenu, menuCache.get("11", counting(() -> menu)));
+    assertEquals(1, loads.get());
+    assertEquals(menu, cachedMenu.getResponse().getMenu());
+    assertTrue(cachedMenu.getEtag().matches("\"[0-9a-f]{32}\""));
+  }
+
+  @Test
+  void etagChangesWithTheMenu() throws IOException {
+    MenuCache menuCache = new MenuCache(10, objectMapper);
+    Menu menu = loadMenu();
+    Menu updated = loadMenu();
+    updated.getItems().get(0).setPrice(250.0);
+
+    String etag = menuCache.get("11", () -> menu).getEtag();
+    assertEquals(etag,
+        new MenuCache(10, objectMapper).get("11", this::loadMenuUnchecked).getEtag());
+    assertNotEquals(etag, menuCache.get("12", () -> updated).getEtag());
+  }
+
+  @Test
+  void etagIsTheHashOfTheResponseWrittenByTheGivenMapper() throws IOException {
+    ObjectMapper indentingMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    Menu menu = loadMenu();
+
+    String etag = new MenuCache(10, indentingMapper).get("11", () -> menu).getEtag();
+
+    assertEquals("\"" + DigestUtils.md5DigestAsHex(
+        indentingMapper.writeValueAsBytes(new GetMenuResponse(menu))) + "\"", etag);
+    assertNotEquals(new MenuCache(10, objectMapper).get("11", () -> menu).getEtag(), etag);
+  }
+
+  @Test
+  void savingAMenuInvalidatesIt() throws IOException {
+    MenuCache menuCache = new MenuCache(10, objectMapper);
+    Menu menu = loadMenu();
+    menuCache.get("11", counting(() -> menu));
+    menuCache.get("12", counting(() -> menu));
+
+    MenuEntity menuEntity = new MenuEntity();
+    menuEntity.setRestaurantId("11");
+    menuCache.onAfterSave(new AfterSaveEvent<>(menuEntity, new Document(), "menus"));
+    menuCache.get("11", counting(() -> menu));
+    menuCache.get("12", counting(() -> menu));
+    assertEquals(3, loads.get());
+
+    menuCache.onAfterDelete(new AfterDeleteEvent<>(new Document(), MenuEntity.class, "menus"));
+    assertEquals(0, menuCache.size());
+  }
+
+  @Test
+  void menuUpdatedWhileLoadingIsNotCached() throws IOException {
+    MenuCache menuCache = new MenuCache(10, objectMapper);
+    Menu menu = loadMenu();
+
+    menuCache.get("11", counting(() -> {
+      menuCache.invalidate("11");
+      return menu;
+    }));
+    menuCache.get("11", counting(() -> menu));
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void restaurantsWithoutMenuAreCachedToo() {
+    MenuCache menuCache = new MenuCache(10, objectMapper);
+
+    assertNull(menuCache.get("99", counting(() -> null)));
+    assertNull(menuCache.get("99", counting(() -> null)));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void leastRecentlyUsedMenusAreEvicted() {
+    MenuCache menuCache = new MenuCache(2, objectMapper);
+    Menu menu = new Menu("1", new ArrayList<>(Collections.singletonList(new Item())));
+
+    menuCache.get("1", counting(() -> menu));
+    menuCache.get("2", counting(() -> menu));
+    menuCache.get("1", counting(() -> menu));
+    menuCache.get("3", counting(() -> menu));
+    assertEquals(2, menuCache.size());
+
+    menuCache.get("1", counting(() -> menu));
+    assertEquals(3, loads.get());
+    menuCache.get("2", counting(() -> menu));
+    assertEquals(4, loads.get());
+  }
+
+  @Test
+  void menusAreLoadedAgainOnceExpired() throws IOException {
+    AtomicLong nanos = new AtomicLong();
+    MenuCache menuCache = new MenuCache(10, new Ticker() {
+      @Override
+      public long read() {
+        return nanos.get();
+      }
+    }, objectMapper);
+    Menu menu = loadMenu();
+    long expiryInNanos = TimeUnit.MINUTES.toNanos(GlobalConstants.MENU_CACHE_EXPIRY_IN_MINUTES);
+
+    menuCache.get("11", counting(() -> menu));
+    nanos.addAndGet(expiryInNanos - 1);
+    menuCache.get("11", counting(() -> menu));
+    assertEquals(1, loads.get());
+
+    nanos.addAndGet(1);
+    menuCache.get("11", counting(() -> menu));
+    assertEquals(2, loads.get());
+  }
+
+  private Supplier<Menu> counting(Supplier<Menu> loader) {
+    return () -> {
+      loads.incrementAndGet();
+      return loader.get();
+    };
+  }
+
+  private Menu loadMenu() throws IOException {
+    String fixture = FixtureHelpers.fixture(FIXTURES + "/restaurant_menu.json");
+
+    return new ObjectMapper().readValue(fixture, Menu.class);
+  }
+
+  private Menu loadMenuUnchecked() {
+    try {
+      return loadMenu();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
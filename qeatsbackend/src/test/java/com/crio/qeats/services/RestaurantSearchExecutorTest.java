@@ -0,0 +1,132 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.dto.Restaurant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RestaurantSearchExecutorTest {
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private RestaurantSearchExecutor restaurantSearchExecutor;
+
+  @AfterEach
+  void teardown() {
+    release.countDown();
+    if (restaurantSearchExecutor != null) {
+      restaurantSearchExecutor.shutdown();
+    }
+  }
+
+  @Test
+  void resultsAreMergedInOrderOfPriorityWithoutDuplicates() {
+    restaurantSearchExecutor = new RestaurantSearchExecutor(4, 16, 1000);
+
+    List<Restaurant> restaurants = restaurantSearchExecutor.search(Arrays.asList(
+        delayed(50, "11", "12"),
+        found("13", "11"),
+        found(),
+        found("12", "14")));
+
+    assertEquals(Arrays.asList("11", "12", "13", "14"), restaurantIds(restaurants));
+  }
+
+  @Test
+  void lookupsMissingTheDeadlineAreLeftOut() {
+    restaurantSearchExecutor = new RestaurantSearchExecutor(4, 16, 100);
+
+    long startTimeInNanos = System.nanoTime();
+    List<Restaurant> restaurants = restaurantSearchExecutor.search(Arrays.asList(
+        blocked("11"),
+        found("12"),
+        delayed(20, "13"),
+        blocked("14")));
+
+    assertEquals(Arrays.asList("12", "13"), restaurantIds(restaurants));
+    assertTrue(System.nanoTime() - startTimeInNanos < TimeUnit.SECONDS.toNanos(1));
+  }
+
+  @Test
+  void failedLookupsAreLeftOut() {
+    restaurantSearchExecutor = new RestaurantSearchExecutor(4, 16, 1000);
+
+    List<Restaurant> restaurants = restaurantSearchExecutor.search(Arrays.asList(
+        () -> {
+          throw new IllegalStateException("database is down");
+        },
+        found("12")));
+
+    assertEquals(Collections.singletonList("12"), restaurantIds(restaurants));
+  }
+
+  @Test
+  void lookupsRejectedBySaturatedPoolAreLeftOut() {
+    restaurantSearchExecutor = new RestaurantSearchExecutor(1, 1, 1000);
+
+    // The first lookup holds the only thread and the second one fills the queue.
+    List<Restaurant> restaurants = restaurantSearchExecutor.search(Arrays.asList(
+        delayed(50, "11"),
+        found("12"),
+        found("13")));
+
+    assertEquals(Arrays.asList("11", "12"), restaurantIds(restaurants));
+  }
+
+  private Supplier<List<Restaurant>> found(String... restaurantIds) {
+    return () -> createRestaurants(restaurantIds);
+  }
+
+  private Supplier<List<Restaurant>> delayed(long delayInMillis, String... restaurantIds) {
+    return () -> {
+      try {
+        Thread.sleep(delayInMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return createRestaurants(restaurantIds);
+    };
+  }
+
+  // Never finishes on its own, until the end of the test.
+  private Supplier<List<Restaurant>> blocked(String... restaurantIds) {
+    return () -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return createRestaurants(restaurantIds);
+    };
+  }
+
+  private List<Restaurant> createRestaurants(String... restaurantIds) {
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (String restaurantId : restaurantIds) {
+      Restaurant restaurant = new Restaurant();
+      restaurant.setRestaurantId(restaurantId);
+      restaurants.add(restaurant);
+    }
+    return restaurants;
+  }
+
+  private List<String> restaurantIds(List<Restaurant> restaurants) {
+    return restaurants.stream().map(Restaurant::getRestaurantId).collect(Collectors.toList());
+  }
+}
@@ -10,6 +10,7 @@ package com.crio.qeats.services;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -18,13 +19,20 @@ import com.crio.qeats.QEatsApplication;
 import com.crio.qeats.dto.Restaurant;
 import com.crio.qeats.exchanges.GetRestaurantsRequest;
 import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.repositoryservices.ReactiveRestaurantRepositoryService;
 import com.crio.qeats.repositoryservices.RestaurantRepositoryService;
 import com.crio.qeats.utils.FixtureHelpers;
+import com.crio.qeats.utils.GeoUtils;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -37,6 +45,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
 
 // TODO: CRIO_TASK_MODULE_RESTAURANTSAPI
 //  Pass all the RestaurantService test cases.
@@ -56,6 +65,8 @@ class RestaurantServiceTest {
   private RestaurantServiceImpl restaurantService;
   @Mock
   RestaurantRepositoryService restaurantRepositoryServiceMock;
+  @Mock
+  ReactiveRestaurantRepositoryService reactiveRestaurantRepositoryServiceMock;
   private ObjectMapper objectMapper;
 
   @BeforeEach
@@ -126,6 +137,160 @@ class RestaurantServiceTest {
 
 
   
+  @Test
+  void streamedRestaurantsComeFromTheRepositoryOneAtATime() throws IOException {
+    List<Restaurant> restaurants = loadRestaurantsDuringNormalHours();
+    doAnswer(invocation -> {
+      Consumer<Restaurant> action = invocation.getArgument(4);
+      restaurants.forEach(action);
+      return null;
+    }).when(restaurantRepositoryServiceMock).forEachRestaurantCloseBy(any(Double.class),
+        any(Double.class), any(LocalTime.class), any(Double.class), any());
+
+    List<Restaurant> streamed = new ArrayList<>();
+    restaurantService.streamAllRestaurantsCloseBy(new GetRestaurantsRequest(20.0, 30.0),
+        LocalTime.of(19, 0), streamed::add);
+
+    assertEquals(restaurants, streamed);
+    ArgumentCaptor<Double> servingRadiusInKms = ArgumentCaptor.forClass(Double.class);
+    verify(restaurantRepositoryServiceMock, times(1)).forEachRestaurantCloseBy(
+        any(Double.class), any(Double.class), any(LocalTime.class),
+        servingRadiusInKms.capture(), any());
+    assertEquals("3.0", servingRadiusInKms.getValue().toString());
+  }
+
+  @Test
+  void reactiveRestaurantsCloseByFollowThePeakHourRadius() throws IOException {
+    List<Restaurant> restaurants = loadRestaurantsDuringPeakHours();
+    when(reactiveRestaurantRepositoryServiceMock
+        .findAllRestaurantsCloseBy(any(Double.class), any(Double.class), any(LocalTime.class),
+            any(Double.class)))
+        .thenReturn(Flux.fromIterable(restaurants));
+
+    List<Restaurant> emitted = restaurantService.findAllRestaurantsCloseByReactively(
+        new GetRestaurantsRequest(20.0, 30.0), LocalTime.of(19, 0)).collectList().block();
+
+    assertEquals(restaurants, emitted);
+    ArgumentCaptor<Double> servingRadiusInKms = ArgumentCaptor.forClass(Double.class);
+    verify(reactiveRestaurantRepositoryServiceMock, times(1))
+        .findAllRestaurantsCloseBy(any(Double.class), any(Double.class), any(LocalTime.class),
+            servingRadiusInKms.capture());
+    assertEquals("3.0", servingRadiusInKms.getValue().toString());
+    verify(restaurantRepositoryServiceMock, times(0))
+        .findAllRestaurantsCloseBy(any(Double.class), any(Double.class), any(LocalTime.class),
+            any(Double.class));
+  }
+
+  @Test
+  void pagesOfRestaurantsCloseByListEachRestaurantOnceNearestFirst() throws IOException {
+    List<Restaurant> restaurants = loadRestaurantsDuringNormalHours();
+    when(restaurantRepositoryServiceMock
+        .findAllRestaurantsCloseBy(any(Double.class), any(Double.class), any(LocalTime.class),
+            any(Double.class)))
+        .thenReturn(restaurants);
+
+    List<Restaurant> paged = new ArrayList<>();
+    String cursor = null;
+    do {
+      GetRestaurantsResponse page = restaurantService.findAllRestaurantsCloseBy(
+          new GetRestaurantsRequest(20.0, 30.0, null, 1, cursor), LocalTime.of(15, 0));
+      assertEquals(1, page.getRestaurants().size());
+      paged.addAll(page.getRestaurants());
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+
+    assertEquals(restaurants.size(), paged.size());
+    for (int i = 1; i < paged.size(); i++) {
+      assertFalse(distanceInKm(paged.get(i)) < distanceInKm(paged.get(i - 1)));
+    }
+    assertEquals(null, restaurantService.findAllRestaurantsCloseBy(
+        new GetRestaurantsRequest(20.0, 30.0), LocalTime.of(15, 0)).getNextCursor());
+  }
+
+  @Test
+  void restaurantsCloseByWithAttributesComeWithFacets() throws IOException {
+    List<Restaurant> restaurants = loadRestaurantsDuringNormalHours();
+    when(restaurantRepositoryServiceMock.findRestaurantsCloseByWithAttributes(any(Double.class),
+        any(Double.class), any(), any(LocalTime.class), any(Double.class)))
+        .thenReturn(restaurants);
+    Map<String, Integer> facets = Collections.singletonMap("Tamil", restaurants.size());
+    when(restaurantRepositoryServiceMock.countFacets(restaurants)).thenReturn(facets);
+
+    GetRestaurantsRequest getRestaurantsRequest = new GetRestaurantsRequest(20.0, 30.0);
+    getRestaurantsRequest.setAttributes(Arrays.asList("Tamil"));
+    getRestaurantsRequest.setFacets(true);
+    GetRestaurantsResponse response =
+        restaurantService.findAllRestaurantsCloseBy(getRestaurantsRequest, LocalTime.of(15, 0));
+
+    assertEquals(restaurants, response.getRestaurants());
+    assertEquals(facets, response.getFacets());
+    verify(restaurantRepositoryServiceMock, times(0))
+        .findAllRestaurantsCloseBy(any(Double.class), any(Double.class), any(LocalTime.class),
+            any(Double.class));
+  }
+
+  @Test
+  void searchQueryReturnsNameMatchesFirstWithoutDuplicates() throws IOException {
+    List<Restaurant> byName = loadRestaurantsDuringNormalHours();
+    List<Restaurant> byAttributes = loadRestaurantsSearchedByAttributes();
+    byAttributes.add(byName.get(0));
+    when(restaurantRepositoryServiceMock.findRestaurantsByName(any(Double.class),
+        any(Double.class), any(String.class), any(LocalTime.class), any(Double.class)))
+        .thenReturn(byName);
+    when(restaurantRepositoryServiceMock.findRestaurantsByAttributes(any(Double.class),
+        any(Double.class), any(String.class), any(LocalTime.class), any(Double.class)))
+        .thenReturn(byAttributes);
+
+    GetRestaurantsResponse response = restaurantService.findRestaurantsBySearchQuery(
+        new GetRestaurantsRequest(20.0, 30.0, "tamil"), LocalTime.of(15, 0));
+
+    assertEquals(byName.size() + 1, response.getRestaurants().size());
+    assertEquals(byName.get(0).getRestaurantId(),
+        response.getRestaurants().get(0).getRestaurantId());
+    assertEquals(byAttributes.get(0).getRestaurantId(),
+        response.getRestaurants().get(byName.size()).getRestaurantId());
+  }
+
+  @Test
+  void searchQueryMatchesMenuItemsAfterRestaurants() throws IOException {
+    List<Restaurant> byAttributes = loadRestaurantsSearchedByAttributes();
+    List<Restaurant> byItemName = loadRestaurantsDuringNormalHours();
+    byItemName.add(byAttributes.get(0));
+    when(restaurantRepositoryServiceMock.findRestaurantsByAttributes(any(Double.class),
+        any(Double.class), any(String.class), any(LocalTime.class), any(Double.class)))
+        .thenReturn(byAttributes);
+    when(restaurantRepositoryServiceMock.findRestaurantsByItemName(any(Double.class),
+        any(Double.class), any(String.class), any(LocalTime.class), any(Double.class)))
+        .thenReturn(byItemName);
+
+    List<Restaurant> restaurants = restaurantService.findRestaurantsBySearchQuery(
+        new GetRestaurantsRequest(20.0, 30.0, "briyani"), LocalTime.of(15, 0))
+        .getRestaurants();
+
+    assertEquals(byAttributes.size() + byItemName.size() - 1, restaurants.size());
+    assertEquals(byAttributes.get(0).getRestaurantId(), restaurants.get(0).getRestaurantId());
+    assertEquals(byItemName.get(0).getRestaurantId(),
+        restaurants.get(byAttributes.size()).getRestaurantId());
+    verify(restaurantRepositoryServiceMock, times(1)).findRestaurantsByItemAttributes(
+        any(Double.class), any(Double.class), any(String.class), any(LocalTime.class),
+        any(Double.class));
+  }
+
+  @Test
+  void emptySearchQueryReturnsNoRestaurants() {
+    GetRestaurantsResponse response = restaurantService.findRestaurantsBySearchQuery(
+        new GetRestaurantsRequest(20.0, 30.0, ""), LocalTime.of(15, 0));
+
+    assertEquals(0, response.getRestaurants().size());
+    verify(restaurantRepositoryServiceMock, times(0)).findRestaurantsByName(any(Double.class),
+        any(Double.class), any(String.class), any(LocalTime.class), any(Double.class));
+  }
+
+  private double distanceInKm(Restaurant restaurant) {
+    return GeoUtils.findDistanceInKm(20.0, 30.0, restaurant.getLatitude(),
+        restaurant.getLongitude());
+  }
+
   private List<Restaurant> loadRestaurantsDuringNormalHours() throws IOException {
     String fixture =
         FixtureHelpers.fixture(FIXTURES + "/normal_hours_list_of_restaurants.json");
@@ -0,0 +1,197 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.crio.qeats.configs.RedisConfiguration;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.exchanges.GetRestaurantsRequest;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.repositoryservices.RestaurantRepositoryService;
+import com.crio.qeats.utils.FixtureHelpers;
+import com.crio.qeats.utils.GeoUtils;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+class RestaurantsCacheTest {
+
+  private static final String FIXTURES = "fixtures/exchanges";
+
+  // Same as spring.redis.port in application-test.properties.
+  private static final int REDIS_PORT = 6390;
+
+  @InjectMocks
+  private RestaurantServiceImpl restaurantService;
+
+  @Mock
+  private RestaurantRepositoryService restaurantRepositoryServiceMock;
+
+  private RedisServer redisServer;
+  private RedisConfiguration redisConfiguration;
+
+  @BeforeEach
+  void setup() throws IOException {
+    MockitoAnnotations.initMocks(this);
+
+    redisServer = new RedisServer(REDIS_PORT);
+    redisServer.start();
+
+    redisConfiguration = new RedisConfiguration();
+    redisConfiguration.setRedisPort(REDIS_PORT);
+    redisConfiguration.initCache();
+
+    RestaurantsCache restaurantsCache = new RestaurantsCache();
+    ReflectionTestUtils.setField(restaurantsCache, "redisConfiguration", redisConfiguration);
+    ReflectionTestUtils.setField(restaurantService, "restaurantsCache", restaurantsCache);
+    ReflectionTestUtils.setField(restaurantService, "restaurantsCoalescer",
+        new RestaurantsCoalescer());
+  }
+
+  @AfterEach
+  void teardown() {
+    redisConfiguration.destroyCache();
+    redisServer.stop();
+  }
+
+  @Test
+  void nearbyRequestsInTheSameMinuteAreServedFromCache() throws IOException {
+    List<Restaurant> restaurants = loadRestaurantsDuringNormalHours();
+    when(restaurantRepositoryServiceMock.findAllRestaurantsCloseBy(any(Double.class),
+        any(Double.class), any(LocalTime.class), any(Double.class))).thenReturn(restaurants);
+
+    GetRestaurantsResponse first = restaurantService.findAllRestaurantsCloseBy(
+        new GetRestaurantsRequest(20.0, 30.0), LocalTime.of(15, 0, 10));
+    GetRestaurantsResponse second = restaurantService.findAllRestaurantsCloseBy(
+        new GetRestaurantsRequest(20.0001, 30.0001), LocalTime.of(15, 0, 50));
+
+    RestaurantsCell cell = RestaurantsCell.of(20.0, 30.0, 5.0);
+    verify(restaurantRepositoryServiceMock, times(1)).findAllRestaurantsCloseBy(
+        eq(cell.getCenterLatitude()), eq(cell.getCenterLongitude()), any(LocalTime.class),
+        eq(cell.getLookupRadiusInKms()));
+    assertEquals(first.getRestaurants(), second.getRestaurants());
+    assertEquals(restaurants.size(), second.getRestaurants().size());
+  }
+
+  @Test
+  void requestsFromTheSameCellGetTheRestaurantsWithinTheirOwnRadius() {
+    List<Restaurant> restaurants = createRestaurantsAround(12.9716, 77.5946, 2000);
+    when(restaurantRepositoryServiceMock.findAllRestaurantsCloseBy(any(Double.class),
+        any(Double.class), any(LocalTime.class), any(Double.class)))
+        .thenAnswer(invocation -> findWithin(restaurants, invocation.<Double>getArgument(0),
+            invocation.<Double>getArgument(1), invocation.<Double>getArgument(3)));
+
+    Random random = new Random(7);
+    for (int i = 0; i < 50; i++) {
+      // A 7 character cell is roughly 150m x 150m, so these share at most nine cells.
+      double latitude = 12.9716 + (random.nextDouble() - 0.5) * 0.002;
+      double longitude = 77.5946 + (random.nextDouble() - 0.5) * 0.002;
+
+      GetRestaurantsResponse response = restaurantService.findAllRestaurantsCloseBy(
+          new GetRestaurantsRequest(latitude, longitude), LocalTime.of(15, 0));
+
+      assertEquals(findWithin(restaurants, latitude, longitude, 5.0),
+          response.getRestaurants());
+    }
+    verify(restaurantRepositoryServiceMock, atMost(9)).findAllRestaurantsCloseBy(
+        any(Double.class), any(Double.class), any(LocalTime.class), any(Double.class));
+  }
+
+  @Test
+  void differentMinuteOrRadiusMissesTheCache() throws IOException {
+    when(restaurantRepositoryServiceMock.findAllRestaurantsCloseBy(any(Double.class),
+        any(Double.class), any(LocalTime.class), any(Double.class)))
+        .thenReturn(loadRestaurantsDuringNormalHours());
+
+    restaurantService.findAllRestaurantsCloseBy(new GetRestaurantsRequest(20.0, 30.0),
+        LocalTime.of(15, 0));
+    restaurantService.findAllRestaurantsCloseBy(new GetRestaurantsRequest(20.0, 30.0),
+        LocalTime.of(15, 1));
+    restaurantService.findAllRestaurantsCloseBy(new GetRestaurantsRequest(20.0, 30.0),
+        LocalTime.of(13, 0));
+
+    verify(restaurantRepositoryServiceMock, times(3)).findAllRestaurantsCloseBy(
+        any(Double.class), any(Double.class), any(LocalTime.class), any(Double.class));
+  }
+
+  @Test
+  void unavailableRedisFallsBackToRepository() throws IOException {
+    redisServer.stop();
+    when(restaurantRepositoryServiceMock.findAllRestaurantsCloseBy(any(Double.class),
+        any(Double.class), any(LocalTime.class), any(Double.class)))
+        .thenReturn(loadRestaurantsDuringNormalHours());
+
+    GetRestaurantsResponse response = restaurantService.findAllRestaurantsCloseBy(
+        new GetRestaurantsRequest(20.0, 30.0), LocalTime.of(15, 0));
+
+    assertEquals(loadRestaurantsDuringNormalHours().size(), response.getRestaurants().size());
+  }
+
+  @Test
+  void cacheKeyUsesGeohashCellRadiusAndMinute() {
+    String key = RestaurantsCache.getCacheKey(RestaurantsCell.of(20.0, 30.0, 5.0),
+        LocalTime.of(15, 0, 10));
+
+    assertEquals(key, RestaurantsCache.getCacheKey(RestaurantsCell.of(20.0001, 30.0001, 5.0),
+        LocalTime.of(15, 0, 59)));
+    assertNotEquals(key, RestaurantsCache.getCacheKey(RestaurantsCell.of(20.01, 30.0, 5.0),
+        LocalTime.of(15, 0)));
+    assertNotEquals(key, RestaurantsCache.getCacheKey(RestaurantsCell.of(20.0, 30.0, 3.0),
+        LocalTime.of(15, 0)));
+  }
+
+  private List<Restaurant> loadRestaurantsDuringNormalHours() throws IOException {
+    String fixture =
+        FixtureHelpers.fixture(FIXTURES + "/normal_hours_list_of_restaurants.json");
+
+    return new ObjectMapper().readValue(fixture, new TypeReference<List<Restaurant>>() {
+    });
+  }
+
+  private static List<Restaurant> findWithin(List<Restaurant> restaurants, double latitude,
+      double longitude, double servingRadiusInKms) {
+    return restaurants.stream()
+        .filter(restaurant -> GeoUtils.findDistanceInKm(latitude, longitude,
+            restaurant.getLatitude(), restaurant.getLongitude()) < servingRadiusInKms)
+        .collect(Collectors.toList());
+  }
+
+  private static List<Restaurant> createRestaurantsAround(double latitude, double longitude,
+      int count) {
+    Random random = new Random(42);
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Restaurant restaurant = new Restaurant();
+      restaurant.setRestaurantId(String.valueOf(i));
+      restaurant.setLatitude(latitude + (random.nextDouble() - 0.5) * 0.12);
+      restaurant.setLongitude(longitude + (random.nextDouble() - 0.5) * 0.12);
+      restaurants.add(restaurant);
+    }
+    return restaurants;
+  }
+}
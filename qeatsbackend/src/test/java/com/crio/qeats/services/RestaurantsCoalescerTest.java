@@ -0,0 +1,178 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.exchanges.GetRestaurantsRequest;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.repositoryservices.RestaurantRepositoryService;
+import com.crio.qeats.utils.GeoUtils;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RestaurantsCoalescerTest {
+
+  private final RestaurantsCoalescer restaurantsCoalescer = new RestaurantsCoalescer();
+
+  private final AtomicInteger lookups = new AtomicInteger();
+
+  @InjectMocks
+  private RestaurantServiceImpl restaurantService;
+
+  @Mock
+  private RestaurantRepositoryService restaurantRepositoryServiceMock;
+
+  @BeforeEach
+  void setup() {
+    MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(restaurantService, "restaurantsCoalescer",
+        restaurantsCoalescer);
+  }
+
+  @Test
+  void requestsFromAnywhereInTheCellGetTheRestaurantsWithinTheirRadius() {
+    List<Restaurant> restaurants = createRestaurantsAround(12.9716, 77.5946, 2000);
+    when(restaurantRepositoryServiceMock.findAllRestaurantsCloseBy(any(Double.class),
+        any(Double.class), any(LocalTime.class), any(Double.class)))
+        .thenAnswer(invocation -> findWithin(restaurants, invocation.<Double>getArgument(0),
+            invocation.<Double>getArgument(1), invocation.<Double>getArgument(3)));
+
+    Random random = new Random(7);
+    for (int i = 0; i < 50; i++) {
+      // A 7 character cell is roughly 150m x 150m, so most of these share a cell.
+      double latitude = 12.9716 + (random.nextDouble() - 0.5) * 0.002;
+      double longitude = 77.5946 + (random.nextDouble() - 0.5) * 0.002;
+
+      GetRestaurantsResponse response = restaurantService.findAllRestaurantsCloseBy(
+          new GetRestaurantsRequest(latitude, longitude), LocalTime.of(13, 0));
+
+      assertEquals(findWithin(restaurants, latitude, longitude, 3.0),
+          response.getRestaurants());
+    }
+  }
+
+  @Test
+  void concurrentRequestsFromTheSameCellShareOneLookup() throws InterruptedException {
+    List<Restaurant> restaurants = createRestaurantsAround(12.9716, 77.5946, 200);
+    List<Thread> waiting = new ArrayList<>();
+    List<List<Restaurant>> results = new ArrayList<>();
+
+    List<Restaurant> first = restaurantsCoalescer.findAllRestaurantsInCell(
+        RestaurantsCell.of(12.9716, 77.5946, 3.0), LocalTime.of(13, 0, 5), () -> {
+          lookups.incrementAndGet();
+          // Nearby requests arriving while the lookup runs wait for it.
+          for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+              List<Restaurant> result = restaurantsCoalescer.findAllRestaurantsInCell(
+                  RestaurantsCell.of(12.97161, 77.59461, 3.0), LocalTime.of(13, 0, 40),
+                  this::failingLookup);
+              synchronized (results) {
+                results.add(result);
+              }
+            });
+            thread.start();
+            waiting.add(thread);
+          }
+          awaitWaiting(waiting);
+          return restaurants;
+        });
+    for (Thread thread : waiting) {
+      thread.join();
+    }
+
+    assertEquals(1, lookups.get());
+    assertEquals(8, results.size());
+    for (List<Restaurant> result : results) {
+      assertSame(first, result);
+    }
+  }
+
+  @Test
+  void failedLookupFailsTheWaitingRequestsOnly() throws InterruptedException {
+    AtomicReference<Throwable> waitingFailure = new AtomicReference<>();
+    List<Thread> waiting = new ArrayList<>();
+    RestaurantsCell cell = RestaurantsCell.of(12.9716, 77.5946, 3.0);
+
+    assertThrows(IllegalStateException.class, () -> restaurantsCoalescer
+        .findAllRestaurantsInCell(cell, LocalTime.of(13, 0), () -> {
+          Thread thread = new Thread(() -> {
+            try {
+              restaurantsCoalescer.findAllRestaurantsInCell(cell, LocalTime.of(13, 0),
+                  this::failingLookup);
+            } catch (RuntimeException e) {
+              waitingFailure.set(e);
+            }
+          });
+          thread.start();
+          waiting.add(thread);
+          awaitWaiting(waiting);
+          throw new IllegalStateException("Database is unavailable");
+        }));
+    waiting.get(0).join();
+
+    assertEquals(IllegalStateException.class, waitingFailure.get().getClass());
+    List<Restaurant> retried = restaurantsCoalescer.findAllRestaurantsInCell(cell,
+        LocalTime.of(13, 0), () -> {
+          lookups.incrementAndGet();
+          return new ArrayList<>();
+        });
+    assertEquals(1, lookups.get());
+    assertEquals(0, retried.size());
+  }
+
+  private List<Restaurant> failingLookup() {
+    throw new AssertionError("Lookup should have been shared");
+  }
+
+  // Waits until the threads are blocked on the running lookup.
+  private static void awaitWaiting(List<Thread> threads) {
+    for (Thread thread : threads) {
+      while (thread.getState() != Thread.State.WAITING) {
+        Thread.yield();
+      }
+    }
+  }
+
+  private static List<Restaurant> findWithin(List<Restaurant> restaurants, double latitude,
+      double longitude, double servingRadiusInKms) {
+    return restaurants.stream()
+        .filter(restaurant -> GeoUtils.findDistanceInKm(latitude, longitude,
+            restaurant.getLatitude(), restaurant.getLongitude()) < servingRadiusInKms)
+        .collect(Collectors.toList());
+  }
+
+  private static List<Restaurant> createRestaurantsAround(double latitude, double longitude,
+      int count) {
+    Random random = new Random(42);
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Restaurant restaurant = new Restaurant();
+      restaurant.setRestaurantId(String.valueOf(i));
+      restaurant.setLatitude(latitude + (random.nextDouble() - 0.5) * 0.08);
+      restaurant.setLongitude(longitude + (random.nextDouble() - 0.5) * 0.08);
+      restaurants.add(restaurant);
+    }
+    return restaurants;
+  }
+}
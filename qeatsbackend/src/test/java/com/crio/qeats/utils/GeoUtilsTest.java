@@ -10,7 +10,10 @@
 package com.crio.qeats.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 class GeoUtilsTest {
@@ -29,4 +32,87 @@ class GeoUtilsTest {
     assertEquals(3.04, distanceBetweenA2bHsrAndA2bBtm, 0.1);
   }
 
+  @Test
+  public void circleDistanceMatchesFindDistanceInKm() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      double srcLatitude = random.nextDouble() * 180 - 90;
+      double srcLongitude = random.nextDouble() * 360 - 180;
+      double dstLatitude = random.nextDouble() * 180 - 90;
+      double dstLongitude = random.nextDouble() * 360 - 180;
+      double expected =
+          GeoUtils.findDistanceInKm(srcLatitude, srcLongitude, dstLatitude, dstLongitude);
+      if (expected > 10000) {
+        continue;
+      }
+
+      GeoUtils.Circle circle = new GeoUtils.Circle(srcLatitude, srcLongitude, 5.0);
+      double dstLatitudeInRadians = Math.toRadians(dstLatitude);
+      assertEquals(expected, circle.findDistanceInKm(dstLatitudeInRadians,
+          Math.toRadians(dstLongitude), Math.cos(dstLatitudeInRadians)),
+          GeoUtils.DISTANCE_TOLERANCE_IN_KMS);
+    }
+  }
+
+  @Test
+  public void boundingBoxNeverRejectsPointsWithinRadius() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      double srcLatitude = random.nextDouble() * 178 - 89;
+      double srcLongitude = random.nextDouble() * 360 - 180;
+      double radius = 1 + random.nextDouble() * 20;
+      double dstLatitude = Math.max(-90, Math.min(90, srcLatitude + random.nextGaussian() * 0.2));
+      double dstLongitude = srcLongitude + random.nextGaussian() * 0.2;
+      dstLongitude = dstLongitude > 180 ? dstLongitude - 360
+          : dstLongitude < -180 ? dstLongitude + 360 : dstLongitude;
+
+      boolean expected = GeoUtils.findDistanceInKm(srcLatitude, srcLongitude, dstLatitude,
+          dstLongitude) < radius;
+      GeoUtils.Circle circle = new GeoUtils.Circle(srcLatitude, srcLongitude, radius);
+      if (expected) {
+        assertTrue(circle.mayContain(Math.toRadians(dstLatitude), Math.toRadians(dstLongitude)));
+      }
+      assertEquals(expected, circle.contains(dstLatitude, dstLongitude));
+    }
+  }
+
+  @Test
+  public void circleAcrossTheAntimeridianAndAroundThePole() {
+    GeoUtils.Circle antimeridian = new GeoUtils.Circle(-16.0, 179.999, 5.0);
+    assertTrue(antimeridian.contains(-16.0, -179.99));
+    assertFalse(antimeridian.contains(-16.0, 178.0));
+
+    GeoUtils.Circle pole = new GeoUtils.Circle(89.99, 0.0, 5.0);
+    assertTrue(pole.contains(89.99, 180.0));
+    assertFalse(pole.contains(89.0, 180.0));
+  }
+
+  @Test
+  public void batchMatchesSinglePointChecks() {
+    Random random = new Random(42);
+    int count = 1000;
+    double[] latitudes = new double[count];
+    double[] longitudes = new double[count];
+    double[] cosLatitudes = new double[count];
+    for (int i = 0; i < count; i++) {
+      latitudes[i] = Math.toRadians(12.9 + random.nextDouble() * 0.2 - 0.1);
+      longitudes[i] = Math.toRadians(77.6 + random.nextDouble() * 0.2 - 0.1);
+      cosLatitudes[i] = Math.cos(latitudes[i]);
+    }
+    GeoUtils.Circle circle = new GeoUtils.Circle(12.9, 77.6, 5.0);
+
+    int[] matches = new int[count];
+    int matched = GeoUtils.findWithinRadius(circle, latitudes, longitudes, cosLatitudes,
+        matches);
+
+    int next = 0;
+    for (int i = 0; i < count; i++) {
+      if (circle.contains(latitudes[i], longitudes[i], cosLatitudes[i])) {
+        assertEquals(i, matches[next++]);
+      }
+    }
+    assertEquals(next, matched);
+    assertTrue(matched > 0 && matched < count);
+  }
+
 }
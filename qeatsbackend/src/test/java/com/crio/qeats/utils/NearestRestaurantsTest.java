@@ -0,0 +1,80 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.dto.Restaurant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class NearestRestaurantsTest {
+
+  private static final double LATITUDE = 20.0;
+  private static final double LONGITUDE = 30.0;
+
+  @Test
+  void pageHoldsTheNearestRestaurantsNearestFirst() {
+    List<Restaurant> restaurants = Arrays.asList(
+        restaurant("far", 20.03, 30.0), restaurant("near", 20.001, 30.0),
+        restaurant("middle", 20.01, 30.0), restaurant("farthest", 20.04, 30.0));
+
+    assertEquals(Arrays.asList("near", "middle"), ids(
+        NearestRestaurants.findNearest(restaurants, LATITUDE, LONGITUDE, null, 2)));
+    assertEquals(Arrays.asList("near", "middle", "far", "farthest"), ids(
+        NearestRestaurants.findNearest(restaurants, LATITUDE, LONGITUDE, null, 10)));
+    assertTrue(NearestRestaurants.findNearest(restaurants, LATITUDE, LONGITUDE, null, 0)
+        .isEmpty());
+  }
+
+  @Test
+  void pagesFollowingTheCursorsListEveryRestaurantOnceInDistanceOrder() {
+    Random random = new Random(42);
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      // Restaurants sharing a position are told apart by their id.
+      double latitude = LATITUDE + random.nextInt(50) * 0.0005;
+      restaurants.add(restaurant(String.valueOf(i), latitude, LONGITUDE));
+    }
+    Collections.shuffle(restaurants, random);
+
+    List<Restaurant> paged = new ArrayList<>();
+    RestaurantCursor cursor = null;
+    while (true) {
+      List<Restaurant> page =
+          NearestRestaurants.findNearest(restaurants, LATITUDE, LONGITUDE, cursor, 7);
+      if (page.isEmpty()) {
+        break;
+      }
+      paged.addAll(page);
+      cursor = RestaurantCursor.fromToken(NearestRestaurants
+          .cursorAfter(page.get(page.size() - 1), LATITUDE, LONGITUDE).toToken());
+    }
+
+    List<Restaurant> sorted = new ArrayList<>(restaurants);
+    sorted.sort(Comparator.<Restaurant>comparingDouble(restaurant -> GeoUtils.findDistanceInKm(
+        LATITUDE, LONGITUDE, restaurant.getLatitude(), restaurant.getLongitude()))
+        .thenComparing(Restaurant::getRestaurantId));
+    assertEquals(ids(sorted), ids(paged));
+  }
+
+  private static Restaurant restaurant(String id, double latitude, double longitude) {
+    return new Restaurant(id, "A2B", "Hsr Layout", "www.google.com", latitude, longitude,
+        "18:00", "23:00", new ArrayList<>());
+  }
+
+  private static List<String> ids(List<Restaurant> restaurants) {
+    return restaurants.stream().map(Restaurant::getRestaurantId).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.models.RestaurantEntity;
+import java.time.LocalTime;
+import org.junit.jupiter.api.Test;
+
+class OpeningHoursTest {
+
+  @Test
+  void sameAsParsingTheTimesForEveryMinuteAndSecond() {
+    String[][] hours = {{"10:00", "22:00"}, {"18:00", "23:00"}, {"00:00", "23:59"},
+        {"09:30", "09:31"}};
+
+    for (String[] pair : hours) {
+      OpeningHours openingHours = OpeningHours.of(pair[0], pair[1]);
+      LocalTime opensAt = LocalTime.parse(pair[0]);
+      LocalTime closesAt = LocalTime.parse(pair[1]);
+      for (int second = 0; second < 24 * 60 * 60; second += 7) {
+        LocalTime time = LocalTime.ofSecondOfDay(second);
+        assertEquals(time.isAfter(opensAt) && time.isBefore(closesAt),
+            openingHours.isOpenAt(time), pair[0] + "-" + pair[1] + " at " + time);
+      }
+    }
+  }
+
+  @Test
+  void openingAndClosingTimesAreExclusive() {
+    OpeningHours openingHours = OpeningHours.of("18:00", "23:00");
+
+    assertFalse(openingHours.isOpenAt(LocalTime.of(18, 0)));
+    assertTrue(openingHours.isOpenAt(LocalTime.of(18, 0, 0, 1)));
+    assertTrue(openingHours.isOpenAt(LocalTime.of(22, 59, 59, 999_999_999)));
+    assertFalse(openingHours.isOpenAt(LocalTime.of(23, 0)));
+  }
+
+  @Test
+  void windowPastMidnight() {
+    OpeningHours openingHours = OpeningHours.of("18:00", "02:00");
+
+    assertTrue(openingHours.isOpenAt(LocalTime.of(23, 30)));
+    assertTrue(openingHours.isOpenAt(LocalTime.of(0, 0)));
+    assertTrue(openingHours.isOpenAt(LocalTime.of(1, 59)));
+    assertFalse(openingHours.isOpenAt(LocalTime.of(2, 0)));
+    assertFalse(openingHours.isOpenAt(LocalTime.of(12, 0)));
+    assertFalse(openingHours.isOpenAt(LocalTime.of(18, 0)));
+  }
+
+  @Test
+  void severalWindows() {
+    OpeningHours openingHours = OpeningHours.of("11:00, 18:00", "15:00, 23:00");
+
+    assertEquals(2, openingHours.getWindowCount());
+    assertEquals(18 * 60, openingHours.getOpensAtMinute(1));
+    assertTrue(openingHours.isOpenAt(LocalTime.of(12, 0)));
+    assertFalse(openingHours.isOpenAt(LocalTime.of(16, 0)));
+    assertTrue(openingHours.isOpenAt(LocalTime.of(20, 0)));
+    assertFalse(openingHours.isOpenAt(LocalTime.of(23, 30)));
+  }
+
+  @Test
+  void invalidHoursAreRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> OpeningHours.compile("11:00,18:00", "23:00"));
+    assertThrows(IllegalArgumentException.class,
+        () -> OpeningHours.compile("11:00:30", "23:00"));
+    assertThrows(RuntimeException.class, () -> OpeningHours.compile("11", "23:00"));
+  }
+
+  @Test
+  void compiledHoursAreSharedAndResetWhenTheTimesChange() {
+    RestaurantEntity restaurantEntity = new RestaurantEntity();
+    restaurantEntity.setOpensAt("10:00");
+    restaurantEntity.setClosesAt("22:00");
+
+    OpeningHours openingHours = restaurantEntity.getOpeningHours();
+    assertSame(openingHours, OpeningHours.of("10:00", "22:00"));
+    assertEquals(OpeningHours.compile("10:00", "22:00"), openingHours);
+
+    restaurantEntity.setClosesAt("21:00");
+    assertFalse(restaurantEntity.getOpeningHours().isOpenAt(LocalTime.of(21, 30)));
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import org.junit.jupiter.api.Test;
+
+class OrderCursorTest {
+
+  @Test
+  void tokenIsUrlSafeAndDecodesToTheSameCursor() {
+    OrderCursor cursor = new OrderCursor(new Date(1555674796612L), "5cb9b58ce1e3f0325ec5a5ee");
+
+    String token = cursor.toToken();
+
+    assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    assertEquals(cursor, OrderCursor.fromToken(token));
+    assertEquals(new OrderCursor(new Date(0), "a:b"),
+        OrderCursor.fromToken(new OrderCursor(new Date(0), "a:b").toToken()));
+  }
+
+  @Test
+  void cursorOfAnOrderWithoutPlacedAtDecodesToTheSameCursor() {
+    OrderCursor cursor = new OrderCursor(null, "1");
+
+    assertEquals(cursor, OrderCursor.fromToken(cursor.toToken()));
+  }
+
+  @Test
+  void invalidTokensAreRejected() {
+    assertThrows(IllegalArgumentException.class, () -> OrderCursor.fromToken("not base64!"));
+    assertThrows(IllegalArgumentException.class, () -> OrderCursor.fromToken("MTIz"));
+    assertThrows(IllegalArgumentException.class, () -> OrderCursor.fromToken("eDox"));
+    assertThrows(IllegalArgumentException.class, () -> OrderCursor.fromToken("MTI6"));
+    assertThrows(IllegalArgumentException.class, () -> OrderCursor.fromToken("Og"));
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalTime;
+import org.junit.jupiter.api.Test;
+
+class PeakHoursTest {
+
+  @Test
+  void boundariesAreIncluded() {
+    assertTrue(PeakHours.isPeakHours(LocalTime.of(8, 0)));
+    assertTrue(PeakHours.isPeakHours(LocalTime.of(10, 0)));
+    assertTrue(PeakHours.isPeakHours(LocalTime.of(13, 0)));
+    assertTrue(PeakHours.isPeakHours(LocalTime.of(14, 0)));
+    assertTrue(PeakHours.isPeakHours(LocalTime.of(19, 0)));
+    assertTrue(PeakHours.isPeakHours(LocalTime.of(21, 0)));
+  }
+
+  @Test
+  void otherTimesAreNormalHours() {
+    assertFalse(PeakHours.isPeakHours(LocalTime.of(7, 58)));
+    assertFalse(PeakHours.isPeakHours(LocalTime.of(10, 2)));
+    assertFalse(PeakHours.isPeakHours(LocalTime.of(15, 0)));
+    assertFalse(PeakHours.isPeakHours(LocalTime.of(21, 2)));
+    assertFalse(PeakHours.isPeakHours(LocalTime.of(3, 0)));
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.dto.Restaurant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RestaurantAttributesTest {
+
+  @Test
+  void restaurantHasAllAttributesIgnoringCase() {
+    Restaurant restaurant = createRestaurant("11", "Tamil", "South Indian");
+
+    assertTrue(RestaurantAttributes.hasAll(restaurant, Arrays.asList("tamil", "SOUTH INDIAN")));
+    assertFalse(RestaurantAttributes.hasAll(restaurant, Arrays.asList("Tamil", "Udupi")));
+    assertFalse(RestaurantAttributes.hasAll(createRestaurant("12"), Arrays.asList("Tamil")));
+  }
+
+  @Test
+  void facetsCountEachRestaurantOncePerAttribute() {
+    List<Restaurant> restaurants = Arrays.asList(
+        createRestaurant("11", "Tamil", "South Indian"),
+        createRestaurant("12", "South Indian", "south indian"),
+        createRestaurant("13", "south indian", "Udupi"),
+        createRestaurant("14"));
+
+    Map<String, Integer> expected = new LinkedHashMap<>();
+    expected.put("South Indian", 3);
+    expected.put("Tamil", 1);
+    expected.put("Udupi", 1);
+    Map<String, Integer> facets = RestaurantAttributes.countFacets(restaurants);
+
+    assertEquals(expected, facets);
+    assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(facets.keySet()));
+  }
+
+  private Restaurant createRestaurant(String restaurantId, String... attributes) {
+    Restaurant restaurant = new Restaurant();
+    restaurant.setRestaurantId(restaurantId);
+    restaurant.setAttributes(new ArrayList<>(Arrays.asList(attributes)));
+    return restaurant;
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RestaurantCursorTest {
+
+  @Test
+  void tokenIsUrlSafeAndDecodesToTheSameCursor() {
+    RestaurantCursor cursor = new RestaurantCursor(1.2345678901234567, "11");
+
+    String token = cursor.toToken();
+
+    assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    assertEquals(cursor, RestaurantCursor.fromToken(token));
+    assertEquals(new RestaurantCursor(0, "a:b"),
+        RestaurantCursor.fromToken(new RestaurantCursor(0, "a:b").toToken()));
+  }
+
+  @Test
+  void invalidTokensAreRejected() {
+    assertThrows(IllegalArgumentException.class, () -> RestaurantCursor.fromToken("not base64!"));
+    assertThrows(IllegalArgumentException.class, () -> RestaurantCursor.fromToken("MTIz"));
+    assertThrows(IllegalArgumentException.class, () -> RestaurantCursor.fromToken("eDox"));
+    assertThrows(IllegalArgumentException.class, () -> RestaurantCursor.fromToken("MTI6"));
+    assertThrows(IllegalArgumentException.class, () -> RestaurantCursor.fromToken(
+        new RestaurantCursor(-1, "11").toToken()));
+    assertThrows(IllegalArgumentException.class, () -> RestaurantCursor.fromToken(
+        new RestaurantCursor(Double.NaN, "11").toToken()));
+  }
+}
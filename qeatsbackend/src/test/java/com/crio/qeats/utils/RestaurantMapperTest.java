@@ -0,0 +1,96 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.crio.qeats.dto.Menu;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+class RestaurantMapperTest {
+
+  private static final String FIXTURES = "fixtures/exchanges";
+
+  @Test
+  void sameAsModelMapperWithCleanedName() throws IOException {
+    ModelMapper modelMapper = new ModelMapper();
+    modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+
+    List<RestaurantEntity> restaurantEntities = listOfRestaurants();
+    restaurantEntities.get(0).setName("Udupi Caf\u00e9 & Bar's");
+    for (RestaurantEntity restaurantEntity : restaurantEntities) {
+      Restaurant expected = modelMapper.map(restaurantEntity, Restaurant.class);
+      expected.setName(expected.getName().replaceAll("[^a-zA-Z0-9 ]", ""));
+
+      assertEquals(expected, RestaurantMapper.mapEntityToDto(restaurantEntity));
+    }
+    assertEquals("Udupi Caf  Bars",
+        RestaurantMapper.mapEntityToDto(restaurantEntities.get(0)).getName());
+  }
+
+  @Test
+  void cleanNameReturnsCleanNamesAsIs() {
+    String name = "A2B Adyar Ananda Bhavan";
+    assertSame(name, RestaurantMapper.cleanName(name));
+    assertEquals("", RestaurantMapper.cleanName("#&!"));
+    assertEquals("Dosa Point", RestaurantMapper.cleanName("Dosa Point?"));
+    assertEquals("Chai", RestaurantMapper.cleanName("Chai!"));
+  }
+
+  @Test
+  void cleanedNameIsResetWhenTheNameChanges() throws IOException {
+    RestaurantEntity restaurantEntity = listOfRestaurants().get(0);
+    restaurantEntity.setName("Chai!");
+    assertEquals("Chai", restaurantEntity.getDisplayName());
+
+    restaurantEntity.setName("Chai Point!");
+    assertEquals("Chai Point", RestaurantMapper.mapEntityToDto(restaurantEntity).getName());
+  }
+
+  @Test
+  void attributesAreCopied() throws IOException {
+    RestaurantEntity restaurantEntity = listOfRestaurants().get(0);
+
+    Restaurant restaurant = RestaurantMapper.mapEntityToDto(restaurantEntity);
+    restaurant.getAttributes().clear();
+
+    assertNotSame(restaurantEntity.getAttributes(), restaurant.getAttributes());
+    assertEquals(2, restaurantEntity.getAttributes().size());
+  }
+
+  @Test
+  void menusAreMappedLikeTheMenuFixture() throws IOException {
+    ObjectMapper objectMapper = new ObjectMapper();
+    String fixture = FixtureHelpers.fixture(FIXTURES + "/restaurant_menu.json");
+    MenuEntity menuEntity = objectMapper.readValue(fixture, MenuEntity.class);
+
+    Menu menu = RestaurantMapper.mapEntityToDto(menuEntity);
+
+    assertEquals(objectMapper.readValue(fixture, Menu.class), menu);
+    assertNotSame(menuEntity.getItems().get(0).getAttributes(),
+        menu.getItems().get(0).getAttributes());
+  }
+
+  private List<RestaurantEntity> listOfRestaurants() throws IOException {
+    String fixture =
+        FixtureHelpers.fixture(FIXTURES + "/initial_data_set_restaurants.json");
+
+    return new ObjectMapper().readValue(fixture, new TypeReference<List<RestaurantEntity>>() {
+    });
+  }
+}
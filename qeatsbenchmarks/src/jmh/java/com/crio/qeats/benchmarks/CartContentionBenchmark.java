@@ -0,0 +1,193 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.dto.Menu;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.ItemNotFromSameRestaurantException;
+import com.crio.qeats.exchanges.GetMenuResponse;
+import com.crio.qeats.repositoryservices.CartRepositoryService;
+import com.crio.qeats.services.CachedMenu;
+import com.crio.qeats.services.CartAndOrderServiceImpl;
+import com.crio.qeats.services.MenuService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * 16 threads adding an item to a cart and removing it again, spread over a handful of users.
+ * Updates of a cart are serialised, so the throughput should grow with the number of users
+ * until every thread has a cart of its own. Every iteration checks that no update was lost:
+ * every removal finds the item added before it, and every cart ends up empty.
+ *
+ * <p>Carts are kept in memory, with a simulated mongo round trip per update.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class CartContentionBenchmark {
+
+  private static final String RESTAURANT_ID = "11";
+  private static final String ITEM_ID = "1";
+
+  @Param({"1", "4", "16", "64"})
+  int users;
+
+  @Param({"50"})
+  int roundTripInMicros;
+
+  private CartAndOrderServiceImpl cartAndOrderService;
+  private InMemoryCartRepositoryService cartRepositoryService;
+  private String[] cartIds;
+
+  @State(Scope.Thread)
+  public static class UserCursor {
+    private int next;
+  }
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    cartRepositoryService = new InMemoryCartRepositoryService(
+        TimeUnit.MICROSECONDS.toNanos(roundTripInMicros));
+    CachedMenu menu = new CachedMenu(new GetMenuResponse(new Menu(RESTAURANT_ID,
+        Collections.singletonList(new Item("1", ITEM_ID, "Chicken Briyani", "www.google.com",
+            Arrays.asList("Mughal"), 225.0)))), "\"1\"");
+    MenuService menuService = restaurantId -> menu;
+
+    cartAndOrderService = new CartAndOrderServiceImpl();
+    SyntheticCatalogue.inject(cartAndOrderService, "cartRepositoryService",
+        cartRepositoryService);
+    SyntheticCatalogue.inject(cartAndOrderService, "menuService", menuService);
+
+    cartIds = new String[users];
+    for (int user = 0; user < users; user++) {
+      cartIds[user] = cartAndOrderService.findOrCreateCart("user-" + user).getId();
+    }
+  }
+
+  @Benchmark
+  public Cart addAndRemoveItem(UserCursor cursor) {
+    String cartId = cartIds[cursor.next++ % users];
+    cartAndOrderService.addItemToCart(ITEM_ID, cartId, RESTAURANT_ID);
+    return cartAndOrderService.removeItemFromCart(ITEM_ID, cartId).getCart();
+  }
+
+  @TearDown(Level.Iteration)
+  public void checkNoUpdateWasLost() {
+    if (cartRepositoryService.missedRemovals.get() > 0) {
+      throw new IllegalStateException(cartRepositoryService.missedRemovals.get()
+          + " removals did not find the item added before them");
+    }
+    for (String cartId : cartIds) {
+      Cart cart = cartRepositoryService.findCartByCartId(cartId);
+      if (!cart.getItems().isEmpty() || cart.getTotal() != 0.0) {
+        throw new IllegalStateException("Cart " + cartId + " is left with "
+            + cart.getItems().size() + " items and a total of " + cart.getTotal());
+      }
+    }
+  }
+
+  // Carts by id, copied on every read and write like documents would be. Updates wait for
+  // the round trip between reading the cart and writing it back.
+  private static final class InMemoryCartRepositoryService implements CartRepositoryService {
+
+    private final Map<String, Cart> carts = new ConcurrentHashMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+    private final AtomicLong missedRemovals = new AtomicLong();
+    private final long roundTripInNanos;
+
+    private InMemoryCartRepositoryService(long roundTripInNanos) {
+      this.roundTripInNanos = roundTripInNanos;
+    }
+
+    @Override
+    public Cart createCart(String userId) {
+      Cart cart = new Cart(String.valueOf(ids.incrementAndGet()), null, userId,
+          new ArrayList<>(), 0.0);
+      carts.put(cart.getId(), cart);
+      return copy(cart);
+    }
+
+    @Override
+    public Optional<Cart> findCartByUserId(String userId) {
+      return carts.values().stream().filter(cart -> cart.getUserId().equals(userId))
+          .findFirst().map(this::copy);
+    }
+
+    @Override
+    public Cart findCartByCartId(String cartId) throws CartNotFoundException {
+      Cart cart = carts.get(cartId);
+      if (cart == null) {
+        throw new CartNotFoundException(cartId);
+      }
+      return copy(cart);
+    }
+
+    @Override
+    public Cart addItem(Item item, String cartId, String restaurantId)
+        throws CartNotFoundException, ItemNotFromSameRestaurantException {
+      Cart cart = findCartByCartId(cartId);
+      LockSupport.parkNanos(roundTripInNanos);
+      cart.setRestaurantId(restaurantId);
+      cart.getItems().add(item);
+      cart.setTotal(cart.getTotal() + item.getPrice());
+      carts.put(cartId, cart);
+      return copy(cart);
+    }
+
+    @Override
+    public Cart removeItem(String itemId, String cartId) throws CartNotFoundException {
+      Cart cart = findCartByCartId(cartId);
+      LockSupport.parkNanos(roundTripInNanos);
+      for (Item item : cart.getItems()) {
+        if (item.getItemId().equals(itemId)) {
+          cart.getItems().remove(item);
+          cart.setTotal(cart.getTotal() - item.getPrice());
+          carts.put(cartId, cart);
+          return copy(cart);
+        }
+      }
+      missedRemovals.incrementAndGet();
+      return cart;
+    }
+
+    @Override
+    public Cart clearCart(String cartId) throws CartNotFoundException {
+      Cart cart = findCartByCartId(cartId);
+      cart.getItems().clear();
+      cart.setTotal(0.0);
+      carts.put(cartId, cart);
+      return copy(cart);
+    }
+
+    private Cart copy(Cart cart) {
+      return new Cart(cart.getId(), cart.getRestaurantId(), cart.getUserId(),
+          new ArrayList<>(cart.getItems()), cart.getTotal());
+    }
+  }
+}
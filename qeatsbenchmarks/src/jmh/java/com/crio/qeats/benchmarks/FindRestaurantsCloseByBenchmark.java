@@ -0,0 +1,85 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.repositories.RestaurantRepository;
+import com.crio.qeats.repositoryservices.RestaurantRepositoryService;
+import com.crio.qeats.repositoryservices.RestaurantRepositoryServiceGeoHashImpl;
+import com.crio.qeats.repositoryservices.RestaurantRepositoryServiceImpl;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * End to end findAllRestaurantsCloseBy over synthetic catalogues, with mongo replaced by a
+ * repository returning the catalogue from memory, so that only the service itself is measured.
+ * The radius is the peak hours one (3km) or the normal hours one (5km).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FindRestaurantsCloseByBenchmark {
+
+  private static final int USER_LOCATIONS = 1024;
+
+  @Param({"1000", "100000", "1000000"})
+  int catalogueSize;
+
+  @Param({"3.0", "5.0"})
+  double servingRadiusInKms;
+
+  @Param({"scan", "scanengine", "geohash"})
+  String implementation;
+
+  private final LocalTime currentTime = LocalTime.of(19, 30, 15);
+
+  private RestaurantRepositoryService restaurantRepositoryService;
+  private double[][] userLocations;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    RestaurantRepository restaurantRepository = SyntheticCatalogue.repository(
+        SyntheticCatalogue.restaurants(catalogueSize, 42));
+    if (implementation.equals("scan")) {
+      restaurantRepositoryService = new RestaurantRepositoryServiceImpl();
+      SyntheticCatalogue.inject(restaurantRepositoryService, "mongoTemplate",
+          restaurantRepository);
+    } else if (implementation.equals("scanengine")) {
+      restaurantRepositoryService = new RestaurantRepositoryServiceImpl();
+      SyntheticCatalogue.inject(restaurantRepositoryService, "restaurantCatalogue",
+          SyntheticCatalogue.catalogue(restaurantRepository));
+      SyntheticCatalogue.inject(restaurantRepositoryService, "useScanEngine", true);
+    } else {
+      restaurantRepositoryService = new RestaurantRepositoryServiceGeoHashImpl();
+      SyntheticCatalogue.inject(restaurantRepositoryService, "restaurantCatalogue",
+          SyntheticCatalogue.catalogue(restaurantRepository));
+    }
+    userLocations = SyntheticCatalogue.userLocations(catalogueSize, USER_LOCATIONS, 7);
+
+    // Builds the in-memory catalogue outside of the measurements.
+    findAllRestaurantsCloseBy();
+  }
+
+  @Benchmark
+  public List<Restaurant> findAllRestaurantsCloseBy() {
+    double[] userLocation = userLocations[next];
+    next = (next + 1) % USER_LOCATIONS;
+    return restaurantRepositoryService.findAllRestaurantsCloseBy(userLocation[0],
+        userLocation[1], currentTime, servingRadiusInKms);
+  }
+}
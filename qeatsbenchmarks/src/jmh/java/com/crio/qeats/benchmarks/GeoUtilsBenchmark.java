@@ -0,0 +1,99 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.utils.GeoUtils;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of the distance check per restaurant, with the legacy findDistanceInKm and with the
+ * prefiltered kernel. Restaurants are spread over a 40km square around the user, so that most
+ * of them are rejected by the bounding box, as in a city wide catalogue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(GeoUtilsBenchmark.RESTAURANTS)
+public class GeoUtilsBenchmark {
+
+  static final int RESTAURANTS = 4096;
+
+  @Param({"3.0", "5.0"})
+  double servingRadiusInKms;
+
+  private double[] latitudes;
+  private double[] longitudes;
+  private double[] latitudesInRadians;
+  private double[] longitudesInRadians;
+  private double[] cosLatitudes;
+  private int[] matches;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    latitudes = new double[RESTAURANTS];
+    longitudes = new double[RESTAURANTS];
+    latitudesInRadians = new double[RESTAURANTS];
+    longitudesInRadians = new double[RESTAURANTS];
+    cosLatitudes = new double[RESTAURANTS];
+    matches = new int[RESTAURANTS];
+    for (int i = 0; i < RESTAURANTS; i++) {
+      latitudes[i] = SyntheticCatalogue.CENTER_LATITUDE + (random.nextDouble() * 2 - 1) * 0.18;
+      longitudes[i] = SyntheticCatalogue.CENTER_LONGITUDE + (random.nextDouble() * 2 - 1) * 0.18;
+      latitudesInRadians[i] = Math.toRadians(latitudes[i]);
+      longitudesInRadians[i] = Math.toRadians(longitudes[i]);
+      cosLatitudes[i] = Math.cos(latitudesInRadians[i]);
+    }
+  }
+
+  @Benchmark
+  public void findDistanceInKm(Blackhole blackhole) {
+    for (int i = 0; i < RESTAURANTS; i++) {
+      blackhole.consume(GeoUtils.findDistanceInKm(SyntheticCatalogue.CENTER_LATITUDE,
+          SyntheticCatalogue.CENTER_LONGITUDE, latitudes[i], longitudes[i])
+          < servingRadiusInKms);
+    }
+  }
+
+  @Benchmark
+  public void circleContainsDegrees(Blackhole blackhole) {
+    GeoUtils.Circle circle = new GeoUtils.Circle(SyntheticCatalogue.CENTER_LATITUDE,
+        SyntheticCatalogue.CENTER_LONGITUDE, servingRadiusInKms);
+    for (int i = 0; i < RESTAURANTS; i++) {
+      blackhole.consume(circle.contains(latitudes[i], longitudes[i]));
+    }
+  }
+
+  @Benchmark
+  public void circleContainsPrecomputed(Blackhole blackhole) {
+    GeoUtils.Circle circle = new GeoUtils.Circle(SyntheticCatalogue.CENTER_LATITUDE,
+        SyntheticCatalogue.CENTER_LONGITUDE, servingRadiusInKms);
+    for (int i = 0; i < RESTAURANTS; i++) {
+      blackhole.consume(circle.contains(latitudesInRadians[i], longitudesInRadians[i],
+          cosLatitudes[i]));
+    }
+  }
+
+  @Benchmark
+  public int findWithinRadiusBatch() {
+    GeoUtils.Circle circle = new GeoUtils.Circle(SyntheticCatalogue.CENTER_LATITUDE,
+        SyntheticCatalogue.CENTER_LONGITUDE, servingRadiusInKms);
+    return GeoUtils.findWithinRadius(circle, latitudesInRadians, longitudesInRadians,
+        cosLatitudes, matches);
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.models.RestaurantEntity;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of checking whether one restaurant is open, parsing opensAt/closesAt on every check as
+ * before OpeningHours, and with the compiled hours.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(OpeningHoursBenchmark.RESTAURANTS)
+public class OpeningHoursBenchmark {
+
+  static final int RESTAURANTS = 1024;
+
+  private final LocalTime currentTime = LocalTime.of(19, 30, 15);
+
+  private List<RestaurantEntity> restaurants;
+
+  @Setup
+  public void setup() {
+    restaurants = SyntheticCatalogue.restaurants(RESTAURANTS, 42);
+  }
+
+  @Benchmark
+  public void legacyParse(Blackhole blackhole) {
+    for (RestaurantEntity restaurantEntity : restaurants) {
+      LocalTime openingTime = LocalTime.parse(restaurantEntity.getOpensAt());
+      LocalTime closingTime = LocalTime.parse(restaurantEntity.getClosesAt());
+      blackhole.consume(currentTime.isAfter(openingTime) && currentTime.isBefore(closingTime));
+    }
+  }
+
+  @Benchmark
+  public void openingHours(Blackhole blackhole) {
+    for (RestaurantEntity restaurantEntity : restaurants) {
+      blackhole.consume(restaurantEntity.getOpeningHours().isOpenAt(currentTime));
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.RestaurantMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of mapping one restaurant to its DTO. The legacy benchmark is what mapEntityToDto did
+ * before RestaurantMapper: reset the matching strategy, map reflectively and clean the name
+ * with a regular expression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(RestaurantMapperBenchmark.RESTAURANTS)
+public class RestaurantMapperBenchmark {
+
+  static final int RESTAURANTS = 1024;
+
+  private List<RestaurantEntity> restaurants;
+  private ModelMapper modelMapper;
+
+  @Setup
+  public void setup() {
+    restaurants = SyntheticCatalogue.restaurants(RESTAURANTS, 42);
+    modelMapper = new ModelMapper();
+  }
+
+  @Benchmark
+  public void legacyModelMapper(Blackhole blackhole) {
+    for (RestaurantEntity restaurantEntity : restaurants) {
+      modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+      Restaurant restaurantDto = modelMapper.map(restaurantEntity, Restaurant.class);
+      restaurantDto.setName(restaurantDto.getName().replaceAll("[^a-zA-Z0-9 ]", ""));
+      blackhole.consume(restaurantDto);
+    }
+  }
+
+  @Benchmark
+  public void restaurantMapper(Blackhole blackhole) {
+    for (RestaurantEntity restaurantEntity : restaurants) {
+      blackhole.consume(RestaurantMapper.mapEntityToDto(restaurantEntity));
+    }
+  }
+
+  @Benchmark
+  public void restaurantMapperUncachedName(Blackhole blackhole) {
+    for (RestaurantEntity restaurantEntity : restaurants) {
+      // Resets the cleaned name, as for entities freshly read from mongo.
+      restaurantEntity.setName(restaurantEntity.getName());
+      blackhole.consume(RestaurantMapper.mapEntityToDto(restaurantEntity));
+    }
+  }
+}
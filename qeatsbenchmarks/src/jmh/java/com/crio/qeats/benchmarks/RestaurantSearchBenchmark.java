@@ -0,0 +1,75 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.repositoryservices.RestaurantCatalogue;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Search by name and by attributes through the in-memory indexes of RestaurantCatalogue, at
+ * the normal hours radius. "bir" is a prefix of a name token; "south ind" has two terms that
+ * are both prefixes of an attribute.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RestaurantSearchBenchmark {
+
+  private static final int USER_LOCATIONS = 1024;
+
+  @Param({"1000", "100000", "1000000"})
+  int catalogueSize;
+
+  @Param({"bir", "south ind"})
+  String searchFor;
+
+  private final LocalTime currentTime = LocalTime.of(19, 30, 15);
+
+  private RestaurantCatalogue restaurantCatalogue;
+  private double[][] userLocations;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    restaurantCatalogue = SyntheticCatalogue.catalogue(SyntheticCatalogue.repository(
+        SyntheticCatalogue.restaurants(catalogueSize, 42)));
+    userLocations = SyntheticCatalogue.userLocations(catalogueSize, USER_LOCATIONS, 7);
+    restaurantCatalogue.getSnapshot();
+  }
+
+  @Benchmark
+  public List<Restaurant> findRestaurantsByName() {
+    double[] userLocation = nextUserLocation();
+    return restaurantCatalogue.findRestaurantsByName(userLocation[0], userLocation[1],
+        searchFor, currentTime, 5.0);
+  }
+
+  @Benchmark
+  public List<Restaurant> findRestaurantsByAttributes() {
+    double[] userLocation = nextUserLocation();
+    return restaurantCatalogue.findRestaurantsByAttributes(userLocation[0], userLocation[1],
+        searchFor, currentTime, 5.0);
+  }
+
+  private double[] nextUserLocation() {
+    double[] userLocation = userLocations[next];
+    next = (next + 1) % USER_LOCATIONS;
+    return userLocation;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.repositories.MenuRepository;
+import com.crio.qeats.repositories.RestaurantRepository;
+import com.crio.qeats.repositoryservices.RestaurantCatalogue;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible catalogues of restaurants for the benchmarks. Restaurants are spread uniformly
+ * over a square around Bengaluru whose side grows with the catalogue, so that the density, and
+ * with it the number of restaurants within the serving radius, stays the same at every size.
+ */
+final class SyntheticCatalogue {
+
+  static final double CENTER_LATITUDE = 12.97;
+  static final double CENTER_LONGITUDE = 77.59;
+
+  // Restaurants per square km, about what a busy part of a big city has.
+  private static final double RESTAURANTS_PER_SQUARE_KM = 10;
+  private static final double KMS_PER_DEGREE = 6371 * Math.PI / 180;
+
+  private static final String[][] HOURS = {
+      {"10:00", "22:00"}, {"18:00", "23:00"}, {"07:00", "11:00"}, {"11:00", "15:00"},
+      {"08:00", "23:30"}, {"12:00", "21:00"}};
+  private static final String[] NAMES = {
+      "A2B", "Udupi Cafe", "Dosa & Co", "Meghana's Biryani", "Chai Point", "Burger King"};
+  private static final String[] ATTRIBUTES = {
+      "South Indian", "North Indian", "Chinese", "Cafe", "Biryani", "Fast Food", "Bakery"};
+
+  private SyntheticCatalogue() {
+  }
+
+  /**
+   * Half the side of the square the given number of restaurants is spread over, in degrees.
+   */
+  static double spreadInDegrees(int size) {
+    return Math.sqrt(size / RESTAURANTS_PER_SQUARE_KM) / KMS_PER_DEGREE / 2;
+  }
+
+  static List<RestaurantEntity> restaurants(int size, long seed) {
+    Random random = new Random(seed);
+    double spread = spreadInDegrees(size);
+    List<RestaurantEntity> restaurants = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      String[] hours = HOURS[random.nextInt(HOURS.length)];
+      RestaurantEntity restaurant = new RestaurantEntity();
+      restaurant.setId(Integer.toHexString(i));
+      restaurant.setRestaurantId(Integer.toString(i));
+      restaurant.setName(NAMES[random.nextInt(NAMES.length)] + " " + i);
+      restaurant.setCity("Bengaluru");
+      restaurant.setImageUrl("https://images.qeats.example/" + i + ".jpg");
+      restaurant.setLatitude(CENTER_LATITUDE + (random.nextDouble() * 2 - 1) * spread);
+      restaurant.setLongitude(CENTER_LONGITUDE + (random.nextDouble() * 2 - 1) * spread);
+      restaurant.setOpensAt(hours[0]);
+      restaurant.setClosesAt(hours[1]);
+      restaurant.setAttributes(new ArrayList<>(Arrays.asList(
+          ATTRIBUTES[random.nextInt(ATTRIBUTES.length)],
+          ATTRIBUTES[random.nextInt(ATTRIBUTES.length)])));
+      restaurants.add(restaurant);
+    }
+    return restaurants;
+  }
+
+  /**
+   * Random user locations within the inner half of the catalogue.
+   * @return latitude/longitude pairs
+   */
+  static double[][] userLocations(int size, int count, long seed) {
+    Random random = new Random(seed);
+    double spread = spreadInDegrees(size) / 2;
+    double[][] locations = new double[count][];
+    for (int i = 0; i < count; i++) {
+      locations[i] = new double[] {
+          CENTER_LATITUDE + (random.nextDouble() * 2 - 1) * spread,
+          CENTER_LONGITUDE + (random.nextDouble() * 2 - 1) * spread};
+    }
+    return locations;
+  }
+
+  /**
+   * A RestaurantRepository that only answers findAll and streamAllBy, with the given
+   * restaurants.
+   */
+  static RestaurantRepository repository(List<RestaurantEntity> restaurants) {
+    return findAllRepository(RestaurantRepository.class, restaurants);
+  }
+
+  /**
+   * A MenuRepository that only answers findAll, with the given menus.
+   */
+  static MenuRepository menuRepository(List<MenuEntity> menus) {
+    return findAllRepository(MenuRepository.class, menus);
+  }
+
+  /**
+   * A RestaurantCatalogue over the given repository, without menus.
+   */
+  static RestaurantCatalogue catalogue(RestaurantRepository restaurantRepository) {
+    RestaurantCatalogue restaurantCatalogue = new RestaurantCatalogue();
+    inject(restaurantCatalogue, "restaurantRepository", restaurantRepository);
+    inject(restaurantCatalogue, "menuRepository", menuRepository(new ArrayList<>()));
+    return restaurantCatalogue;
+  }
+
+  private static <T> T findAllRepository(Class<T> repositoryClass, List<?> entities) {
+    return repositoryClass.cast(Proxy.newProxyInstance(repositoryClass.getClassLoader(),
+        new Class<?>[] {repositoryClass},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "findAll":
+              if (method.getParameterCount() == 0) {
+                return entities;
+              }
+              break;
+            case "streamAllBy":
+              return entities.stream();
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "equals":
+              return proxy == args[0];
+            case "toString":
+              return "Synthetic" + repositoryClass.getSimpleName() + "(" + entities.size() + ")";
+            default:
+              break;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        }));
+  }
+
+  /**
+   * Sets an @Autowired field, the way Spring would.
+   */
+  static void inject(Object target, String fieldName, Object value) {
+    try {
+      Field field = target.getClass().getDeclaredField(fieldName);
+      field.setAccessible(true);
+      field.set(target, value);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Unable to inject " + fieldName, e);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The requests of an access log, as written by AccessLogger, sent again in their order and
+ * from the start once all of them are sent. Only the requests are replayed, not their timing:
+ * they go out at the rate of the load test. Lines that are not access log entries, e.g. cut
+ * short by a crash, are skipped.
+ */
+final class AccessLogReplay implements RequestSource {
+
+  private final List<LoadRequest> requests;
+  private int next;
+
+  private AccessLogReplay(List<LoadRequest> requests) {
+    this.requests = requests;
+  }
+
+  static AccessLogReplay read(Path accessLog) throws IOException {
+    ObjectMapper objectMapper = new ObjectMapper();
+    List<LoadRequest> requests = new ArrayList<>();
+    int skipped = 0;
+    try (BufferedReader reader = Files.newBufferedReader(accessLog, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        LoadRequest request = parse(objectMapper, line);
+        if (request == null) {
+          skipped++;
+        } else {
+          requests.add(request);
+        }
+      }
+    }
+    if (requests.isEmpty()) {
+      throw new IOException("No request to replay in " + accessLog);
+    }
+    System.out.printf("Replaying %d requests of %s, skipped %d lines%n", requests.size(),
+        accessLog, skipped);
+    return new AccessLogReplay(requests);
+  }
+
+  private static LoadRequest parse(ObjectMapper objectMapper, String line) {
+    JsonNode entry;
+    try {
+      entry = objectMapper.readTree(line);
+    } catch (IOException e) {
+      return null;
+    }
+    if (entry == null || !entry.hasNonNull("endpoint") || !entry.hasNonNull("latitude")
+        || !entry.hasNonNull("longitude")) {
+      return null;
+    }
+    return LoadRequest.restaurants(entry.get("endpoint").asText(),
+        entry.get("latitude").asDouble(), entry.get("longitude").asDouble(),
+        entry.hasNonNull("searchFor") ? entry.get("searchFor").asText() : null);
+  }
+
+  @Override
+  public LoadRequest next() {
+    LoadRequest request = requests.get(next);
+    next = (next + 1) % requests.size();
+    return request;
+  }
+}
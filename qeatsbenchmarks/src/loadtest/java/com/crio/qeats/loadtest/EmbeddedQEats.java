@@ -0,0 +1,107 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.loadtest;
+
+import com.crio.qeats.QEatsApplication;
+import com.crio.qeats.loadtest.LoadTestOptions.Hotspot;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.repositoryservices.RestaurantCatalogue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+/**
+ * The QEats server started in this JVM on a random port, with an embedded mongo holding
+ * synthetic restaurants around the hotspots. The restaurants spread a serving radius beyond
+ * the users of each hotspot, so that every user has restaurants all around.
+ */
+final class EmbeddedQEats implements AutoCloseable {
+
+  // Largest serving radius, the normal hours one.
+  private static final double SERVING_RADIUS_IN_KMS = 5.0;
+
+  // Mostly open all day, so that the results do not depend much on the time of the test.
+  private static final String[][] HOURS = {
+      {"00:00", "23:59"}, {"00:00", "23:59"}, {"00:00", "23:59"}, {"10:00", "22:00"},
+      {"18:00", "23:00"}, {"07:00", "11:00"}, {"11:00", "15:00"}};
+  private static final String[] NAMES = {
+      "A2B", "Udupi Cafe", "Dosa & Co", "Meghana's Biryani", "Chai Point", "Pizza Hut",
+      "Mainland China", "Burger King"};
+  private static final String[] ATTRIBUTES = {
+      "South Indian", "North Indian", "Chinese", "Cafe", "Biryani", "Fast Food", "Bakery"};
+
+  private final ConfigurableApplicationContext context;
+
+  private EmbeddedQEats(ConfigurableApplicationContext context) {
+    this.context = context;
+  }
+
+  static EmbeddedQEats start(List<Hotspot> hotspots, int restaurantCount, long seed) {
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(QEatsApplication.class)
+        .properties(
+            "server.port=0",
+            // An embedded mongo on a free port, in place of the one of application.properties.
+            "spring.data.mongodb.port=0",
+            "qeats.catalogue.snapshot-file=")
+        .run();
+
+    List<RestaurantEntity> restaurants = createRestaurants(hotspots, restaurantCount, seed);
+    context.getBean(MongoTemplate.class).insert(restaurants, RestaurantEntity.class);
+    context.getBean(RestaurantCatalogue.class).invalidate();
+    System.out.printf("Started QEats on embedded mongo with %d restaurants%n",
+        restaurants.size());
+    return new EmbeddedQEats(context);
+  }
+
+  String getUrl() {
+    return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+  }
+
+  @Override
+  public void close() {
+    context.close();
+  }
+
+  private static List<RestaurantEntity> createRestaurants(List<Hotspot> hotspots,
+      int restaurantCount, long seed) {
+    Random random = new Random(seed);
+    double totalWeight = hotspots.stream().mapToDouble(hotspot -> hotspot.weight).sum();
+    List<RestaurantEntity> restaurants = new ArrayList<>(restaurantCount);
+    for (int i = 0; i < restaurantCount; i++) {
+      Hotspot hotspot = SyntheticRequests.pick(hotspots, totalWeight, random);
+      // Uniform over a disc around the hotspot.
+      double distance = (2 * hotspot.spreadInKms + SERVING_RADIUS_IN_KMS)
+          * Math.sqrt(random.nextDouble()) / SyntheticRequests.KMS_PER_DEGREE;
+      double bearing = random.nextDouble() * 2 * Math.PI;
+      double latitude = hotspot.latitude + distance * Math.cos(bearing);
+      double longitude = hotspot.longitude
+          + distance * Math.sin(bearing) / Math.cos(Math.toRadians(hotspot.latitude));
+      String[] hours = HOURS[random.nextInt(HOURS.length)];
+
+      RestaurantEntity restaurant = new RestaurantEntity();
+      restaurant.setRestaurantId(Integer.toString(i));
+      restaurant.setName(NAMES[random.nextInt(NAMES.length)] + " " + i);
+      restaurant.setCity("Loadtest");
+      restaurant.setImageUrl("https://images.qeats.example/" + i + ".jpg");
+      restaurant.setLatitude(latitude);
+      restaurant.setLongitude(longitude);
+      restaurant.setLocation(new GeoJsonPoint(longitude, latitude));
+      restaurant.setOpensAt(hours[0]);
+      restaurant.setClosesAt(hours[1]);
+      restaurant.setAttributes(new ArrayList<>(Arrays.asList(
+          ATTRIBUTES[random.nextInt(ATTRIBUTES.length)],
+          ATTRIBUTES[random.nextInt(ATTRIBUTES.length)])));
+      restaurants.add(restaurant);
+    }
+    return restaurants;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency percentiles and throughput of each endpoint over the measured duration of a load
+ * test. Only the successful responses make up the percentiles; the requests shed by the server
+ * (HTTP 503) and the failed ones are counted apart.
+ */
+final class LatencyReport {
+
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  private final List<EndpointStats> endpoints;
+  private final double durationInSeconds;
+
+  LatencyReport(Collection<EndpointStats> endpoints, long durationInNanos) {
+    this.endpoints = new ArrayList<>(endpoints);
+    this.endpoints.sort(Comparator.comparing(endpoint -> endpoint.endpoint));
+    this.durationInSeconds = durationInNanos / (double) TimeUnit.SECONDS.toNanos(1);
+  }
+
+  /**
+   * Prints one line per endpoint, latencies in milliseconds and throughput in responses per
+   * second.
+   */
+  void print(PrintStream out) {
+    out.printf("%-32s %8s %8s %8s %8s %9s %9s %9s %9s %9s%n", "endpoint", "sent", "ok", "shed",
+        "failed", "ok/s", "p50", "p99", "p99.9", "max");
+    for (EndpointStats endpoint : endpoints) {
+      Histogram latencies = endpoint.getLatencies();
+      long ok = latencies.getTotalCount();
+      out.printf("%-32s %8d %8d %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint.endpoint,
+          ok + endpoint.shed.sum() + endpoint.failed.sum(), ok, endpoint.shed.sum(),
+          endpoint.failed.sum(), ok / durationInSeconds,
+          latencies.getValueAtPercentile(50) / MICROS_PER_MILLI,
+          latencies.getValueAtPercentile(99) / MICROS_PER_MILLI,
+          latencies.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+          latencies.getMaxValue() / MICROS_PER_MILLI);
+    }
+  }
+
+  /**
+   * Writes the full percentile distribution of each endpoint, in milliseconds, to a .hgrm file
+   * that the HdrHistogram plotter can chart.
+   */
+  void writeHistograms(Path reportDir) throws IOException {
+    Files.createDirectories(reportDir);
+    for (EndpointStats endpoint : endpoints) {
+      String fileName = endpoint.endpoint.replaceAll("[^A-Za-z0-9]+", "_")
+          .replaceAll("^_|_$", "") + ".hgrm";
+      try (PrintStream out = new PrintStream(
+          Files.newOutputStream(reportDir.resolve(fileName)), false, "UTF-8")) {
+        endpoint.getLatencies().outputPercentileDistribution(out, MICROS_PER_MILLI);
+      }
+    }
+  }
+
+  /**
+   * Outcomes of the requests to one endpoint, recorded concurrently by the threads sending
+   * them. Latencies are kept in microseconds.
+   */
+  static final class EndpointStats {
+
+    private final String endpoint;
+    private final Recorder latencies = new Recorder(3);
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private Histogram recorded;
+
+    EndpointStats(String endpoint) {
+      this.endpoint = endpoint;
+    }
+
+    /**
+     * Records a response, or a request that got none when status is negative.
+     */
+    void record(int status, long latencyInNanos) {
+      if (status >= 200 && status < 300) {
+        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyInNanos));
+      } else if (status == 503) {
+        shed.increment();
+      } else {
+        failed.increment();
+      }
+    }
+
+    // Called once all the requests are done.
+    private synchronized Histogram getLatencies() {
+      if (recorded == null) {
+        recorded = latencies.getIntervalHistogram();
+      }
+      return recorded;
+    }
+  }
+}
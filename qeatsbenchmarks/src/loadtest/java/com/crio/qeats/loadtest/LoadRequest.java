@@ -0,0 +1,48 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.loadtest;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A GET request of a load test. Its endpoint names the histogram it is reported in.
+ */
+final class LoadRequest {
+
+  static final String RESTAURANTS_ENDPOINT = "/qeats/v1/restaurants";
+
+  final String endpoint;
+  final String pathAndQuery;
+
+  private LoadRequest(String endpoint, String pathAndQuery) {
+    this.endpoint = endpoint;
+    this.pathAndQuery = pathAndQuery;
+  }
+
+  /**
+   * The restaurants close by, or the ones matching searchFor if it is not null. Searches are
+   * reported apart, they cost several lookups each.
+   */
+  static LoadRequest restaurants(String path, double latitude, double longitude,
+      String searchFor) {
+    String query = path + "?latitude=" + latitude + "&longitude=" + longitude;
+    if (searchFor == null) {
+      return new LoadRequest(path, query);
+    }
+    return new LoadRequest(path + " (search)", query + "&searchFor=" + encode(searchFor));
+  }
+
+  private static String encode(String value) {
+    try {
+      return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.loadtest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the restaurants endpoints: sends replayed or synthetic requests at a fixed rate
+ * to a running server, or to one started in this JVM, and reports the latency percentiles and
+ * throughput of each endpoint. See LoadTestOptions for the options.
+ */
+public final class LoadTest {
+
+  private LoadTest() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+    // HttpURLConnection keeps only 5 idle connections per server by default.
+    System.setProperty("http.maxConnections", Integer.toString(options.maxConnections));
+
+    RequestSource requests = options.replay != null
+        ? AccessLogReplay.read(options.replay)
+        : new SyntheticRequests(options.hotspots, options.searchFraction, options.seed);
+
+    EmbeddedQEats embedded = options.target == null
+        ? EmbeddedQEats.start(options.hotspots, options.restaurants, options.seed) : null;
+    try {
+      String target = embedded == null ? options.target : embedded.getUrl();
+      System.out.printf("Sending %.0f requests/s to %s, %ds of warmup then %ds measured%n",
+          options.rate, target, options.warmupInSeconds, options.durationInSeconds);
+
+      LatencyReport report = new OpenLoopRunner(target, options.rate, options.maxConnections)
+          .run(requests, TimeUnit.SECONDS.toNanos(options.warmupInSeconds),
+              TimeUnit.SECONDS.toNanos(options.durationInSeconds));
+
+      report.print(System.out);
+      report.writeHistograms(options.reportDir);
+      System.out.printf("Histograms written to %s%n", options.reportDir.toAbsolutePath());
+    } finally {
+      if (embedded != null) {
+        embedded.close();
+      }
+    }
+  }
+}
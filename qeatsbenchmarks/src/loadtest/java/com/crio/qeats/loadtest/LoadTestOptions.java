@@ -0,0 +1,154 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Options of a load test, given as --name=value arguments.
+ *   --target=http://localhost:8081   server to load; an in-process one on embedded mongo if unset
+ *   --replay=qeats_access.log        access log whose requests are sent, in a loop
+ *   --hotspots=17.4:78.3:2:1,...     latitude:longitude:spread in kms:weight of the synthetic
+ *                                    locations; the point of coordinates.txt if unset
+ *   --search-fraction=0.1            fraction of the synthetic requests that search
+ *   --rate=200                       requests sent per second, whatever the responses take
+ *   --warmup=10 --duration=60        seconds sent before measuring, and measured
+ *   --max-connections=512            requests in flight at once, the others wait their turn
+ *   --restaurants=20000              restaurants around the hotspots of the in-process server
+ *   --seed=42                        seed of the synthetic locations and restaurants
+ *   --report-dir=build/loadtest      where the histograms of each endpoint are written
+ */
+final class LoadTestOptions {
+
+  private static final Path COORDINATES_FILE = Paths.get("coordinates.txt");
+
+  String target;
+  Path replay;
+  List<Hotspot> hotspots;
+  double searchFraction = 0.1;
+  double rate = 200;
+  int warmupInSeconds = 10;
+  int durationInSeconds = 60;
+  int maxConnections = 512;
+  int restaurants = 20000;
+  long seed = 42;
+  Path reportDir = Paths.get("build", "loadtest");
+
+  private LoadTestOptions() {
+  }
+
+  static LoadTestOptions parse(String[] args) throws IOException {
+    LoadTestOptions options = new LoadTestOptions();
+    for (String arg : args) {
+      int equals = arg.indexOf('=');
+      if (!arg.startsWith("--") || equals < 0) {
+        throw new IllegalArgumentException("Expected --name=value, got " + arg);
+      }
+      String name = arg.substring(2, equals);
+      String value = arg.substring(equals + 1);
+      switch (name) {
+        case "target":
+          options.target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+          break;
+        case "replay":
+          options.replay = Paths.get(value);
+          break;
+        case "hotspots":
+          options.hotspots = Hotspot.parseAll(value);
+          break;
+        case "search-fraction":
+          options.searchFraction = Double.parseDouble(value);
+          break;
+        case "rate":
+          options.rate = Double.parseDouble(value);
+          break;
+        case "warmup":
+          options.warmupInSeconds = Integer.parseInt(value);
+          break;
+        case "duration":
+          options.durationInSeconds = Integer.parseInt(value);
+          break;
+        case "max-connections":
+          options.maxConnections = Integer.parseInt(value);
+          break;
+        case "restaurants":
+          options.restaurants = Integer.parseInt(value);
+          break;
+        case "seed":
+          options.seed = Long.parseLong(value);
+          break;
+        case "report-dir":
+          options.reportDir = Paths.get(value);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option --" + name);
+      }
+    }
+    if (options.rate <= 0 || options.durationInSeconds <= 0 || options.maxConnections <= 0) {
+      throw new IllegalArgumentException("rate, duration and max-connections must be positive");
+    }
+    if (options.hotspots == null) {
+      options.hotspots = Collections.singletonList(readCoordinates());
+    }
+    return options;
+  }
+
+  // The location of coordinates.txt, with a spread of the size of a neighbourhood.
+  private static Hotspot readCoordinates() throws IOException {
+    if (!Files.exists(COORDINATES_FILE)) {
+      return new Hotspot(12.97, 77.59, 3, 1);
+    }
+    Properties coordinates = new Properties();
+    try (Reader reader = Files.newBufferedReader(COORDINATES_FILE, StandardCharsets.UTF_8)) {
+      coordinates.load(reader);
+    }
+    return new Hotspot(Double.parseDouble(coordinates.getProperty("latitude")),
+        Double.parseDouble(coordinates.getProperty("longitude")), 3, 1);
+  }
+
+  /**
+   * An area the users are concentrated around, e.g. an office park. Locations are normally
+   * distributed around its center, with the spread as standard deviation.
+   */
+  static final class Hotspot {
+
+    final double latitude;
+    final double longitude;
+    final double spreadInKms;
+    final double weight;
+
+    Hotspot(double latitude, double longitude, double spreadInKms, double weight) {
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.spreadInKms = spreadInKms;
+      this.weight = weight;
+    }
+
+    static List<Hotspot> parseAll(String value) {
+      List<Hotspot> hotspots = new ArrayList<>();
+      for (String hotspot : value.split(",")) {
+        String[] fields = hotspot.split(":");
+        if (fields.length != 4) {
+          throw new IllegalArgumentException(
+              "Expected latitude:longitude:spread:weight, got " + hotspot);
+        }
+        hotspots.add(new Hotspot(Double.parseDouble(fields[0]), Double.parseDouble(fields[1]),
+            Double.parseDouble(fields[2]), Double.parseDouble(fields[3])));
+      }
+      return hotspots;
+    }
+  }
+}
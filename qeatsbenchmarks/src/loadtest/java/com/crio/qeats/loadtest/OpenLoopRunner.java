@@ -0,0 +1,115 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a fixed rate, whether or not the earlier ones got their response, the way
+ * independent users would. The latency of a request runs from the time it was due to be sent,
+ * not from the time it was actually sent: when the server, or this client, falls behind, the
+ * time the requests spend waiting counts, instead of being hidden by sending fewer of them.
+ */
+final class OpenLoopRunner {
+
+  private static final int CONNECT_TIMEOUT_IN_MILLIS = 1000;
+  private static final int READ_TIMEOUT_IN_MILLIS = 10000;
+
+  private final String target;
+  private final double ratePerSecond;
+  private final int maxConnections;
+
+  OpenLoopRunner(String target, double ratePerSecond, int maxConnections) {
+    this.target = target;
+    this.ratePerSecond = ratePerSecond;
+    this.maxConnections = maxConnections;
+  }
+
+  /**
+   * Sends the requests for the warmup then the measured duration, and waits for the responses.
+   * @return latencies and outcomes of the requests due during the measured duration
+   */
+  LatencyReport run(RequestSource requests, long warmupInNanos, long durationInNanos)
+      throws InterruptedException {
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadPoolExecutor senders = new ThreadPoolExecutor(maxConnections, maxConnections,
+        0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+          Thread thread = new Thread(runnable, "load-sender-" + threadCount.getAndIncrement());
+          thread.setDaemon(true);
+          return thread;
+        });
+    ConcurrentMap<String, LatencyReport.EndpointStats> stats = new ConcurrentHashMap<>();
+
+    long startNanos = System.nanoTime();
+    long measuredFromNanos = startNanos + warmupInNanos;
+    long endNanos = measuredFromNanos + durationInNanos;
+    double intervalInNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+    for (long sent = 0; ; sent++) {
+      long dueAtNanos = startNanos + (long) (sent * intervalInNanos);
+      if (dueAtNanos - endNanos >= 0) {
+        break;
+      }
+      // Requests running late are sent right away, their latency still counts from dueAt.
+      long waitInNanos = dueAtNanos - System.nanoTime();
+      while (waitInNanos > 0) {
+        LockSupport.parkNanos(waitInNanos);
+        waitInNanos = dueAtNanos - System.nanoTime();
+      }
+
+      LoadRequest request = requests.next();
+      LatencyReport.EndpointStats endpointStats = dueAtNanos - measuredFromNanos >= 0
+          ? stats.computeIfAbsent(request.endpoint, LatencyReport.EndpointStats::new) : null;
+      senders.execute(() -> send(request, dueAtNanos, endpointStats));
+    }
+
+    senders.shutdown();
+    if (!senders.awaitTermination(READ_TIMEOUT_IN_MILLIS * 2L, TimeUnit.MILLISECONDS)) {
+      System.out.printf("Gave up on %d requests still waiting to be sent%n",
+          senders.getQueue().size());
+      senders.shutdownNow();
+    }
+    return new LatencyReport(stats.values(), durationInNanos);
+  }
+
+  private void send(LoadRequest request, long dueAtNanos,
+      LatencyReport.EndpointStats endpointStats) {
+    int status;
+    try {
+      HttpURLConnection connection =
+          (HttpURLConnection) new URL(target + request.pathAndQuery).openConnection();
+      connection.setConnectTimeout(CONNECT_TIMEOUT_IN_MILLIS);
+      connection.setReadTimeout(READ_TIMEOUT_IN_MILLIS);
+      status = connection.getResponseCode();
+      // The body is read to the end so that the connection is kept alive for the next request.
+      InputStream body = status < 400 ? connection.getInputStream()
+          : connection.getErrorStream();
+      if (body != null) {
+        try (InputStream in = body) {
+          byte[] buffer = new byte[8192];
+          while (in.read(buffer) != -1) {
+            // Only the time to read it matters.
+          }
+        }
+      }
+    } catch (IOException e) {
+      status = -1;
+    }
+    if (endpointStats != null) {
+      endpointStats.record(status, System.nanoTime() - dueAtNanos);
+    }
+  }
+}
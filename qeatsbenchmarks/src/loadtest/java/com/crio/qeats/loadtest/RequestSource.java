@@ -0,0 +1,15 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.loadtest;
+
+/**
+ * Endless sequence of requests to send, called from the one thread sending them.
+ */
+interface RequestSource {
+
+  LoadRequest next();
+}
@@ -0,0 +1,63 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.loadtest;
+
+import com.crio.qeats.loadtest.LoadTestOptions.Hotspot;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Restaurants requests from users around the hotspots, each hotspot getting a share of the
+ * requests proportional to its weight. A fraction of the requests search for a dish or a
+ * cuisine instead of listing the restaurants close by.
+ */
+final class SyntheticRequests implements RequestSource {
+
+  static final double KMS_PER_DEGREE = 6371 * Math.PI / 180;
+
+  private static final String[] SEARCHES = {
+      "biryani", "dosa", "South Indian", "pizza", "Cafe", "chinese", "idli", "burger"};
+
+  private final List<Hotspot> hotspots;
+  private final double totalWeight;
+  private final double searchFraction;
+  private final Random random;
+
+  SyntheticRequests(List<Hotspot> hotspots, double searchFraction, long seed) {
+    this.hotspots = hotspots;
+    this.totalWeight = hotspots.stream().mapToDouble(hotspot -> hotspot.weight).sum();
+    this.searchFraction = searchFraction;
+    this.random = new Random(seed);
+  }
+
+  @Override
+  public LoadRequest next() {
+    Hotspot hotspot = pick(hotspots, totalWeight, random);
+    double latitude = hotspot.latitude
+        + random.nextGaussian() * hotspot.spreadInKms / KMS_PER_DEGREE;
+    double longitude = hotspot.longitude + random.nextGaussian() * hotspot.spreadInKms
+        / KMS_PER_DEGREE / Math.cos(Math.toRadians(hotspot.latitude));
+    String searchFor = random.nextDouble() < searchFraction
+        ? SEARCHES[random.nextInt(SEARCHES.length)] : null;
+    return LoadRequest.restaurants(LoadRequest.RESTAURANTS_ENDPOINT, latitude, longitude,
+        searchFor);
+  }
+
+  /**
+   * Picks a hotspot with a probability proportional to its weight.
+   */
+  static Hotspot pick(List<Hotspot> hotspots, double totalWeight, Random random) {
+    double remaining = random.nextDouble() * totalWeight;
+    for (Hotspot hotspot : hotspots) {
+      remaining -= hotspot.weight;
+      if (remaining < 0) {
+        return hotspot;
+      }
+    }
+    return hotspots.get(hotspots.size() - 1);
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.datagen;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Options of the data generator, given as --name=value arguments.
+ *   --restaurants=10000       restaurants across the cities, e.g. 10000 up to 5000000
+ *   --cities=Pune:18.52:73.85:12:3,...
+ *                             name:latitude:longitude:radius in kms:weight of the cities the
+ *                             restaurants cluster in; a dozen big Indian cities if unset
+ *   --home-restaurants=250    restaurants close to the point of coordinates.txt, so that the
+ *                             app shows some where its developer is, as setup_mongo.sh does
+ *   --users=N                 users with a cart or orders, restaurants / 2 if unset
+ *   --carts=N                 users with a cart, users / 4 if unset
+ *   --orders=N                orders placed by the users, restaurants * 2 if unset
+ *   --seed=42                 the same seed and counts always give the same dataset
+ *   --batch-size=5000         documents per bulk write, and per batch held in memory
+ *   --mongo-uri=mongodb://localhost:27017/restaurant-database
+ *                             database loaded, nothing is loaded if empty
+ *   --drop                    drops the collections before loading them
+ *   --fixtures-dir=DIR        also writes initial_data_set_*.json files, as read by the tests
+ */
+final class DataGenOptions {
+
+  private static final Path COORDINATES_FILE = Paths.get("coordinates.txt");
+
+  // Spread of the home restaurants around the point of coordinates.txt.
+  private static final double HOME_RADIUS_IN_KMS = 5;
+
+  private static final List<City> DEFAULT_CITIES = Arrays.asList(
+      new City("Mumbai", 19.076, 72.8777, 20, 12),
+      new City("Delhi", 28.6139, 77.209, 25, 12),
+      new City("Bengaluru", 12.9716, 77.5946, 18, 10),
+      new City("Hyderabad", 17.385, 78.4867, 18, 8),
+      new City("Chennai", 13.0827, 80.2707, 16, 7),
+      new City("Kolkata", 22.5726, 88.3639, 15, 7),
+      new City("Pune", 18.5204, 73.8567, 12, 5),
+      new City("Ahmedabad", 23.0225, 72.5714, 12, 4),
+      new City("Jaipur", 26.9124, 75.7873, 10, 3),
+      new City("Lucknow", 26.8467, 80.9462, 10, 2),
+      new City("Kochi", 9.9312, 76.2673, 8, 2),
+      new City("Chandigarh", 30.7333, 76.7794, 7, 1));
+
+  int restaurants = 10000;
+  List<City> cities = DEFAULT_CITIES;
+  int homeRestaurants = 250;
+  City home;
+  int users = -1;
+  int carts = -1;
+  int orders = -1;
+  long seed = 42;
+  int batchSize = 5000;
+  String mongoUri = "mongodb://localhost:27017/restaurant-database";
+  boolean drop;
+  Path fixturesDir;
+
+  private DataGenOptions() {
+  }
+
+  static DataGenOptions parse(String[] args) throws IOException {
+    DataGenOptions options = new DataGenOptions();
+    for (String arg : args) {
+      if (arg.equals("--drop")) {
+        options.drop = true;
+        continue;
+      }
+      int equals = arg.indexOf('=');
+      if (!arg.startsWith("--") || equals < 0) {
+        throw new IllegalArgumentException("Expected --name=value, got " + arg);
+      }
+      String name = arg.substring(2, equals);
+      String value = arg.substring(equals + 1);
+      switch (name) {
+        case "restaurants":
+          options.restaurants = Integer.parseInt(value);
+          break;
+        case "cities":
+          options.cities = City.parseAll(value);
+          break;
+        case "home-restaurants":
+          options.homeRestaurants = Integer.parseInt(value);
+          break;
+        case "users":
+          options.users = Integer.parseInt(value);
+          break;
+        case "carts":
+          options.carts = Integer.parseInt(value);
+          break;
+        case "orders":
+          options.orders = Integer.parseInt(value);
+          break;
+        case "seed":
+          options.seed = Long.parseLong(value);
+          break;
+        case "batch-size":
+          options.batchSize = Integer.parseInt(value);
+          break;
+        case "mongo-uri":
+          options.mongoUri = value;
+          break;
+        case "drop":
+          options.drop = Boolean.parseBoolean(value);
+          break;
+        case "fixtures-dir":
+          options.fixturesDir = Paths.get(value);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option --" + name);
+      }
+    }
+
+    if (options.restaurants <= 0 || options.batchSize <= 0 || options.homeRestaurants < 0) {
+      throw new IllegalArgumentException(
+          "restaurants and batch-size must be positive, home-restaurants not negative");
+    }
+    if (options.users < 0) {
+      options.users = Math.max(options.restaurants / 2, 1);
+    }
+    if (options.carts < 0) {
+      options.carts = options.users / 4;
+    }
+    if (options.orders < 0) {
+      options.orders = options.restaurants * 2;
+    }
+    if (options.carts > options.users) {
+      throw new IllegalArgumentException("A user has at most one cart, carts > users");
+    }
+    options.home = readHome();
+    if (options.home == null) {
+      options.homeRestaurants = 0;
+    }
+    return options;
+  }
+
+  int getTotalRestaurants() {
+    return restaurants + homeRestaurants;
+  }
+
+  private static City readHome() throws IOException {
+    if (!Files.exists(COORDINATES_FILE)) {
+      return null;
+    }
+    Properties coordinates = new Properties();
+    try (Reader reader = Files.newBufferedReader(COORDINATES_FILE, StandardCharsets.UTF_8)) {
+      coordinates.load(reader);
+    }
+    String latitude = coordinates.getProperty("latitude");
+    String longitude = coordinates.getProperty("longitude");
+    if (latitude == null || longitude == null) {
+      return null;
+    }
+    return new City("Home", Double.parseDouble(latitude.trim()),
+        Double.parseDouble(longitude.trim()), HOME_RADIUS_IN_KMS, 1);
+  }
+
+  /**
+   * A city the restaurants cluster in, around neighbourhoods scattered within its radius.
+   */
+  static final class City {
+
+    final String name;
+    final double latitude;
+    final double longitude;
+    final double radiusInKms;
+    final double weight;
+
+    City(String name, double latitude, double longitude, double radiusInKms, double weight) {
+      this.name = name;
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.radiusInKms = radiusInKms;
+      this.weight = weight;
+    }
+
+    static List<City> parseAll(String value) {
+      List<City> cities = new ArrayList<>();
+      for (String city : value.split(",")) {
+        String[] fields = city.split(":");
+        if (fields.length != 5) {
+          throw new IllegalArgumentException(
+              "Expected name:latitude:longitude:radius:weight, got " + city);
+        }
+        cities.add(new City(fields[0], Double.parseDouble(fields[1]),
+            Double.parseDouble(fields[2]), Double.parseDouble(fields[3]),
+            Double.parseDouble(fields[4])));
+      }
+      return cities;
+    }
+  }
+}
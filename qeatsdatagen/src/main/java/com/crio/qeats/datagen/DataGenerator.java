@@ -0,0 +1,89 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.datagen;
+
+import com.crio.qeats.models.CartEntity;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.OrderEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Generates a synthetic dataset of restaurants, menus, carts and orders into mongo and/or
+ * fixture files, without anything but a local mongo. See DataGenOptions for the options.
+ */
+public final class DataGenerator {
+
+  // Batches between two progress lines.
+  private static final int PROGRESS_EVERY_BATCHES = 20;
+
+  private DataGenerator() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    DataGenOptions options = DataGenOptions.parse(args);
+    SyntheticDataset dataset = new SyntheticDataset(options);
+
+    List<DatasetSink> sinks = new ArrayList<>();
+    try {
+      if (!options.mongoUri.isEmpty()) {
+        sinks.add(new MongoDatasetSink(options.mongoUri, options.drop));
+      }
+      if (options.fixturesDir != null) {
+        sinks.add(new FixtureDatasetSink(options.fixturesDir));
+      }
+      if (sinks.isEmpty()) {
+        throw new IllegalArgumentException("Nowhere to write to, set --mongo-uri or "
+            + "--fixtures-dir");
+      }
+
+      long startNanos = System.nanoTime();
+      generate(sinks, RestaurantEntity.class, options.getTotalRestaurants(),
+          dataset::restaurant, options.batchSize);
+      generate(sinks, MenuEntity.class, options.getTotalRestaurants(), dataset::menu,
+          options.batchSize);
+      generate(sinks, CartEntity.class, options.carts, dataset::cart, options.batchSize);
+      generate(sinks, OrderEntity.class, options.orders, dataset::order, options.batchSize);
+      for (DatasetSink sink : sinks) {
+        sink.close();
+      }
+      sinks.clear();
+      System.out.printf("Generated the dataset in %d s%n",
+          TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos));
+    } finally {
+      for (DatasetSink sink : sinks) {
+        sink.close();
+      }
+    }
+  }
+
+  private static <T> void generate(List<DatasetSink> sinks, Class<T> entityClass, int count,
+      IntFunction<T> document, int batchSize) throws IOException {
+    long startNanos = System.nanoTime();
+    List<T> batch = new ArrayList<>(batchSize);
+    int batches = 0;
+    for (int index = 0; index < count; index++) {
+      batch.add(document.apply(index));
+      if (batch.size() == batchSize || index == count - 1) {
+        for (DatasetSink sink : sinks) {
+          sink.write(entityClass, batch);
+        }
+        batch.clear();
+        if (++batches % PROGRESS_EVERY_BATCHES == 0) {
+          System.out.printf("%s: %d of %d%n", entityClass.getSimpleName(), index + 1, count);
+        }
+      }
+    }
+    double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+    System.out.printf("%s: %d documents in %.1f s, %.0f per s%n", entityClass.getSimpleName(),
+        count, seconds, count / seconds);
+  }
+}
@@ -0,0 +1,22 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.datagen;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where the generated documents go, one batch at a time. Batches of a collection come one
+ * after the other; a collection is complete once the next one starts, or the sink is closed.
+ */
+interface DatasetSink extends AutoCloseable {
+
+  <T> void write(Class<T> entityClass, List<T> batch) throws IOException;
+
+  @Override
+  void close() throws IOException;
+}
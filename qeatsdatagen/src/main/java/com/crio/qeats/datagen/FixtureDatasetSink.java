@@ -0,0 +1,90 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.datagen;
+
+import com.crio.qeats.models.CartEntity;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.OrderEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the documents as JSON arrays, one file per collection, named and shaped like the
+ * initial_data_set_*.json fixtures, so that tests can read them with FixtureHelpers and an
+ * ObjectMapper. Arrays are written as the batches come, so files of any size can be written.
+ */
+final class FixtureDatasetSink implements DatasetSink {
+
+  private static final Map<Class<?>, String> FILE_NAMES = new HashMap<>();
+
+  static {
+    FILE_NAMES.put(RestaurantEntity.class, "initial_data_set_restaurants.json");
+    FILE_NAMES.put(MenuEntity.class, "initial_data_set_menus.json");
+    FILE_NAMES.put(CartEntity.class, "initial_data_set_carts.json");
+    FILE_NAMES.put(OrderEntity.class, "initial_data_set_orders.json");
+  }
+
+  private final Path fixturesDir;
+  private final ObjectMapper objectMapper;
+  private Class<?> currentClass;
+  private JsonGenerator generator;
+
+  FixtureDatasetSink(Path fixturesDir) throws IOException {
+    this.fixturesDir = fixturesDir;
+    this.objectMapper = new ObjectMapper()
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+        .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .addMixIn(RestaurantEntity.class, FixtureRestaurant.class);
+    Files.createDirectories(fixturesDir);
+  }
+
+  @Override
+  public <T> void write(Class<T> entityClass, List<T> batch) throws IOException {
+    if (entityClass != currentClass) {
+      finishFile();
+      generator = objectMapper.getFactory().createGenerator(
+          Files.newOutputStream(fixturesDir.resolve(FILE_NAMES.get(entityClass))),
+          JsonEncoding.UTF8);
+      generator.useDefaultPrettyPrinter();
+      generator.writeStartArray();
+      currentClass = entityClass;
+    }
+    for (T document : batch) {
+      objectMapper.writeValue(generator, document);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    finishFile();
+  }
+
+  private void finishFile() throws IOException {
+    if (generator != null) {
+      generator.writeEndArray();
+      generator.close();
+      generator = null;
+    }
+  }
+
+  // GeoJsonPoint cannot be read back by an ObjectMapper. Restaurants loaded without it get it
+  // from RestaurantRepositoryServiceGeoNearImpl, as with the existing fixtures.
+  @JsonIgnoreProperties("location")
+  private abstract static class FixtureRestaurant {
+  }
+}
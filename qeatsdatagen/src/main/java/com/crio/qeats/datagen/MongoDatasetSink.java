@@ -0,0 +1,93 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.datagen;
+
+import com.crio.qeats.models.CartEntity;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.OrderEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import com.mongodb.BulkWriteError;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientURI;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Loads the documents into mongo with unordered bulk inserts, so that the server applies a
+ * batch in as few round trips as it can and a failed document does not stop the rest. The
+ * indexes declared on the entities are ensured once the collections are loaded: dropping a
+ * collection drops its indexes too, and a dropped collection is loaded faster without them.
+ *
+ * <p>Documents already present, e.g. when loading again without dropping, are left as they
+ * are and counted.
+ */
+final class MongoDatasetSink implements DatasetSink {
+
+  private static final String DEFAULT_DATABASE = "restaurant-database";
+  private static final int DUPLICATE_KEY = 11000;
+
+  private static final List<Class<?>> ENTITY_CLASSES = Arrays.asList(
+      RestaurantEntity.class, MenuEntity.class, CartEntity.class, OrderEntity.class);
+
+  private final MongoClient mongoClient;
+  private final MongoTemplate mongoTemplate;
+  private final Set<Class<?>> loaded = new LinkedHashSet<>();
+  private long duplicates;
+
+  MongoDatasetSink(String mongoUri, boolean drop) {
+    MongoClientURI uri = new MongoClientURI(mongoUri);
+    this.mongoClient = new MongoClient(uri);
+    this.mongoTemplate = new MongoTemplate(mongoClient,
+        uri.getDatabase() == null ? DEFAULT_DATABASE : uri.getDatabase());
+    if (drop) {
+      for (Class<?> entityClass : ENTITY_CLASSES) {
+        mongoTemplate.dropCollection(entityClass);
+      }
+    }
+  }
+
+  @Override
+  public <T> void write(Class<T> entityClass, List<T> batch) {
+    loaded.add(entityClass);
+    try {
+      mongoTemplate.bulkOps(BulkMode.UNORDERED, entityClass).insert(batch).execute();
+    } catch (BulkOperationException e) {
+      for (BulkWriteError error : e.getErrors()) {
+        if (error.getCode() != DUPLICATE_KEY) {
+          throw e;
+        }
+      }
+      duplicates += e.getErrors().size();
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      MongoPersistentEntityIndexResolver indexResolver = new MongoPersistentEntityIndexResolver(
+          (MongoMappingContext) mongoTemplate.getConverter().getMappingContext());
+      for (Class<?> entityClass : loaded) {
+        for (IndexDefinition index : indexResolver.resolveIndexFor(entityClass)) {
+          mongoTemplate.indexOps(entityClass).ensureIndex(index);
+        }
+      }
+      if (duplicates > 0) {
+        System.out.printf("Skipped %d documents already in mongo%n", duplicates);
+      }
+    } finally {
+      mongoClient.close();
+    }
+  }
+}
@@ -0,0 +1,360 @@
+/*
+ *
+ *  * Copyright (c) Crio.Do 2019. All rights reserved
+ *
+ */
+
+package com.crio.qeats.datagen;
+
+import com.crio.qeats.datagen.DataGenOptions.City;
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.models.CartEntity;
+import com.crio.qeats.models.ItemEntity;
+import com.crio.qeats.models.MenuEntity;
+import com.crio.qeats.models.OrderEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+/**
+ * A synthetic QEats dataset. Every document is a function of the seed and of its index only,
+ * so that the documents can be generated in any order, a batch at a time, whatever the size
+ * of the dataset; e.g. the menu of the restaurant an order is placed at is generated again
+ * for the order instead of being kept around.
+ *
+ * <p>Restaurants cluster around neighbourhoods scattered over each city, the busiest cities
+ * getting the most restaurants. Their cuisine decides their name, attributes, opening hours,
+ * with lunch/dinner windows and some open past midnight, and the dishes of their menu.
+ */
+final class SyntheticDataset {
+
+  private static final double KMS_PER_DEGREE = 6371 * Math.PI / 180;
+
+  // Neighbourhoods of a city, each with restaurants normally distributed around its center.
+  private static final int NEIGHBOURHOODS_PER_CITY = 24;
+  private static final double NEIGHBOURHOOD_SPREAD_IN_KMS = 0.8;
+
+  // Orders are placed during the DAYS_OF_ORDERS days before a fixed instant, so that the
+  // dataset does not depend on when it is generated.
+  private static final Instant ORDERS_UNTIL = Instant.parse("2024-01-01T00:00:00Z");
+  private static final int DAYS_OF_ORDERS = 180;
+
+  // Independent streams of random numbers, one per kind of document.
+  private static final long NEIGHBOURHOODS = 1;
+  private static final long RESTAURANTS = 2;
+  private static final long MENUS = 3;
+  private static final long CARTS = 4;
+  private static final long ORDERS = 5;
+  private static final long CUISINES_OF_RESTAURANTS = 6;
+
+  private static final String[] NAME_PREFIXES = {
+      "Sri Krishna", "Royal", "New", "Hotel", "Shree", "Green", "Urban", "Little", "Grand",
+      "Famous", "Amma's", "Uncle's", "The", "Classic", "Spice"};
+
+  // Opening hours seen across cuisines, some of them overnight.
+  private static final String[][] LATE_NIGHT_HOURS = {
+      {"20:00", "04:00"}, {"18:00", "02:00"}, {"00:00", "23:59"}};
+
+  private static final List<Cuisine> CUISINES = Arrays.asList(
+      new Cuisine(14, new String[] {"South Indian", "Veg"},
+          new String[] {"Udupi", "Sagar", "Bhavan", "Tiffins", "Darshini"},
+          new String[][] {{"07:00", "22:00"}, {"07:00,17:00", "11:30,22:30"},
+              {"06:30", "11:00"}},
+          new String[] {"Masala Dosa", "Idli Vada", "Rava Dosa", "Pongal", "Uttapam",
+              "Filter Coffee", "Curd Rice", "Bisi Bele Bath", "Medu Vada", "Lemon Rice",
+              "Set Dosa", "Kesari Bath"}, 30, 220),
+      new Cuisine(14, new String[] {"North Indian", "Punjabi"},
+          new String[] {"Dhaba", "Punjab Grill", "Tandoor House", "Rasoi", "Da Dhaba"},
+          new String[][] {{"11:00,18:00", "15:30,23:30"}, {"12:00", "23:00"}},
+          new String[] {"Butter Chicken", "Dal Makhani", "Paneer Tikka", "Butter Naan",
+              "Chole Bhature", "Rajma Chawal", "Kadai Paneer", "Tandoori Roti", "Sweet Lassi",
+              "Aloo Paratha", "Malai Kofta", "Jeera Rice"}, 40, 450),
+      new Cuisine(12, new String[] {"Biryani", "Mughlai"},
+          new String[] {"Biryani House", "Paradise", "Nawab's", "Dum Pukht", "Meghana's"},
+          new String[][] {{"12:00", "23:30"}, {"18:00", "02:00"}, {"11:30,19:00", "16:00,01:00"}},
+          new String[] {"Chicken Biryani", "Mutton Biryani", "Veg Biryani", "Egg Biryani",
+              "Chicken 65", "Mirchi Ka Salan", "Raita", "Double Ka Meetha", "Kebab Platter",
+              "Haleem"}, 60, 520),
+      new Cuisine(10, new String[] {"Chinese", "Indo-Chinese"},
+          new String[] {"Wok", "Dragon", "Mainland", "Chopsticks", "Noodle Bar"},
+          new String[][] {{"12:00", "23:00"}, {"12:00,18:30", "15:30,23:30"}},
+          new String[] {"Hakka Noodles", "Veg Fried Rice", "Chilli Chicken",
+              "Gobi Manchurian", "Chicken Momos", "Spring Rolls", "Sweet Corn Soup",
+              "Schezwan Noodles", "Paneer Chilli"}, 60, 380),
+      new Cuisine(10, new String[] {"Cafe", "Beverages", "Bakery"},
+          new String[] {"Cafe", "Coffee House", "Chai Point", "Brew & Co", "Bakehouse"},
+          new String[][] {{"08:00", "23:00"}, {"07:00", "21:00"}, {"09:00", "01:00"}},
+          new String[] {"Cappuccino", "Cold Coffee", "Masala Chai", "Croissant",
+              "Club Sandwich", "Chocolate Brownie", "Cheesecake", "Penne Arrabbiata",
+              "Blueberry Muffin"}, 40, 350),
+      new Cuisine(12, new String[] {"Fast Food", "Burgers", "Pizza"},
+          new String[] {"Burger Point", "Pizza Express", "Snack Shack", "Grill", "Slice"},
+          new String[][] {{"11:00", "03:00"}, {"00:00", "23:59"}, {"11:00", "23:00"}},
+          new String[] {"Veg Burger", "Chicken Burger", "French Fries", "Margherita Pizza",
+              "Pepperoni Pizza", "Garlic Bread", "Chicken Wrap", "Oreo Shake",
+              "Peri Peri Fries"}, 50, 450),
+      new Cuisine(8, new String[] {"Street Food", "Chaat", "Veg"},
+          new String[] {"Chaat Corner", "Chowpatty", "Bhaiya's", "Thela", "Khau Galli"},
+          new String[][] {{"16:00", "23:00"}, {"10:00", "22:00"}},
+          new String[] {"Pani Puri", "Pav Bhaji", "Vada Pav", "Bhel Puri", "Samosa",
+              "Pyaaz Kachori", "Dahi Puri", "Jalebi", "Aloo Tikki"}, 20, 150),
+      new Cuisine(6, new String[] {"Desserts", "Ice Cream"},
+          new String[] {"Sweets", "Creamery", "Mithai", "Scoops", "Halwai"},
+          new String[][] {{"10:00", "00:30"}, {"11:00", "23:00"}},
+          new String[] {"Gulab Jamun", "Rasmalai", "Kulfi", "Hot Fudge Sundae",
+              "Rasgulla", "Falooda", "Kaju Katli", "Gajar Halwa"}, 30, 300),
+      new Cuisine(5, new String[] {"Seafood", "Coastal"},
+          new String[] {"Coastal", "Machli", "Fisherman's Wharf", "Karavali", "Malabar"},
+          new String[][] {{"12:00,19:00", "15:30,23:30"}, {"11:30", "23:00"}},
+          new String[] {"Fish Curry", "Prawn Fry", "Crab Masala", "Fish Thali", "Neer Dosa",
+              "Appam With Stew", "Squid Rava Fry", "Kori Rotti"}, 80, 750));
+
+  private static final double TOTAL_CUISINE_WEIGHT =
+      CUISINES.stream().mapToDouble(cuisine -> cuisine.weight).sum();
+
+  private final long seed;
+  private final List<City> cities;
+  private final double totalCityWeight;
+  private final int restaurants;
+  private final City home;
+  private final int totalRestaurants;
+  private final int users;
+  private final int carts;
+
+  // Latitude/longitude of the center of every neighbourhood, per city.
+  private final double[][][] neighbourhoods;
+
+  SyntheticDataset(DataGenOptions options) {
+    this.seed = options.seed;
+    this.cities = options.cities;
+    this.totalCityWeight = cities.stream().mapToDouble(city -> city.weight).sum();
+    this.restaurants = options.restaurants;
+    this.home = options.home;
+    this.totalRestaurants = options.getTotalRestaurants();
+    this.users = options.users;
+    this.carts = options.carts;
+
+    this.neighbourhoods = new double[cities.size()][NEIGHBOURHOODS_PER_CITY][];
+    for (int city = 0; city < cities.size(); city++) {
+      Random random = random(NEIGHBOURHOODS, city);
+      for (int neighbourhood = 0; neighbourhood < NEIGHBOURHOODS_PER_CITY; neighbourhood++) {
+        // Most neighbourhoods are close to the center, a few in the suburbs.
+        neighbourhoods[city][neighbourhood] = offset(cities.get(city),
+            Math.min(Math.abs(random.nextGaussian()) / 2, 1) * cities.get(city).radiusInKms,
+            random.nextDouble() * 2 * Math.PI);
+      }
+    }
+  }
+
+  /**
+   * The restaurant at the given index. The last homeRestaurants restaurants are around the
+   * home location rather than in the cities.
+   */
+  RestaurantEntity restaurant(int index) {
+    Random random = random(RESTAURANTS, index);
+    Cuisine cuisine = cuisine(index);
+
+    double[] location;
+    String cityName;
+    if (index < restaurants) {
+      int city = pickCity(random);
+      double[] neighbourhood =
+          neighbourhoods[city][random.nextInt(NEIGHBOURHOODS_PER_CITY)];
+      location = new double[] {
+          neighbourhood[0]
+              + random.nextGaussian() * NEIGHBOURHOOD_SPREAD_IN_KMS / KMS_PER_DEGREE,
+          neighbourhood[1] + random.nextGaussian() * NEIGHBOURHOOD_SPREAD_IN_KMS
+              / KMS_PER_DEGREE / Math.cos(Math.toRadians(neighbourhood[0]))};
+      cityName = cities.get(city).name;
+    } else {
+      // Uniform over the disc around home.
+      location = offset(home, Math.sqrt(random.nextDouble()) * home.radiusInKms,
+          random.nextDouble() * 2 * Math.PI);
+      cityName = home.name;
+    }
+
+    String[] hours = random.nextDouble() < 0.05
+        ? LATE_NIGHT_HOURS[random.nextInt(LATE_NIGHT_HOURS.length)]
+        : cuisine.hours[random.nextInt(cuisine.hours.length)];
+
+    List<String> attributes = new ArrayList<>(Arrays.asList(cuisine.attributes));
+    attributes.subList(1 + random.nextInt(attributes.size()), attributes.size()).clear();
+
+    RestaurantEntity restaurant = new RestaurantEntity();
+    restaurant.setId(restaurantId(index));
+    restaurant.setRestaurantId(restaurantId(index));
+    restaurant.setName(NAME_PREFIXES[random.nextInt(NAME_PREFIXES.length)] + " "
+        + cuisine.names[random.nextInt(cuisine.names.length)]);
+    restaurant.setCity(cityName);
+    restaurant.setImageUrl("https://images.qeats.example/restaurants/" + index + ".jpg");
+    restaurant.setLatitude(location[0]);
+    restaurant.setLongitude(location[1]);
+    restaurant.setLocation(new GeoJsonPoint(location[1], location[0]));
+    restaurant.setOpensAt(hours[0]);
+    restaurant.setClosesAt(hours[1]);
+    restaurant.setAttributes(attributes);
+    return restaurant;
+  }
+
+  /**
+   * The menu of the restaurant at the given index, a selection of the dishes of its cuisine.
+   */
+  MenuEntity menu(int index) {
+    Random random = random(MENUS, index);
+    Cuisine cuisine = cuisine(index);
+
+    List<String> dishes = new ArrayList<>(Arrays.asList(cuisine.dishes));
+    Collections.shuffle(dishes, random);
+    int itemCount = dishes.size() / 2 + random.nextInt(dishes.size() / 2 + 1);
+    List<ItemEntity> items = new ArrayList<>(itemCount);
+    for (int i = 0; i < itemCount; i++) {
+      ItemEntity item = new ItemEntity();
+      item.setId(Integer.toString(i + 1));
+      item.setItemId(Integer.toString(i + 1));
+      item.setName(dishes.get(i));
+      item.setImageUrl("https://images.qeats.example/items/" + index + "/" + (i + 1) + ".jpg");
+      // Prices are round to 5 rupees.
+      item.setPrice((double) (5 * ((cuisine.minPrice
+          + random.nextInt(cuisine.maxPrice - cuisine.minPrice + 1)) / 5)));
+      item.setAttributes(random.nextInt(4) == 0
+          ? new ArrayList<>(Arrays.asList(cuisine.attributes[0], "Bestseller"))
+          : new ArrayList<>(Collections.singletonList(cuisine.attributes[0])));
+      items.add(item);
+    }
+
+    MenuEntity menu = new MenuEntity();
+    menu.setId(restaurantId(index));
+    menu.setRestaurantId(restaurantId(index));
+    menu.setItems(items);
+    return menu;
+  }
+
+  /**
+   * The cart at the given index, with up to four items of one restaurant. Carts belong to
+   * distinct users, spread evenly over all of them.
+   */
+  CartEntity cart(int index) {
+    Random random = random(CARTS, index);
+    int restaurant = random.nextInt(totalRestaurants);
+    List<ItemEntity> items = pickItems(menu(restaurant), random.nextInt(5), random);
+
+    CartEntity cart = new CartEntity();
+    cart.setId(Integer.toString(index));
+    cart.setRestaurantId(restaurantId(restaurant));
+    cart.setUserId(userId((int) ((long) index * users / carts)));
+    cart.setItems(items);
+    cart.setTotal(total(items));
+    return cart;
+  }
+
+  /**
+   * The order at the given index. A few users place most of the orders, and the orders are
+   * spread over the days before ORDERS_UNTIL.
+   */
+  OrderEntity order(int index) {
+    Random random = random(ORDERS, index);
+    int restaurant = random.nextInt(totalRestaurants);
+    double userRank = random.nextDouble();
+    List<ItemEntity> items = pickItems(menu(restaurant), 1 + random.nextInt(5), random);
+
+    OrderEntity order = new OrderEntity();
+    order.setId(Integer.toString(index));
+    order.setRestaurantId(restaurantId(restaurant));
+    order.setUserId(userId((int) (userRank * userRank * users)));
+    order.setStatus(Order.PLACED);
+    order.setItems(items);
+    order.setTotal(total(items));
+    order.setPlacedAt(Date.from(ORDERS_UNTIL.minusMillis(
+        (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(DAYS_OF_ORDERS)))));
+    return order;
+  }
+
+  private static String restaurantId(int index) {
+    return Integer.toString(index);
+  }
+
+  private static String userId(int index) {
+    return "user" + index;
+  }
+
+  private static List<ItemEntity> pickItems(MenuEntity menu, int count, Random random) {
+    List<ItemEntity> items = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      items.add(menu.getItems().get(random.nextInt(menu.getItems().size())));
+    }
+    return items;
+  }
+
+  private static double total(List<ItemEntity> items) {
+    return items.stream().mapToDouble(ItemEntity::getPrice).sum();
+  }
+
+  // The cuisine is shared by a restaurant and its menu, so it has a stream of its own.
+  private Cuisine cuisine(int index) {
+    double remaining =
+        random(CUISINES_OF_RESTAURANTS, index).nextDouble() * TOTAL_CUISINE_WEIGHT;
+    for (Cuisine cuisine : CUISINES) {
+      remaining -= cuisine.weight;
+      if (remaining < 0) {
+        return cuisine;
+      }
+    }
+    return CUISINES.get(CUISINES.size() - 1);
+  }
+
+  private int pickCity(Random random) {
+    double remaining = random.nextDouble() * totalCityWeight;
+    for (int city = 0; city < cities.size(); city++) {
+      remaining -= cities.get(city).weight;
+      if (remaining < 0) {
+        return city;
+      }
+    }
+    return cities.size() - 1;
+  }
+
+  private static double[] offset(City center, double distanceInKms, double bearing) {
+    double latitude = center.latitude + distanceInKms * Math.cos(bearing) / KMS_PER_DEGREE;
+    double longitude = center.longitude + distanceInKms * Math.sin(bearing) / KMS_PER_DEGREE
+        / Math.cos(Math.toRadians(center.latitude));
+    return new double[] {latitude, longitude};
+  }
+
+  // A generator of its own per document, seeded from the dataset seed, the kind of document
+  // and its index, mixed as in SplitMix64 so that neighbouring indexes are unrelated.
+  private Random random(long stream, long index) {
+    long mixed = seed * 0x9E3779B97F4A7C15L + stream * 0xC2B2AE3D27D4EB4FL + index;
+    mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+    mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+    return new Random(mixed ^ (mixed >>> 31));
+  }
+
+  private static final class Cuisine {
+
+    private final double weight;
+    private final String[] attributes;
+    private final String[] names;
+    private final String[][] hours;
+    private final String[] dishes;
+    private final int minPrice;
+    private final int maxPrice;
+
+    private Cuisine(double weight, String[] attributes, String[] names, String[][] hours,
+        String[] dishes, int minPrice, int maxPrice) {
+      this.weight = weight;
+      this.attributes = attributes;
+      this.names = names;
+      this.hours = hours;
+      this.dishes = dishes;
+      this.minPrice = minPrice;
+      this.maxPrice = maxPrice;
+    }
+  }
+}